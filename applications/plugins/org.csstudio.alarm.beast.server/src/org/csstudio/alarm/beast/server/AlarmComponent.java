@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.server;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.csstudio.alarm.beast.SeverityLevel;
+import org.csstudio.alarm.beast.TreeItem;
+
+/** Component (area, system, ...) in the alarm server's tree
+ *  that summarizes the alarm severity of the PVs below it.
+ *  <p>
+ *  PVs update the summary of all their ancestors when their
+ *  alarm severity changes.
+ *  The summary only uses atomic counters, so PVs that are handled
+ *  by different threads can update it without locking the tree.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class AlarmComponent extends TreeItem
+{
+    final private static SeverityLevel[] levels = SeverityLevel.values();
+
+    /** Number of PVs in this subtree, indexed by ordinal of their alarm severity */
+    final private AtomicIntegerArray severity_counts = new AtomicIntegerArray(levels.length);
+
+    /** Initialize
+     *  @param parent Parent item or <code>null</code> for root
+     *  @param name Name of this item
+     *  @param id RDB ID
+     */
+    public AlarmComponent(final TreeItem parent, final String name, final int id)
+    {
+        super(parent, name, id);
+    }
+
+    /** Update summary for a PV in the subtree
+     *  @param old_severity Previous alarm severity of the PV, <code>null</code> for new PV
+     *  @param new_severity New alarm severity of the PV
+     */
+    void updateSeverity(final SeverityLevel old_severity, final SeverityLevel new_severity)
+    {
+        if (old_severity != null)
+            severity_counts.decrementAndGet(old_severity.ordinal());
+        severity_counts.incrementAndGet(new_severity.ordinal());
+    }
+
+    /** @return Highest alarm severity of PVs in the subtree */
+    public SeverityLevel getSeverity()
+    {
+        for (int i=levels.length-1; i>0; --i)
+            if (severity_counts.get(i) > 0)
+                return levels[i];
+        return SeverityLevel.OK;
+    }
+
+    /** @return Number of PVs in the subtree that are not OK */
+    public int getAlarmCount()
+    {
+        int count = 0;
+        for (int i=levels.length-1; i>0; --i)
+            count += severity_counts.get(i);
+        return count;
+    }
+
+    /** @return String representation for debugging (server 'dump') */
+    @Override
+    public String toString()
+    {
+        return super.toString() + " - " + getSeverity() + " (" + getAlarmCount() + " alarms)";
+    }
+}
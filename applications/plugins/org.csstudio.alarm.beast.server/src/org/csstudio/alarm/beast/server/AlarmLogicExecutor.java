@@ -0,0 +1,331 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import org.csstudio.alarm.beast.TreeItem;
+
+/** Executes the alarm logic of PVs on several threads ('shards').
+ *  <p>
+ *  Each PV is assigned to one shard, and all updates for a PV
+ *  are handled by that shard's thread in the order in which they
+ *  were submitted.
+ *  PVs are assigned to shards by subtree of the alarm configuration,
+ *  so that PVs of the same area or system tend to share a shard.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class AlarmLogicExecutor
+{
+    /** Task submitted to a shard, stamped with time of submission */
+    private static class Task
+    {
+        final Runnable runnable;
+        final long submitted;
+
+        Task(final Runnable runnable)
+        {
+            this.runnable = runnable;
+            submitted = System.nanoTime();
+        }
+    }
+
+    /** Task that stops a shard */
+    final private static Task STOP = new Task(null);
+
+    /** One thread with its queue */
+    private static class Shard extends Thread
+    {
+        final private BlockingQueue<Task> queue = new LinkedBlockingQueue<Task>();
+
+        /** Number of PVs assigned to this shard */
+        private volatile int pv_count = 0;
+
+        /** Total number of executed tasks */
+        final private AtomicLong executed = new AtomicLong();
+
+        /** Number of executed tasks, total and maximum latency since last reset [ns] */
+        final private AtomicLong count = new AtomicLong(), total_latency = new AtomicLong(),
+                                 max_latency = new AtomicLong();
+
+        Shard(final int index)
+        {
+            super("AlarmLogic" + index);
+            setDaemon(true);
+        }
+
+        void submit(final Task task)
+        {
+            queue.add(task);
+        }
+
+        @Override
+        public void run()
+        {
+            while (true)
+            {
+                final Task task;
+                try
+                {
+                    task = queue.take();
+                }
+                catch (InterruptedException ex)
+                {
+                    return;
+                }
+                if (task == STOP)
+                    return;
+                final long latency = System.nanoTime() - task.submitted;
+                try
+                {
+                    task.runnable.run();
+                }
+                catch (Throwable ex)
+                {
+                    Activator.getLogger().log(Level.SEVERE, getName() + " error", ex);
+                }
+                executed.incrementAndGet();
+                count.incrementAndGet();
+                total_latency.addAndGet(latency);
+                long max = max_latency.get();
+                while (latency > max  &&  !max_latency.compareAndSet(max, latency))
+                    max = max_latency.get();
+            }
+        }
+
+        /** @param reset Reset the latency information?
+         *  @return Statistics of this shard
+         */
+        String getStatistics(final boolean reset)
+        {
+            final long n, total, max;
+            if (reset)
+            {
+                n = count.getAndSet(0);
+                total = total_latency.getAndSet(0);
+                max = max_latency.getAndSet(0);
+            }
+            else
+            {
+                n = count.get();
+                total = total_latency.get();
+                max = max_latency.get();
+            }
+            final double avg = n > 0 ? total / 1e6 / n : 0.0;
+            return String.format("%s: %d PVs, queue %d, %d updates, latency avg %.3f ms, max %.3f ms",
+                    getName(), pv_count, queue.size(), executed.get(), avg, max / 1e6);
+        }
+    }
+
+    /** Group of tree items, all handled by the same shard */
+    private static class Unit
+    {
+        final List<TreeItem> items = new ArrayList<TreeItem>();
+        int pv_count = 0;
+
+        void add(final TreeItem item, final int count)
+        {
+            items.add(item);
+            pv_count += count;
+        }
+    }
+
+    /** Number of subtrees per shard to aim for when balancing the shards */
+    final private static int UNITS_PER_SHARD = 4;
+
+    final private Shard[] shards;
+
+    /** Initialize
+     *  @param threads Number of threads
+     */
+    public AlarmLogicExecutor(final int threads)
+    {
+        shards = new Shard[Math.max(1, threads)];
+        for (int i=0; i<shards.length; ++i)
+        {
+            shards[i] = new Shard(i);
+            shards[i].start();
+        }
+    }
+
+    /** @return Number of shards */
+    public int getShardCount()
+    {
+        return shards.length;
+    }
+
+    /** @param shard Shard index
+     *  @return Number of PVs assigned to the shard
+     */
+    int getPVCount(final int shard)
+    {
+        return shards[shard].pv_count;
+    }
+
+    /** @param shard Shard index
+     *  @return Number of updates that the shard executed
+     */
+    long getExecutedCount(final int shard)
+    {
+        return shards[shard].executed.get();
+    }
+
+    /** Assign the PVs in a configuration tree to shards
+     *
+     *  <p>Starts with the subtrees below the root.
+     *  While there are too few subtrees to balance the shards,
+     *  the largest subtree is split into its sub-subtrees.
+     *  The subtrees are then assigned to the least loaded shard,
+     *  largest subtree first.
+     *
+     *  @param root Root of the alarm configuration tree
+     */
+    public void assign(final TreeItem root)
+    {
+        final List<Unit> units = new ArrayList<Unit>();
+        split(root, units);
+        final int desired = shards.length * UNITS_PER_SHARD;
+        while (units.size() < desired)
+        {   // Locate largest unit that can be split
+            Unit largest = null;
+            for (Unit unit : units)
+                if (unit.pv_count > 1  &&  (largest == null  ||  unit.pv_count > largest.pv_count))
+                    largest = unit;
+            if (largest == null)
+                break;
+            units.remove(largest);
+            if (largest.items.size() == 1)
+                split(largest.items.get(0), units);
+            else
+            {   // Group of PVs: Split in half
+                final int half = largest.items.size() / 2;
+                final Unit first = new Unit(), second = new Unit();
+                for (int i=0; i<largest.items.size(); ++i)
+                    (i < half ? first : second).add(largest.items.get(i), 1);
+                units.add(first);
+                units.add(second);
+            }
+        }
+
+        // Largest subtree first, each to the least loaded shard
+        Collections.sort(units, new Comparator<Unit>()
+        {
+            @Override
+            public int compare(final Unit a, final Unit b)
+            {
+                return b.pv_count - a.pv_count;
+            }
+        });
+        final int[] load = new int[shards.length];
+        for (Unit unit : units)
+        {
+            int shard = 0;
+            for (int i=1; i<load.length; ++i)
+                if (load[i] < load[shard])
+                    shard = i;
+            load[shard] += unit.pv_count;
+            for (TreeItem item : unit.items)
+                setShard(item, shard);
+        }
+        for (int i=0; i<shards.length; ++i)
+            shards[i].pv_count = load[i];
+    }
+
+    /** Split a component into units
+     *  @param component Component to split
+     *  @param units Units to which each sub-component is added,
+     *               plus one unit for all PVs directly below the component
+     */
+    private void split(final TreeItem component, final List<Unit> units)
+    {
+        final Unit pvs = new Unit();
+        for (int i=0; i<component.getChildCount(); ++i)
+        {
+            final TreeItem child = component.getChild(i);
+            if (child instanceof AlarmPV)
+                pvs.add(child, 1);
+            else
+            {
+                final int count = countPVs(child);
+                if (count > 0)
+                {
+                    final Unit unit = new Unit();
+                    unit.add(child, count);
+                    units.add(unit);
+                }
+            }
+        }
+        if (pvs.pv_count > 0)
+            units.add(pvs);
+    }
+
+    /** @param item Tree item
+     *  @return Number of PVs in subtree
+     */
+    private static int countPVs(final TreeItem item)
+    {
+        if (item instanceof AlarmPV)
+            return 1;
+        int count = 0;
+        for (int i=0; i<item.getChildCount(); ++i)
+            count += countPVs(item.getChild(i));
+        return count;
+    }
+
+    /** @param item Tree item
+     *  @param shard Shard to use for all PVs in subtree
+     */
+    private static void setShard(final TreeItem item, final int shard)
+    {
+        if (item instanceof AlarmPV)
+            ((AlarmPV) item).setShard(shard);
+        else
+            for (int i=0; i<item.getChildCount(); ++i)
+                setShard(item.getChild(i), shard);
+    }
+
+    /** Execute alarm logic for a PV
+     *  @param pv PV
+     *  @param runnable Code to execute on the PV's shard, after previously submitted code for that PV
+     */
+    public void execute(final AlarmPV pv, final Runnable runnable)
+    {
+        shards[pv.getShard() % shards.length].submit(new Task(runnable));
+    }
+
+    /** @param reset Reset the latency information?
+     *  @return Statistics of all shards, one line per shard
+     */
+    public String getStatistics(final boolean reset)
+    {
+        final StringBuilder buf = new StringBuilder();
+        for (Shard shard : shards)
+        {
+            if (buf.length() > 0)
+                buf.append("\n");
+            buf.append(shard.getStatistics(reset));
+        }
+        return buf.toString();
+    }
+
+    /** Stop all threads after they handled already submitted updates */
+    public void stop()
+    {
+        for (Shard shard : shards)
+            shard.submit(STOP);
+    }
+}
@@ -11,6 +11,9 @@ import static org.epics.pvmanager.vtype.ExpressionLanguage.vType;
 import static org.epics.util.time.TimeDuration.ofSeconds;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 
 import org.csstudio.alarm.beast.AnnunciationFormatter;
@@ -35,6 +38,15 @@ public class AlarmPV extends TreeItem implements AlarmLogicListener, FilterListe
     /** Alarm server that handles this PV */
     final private AlarmServer server;
 
+    /** Components above this PV that summarize its alarm severity */
+    final private AlarmComponent[] ancestors;
+
+    /** Alarm severity of this PV as last added to the ancestors' summary */
+    final private AtomicReference<SeverityLevel> summary_severity;
+
+    /** Shard of the {@link AlarmLogicExecutor} that handles this PV */
+    private volatile int shard = 0;
+
     /** Description of alarm, will be used to annunciation */
     private volatile String description;
 
@@ -86,6 +98,15 @@ public class AlarmPV extends TreeItem implements AlarmLogicListener, FilterListe
     {
     	super(parent, name, id);
 
+    	final List<AlarmComponent> components = new ArrayList<AlarmComponent>();
+    	for (TreeItem item = parent; item != null; item = item.getParent())
+    	    if (item instanceof AlarmComponent)
+    	        components.add((AlarmComponent) item);
+    	ancestors = components.toArray(new AlarmComponent[components.size()]);
+    	summary_severity = new AtomicReference<SeverityLevel>(severity);
+    	for (AlarmComponent component : ancestors)
+    	    component.updateSeverity(null, severity);
+
     	logic = new AlarmLogic(this, latching, annunciating, min_alarm_delay, count,
               new AlarmState(current_severity, current_message, "", timestamp),
               new AlarmState(severity, message, value, timestamp), global_delay);
@@ -94,6 +115,29 @@ public class AlarmPV extends TreeItem implements AlarmLogicListener, FilterListe
         setEnablement(enabled, filter);
     }
 
+    /** @return Shard of the {@link AlarmLogicExecutor} that handles this PV */
+    int getShard()
+    {
+        return shard;
+    }
+
+    /** @param shard Shard of the {@link AlarmLogicExecutor} that handles this PV */
+    void setShard(final int shard)
+    {
+        this.shard = shard;
+    }
+
+    /** Execute code for the alarm logic on the PV's shard
+     *  @param runnable Code to execute
+     */
+    private void execute(final Runnable runnable)
+    {
+        if (server == null)
+            runnable.run();
+        else
+            server.getLogicExecutor().execute(this, runnable);
+    }
+
     /** @return AlarmLogic used by this PV */
     AlarmLogic getAlarmLogic()
     {
@@ -153,7 +197,7 @@ public class AlarmPV extends TreeItem implements AlarmLogicListener, FilterListe
                     else
                         received = new AlarmState(SeverityLevel.UNDEFINED,
                             Messages.AlarmMessageDisconnected, error.getMessage(), Timestamp.now());
-                    logic.computeNewState(received);
+                    handleState(received);
                 }
                 else
                 {
@@ -164,7 +208,7 @@ public class AlarmPV extends TreeItem implements AlarmLogicListener, FilterListe
                     final AlarmState received = new AlarmState(new_severity, new_message,
                             VTypeHelper.toString(value),
                             VTypeHelper.getTimestamp(value));
-                    logic.computeNewState(received);
+                    handleState(received);
                 }
             }
         };
@@ -173,6 +217,21 @@ public class AlarmPV extends TreeItem implements AlarmLogicListener, FilterListe
             filter.start();
     }
 
+    /** Compute new alarm state on the PV's shard
+     *  @param received Received alarm state
+     */
+    private void handleState(final AlarmState received)
+    {
+        execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                logic.computeNewState(received);
+            }
+        });
+    }
+
     /** Disconnect from control system */
     public void stop()
     {
@@ -194,7 +253,14 @@ public class AlarmPV extends TreeItem implements AlarmLogicListener, FilterListe
     	final boolean new_enable_state = value > 0.0;
     	Activator.getLogger().log(Level.FINE, "{0} filter changed to {1}",
     	        new Object[] { getName(), new_enable_state });
-        logic.setEnabled(new_enable_state);
+        execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                logic.setEnabled(new_enable_state);
+            }
+        });
 	}
 
 	/** AlarmLogicListener: {@inheritDoc} */
@@ -210,6 +276,13 @@ public class AlarmPV extends TreeItem implements AlarmLogicListener, FilterListe
     {
         Activator.getLogger().log(Level.FINE, "{0} changes to {1}",
                 new Object[] { getName(), super.toString() });
+        // Update summary of ancestors. May be called by several threads
+        // (PV's shard, delay timer), so atomically swap the severity
+        final SeverityLevel severity = alarm.getSeverity();
+        final SeverityLevel previous = summary_severity.getAndSet(severity);
+        if (previous != severity)
+            for (AlarmComponent component : ancestors)
+                component.updateSeverity(previous, severity);
         if (server != null)
             server.sendStateUpdate(this,
                     current.getSeverity(), current.getMessage(),
@@ -9,21 +9,32 @@ package org.csstudio.alarm.beast.server;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.io.File;
 import java.sql.ResultSet;
+import java.sql.Statement;
 import java.sql.Timestamp;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.logging.Level;
 
+import org.csstudio.alarm.beast.Preferences;
 import org.csstudio.alarm.beast.SQL;
 import org.csstudio.alarm.beast.SeverityLevel;
 import org.csstudio.alarm.beast.TimestampHelper;
 import org.csstudio.alarm.beast.TreeItem;
+import org.csstudio.alarm.beast.client.AlarmConfigurationReader;
+import org.csstudio.alarm.beast.client.AlarmConfigurationSnapshot;
+import org.csstudio.alarm.beast.client.AlarmConfigurationSnapshot.Item;
 import org.csstudio.alarm.beast.server.AlarmServer.Update;
 import org.csstudio.platform.utility.rdb.RDBUtil;
 
 /** Alarm RDB Handler
+ *  <p>
+ *  Methods that use the RDB connection are synchronized
+ *  because the {@link AlarmStateWriter} persists alarm states
+ *  on its own thread.
+ *
  *  @author Kay Kasemir
  *  @author Lana Abadie - Disable autocommit as needed.
  *  @author Jaka Bobnar - RDB batching
@@ -45,6 +56,9 @@ public class AlarmRDB
 
     final private String root_name;
 
+    /** Local snapshot of the configuration or <code>null</code> */
+    final private File snapshot_file;
+
     /** Map of severities and severity IDs in RDB */
     final private SeverityMapping severity_mapping;
 
@@ -66,6 +80,10 @@ public class AlarmRDB
         sql = new SQL(rdb, schema);
         connection = rdb.getConnection();
         this.root_name = root_name;
+        final String snapshot_directory = Preferences.getConfigSnapshotDirectory();
+        snapshot_file = snapshot_directory == null
+            ? null
+            : AlarmConfigurationSnapshot.getFile(snapshot_directory, url, schema);
         // Disable auto-reconnect: Slightly faster, and we just connected OK.
         rdb.setAutoReconnect(false);
         try
@@ -83,7 +101,7 @@ public class AlarmRDB
      *  @return Root element of the alarm tree hierarchy
      *  @throws Exception on error
      */
-    public TreeItem readConfiguration() throws Exception
+    public synchronized TreeItem readConfiguration() throws Exception
     {
         final Connection conn = rdb.getConnection();
         // Disabling the auto-reconnect is about 15% faster, and we don't
@@ -103,24 +121,19 @@ public class AlarmRDB
                 throw new Exception("Unknown alarm tree root " + root_name);
             final int id = result.getInt(1);
             result.close();
-            root = new TreeItem(null, root_name, id);
+            root = new AlarmComponent(null, root_name, id);
         }
         finally
         {
             statement.close();
         }
 
-        // Fetch children
-        final PreparedStatement sel_items_by_parent =
-            conn.prepareStatement(sql.sel_items_by_parent);
-        try
-        {
-            readChildren(root, sel_items_by_parent);
-        }
-        finally
-        {
-            sel_items_by_parent.close();
-        }
+        // Read complete configuration in bulk, then assemble tree.
+        // Alarm state is not part of the snapshot, read it separately
+        final AlarmConfigurationSnapshot snapshot =
+            new AlarmConfigurationReader(rdb, sql).readSnapshot(snapshot_file);
+        final Map<Integer, PVState> states = readAlarmStates();
+        addChildren(root, snapshot, states);
 
         // In transactional mode (Connection.setAutoCommit(false)),
         // even SELECTs needed a commit() to end the transaction.
@@ -142,115 +155,128 @@ public class AlarmRDB
         return root;
     }
 
-    /** Read alarm tree hierarchy
-     *  @param parent Parent entry
-     *  @param sel_items_by_parent Prepared statement for fetching child elements
+    /** Enablement and alarm state of a PV as read from the RDB */
+    private static class PVState
+    {
+        boolean enabled;
+        SeverityLevel current_severity, severity;
+        String current_status, status;
+        String value;
+        org.epics.util.time.Timestamp timestamp;
+    }
+
+    /** Read enablement and alarm state of all PVs
+     *  @return Map of PV IDs to their state
      *  @throws Exception on error
      */
-    private void readChildren(final TreeItem parent, final PreparedStatement sel_items_by_parent) throws Exception
+    private Map<Integer, PVState> readAlarmStates() throws Exception
     {
-        final List<TreeItem> recurse_items = new ArrayList<TreeItem>();
-
-        sel_items_by_parent.setInt(1, parent.getID());
-        final ResultSet result = sel_items_by_parent.executeQuery();
+        final Map<Integer, PVState> states = new HashMap<Integer, PVState>();
+        final Statement statement = rdb.getConnection().createStatement();
         try
         {
+            final ResultSet result = statement.executeQuery(sql.sel_all_pv_states);
             while (result.next())
             {
+                final PVState state = new PVState();
                 final int id = result.getInt(1);
+                // Default to enabled
+                state.enabled = result.getBoolean(2);
                 if (result.wasNull())
-                    throw new Exception("NULL component ID");
-                final String name = result.getString(17);
-                if (result.wasNull())
-                    throw new Exception("NULL component Name");
-                // Ignoring config. time from result.getTimestamp(2)
-
-                // Check PV's ID. If null, this is a component, not PV
-                final int pv_id = result.getInt(3);
-                if (result.wasNull())
-                {
-                    final TreeItem child = new TreeItem(parent, name, id);
-                    recurse_items.add(child);
-                }
-                else
-                {   // Handle PV
-                    if (id != pv_id)
-                        throw new Exception("Internal RDB error: Item '" + name + "' as ID " + id + " but also PV ID " + pv_id);
-                    // Easy results
-                    String description = result.getString(4);
-                    // Description should not be empty
-                    if (result.wasNull() || description == null || description.length() <= 0)
-                        description = name;
-                    // Default to most features turned 'on'
-                    boolean enabled = result.getBoolean(5);
-                    if (result.wasNull())
-                        enabled = true;
-                    boolean annunciate = result.getBoolean(6);
-                    if (result.wasNull())
-                        annunciate = true;
-                    boolean latch = result.getBoolean(7);
-                    if (result.wasNull())
-                        latch = true;
-                    // 0/null/empty disables these features
-                    final int min_alarm_delay = result.getInt(8);
-                    final int count = result.getInt(9);
-                    final String filter = result.getString(10);
-
-                    // Decode current severity/status IDs, handling NULL as "Ok"
-                    int severity_id = result.getInt(11);
-                    final SeverityLevel current_severity = result.wasNull()
-                        ? SeverityLevel.OK
-                        : severity_mapping.getSeverityLevel(severity_id);
-
-                    int status_id = result.getInt(12);
-                    final String current_status = result.wasNull()
-                        ? ""
-                        : message_mapping.findMessageById(status_id);
-
-                    // Alarm severity/status
-                    severity_id = result.getInt(13);
-                    final SeverityLevel severity = result.wasNull()
-                        ? SeverityLevel.OK
-                        : severity_mapping.getSeverityLevel(severity_id);
-
-                    status_id = result.getInt(14);
-                    final String status = result.wasNull()
-                        ? ""
-                        : message_mapping.findMessageById(status_id);
-
-                    // Alarm value, time
-                    final String value = result.getString(15);
-
-                    final Timestamp time = result.getTimestamp(16);
-                    final org.epics.util.time.Timestamp timestamp = result.wasNull()
-                        ? org.epics.util.time.Timestamp.now()
-                        : TimestampHelper.toEPICSTime(time);
-
-                    final int global_delay = AlarmServerPreferences.getGlobalAlarmDelay();
-
-                    new AlarmPV(server, parent, id, name, description,
-                            enabled, latch, annunciate, min_alarm_delay, count, global_delay, filter,
-                            current_severity, current_status, severity, status, value, timestamp);
-                }
+                    state.enabled = true;
+
+                // Decode current severity/status IDs, handling NULL as "Ok"
+                int severity_id = result.getInt(3);
+                state.current_severity = result.wasNull()
+                    ? SeverityLevel.OK
+                    : severity_mapping.getSeverityLevel(severity_id);
+
+                int status_id = result.getInt(4);
+                state.current_status = result.wasNull()
+                    ? ""
+                    : message_mapping.findMessageById(status_id);
+
+                // Alarm severity/status
+                severity_id = result.getInt(5);
+                state.severity = result.wasNull()
+                    ? SeverityLevel.OK
+                    : severity_mapping.getSeverityLevel(severity_id);
+
+                status_id = result.getInt(6);
+                state.status = result.wasNull()
+                    ? ""
+                    : message_mapping.findMessageById(status_id);
+
+                // Alarm value, time
+                state.value = result.getString(7);
+
+                final Timestamp time = result.getTimestamp(8);
+                state.timestamp = result.wasNull()
+                    ? org.epics.util.time.Timestamp.now()
+                    : TimestampHelper.toEPICSTime(time);
+                states.put(id, state);
             }
+            result.close();
         }
         finally
         {
-            result.close();
+            statement.close();
         }
+        return states;
+    }
 
-        // Recurse to children
-        // Cannot do that inside the above while() because that would reuse
-        // the statement of the current ResultSet
-        for (TreeItem child : recurse_items)
-            readChildren(child, sel_items_by_parent);
+    /** Add alarm tree hierarchy from configuration snapshot
+     *  @param parent Parent entry
+     *  @param snapshot Configuration snapshot
+     *  @param states Alarm states of PVs
+     *  @throws Exception on error
+     */
+    private void addChildren(final TreeItem parent,
+            final AlarmConfigurationSnapshot snapshot,
+            final Map<Integer, PVState> states) throws Exception
+    {
+        final int global_delay = AlarmServerPreferences.getGlobalAlarmDelay();
+        for (Item child : snapshot.getChildren(parent.getID()))
+        {
+            final int id = child.getID();
+            final String name = child.getName();
+            if (name == null)
+                throw new Exception("NULL component Name");
+            if (! child.isPV())
+            {
+                addChildren(new AlarmComponent(parent, name, id), snapshot, states);
+                continue;
+            }
+            // Handle PV
+            String description = child.getDescription();
+            // Description should not be empty
+            if (description == null || description.length() <= 0)
+                description = name;
+            // Default to most features turned 'on'
+            final boolean annunciate = ! Boolean.FALSE.equals(child.isAnnunciating());
+            final boolean latch = ! Boolean.FALSE.equals(child.isLatching());
+            PVState state = states.get(id);
+            if (state == null)
+            {   // PV was added after reading the states
+                state = new PVState();
+                state.enabled = true;
+                state.current_severity = state.severity = SeverityLevel.OK;
+                state.current_status = state.status = "";
+                state.timestamp = org.epics.util.time.Timestamp.now();
+            }
+            new AlarmPV(server, parent, id, name, description,
+                    state.enabled, latch, annunciate, child.getDelay(), child.getCount(),
+                    global_delay, child.getFilter(),
+                    state.current_severity, state.current_status,
+                    state.severity, state.status, state.value, state.timestamp);
+        }
     }
 
     /** Read configuration for PV, update it from RDB
      *  @param pv AlarmPV to update
      *  @throws Exception on error
      */
-    public void readConfigurationUpdate(final AlarmPV pv) throws Exception
+    public synchronized void readConfigurationUpdate(final AlarmPV pv) throws Exception
     {
         final PreparedStatement statement =
             rdb.getConnection().prepareStatement(sql.sel_pv_by_id);
@@ -366,7 +392,7 @@ public class AlarmRDB
      * 
      *  @throws Exception
      */
-    public void persistAllStates(final Update[] updates, final int batchSize) throws Exception
+    public synchronized void persistAllStates(final Update[] updates, final int batchSize) throws Exception
     {    
         final Connection actual_connection = rdb.getConnection();
         actual_connection.setAutoCommit(false);
@@ -430,7 +456,7 @@ public class AlarmRDB
      * 
      *  @throws Exception
      */
-    public void persistGlobalUpdates(final Update[] updates, final int batchSize) throws Exception
+    public synchronized void persistGlobalUpdates(final Update[] updates, final int batchSize) throws Exception
     {
         final Connection actual_connection = rdb.getConnection();
         actual_connection.setAutoCommit(false);
@@ -493,7 +519,7 @@ public class AlarmRDB
      *  @param enabled Enabled or not?
      *  @throws Exception on error
      */
-    public void writeEnablementUpdate(final AlarmPV pv, final boolean enabled) throws Exception
+    public synchronized void writeEnablementUpdate(final AlarmPV pv, final boolean enabled) throws Exception
     {
         final Connection actual_connection = rdb.getConnection();
 
@@ -534,7 +560,7 @@ public class AlarmRDB
     }
 
     /** Must be called to release resources */
-    public void close()
+    public synchronized void close()
     {
         // Does not specifically close all prepared statements,
         // leaves that to overall rdb.close()
@@ -34,8 +34,9 @@ import org.epics.util.time.Timestamp;
  *  Obtains configuration for all PVs from storage, then updates the PVs'
  *  status/severity from the control system.
  *  <p>
- *  Ignores the hierarchy which (some) of the clients may use to
- *  display the alarm state of PVs.
+ *  The alarm logic of the PVs is evaluated on several threads,
+ *  with PVs assigned to threads by subtree of the hierarchy.
+ *  Components of the hierarchy summarize the severity of their PVs.
  *
  *  @author Kay Kasemir, Xihui Chen
  *  @author Jaka Bobnar - RDB batching
@@ -43,9 +44,10 @@ import org.epics.util.time.Timestamp;
 @SuppressWarnings("nls")
 public class AlarmServer implements Runnable 
 {
-	/** BatchUpdater takes care of periodic updates of alarm states into the RDB and
+	/** BatchUpdater takes care of periodic updates of alarm states
 	 *  to the JMS. This allows for the updates to queue up to sizable number.
-	 *  Then they are sent in batches, which allows for better performance. 
+	 *  Then they are sent in batches, which allows for better performance.
+	 *  The RDB is updated by the {@link AlarmStateWriter}.
 	 */
 	private class BatchUpdater extends Thread
 	{
@@ -115,16 +117,13 @@ public class AlarmServer implements Runnable
 	/** A list holding all the global updates, which have not yet been send to the JMS queue */
 	private List<Update> queuedGlobalUpdates = new ArrayList<Update>();
 	
-    /** Updates to be persisted in the RDB, mapping the 'latest' by PV.
-     *  While queuedUpdates contains all recent updates, the map only
+    /** Write-behind of updates to the RDB.
+     *  While queuedUpdates contains all recent updates, the writer only
      *  retains the most recent update for each PV
      *  because we only need to store the latest updates of the same PV.
      */
-    private Map<String,Update> queuedRDBUpdates = new HashMap<String,Update>();
-    
-    /** Global updates to be persisted in the RDB, mapping the 'latest' by PV */
-    private Map<String,Update> queuedRDBGlobalUpdates = new HashMap<String,Update>();
-	
+    final private AlarmStateWriter state_writer;
+
     /** Name of alarm tree root element */
     final String root_name;
 
@@ -137,6 +136,9 @@ public class AlarmServer implements Runnable
     /** Messenger to communicate with clients */
     final private ServerCommunicator messenger;
 
+    /** Threads that evaluate the alarm logic of the PVs */
+    final private AlarmLogicExecutor logic_executor;
+
     /** {@link NagTimer} or <code>null</code> if not used */
     private volatile NagTimer nag_timer;
 
@@ -158,9 +160,26 @@ public class AlarmServer implements Runnable
     /** Indicator for communication errors */
     private volatile boolean had_RDB_error = false;
 
+    /** Runnable for the work queue that recovers from RDB errors */
+    final private Runnable rdb_recovery = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            try
+            {
+                recoverFromRDBErrors();
+            }
+            catch (Exception ex)
+            {
+                Activator.getLogger().log(Level.SEVERE, "Cannot recover from RDB errors", ex);
+            }
+        }
+    };
+
     /** Updater thread */
     private BatchUpdater batchExecutor;
-    /** The period of the updater thread - how frequently it executes message persisting */
+    /** The period of the updater thread - how frequently it sends queued messages */
     private final long updatePeriod;
     /** The maximum size of batches when persisting messages */
     private final int batchSize;
@@ -177,11 +196,47 @@ public class AlarmServer implements Runnable
         this.work_queue = work_queue;
         this.updatePeriod = (long)(Preferences.getBatchUpdatePeriod()*1000);
         this.batchSize = Preferences.getBatchSize();
+        logic_executor = new AlarmLogicExecutor(AlarmServerPreferences.getLogicThreads());
         rdb = new AlarmRDB(this, Preferences.getRDB_Url(),
         		Preferences.getRDB_User(),
         		Preferences.getRDB_Password(),
         		Preferences.getRDB_Schema(),
         		root_name);
+        state_writer = new AlarmStateWriter(new AlarmStateWriter.Store()
+        {
+            @Override
+            public void persistStates(final Update[] updates) throws Exception
+            {
+                try
+                {
+                    rdb.persistAllStates(updates, batchSize);
+                }
+                catch (Exception ex)
+                {
+                    had_RDB_error = true;
+                    throw ex;
+                }
+                if (had_RDB_error)
+                    work_queue.executeIfNotPending(rdb_recovery);
+            }
+
+            @Override
+            public void persistGlobalUpdates(final Update[] updates) throws Exception
+            {
+                try
+                {
+                    rdb.persistGlobalUpdates(updates, batchSize);
+                }
+                catch (Exception ex)
+                {
+                    had_RDB_error = true;
+                    throw ex;
+                }
+                if (had_RDB_error)
+                    work_queue.executeIfNotPending(rdb_recovery);
+            }
+        }, (long) (AlarmServerPreferences.getRDBFlushPeriod()*1000), batchSize,
+        (long) (AlarmServerPreferences.getRDBMaxRetryDelay()*1000));
         messenger = new ServerCommunicator(this, work_queue, root_name);
         readConfiguration();
     }
@@ -192,6 +247,26 @@ public class AlarmServer implements Runnable
         return root_name;
     }
 
+    /** @return Executor for the alarm logic of PVs */
+    AlarmLogicExecutor getLogicExecutor()
+    {
+        return logic_executor;
+    }
+
+    /** @param reset Reset the latency information?
+     *  @return Queue size and latency of alarm logic threads
+     */
+    public String getLogicStatistics(final boolean reset)
+    {
+        return logic_executor.getStatistics(reset);
+    }
+
+    /** @return Info about the backlog of RDB updates */
+    public String getRDBStatistics()
+    {
+        return state_writer.getStatistics();
+    }
+
     /** Set maintenance mode.
      *  @param maintenance_mode
      *  @see AlarmLogic#getMaintenanceMode()
@@ -213,8 +288,15 @@ public class AlarmServer implements Runnable
                 for (AlarmPV pv : pv_list)
                 {
                 	final AlarmLogic logic = pv.getAlarmLogic();
-                    if (logic.getAlarmState().getSeverity() == SeverityLevel.INVALID)
-                    	logic.acknowledge(true);
+                    logic_executor.execute(pv, new Runnable()
+                    {
+                        @Override
+                        public void run()
+                        {
+                            if (logic.getAlarmState().getSeverity() == SeverityLevel.INVALID)
+                                logic.acknowledge(true);
+                        }
+                    });
                 }
             }
         }
@@ -230,6 +312,8 @@ public class AlarmServer implements Runnable
         }
 
         out.println("Work queue size: " + work_queue.size());
+        out.println(logic_executor.getStatistics(false));
+        out.println(state_writer.getStatistics());
 
         // Log memory usage in MB
         final double free = Runtime.getRuntime().freeMemory() / (1024.0*1024.0);
@@ -270,6 +354,7 @@ public class AlarmServer implements Runnable
     public void close()
     {
         messenger.stop();
+        logic_executor.stop();
         rdb.close();
     }
 
@@ -328,6 +413,7 @@ public class AlarmServer implements Runnable
         	batchExecutor.terminate();
         batchExecutor = new BatchUpdater();
         batchExecutor.start();
+        state_writer.start();
     }
 
     /** Start PVs */
@@ -383,9 +469,9 @@ public class AlarmServer implements Runnable
         }
         catch (Exception e)
         {
-        	Activator.getLogger().log(Level.SEVERE, "Error commiting state update batches.",e);
-        	had_RDB_error = true;
-        } 
+        	Activator.getLogger().log(Level.SEVERE, "Error sending state updates.",e);
+        }
+        state_writer.stop();
     }
 
     /** Stop PVs */
@@ -433,6 +519,7 @@ public class AlarmServer implements Runnable
             for (AlarmPV pv : pv_list)
                 pv_map.put(pv.getName(), pv);
             pv_count = pv_list.length;
+            logic_executor.assign(alarm_tree);
         }
         timer.stop();
         // LDAP results: Read 12614 PVs in 2.69 seconds, 4689.0 PVs/sec
@@ -507,7 +594,14 @@ public class AlarmServer implements Runnable
         resetNagTimer();
         final AlarmPV pv = findPV(pv_name);
         if (pv != null)
-            pv.getAlarmLogic().acknowledge(acknowledge);
+            logic_executor.execute(pv, new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    pv.getAlarmLogic().acknowledge(acknowledge);
+                }
+            });
     }
 
     /** Locate alarm PV by name
@@ -538,13 +632,11 @@ public class AlarmServer implements Runnable
             final String message,
             final String value, final Timestamp timestamp)
     {
-    	synchronized(queuedRDBUpdates)
+    	final Update u = new Update(pv, current_severity,
+    			current_message, severity, message, value, timestamp);
+    	state_writer.addState(u);
+    	synchronized(queuedUpdates)
     	{
-    		final Update u = new Update(pv, current_severity,
-    				current_message, severity, message, value, timestamp);
-    		// We are only interested in the latest update of a particular PV
-    		// the rest don't need to be persisted
-    		queuedRDBUpdates.put(pv.getName(), u);
     		queuedUpdates.add(u);
     	}
     }
@@ -561,13 +653,11 @@ public class AlarmServer implements Runnable
             final String message,
             final String value, final Timestamp timestamp)
     {
-        synchronized (queuedRDBGlobalUpdates)
+        final Update u = new Update(pv, severity,
+    			message, severity, message, value, timestamp);
+        state_writer.addGlobalUpdate(u);
+        synchronized (queuedGlobalUpdates)
         {
-        	final Update u = new Update(pv, severity,
-    				message, severity, message, value, timestamp);
-    		// We are only interested in the latest update of a particular PV
-    		// the rest don't need to be persisted
-        	queuedRDBGlobalUpdates.put(pv.getName(), u);
         	queuedGlobalUpdates.add(u);
 		}
     }
@@ -630,64 +720,27 @@ public class AlarmServer implements Runnable
         messenger.sendReloadMessage();
     }
     
-    /** Send all queue updates to RDB as well as JMS */
+    /** Send all queued updates to JMS.
+     *  The RDB is updated by the state writer,
+     *  so JMS clients don't wait for the RDB.
+     */
     private void sendQueuedUpdates()
     {
     	// Create thread-save copy
-    	Update[] updates = null;
-		Update[] rdbUpdates = null;
-		synchronized (queuedRDBUpdates)
+    	final Update[] updates;
+		synchronized (queuedUpdates)
 		{
-			rdbUpdates = queuedRDBUpdates.values().toArray(new Update[queuedRDBUpdates.size()]);
-			queuedRDBUpdates.clear();
 			updates = queuedUpdates.toArray(new Update[queuedUpdates.size()]);
 			queuedUpdates.clear();
 		}
-		
-		if (rdbUpdates.length > 0)
-		{					
-			try
-			{
-	        	rdb.persistAllStates(rdbUpdates, batchSize);
-	        	recoverFromRDBErrors();
-	        }
-			catch (Exception e)
-			{
-	        	Activator.getLogger().log(Level.SEVERE, "Error commiting state update batches.", e);
-	        	had_RDB_error = true;
-	        }
-		}
-		
-		for (Update u : updates)
-		{
-			messenger.sendStateUpdate(u.pv, u.currentSeverity, u.currentMessage,
-    	        u.alarmSeverity, u.alarmMessage, u.value, u.timestamp);
-		}
-		
-		Update[] rdbGlobals = null;
-		Update[] globals = null;
-		synchronized(queuedRDBGlobalUpdates)
+		messenger.sendStateUpdates(updates);
+
+		final Update[] globals;
+		synchronized (queuedGlobalUpdates)
 		{
-			rdbGlobals = queuedRDBGlobalUpdates.values().toArray(new Update[queuedRDBGlobalUpdates.size()]);
-			queuedRDBGlobalUpdates.clear();
 			globals = queuedGlobalUpdates.toArray(new Update[queuedGlobalUpdates.size()]);
 			queuedGlobalUpdates.clear();
 		}
-		
-		if (rdbGlobals.length > 0)
-		{
-			try
-			{
-	        	rdb.persistGlobalUpdates(rdbGlobals,batchSize);
-	        	recoverFromRDBErrors();
-	        }
-			catch (Exception e)
-			{
-	        	Activator.getLogger().log(Level.SEVERE,"Error commiting global update batches.",e);
-	        	had_RDB_error = true;
-	        }
-		}
-		
 		for (Update u : globals)
 		{
 			messenger.sendGlobalUpdate(u.pv, u.alarmSeverity, u.alarmMessage, u.value, u.timestamp);
@@ -24,6 +24,9 @@ public class AlarmServerPreferences
 {
     final public static String GLOBAL_ALARM_DELAY = "global_alarm_delay";
     final public static String NAG_PERIOD = "nag_period";
+    final public static String LOGIC_THREADS = "logic_threads";
+    final public static String RDB_FLUSH_PERIOD = "rdb_flush_period";
+    final public static String RDB_MAX_RETRY_DELAY = "rdb_max_retry_delay";
 
     /** @return Period for repeated 'There are .. active alarms' annunciations [seconds]
      *  @throws Exception on error in period specification
@@ -45,4 +48,32 @@ public class AlarmServerPreferences
             return 0;
         return service.getInt(Activator.ID, GLOBAL_ALARM_DELAY, 0, null);
     }
+
+    /** @return Number of threads for the alarm logic, at least 1 */
+    public static int getLogicThreads()
+    {
+        int threads = 4;
+        final IPreferencesService service = Platform.getPreferencesService();
+        if (service != null)
+            threads = service.getInt(Activator.ID, LOGIC_THREADS, threads, null);
+        return Math.max(1, threads);
+    }
+
+    /** @return Period for writing queued alarm state updates to the RDB [seconds] */
+    public static double getRDBFlushPeriod()
+    {
+        final IPreferencesService service = Platform.getPreferencesService();
+        if (service == null)
+            return 1.0;
+        return service.getDouble(Activator.ID, RDB_FLUSH_PERIOD, 1.0, null);
+    }
+
+    /** @return Maximum delay between attempts to write to the RDB after errors [seconds] */
+    public static double getRDBMaxRetryDelay()
+    {
+        final IPreferencesService service = Platform.getPreferencesService();
+        if (service == null)
+            return 60.0;
+        return service.getDouble(Activator.ID, RDB_MAX_RETRY_DELAY, 60.0, null);
+    }
 }
@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.server;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+import org.csstudio.alarm.beast.server.AlarmServer.Update;
+
+/** Write-behind persistence of alarm state updates.
+ *  <p>
+ *  Updates are queued by PV, only the most recent update of each PV
+ *  is kept, so the backlog is bounded by the number of PVs.
+ *  A separate thread writes the queued updates every flush period,
+ *  or earlier when a full batch has accumulated.
+ *  <p>
+ *  When writing fails, the updates are returned to the queue
+ *  unless a newer update for the same PV arrived in the meantime,
+ *  and the next attempt is delayed, doubling the delay up to a maximum
+ *  while the errors persist.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class AlarmStateWriter
+{
+    /** Storage for the updates */
+    public interface Store
+    {
+        /** @param updates State updates to persist
+         *  @throws Exception on error
+         */
+        public void persistStates(Update[] updates) throws Exception;
+
+        /** @param updates Global updates to persist
+         *  @throws Exception on error
+         */
+        public void persistGlobalUpdates(Update[] updates) throws Exception;
+    }
+
+    final private Store store;
+
+    /** Flush period [millisec] */
+    final private long flush_period;
+
+    /** Number of queued updates that triggers a flush before the period expires */
+    final private int batch_size;
+
+    /** Maximum delay between attempts after errors [millisec] */
+    final private long max_retry_delay;
+
+    /** Latest state update by PV name, not yet written
+     *  <p><b>NOTE: Access to queues and counters must synchronize on 'this'</b>
+     */
+    private Map<String, Update> states = new HashMap<String, Update>();
+
+    /** Latest global update by PV name, not yet written */
+    private Map<String, Update> globals = new HashMap<String, Update>();
+
+    /** Time when the oldest queued update was added [nanosec] */
+    private long pending_since = 0;
+
+    /** Delay before the next attempt [millisec], 0 if the last write succeeded */
+    private long retry_delay = 0;
+
+    private long written = 0, flushes = 0, errors = 0, last_flush_millis = 0;
+
+    /** Lock that serializes flushes.
+     *  <p>
+     *  When stop() flushes while the thread is still writing,
+     *  an older update must not be written after a newer one.
+     */
+    final private Object flush_lock = new Object();
+
+    private volatile boolean run = true;
+
+    final private Thread thread;
+
+    /** Initialize
+     *  @param store Storage for updates
+     *  @param flush_period Period between writes [millisec]
+     *  @param batch_size Number of queued updates that triggers a write
+     *  @param max_retry_delay Maximum delay between attempts after errors [millisec]
+     */
+    public AlarmStateWriter(final Store store, final long flush_period,
+            final int batch_size, final long max_retry_delay)
+    {
+        this.store = store;
+        this.flush_period = Math.max(1, flush_period);
+        this.batch_size = Math.max(1, batch_size);
+        this.max_retry_delay = Math.max(this.flush_period, max_retry_delay);
+        thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                process();
+            }
+        }, "AlarmStateWriter");
+        thread.setDaemon(true);
+    }
+
+    /** Start the writer thread */
+    public void start()
+    {
+        thread.start();
+    }
+
+    /** Queue state update
+     *  @param update Update, replaces a queued update of the same PV
+     */
+    public synchronized void addState(final Update update)
+    {
+        add(states, update);
+    }
+
+    /** Queue global update
+     *  @param update Update, replaces a queued global update of the same PV
+     */
+    public synchronized void addGlobalUpdate(final Update update)
+    {
+        add(globals, update);
+    }
+
+    /** Add to queue, wake writer if there's a full batch
+     *  @param queue Queue of states or global updates
+     *  @param update Update to add
+     */
+    private void add(final Map<String, Update> queue, final Update update)
+    {
+        if (states.isEmpty()  &&  globals.isEmpty())
+            pending_since = System.nanoTime();
+        queue.put(update.pv.getName(), update);
+        if (retry_delay == 0  &&  queue.size() >= batch_size)
+            notifyAll();
+    }
+
+    /** @return Number of queued updates */
+    public synchronized int getBacklog()
+    {
+        return states.size() + globals.size();
+    }
+
+    /** Writer thread */
+    private void process()
+    {
+        try
+        {
+            while (run)
+            {
+                synchronized (this)
+                {
+                    // Wait for the retry delay, or for the flush period unless a full batch is ready
+                    if (retry_delay > 0)
+                        wait(retry_delay);
+                    else if (states.size() < batch_size  &&  globals.size() < batch_size)
+                        wait(flush_period);
+                }
+                flush();
+            }
+        }
+        catch (InterruptedException ex)
+        {
+            // Stopped
+        }
+        catch (Throwable ex)
+        {
+            Activator.getLogger().log(Level.SEVERE, "Alarm state writer error", ex);
+        }
+    }
+
+    /** Write queued updates
+     *  @return <code>true</code> if all was written,
+     *          <code>false</code> on error with the updates re-queued
+     */
+    boolean flush()
+    {
+        synchronized (flush_lock)
+        {
+            return doFlush();
+        }
+    }
+
+    /** Write queued updates, caller holds the flush_lock
+     *  @return <code>true</code> if all was written,
+     *          <code>false</code> on error with the updates re-queued
+     */
+    private boolean doFlush()
+    {
+        final Update[] state_updates, global_updates;
+        final long since;
+        synchronized (this)
+        {
+            if (states.isEmpty()  &&  globals.isEmpty())
+                return true;
+            state_updates = states.values().toArray(new Update[states.size()]);
+            global_updates = globals.values().toArray(new Update[globals.size()]);
+            states = new HashMap<String, Update>();
+            globals = new HashMap<String, Update>();
+            since = pending_since;
+            pending_since = 0;
+        }
+        final long start = System.currentTimeMillis();
+        boolean states_done = false;
+        try
+        {
+            if (state_updates.length > 0)
+                store.persistStates(state_updates);
+            states_done = true;
+            if (global_updates.length > 0)
+                store.persistGlobalUpdates(global_updates);
+        }
+        catch (Exception ex)
+        {
+            synchronized (this)
+            {
+                if (states_done)
+                    written += state_updates.length;
+                else
+                    requeue(states, state_updates);
+                requeue(globals, global_updates);
+                pending_since = since;
+                ++errors;
+                retry_delay = retry_delay == 0
+                    ? flush_period
+                    : Math.min(2 * retry_delay, max_retry_delay);
+            }
+            Activator.getLogger().log(Level.SEVERE,
+                "Error writing alarm state updates, " + getBacklog() +
+                " updates queued, retry in " + getRetryDelay() + " ms", ex);
+            return false;
+        }
+        synchronized (this)
+        {
+            written += state_updates.length + global_updates.length;
+            ++flushes;
+            last_flush_millis = System.currentTimeMillis() - start;
+            retry_delay = 0;
+        }
+        return true;
+    }
+
+    /** Return updates to queue unless they have since been replaced
+     *  @param queue Queue of states or global updates
+     *  @param updates Updates that could not be written
+     */
+    private void requeue(final Map<String, Update> queue, final Update[] updates)
+    {
+        for (Update update : updates)
+        {
+            final String name = update.pv.getName();
+            if (! queue.containsKey(name))
+                queue.put(name, update);
+        }
+    }
+
+    /** @return Delay before next attempt [millisec], 0 if there were no errors */
+    synchronized long getRetryDelay()
+    {
+        return retry_delay;
+    }
+
+    /** @return Info about backlog and throughput */
+    public synchronized String getStatistics()
+    {
+        final StringBuilder buf = new StringBuilder();
+        buf.append("RDB writer: ").append(states.size()).append(" state and ")
+           .append(globals.size()).append(" global updates queued");
+        if (pending_since != 0)
+            buf.append(String.format(", oldest %.1f s",
+                    (System.nanoTime() - pending_since) / 1e9));
+        buf.append("\n            ").append(written).append(" written in ")
+           .append(flushes).append(" flushes, last flush ").append(last_flush_millis)
+           .append(" ms, ").append(errors).append(" errors");
+        if (retry_delay > 0)
+            buf.append(", retry in ").append(retry_delay).append(" ms");
+        return buf.toString();
+    }
+
+    /** Stop the writer thread, attempt to write what's still queued
+     *  <p>
+     *  If the thread is still writing, the final write waits for it.
+     */
+    public void stop()
+    {
+        run = false;
+        thread.interrupt();
+        try
+        {
+            thread.join(5000);
+        }
+        catch (InterruptedException ex)
+        {
+            // Ignore
+        }
+        if (! flush())
+            Activator.getLogger().log(Level.WARNING,
+                "Alarm state writer stopped with " + getBacklog() + " updates not written");
+    }
+}
@@ -60,6 +60,8 @@ public class ConsoleCommands implements CommandProvider
         buf.append("\tdump                - Dump complete alarm tree\n");
         buf.append("\tpvs                 - List PVs\n");
         buf.append("\tpvs -d              - List disconnected PVs\n");
+        buf.append("\tlogic               - Show queue and latency of alarm logic threads\n");
+        buf.append("\trdb                 - Show backlog of RDB updates\n");
         buf.append("\tlsa '/path/to/item' - List alarm tree based on path\n");
         buf.append("\tpwd                 - Print working 'directory'\n");
         buf.append("\tcd '/path'          - Change working 'directory'\n");
@@ -111,6 +113,20 @@ public class ConsoleCommands implements CommandProvider
         return null;
     }
 
+    /** 'logic' command */
+    public Object _logic(final CommandInterpreter intp)
+    {
+        intp.println(server.getLogicStatistics(false));
+        return null;
+    }
+
+    /** 'rdb' command */
+    public Object _rdb(final CommandInterpreter intp)
+    {
+        intp.println(server.getRDBStatistics());
+        return null;
+    }
+
     /** 'pwd' command */
     public Object _pwd(final CommandInterpreter intp)
     {
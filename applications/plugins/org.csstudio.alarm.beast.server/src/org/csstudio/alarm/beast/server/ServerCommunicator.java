@@ -11,6 +11,7 @@ import java.net.InetAddress;
 import java.text.SimpleDateFormat;
 import java.util.logging.Level;
 
+import javax.jms.BytesMessage;
 import javax.jms.MapMessage;
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
@@ -18,6 +19,7 @@ import javax.jms.MessageListener;
 import javax.jms.MessageProducer;
 
 import org.csstudio.alarm.beast.JMSAlarmMessage;
+import org.csstudio.alarm.beast.JMSAlarmStateBatch;
 import org.csstudio.alarm.beast.JMSCommunicationWorkQueueThread;
 import org.csstudio.alarm.beast.Preferences;
 import org.csstudio.alarm.beast.SeverityLevel;
@@ -52,6 +54,12 @@ public class ServerCommunicator extends JMSCommunicationWorkQueueThread
     /** Timer for sending idle messages */
     final private TimeoutTimer idle_timer;
 
+    /** Send state updates as {@link JMSAlarmStateBatch}? */
+    final private boolean state_batch = Preferences.isJMS_StateBatch();
+
+    /** Maximum number of PVs in one {@link JMSAlarmStateBatch} message */
+    final private static int MAX_BATCH_SIZE = 5000;
+
     /** Host for messages */
     final private String host = InetAddress.getLocalHost().getHostName();
 
@@ -223,6 +231,9 @@ public class ServerCommunicator extends JMSCommunicationWorkQueueThread
                            AlarmLogic.getMaintenanceMode()
                            ? JMSAlarmMessage.TEXT_IDLE_MAINTENANCE
                            : JMSAlarmMessage.TEXT_IDLE);
+                    final String stats = server.getLogicStatistics(true);
+                    if (stats != null)
+                        map.setString(JMSAlarmMessage.LOGIC_STATS, stats);
                     server_producer.send(map);
                 }
                 catch (Exception ex)
@@ -304,6 +315,73 @@ public class ServerCommunicator extends JMSCommunicationWorkQueueThread
         idle_timer.reset();
     }
 
+    /** Notify clients of new alarm states.
+     *  <p>
+     *  Depending on preferences, this sends one message per update,
+     *  or batches that only contain the latest update of each PV.
+     *  @param updates Updates in the order in which they occurred
+     */
+    protected void sendStateUpdates(final AlarmServer.Update[] updates)
+    {
+        if (! state_batch)
+        {
+            for (AlarmServer.Update u : updates)
+                sendStateUpdate(u.pv, u.currentSeverity, u.currentMessage,
+                        u.alarmSeverity, u.alarmMessage, u.value, u.timestamp);
+            return;
+        }
+        if (updates.length <= 0)
+            return;
+        JMSAlarmStateBatch batch = new JMSAlarmStateBatch();
+        for (AlarmServer.Update u : updates)
+        {
+            batch.add(new JMSAlarmStateBatch.Entry(u.pv.getName(),
+                    u.currentSeverity, u.currentMessage,
+                    u.alarmSeverity, u.alarmMessage, u.value, u.timestamp));
+            if (batch.size() >= MAX_BATCH_SIZE)
+            {
+                sendStateBatch(batch);
+                batch = new JMSAlarmStateBatch();
+            }
+        }
+        if (batch.size() > 0)
+            sendStateBatch(batch);
+    }
+
+    /** Send batch of state updates
+     *  @param batch Batch
+     */
+    private void sendStateBatch(final JMSAlarmStateBatch batch)
+    {
+        execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    final BytesMessage message = createBytesMessage();
+                    message.setStringProperty(JMSLogMessage.TYPE, JMSAlarmMessage.TYPE_ALARM);
+                    message.setStringProperty(JMSAlarmMessage.CONFIG, server.getRootName());
+                    message.setStringProperty(JMSLogMessage.TEXT,
+                            AlarmLogic.getMaintenanceMode()
+                            ? JMSAlarmMessage.TEXT_STATE_BATCH_MAINTENANCE
+                            : JMSAlarmMessage.TEXT_STATE_BATCH);
+                    message.setStringProperty(JMSLogMessage.APPLICATION_ID, Application.APPLICATION_NAME);
+                    message.setStringProperty(JMSLogMessage.HOST, host);
+                    message.setStringProperty(JMSLogMessage.USER, user);
+                    message.writeBytes(batch.toByteArray());
+                    server_producer.send(message);
+                }
+                catch (Exception ex)
+                {
+                    Activator.getLogger().log(Level.WARNING, "Cannot send state update batch", ex);
+                }
+            }
+        });
+        idle_timer.reset();
+    }
+
     /** Notify 'global' clients of new alarm state.
      *  @param pv PV that changes alarm state
      *  @param alarm_severity Alarm severity
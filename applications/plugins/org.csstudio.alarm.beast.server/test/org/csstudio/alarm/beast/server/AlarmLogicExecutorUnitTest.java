@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.server;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.csstudio.alarm.beast.SeverityLevel;
+import org.csstudio.alarm.beast.TreeItem;
+import org.epics.util.time.Timestamp;
+import org.junit.Test;
+
+/** JUnit test of the {@link AlarmLogicExecutor} and {@link AlarmComponent}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class AlarmLogicExecutorUnitTest
+{
+    private int next_id = 1;
+
+    private AlarmPV createPV(final TreeItem parent, final String name,
+            final SeverityLevel severity) throws Exception
+    {
+        return new AlarmPV(null, parent, next_id++, name, name, true, true, false, 0, 0, 0, null,
+                severity, "", severity, "", "", Timestamp.now());
+    }
+
+    @Test
+    public void testSummary() throws Exception
+    {
+        final AlarmComponent root = new AlarmComponent(null, "Root", next_id++);
+        final AlarmComponent area = new AlarmComponent(root, "Area", next_id++);
+        final AlarmComponent other = new AlarmComponent(root, "Other", next_id++);
+        final AlarmPV pv1 = createPV(area, "pv1", SeverityLevel.OK);
+        final AlarmPV pv2 = createPV(area, "pv2", SeverityLevel.MAJOR);
+        createPV(other, "pv3", SeverityLevel.MINOR_ACK);
+        assertThat(root.getSeverity(), equalTo(SeverityLevel.MAJOR));
+        assertThat(root.getAlarmCount(), equalTo(2));
+        assertThat(area.getSeverity(), equalTo(SeverityLevel.MAJOR));
+        assertThat(other.getSeverity(), equalTo(SeverityLevel.MINOR_ACK));
+
+        final AlarmState ok = new AlarmState(SeverityLevel.OK, "", "", Timestamp.now());
+        pv2.alarmStateChanged(ok, new AlarmState(SeverityLevel.MAJOR_ACK, "", "", Timestamp.now()));
+        assertThat(area.getSeverity(), equalTo(SeverityLevel.MAJOR_ACK));
+        pv1.alarmStateChanged(ok, new AlarmState(SeverityLevel.INVALID, "", "", Timestamp.now()));
+        assertThat(root.getSeverity(), equalTo(SeverityLevel.INVALID));
+        assertThat(root.getAlarmCount(), equalTo(3));
+
+        pv1.alarmStateChanged(ok, ok);
+        pv2.alarmStateChanged(ok, ok);
+        assertThat(area.getSeverity(), equalTo(SeverityLevel.OK));
+        assertThat(area.getAlarmCount(), equalTo(0));
+        assertThat(root.getSeverity(), equalTo(SeverityLevel.MINOR_ACK));
+    }
+
+    @Test
+    public void testAssignment() throws Exception
+    {
+        // Root with 2 PVs, one area with 8 PVs, one with 2 systems of 3 PVs
+        final AlarmComponent root = new AlarmComponent(null, "Root", next_id++);
+        final List<AlarmPV> pvs = new ArrayList<AlarmPV>();
+        pvs.add(createPV(root, "top1", SeverityLevel.OK));
+        pvs.add(createPV(root, "top2", SeverityLevel.OK));
+        final AlarmComponent area1 = new AlarmComponent(root, "Area1", next_id++);
+        for (int i=0; i<8; ++i)
+            pvs.add(createPV(area1, "a" + i, SeverityLevel.OK));
+        final AlarmComponent area2 = new AlarmComponent(root, "Area2", next_id++);
+        for (int s=0; s<2; ++s)
+        {
+            final AlarmComponent system = new AlarmComponent(area2, "Sys" + s, next_id++);
+            for (int i=0; i<3; ++i)
+                pvs.add(createPV(system, "s" + s + i, SeverityLevel.OK));
+        }
+
+        final AlarmLogicExecutor executor = new AlarmLogicExecutor(2);
+        try
+        {
+            executor.assign(root);
+            final int[] load = new int[executor.getShardCount()];
+            for (AlarmPV pv : pvs)
+                ++load[pv.getShard()];
+            // Balanced, and the executor's count matches the PVs
+            assertThat(load[0], equalTo(8));
+            assertThat(load[1], equalTo(8));
+            for (int i=0; i<load.length; ++i)
+                assertThat(executor.getPVCount(i), equalTo(load[i]));
+        }
+        finally
+        {
+            executor.stop();
+        }
+    }
+
+    @Test
+    public void testOrder() throws Exception
+    {
+        final AlarmComponent root = new AlarmComponent(null, "Root", next_id++);
+        final AlarmPV[] pvs = new AlarmPV[10];
+        for (int i=0; i<pvs.length; ++i)
+            pvs[i] = createPV(root, "pv" + i, SeverityLevel.OK);
+        final AlarmLogicExecutor executor = new AlarmLogicExecutor(3);
+        try
+        {
+            executor.assign(root);
+
+            // 10 PVs on 3 shards: 3 or 4 PVs per shard
+            final int shard_count = executor.getShardCount();
+            final int[] load = new int[shard_count];
+            for (AlarmPV pv : pvs)
+                ++load[pv.getShard()];
+            for (int s=0; s<shard_count; ++s)
+            {
+                assertTrue(load[s] >= 3  &&  load[s] <= 4);
+                assertThat(executor.getPVCount(s), equalTo(load[s]));
+            }
+
+            // Submit updates for all PVs, check that each PV sees them in order
+            final int updates = 1000;
+            final CountDownLatch done = new CountDownLatch(pvs.length * updates);
+            @SuppressWarnings("unchecked")
+            final List<Integer>[] received = new List[pvs.length];
+            for (int i=0; i<pvs.length; ++i)
+                received[i] = new ArrayList<Integer>();
+            // Order in which each shard executed the updates
+            @SuppressWarnings("unchecked")
+            final List<Integer>[] executed = new List[shard_count];
+            for (int s=0; s<shard_count; ++s)
+                executed[s] = new ArrayList<Integer>();
+            int submitted = 0;
+            for (int u=0; u<updates; ++u)
+                for (int i=0; i<pvs.length; ++i)
+                {
+                    final List<Integer> list = received[i];
+                    final List<Integer> shard_list = executed[pvs[i].getShard()];
+                    final Integer value = u;
+                    final Integer sequence = submitted++;
+                    executor.execute(pvs[i], new Runnable()
+                    {
+                        @Override
+                        public void run()
+                        {
+                            list.add(value);
+                            shard_list.add(sequence);
+                            done.countDown();
+                        }
+                    });
+                }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            for (int i=0; i<pvs.length; ++i)
+            {
+                assertThat(received[i].size(), equalTo(updates));
+                for (int u=0; u<updates; ++u)
+                    assertThat(received[i].get(u), equalTo(u));
+            }
+            // Each shard executed the updates of its PVs in the order submitted
+            for (int s=0; s<shard_count; ++s)
+            {
+                assertThat(executed[s].size(), equalTo(load[s] * updates));
+                for (int i=1; i<executed[s].size(); ++i)
+                    assertTrue(executed[s].get(i-1) < executed[s].get(i));
+                // Counter is updated after the update ran
+                for (int wait=0; executor.getExecutedCount(s) < load[s] * updates  &&  wait < 100; ++wait)
+                    Thread.sleep(10);
+                assertThat(executor.getExecutedCount(s), equalTo((long) load[s] * updates));
+            }
+        }
+        finally
+        {
+            executor.stop();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.server;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.csstudio.alarm.beast.SeverityLevel;
+import org.csstudio.alarm.beast.server.AlarmServer.Update;
+import org.epics.util.time.Timestamp;
+import org.junit.Test;
+
+/** JUnit test of the {@link AlarmStateWriter}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class AlarmStateWriterUnitTest
+{
+    /** Store that remembers what it wrote, or fails on request */
+    private static class TestStore implements AlarmStateWriter.Store
+    {
+        final List<Update> states = new ArrayList<Update>();
+        final List<Update> globals = new ArrayList<Update>();
+        volatile boolean fail = false;
+        /** Delay of the next write [millisec] */
+        volatile long delay = 0;
+        /** Signaled when a write starts */
+        final CountDownLatch writing = new CountDownLatch(1);
+
+        @Override
+        public void persistStates(final Update[] updates) throws Exception
+        {
+            writing.countDown();
+            final long wait = delay;
+            delay = 0;
+            if (wait > 0)
+                Thread.sleep(wait);
+            synchronized (this)
+            {
+                if (fail)
+                    throw new Exception("Test error");
+                for (Update update : updates)
+                    states.add(update);
+            }
+        }
+
+        @Override
+        public synchronized void persistGlobalUpdates(final Update[] updates) throws Exception
+        {
+            if (fail)
+                throw new Exception("Test error");
+            for (Update update : updates)
+                globals.add(update);
+        }
+    }
+
+    private int next_id = 1;
+
+    private AlarmPV createPV(final String name) throws Exception
+    {
+        final AlarmComponent root = new AlarmComponent(null, "Root", next_id++);
+        return new AlarmPV(null, root, next_id++, name, name, true, true, false, 0, 0, 0, null,
+                SeverityLevel.OK, "", SeverityLevel.OK, "", "", Timestamp.now());
+    }
+
+    private Update createUpdate(final AlarmPV pv, final SeverityLevel severity, final String value)
+    {
+        return new Update(pv, severity, "", severity, "", value, Timestamp.now());
+    }
+
+    @Test
+    public void testCoalesce() throws Exception
+    {
+        final TestStore store = new TestStore();
+        final AlarmStateWriter writer = new AlarmStateWriter(store, 100000, 1000, 100000);
+        final AlarmPV a = createPV("a"), b = createPV("b");
+        writer.addState(createUpdate(a, SeverityLevel.MINOR, "1"));
+        writer.addState(createUpdate(b, SeverityLevel.MAJOR, "2"));
+        writer.addState(createUpdate(a, SeverityLevel.OK, "3"));
+        writer.addGlobalUpdate(createUpdate(b, SeverityLevel.MAJOR, "2"));
+        assertThat(writer.getBacklog(), equalTo(3));
+
+        assertTrue(writer.flush());
+        assertThat(writer.getBacklog(), equalTo(0));
+        assertThat(store.states.size(), equalTo(2));
+        assertThat(store.globals.size(), equalTo(1));
+        for (Update update : store.states)
+            if (update.pv == a)
+                assertThat(update.value, equalTo("3"));
+        System.out.println(writer.getStatistics());
+    }
+
+    @Test
+    public void testRetry() throws Exception
+    {
+        final TestStore store = new TestStore();
+        final AlarmStateWriter writer = new AlarmStateWriter(store, 100, 1000, 350);
+        final AlarmPV a = createPV("a"), b = createPV("b");
+        writer.addState(createUpdate(a, SeverityLevel.MINOR, "1"));
+        writer.addState(createUpdate(b, SeverityLevel.MAJOR, "2"));
+
+        // Failed updates remain queued, delay grows to the maximum
+        store.fail = true;
+        assertThat(writer.flush(), equalTo(false));
+        assertThat(writer.getBacklog(), equalTo(2));
+        assertThat(writer.getRetryDelay(), equalTo(100L));
+        assertThat(writer.flush(), equalTo(false));
+        assertThat(writer.getRetryDelay(), equalTo(200L));
+        assertThat(writer.flush(), equalTo(false));
+        assertThat(writer.getRetryDelay(), equalTo(350L));
+        System.out.println(writer.getStatistics());
+
+        // Newer update that arrives while RDB is down replaces the failed one
+        writer.addState(createUpdate(a, SeverityLevel.OK, "3"));
+        assertThat(writer.getBacklog(), equalTo(2));
+
+        store.fail = false;
+        assertTrue(writer.flush());
+        assertThat(writer.getRetryDelay(), equalTo(0L));
+        assertThat(writer.getBacklog(), equalTo(0));
+        assertThat(store.states.size(), equalTo(2));
+        for (Update update : store.states)
+            if (update.pv == a)
+                assertThat(update.value, equalTo("3"));
+    }
+
+    @Test
+    public void testThread() throws Exception
+    {
+        final TestStore store = new TestStore();
+        final AlarmStateWriter writer = new AlarmStateWriter(store, 100000, 10, 100000);
+        writer.start();
+        try
+        {
+            // Full batch is written before the (long) flush period
+            for (int i=0; i<10; ++i)
+                writer.addState(createUpdate(createPV("pv" + i), SeverityLevel.MAJOR, "1"));
+            for (int wait=0; writer.getBacklog() > 0  &&  wait < 100; ++wait)
+                Thread.sleep(50);
+            assertThat(writer.getBacklog(), equalTo(0));
+            // Remaining updates are written on stop
+            writer.addState(createUpdate(createPV("last"), SeverityLevel.MINOR, "2"));
+        }
+        finally
+        {
+            writer.stop();
+        }
+        assertThat(store.states.size(), equalTo(11));
+    }
+
+    @Test
+    public void testConcurrentFlush() throws Exception
+    {
+        final TestStore store = new TestStore();
+        final AlarmStateWriter writer = new AlarmStateWriter(store, 100000, 1000, 100000);
+        final AlarmPV a = createPV("a");
+        writer.addState(createUpdate(a, SeverityLevel.MINOR, "1"));
+
+        // Slow flush in another thread, like the writer thread during stop()
+        store.delay = 500;
+        final Thread slow = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                writer.flush();
+            }
+        });
+        slow.start();
+        store.writing.await();
+
+        // Newer update is written after the older one
+        writer.addState(createUpdate(a, SeverityLevel.OK, "2"));
+        assertTrue(writer.flush());
+        slow.join();
+        assertThat(store.states.size(), equalTo(2));
+        assertThat(store.states.get(1).value, equalTo("2"));
+    }
+}
@@ -8,7 +8,10 @@
 package org.csstudio.alarm.beast.ui.alarmtable;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.csstudio.alarm.beast.client.AlarmTreePV;
 import org.csstudio.alarm.beast.ui.alarmtable.AlarmTableLabelProvider.ColumnInfo;
@@ -24,6 +27,9 @@ import org.eclipse.osgi.util.NLS;
  *  But that resulted in flicker on Linux.
  *  Now the 'input' to the table is actually null, and <code>setAlarms()</code>
  *  is used to keep track of the alarms to display.
+ *  <p>
+ *  <code>updateAlarms()</code> applies changes to the sorted alarms,
+ *  only sorting the alarms that changed.
  *
  *  @author Kay Kasemir
  */
@@ -31,9 +37,12 @@ public class AlarmTableContentProvider implements ILazyContentProvider
 {
 	final private int alarm_table_row_limit = Preferences.getAlarmTableRowLimit();
     private TableViewer table_viewer;
+    /** All alarms, sorted */
+    private AlarmTreePV[] sorted = new AlarmTreePV[0];
+    /** Alarms shown in the table: Sorted alarms or a subset */
     private AlarmTreePV[] alarms;
     private Comparator<AlarmTreePV> comparator = AlarmComparator.getComparator(ColumnInfo.SEVERITY, false);
-	
+
     /** Update the list of alarms to display.
      *  @param alarms
      */
@@ -41,25 +50,71 @@ public class AlarmTableContentProvider implements ILazyContentProvider
     {
         if (alarms == null)
         {
+            sorted = new AlarmTreePV[0];
         	this.alarms = null;
             table_viewer.setItemCount(0);
+            table_viewer.refresh();
+            return;
+        }
+        sorted = alarms.clone();
+        Arrays.sort(sorted, comparator);
+        showAlarms();
+    }
+
+    /** Update the list of alarms to display with changes.
+     *  @param changed Alarms to display that were added or changed
+     *  @param removed Alarms that are no longer displayed.
+     *                 May include alarms that were not displayed to begin with.
+     */
+    public void updateAlarms(final Collection<AlarmTreePV> changed, final Collection<AlarmTreePV> removed)
+    {
+        if (changed.isEmpty()  &&  removed.isEmpty())
+            return;
+        // Remove changed and removed alarms.
+        // Order of remaining alarms is still valid
+        final Set<AlarmTreePV> skip = new HashSet<AlarmTreePV>(changed);
+        skip.addAll(removed);
+        final AlarmTreePV[] kept = new AlarmTreePV[sorted.length];
+        int count = 0;
+        for (AlarmTreePV pv : sorted)
+            if (! skip.contains(pv))
+                kept[count++] = pv;
+        // Sort changed alarms, merge with remaining ones
+        final AlarmTreePV[] added = changed.toArray(new AlarmTreePV[changed.size()]);
+        Arrays.sort(added, comparator);
+        final AlarmTreePV[] merged = new AlarmTreePV[count + added.length];
+        int k = 0, a = 0, m = 0;
+        while (k < count  &&  a < added.length)
+        {
+            if (comparator.compare(added[a], kept[k]) < 0)
+                merged[m++] = added[a++];
+            else
+                merged[m++] = kept[k++];
         }
-        else if (alarms.length > alarm_table_row_limit)
+        while (k < count)
+            merged[m++] = kept[k++];
+        while (a < added.length)
+            merged[m++] = added[a++];
+        sorted = merged;
+        showAlarms();
+    }
+
+    /** Show sorted alarms, limited to the row limit */
+    private void showAlarms()
+    {
+        if (sorted.length > alarm_table_row_limit)
     	{	// Use only a subset of actual alarms
-    		this.alarms = new AlarmTreePV[alarm_table_row_limit + 1];
-    		System.arraycopy(alarms, 0, this.alarms, 0, alarm_table_row_limit);
+    		alarms = new AlarmTreePV[alarm_table_row_limit + 1];
+    		System.arraycopy(sorted, 0, alarms, 0, alarm_table_row_limit);
     		// Add explanatory entry to end
     		final AlarmTreePV info = new AlarmTreePV(null, Messages.AlarmTableRowLimitMessage, -1);
     		info.setDescription(NLS.bind(Messages.AlarmTableRowLimitInfoFmt, alarm_table_row_limit));
-			this.alarms[alarm_table_row_limit] = info;
-			// Sort all but that explanatory entry
-            Arrays.sort(this.alarms, 0, alarm_table_row_limit, comparator);
+			alarms[alarm_table_row_limit] = info;
             table_viewer.setItemCount(alarm_table_row_limit + 1);
     	}
     	else
-    	{	// Use alarms as received
-            this.alarms = alarms;
-            Arrays.sort(this.alarms, comparator);
+    	{	// Show all alarms
+            alarms = sorted;
             table_viewer.setItemCount(alarms.length);
     	}
         table_viewer.refresh();
@@ -71,13 +126,19 @@ public class AlarmTableContentProvider implements ILazyContentProvider
         return alarms;
     }
 
+    /** @return Number of alarms, including those beyond the row limit */
+    public int getAlarmCount()
+    {
+        return sorted.length;
+    }
+
     /** @param comparator Comparator that's used to sort alarms */
     public void setComparator(final Comparator<AlarmTreePV> comparator)
     {
         this.comparator = comparator;
         // trigger refresh
         if (table_viewer != null)
-            setAlarms(alarms);
+            setAlarms(sorted);
     }
 
     /** {@inheritDoc} */
@@ -20,6 +20,7 @@ import org.csstudio.alarm.beast.ui.SelectionHelper;
 import org.csstudio.alarm.beast.ui.SeverityColorProvider;
 import org.csstudio.alarm.beast.ui.actions.AlarmPerspectiveAction;
 import org.csstudio.alarm.beast.ui.actions.ConfigureItemAction;
+import org.csstudio.alarm.beast.ui.clientmodel.AlarmChanges;
 import org.csstudio.alarm.beast.ui.clientmodel.AlarmClientModel;
 import org.csstudio.alarm.beast.ui.clientmodel.AlarmClientModelListener;
 import org.csstudio.apputil.text.RegExHelper;
@@ -107,6 +108,11 @@ public class GUI implements AlarmClientModelListener
     /** Error message (no server...) */
     private Label error_message;
 
+    /** Sequence number of the alarm changes shown in the tables.
+     *  Only accessed on the UI thread.
+     */
+    private long alarm_sequence = -1;
+
     /** GUI updates are throttled to reduce flicker */
     final private GUIUpdateThrottle gui_update = new GUIUpdateThrottle()
     {
@@ -133,15 +139,32 @@ public class GUI implements AlarmClientModelListener
                     // Instead, tell ModelInstanceProvider about the data,
                     // which then updates the table with setItemCount(), refresh(),
                     // as that happens to not flicker.
-                    AlarmTreePV[] alarms = model.getActiveAlarms();
-                    current_alarms.setText(NLS.bind(Messages.CurrentAlarmsFmt, alarms.length));
+                    //
+                    // Only fetch what changed since the last update
+                    final AlarmChanges changes = model.getAlarmChanges(alarm_sequence);
+                    alarm_sequence = changes.getSequence();
+                    final AlarmTableContentProvider active =
+                        (AlarmTableContentProvider) active_table_viewer.getContentProvider();
+                    final AlarmTableContentProvider acknowledged =
+                        (AlarmTableContentProvider) acknowledged_table_viewer.getContentProvider();
+                    if (changes.isReset())
+                    {
+                        active.setAlarms(changes.getActive().toArray(new AlarmTreePV[changes.getActive().size()]));
+                        acknowledged.setAlarms(changes.getAcknowledged().toArray(new AlarmTreePV[changes.getAcknowledged().size()]));
+                    }
+                    else
+                    {
+                        final List<AlarmTreePV> not_active = new ArrayList<AlarmTreePV>(changes.getAcknowledged());
+                        not_active.addAll(changes.getCleared());
+                        active.updateAlarms(changes.getActive(), not_active);
+                        final List<AlarmTreePV> not_acknowledged = new ArrayList<AlarmTreePV>(changes.getActive());
+                        not_acknowledged.addAll(changes.getCleared());
+                        acknowledged.updateAlarms(changes.getAcknowledged(), not_acknowledged);
+                    }
+                    current_alarms.setText(NLS.bind(Messages.CurrentAlarmsFmt, active.getAlarmCount()));
                     current_alarms.pack();
-                    ((AlarmTableContentProvider) active_table_viewer.getContentProvider()).setAlarms(alarms);
-
-                    alarms = model.getAcknowledgedAlarms();
-                    acknowledged_alarms.setText(NLS.bind(Messages.AcknowledgedAlarmsFmt, alarms.length));
+                    acknowledged_alarms.setText(NLS.bind(Messages.AcknowledgedAlarmsFmt, acknowledged.getAlarmCount()));
                     acknowledged_alarms.pack();
-                    ((AlarmTableContentProvider) acknowledged_table_viewer.getContentProvider()).setAlarms(alarms);
                 }
             });
         }
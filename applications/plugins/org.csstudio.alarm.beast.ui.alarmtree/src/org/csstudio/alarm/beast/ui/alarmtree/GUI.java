@@ -7,7 +7,11 @@
  ******************************************************************************/
 package org.csstudio.alarm.beast.ui.alarmtree;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.csstudio.alarm.beast.AlarmTreePath;
 import org.csstudio.alarm.beast.SeverityLevel;
@@ -26,6 +30,7 @@ import org.csstudio.alarm.beast.ui.actions.DuplicatePVAction;
 import org.csstudio.alarm.beast.ui.actions.MoveItemAction;
 import org.csstudio.alarm.beast.ui.actions.RemoveComponentAction;
 import org.csstudio.alarm.beast.ui.actions.RenameItemAction;
+import org.csstudio.alarm.beast.ui.clientmodel.AlarmChanges;
 import org.csstudio.alarm.beast.ui.clientmodel.AlarmClientModel;
 import org.csstudio.alarm.beast.ui.clientmodel.AlarmClientModelListener;
 import org.csstudio.security.SecuritySupport;
@@ -87,6 +92,14 @@ public class GUI implements AlarmClientModelListener
     /** Show only alarms, or all items? */
     private boolean show_only_alarms;
 
+    /** Sequence number of the alarm changes shown in the tree.
+     *  Only accessed on the UI thread.
+     */
+    private long alarm_sequence = -1;
+
+    /** Is an update of the tree with alarm changes pending? */
+    final private AtomicBoolean update_pending = new AtomicBoolean(false);
+
 
     /** Initialize GUI
      *  @param parent SWT parent
@@ -457,48 +470,91 @@ public class GUI implements AlarmClientModelListener
     public void newAlarmState(final AlarmClientModel model,
             final AlarmTreePV pv, final boolean parent_changed)
     {
+        if (pv == null)
+        {   // Refresh whole tree
+            display.asyncExec(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    final Tree tree = tree_viewer.getTree();
+                    if (tree.isDisposed())
+                        return;
+                    if (model.isServerAlive())
+                        setErrorMessage(null);
+                    tree_viewer.refresh();
+                }
+            });
+            return;
+        }
+        // Handle all changes up to now in one UI update,
+        // unless that's already scheduled
+        if (! update_pending.compareAndSet(false, true))
+            return;
         display.asyncExec(new Runnable()
         {
             @Override
             public void run()
             {
+                update_pending.set(false);
                 final Tree tree = tree_viewer.getTree();
                 if (tree.isDisposed())
                     return;
                 if (model.isServerAlive())
                     setErrorMessage(null);
-                // Refresh affected items to indicate new state.
-                // A complete tree_viewer.refresh() would 'work'
-                // but be quite slow, so try to determine what
-                // needs to be refreshed
-                if (pv != null)
-                {	// Update tree item for PV
-                	final boolean pv_hidden = show_only_alarms  &&
-    			                              pv.getSeverity() == SeverityLevel.OK;
-                	if (pv_hidden)
-                		tree_viewer.remove(pv);
-                	else
-                		tree_viewer.refresh(pv, true);
-                	if (parent_changed)
-            		{	// Update parents up to root
-            			AlarmTreeItem item = pv.getParent();
-            			while (! (item instanceof AlarmTreeRoot))
-	                	{
-	            			// Parent could become hidden with its PV
-            				if (pv_hidden && item.getSeverity() == SeverityLevel.OK)
-	            				tree_viewer.remove(item);
-	            			else
-	            				tree_viewer.refresh(item);
-	                		item = item.getParent();
-	                	}
-            		}
-                }
-                else // Refresh whole tree
-                    tree_viewer.refresh();
+                updateAlarms();
             }
         });
     }
 
+    /** Update tree with alarm changes of model.
+     *  Must be called on UI thread.
+     */
+    private void updateAlarms()
+    {
+        final AlarmChanges changes = model.getAlarmChanges(alarm_sequence);
+        alarm_sequence = changes.getSequence();
+        if (changes.isReset())
+        {
+            tree_viewer.refresh();
+            return;
+        }
+        if (changes.isEmpty())
+            return;
+        // Refresh affected items to indicate new state.
+        // A complete tree_viewer.refresh() would 'work'
+        // but be quite slow, so only refresh the PVs that changed
+        // and each of their parents once
+        final List<AlarmTreePV> pvs = new ArrayList<AlarmTreePV>(changes.getActive());
+        pvs.addAll(changes.getAcknowledged());
+        pvs.addAll(changes.getCleared());
+        final Set<AlarmTreeItem> parents = new LinkedHashSet<AlarmTreeItem>();
+        for (AlarmTreePV pv : pvs)
+        {   // Update tree item for PV
+            final boolean pv_hidden = show_only_alarms  &&
+                                      pv.getSeverity() == SeverityLevel.OK;
+            if (pv_hidden)
+                tree_viewer.remove(pv);
+            else
+                tree_viewer.refresh(pv, true);
+            // Collect parents up to root
+            AlarmTreeItem item = pv.getParent();
+            while (item != null  &&  ! (item instanceof AlarmTreeRoot))
+            {
+                if (! parents.add(item))
+                    break;
+                item = item.getParent();
+            }
+        }
+        for (AlarmTreeItem item : parents)
+        {   // Parent could become hidden with its PVs
+            if (show_only_alarms  &&  item.getSeverity() == SeverityLevel.OK)
+                tree_viewer.remove(item);
+            else
+                tree_viewer.refresh(item);
+        }
+    }
+
     /** Acknowledge currently selected alarms */
     @SuppressWarnings("unchecked")
     public void acknowledgeSelectedAlarms()
@@ -54,6 +54,18 @@ public class JMSAlarmMessage
      */
     final public static String TEXT_STATE_MAINTENANCE = "STATE_MAINTENANCE";
 
+    /** Value for TEXT that indicates state changes of several PVs.
+     *  Sent as a BytesMessage with TEXT and the other basic
+     *  properties as message properties, and a {@link JMSAlarmStateBatch}
+     *  as the payload.
+     */
+    final public static String TEXT_STATE_BATCH = "STATE_BATCH";
+
+    /** Value for TEXT that indicates state changes of several PVs while in maintenance mode
+     *  @see #TEXT_STATE_BATCH
+     */
+    final public static String TEXT_STATE_BATCH_MAINTENANCE = "STATE_BATCH_MAINTENANCE";
+
     /** Value for TEXT that indicates a configuration change.
      *  NAME will contain path to item that was added, removed,
      *  reconfigured, or null for an overall change.
@@ -94,4 +106,9 @@ public class JMSAlarmMessage
 
     /** Value that caused the severity/message update */
     final public static String VALUE = "VALUE";
+
+    /** Message property of the IDLE message that holds
+     *  the alarm server's queue depth and latency per alarm logic thread
+     */
+    final public static String LOGIC_STATS = "LOGIC_STATS";
 }
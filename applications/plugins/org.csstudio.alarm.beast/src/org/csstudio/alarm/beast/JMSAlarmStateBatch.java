@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.epics.util.time.Timestamp;
+
+/** Batch of alarm state updates, sent from server to clients as
+ *  the binary payload of one JMS message.
+ *  <p>
+ *  Only the most recent update of each PV is kept.
+ *  Status messages tend to repeat ("LOLO", "HIGH", ...),
+ *  so each distinct message is written once and then
+ *  referenced by index.
+ *
+ *  @see JMSAlarmMessage#TEXT_STATE_BATCH
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class JMSAlarmStateBatch
+{
+    final private static int MAGIC = 0x41534231; // 'ASB1'
+
+    final private static Charset UTF8 = Charset.forName("UTF-8");
+
+    final private static SeverityLevel[] levels = SeverityLevel.values();
+
+    /** State update of one PV */
+    public static class Entry
+    {
+        final private String name, current_message, message, value;
+        final private SeverityLevel current_severity, severity;
+        final private Timestamp timestamp;
+
+        /** Initialize
+         *  @param name PV name
+         *  @param current_severity Current severity of the PV
+         *  @param current_message Current message of the PV
+         *  @param severity Alarm severity
+         *  @param message Alarm message
+         *  @param value Value that triggered update, may be <code>null</code>
+         *  @param timestamp Time stamp for alarm severity/status
+         */
+        public Entry(final String name,
+                final SeverityLevel current_severity, final String current_message,
+                final SeverityLevel severity, final String message,
+                final String value, final Timestamp timestamp)
+        {
+            this.name = name;
+            this.current_severity = current_severity;
+            this.current_message = current_message;
+            this.severity = severity;
+            this.message = message;
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+
+        /** @return PV name */
+        public String getName()
+        {
+            return name;
+        }
+
+        /** @return Current severity of the PV */
+        public SeverityLevel getCurrentSeverity()
+        {
+            return current_severity;
+        }
+
+        /** @return Current message of the PV */
+        public String getCurrentMessage()
+        {
+            return current_message;
+        }
+
+        /** @return Alarm severity */
+        public SeverityLevel getSeverity()
+        {
+            return severity;
+        }
+
+        /** @return Alarm message */
+        public String getMessage()
+        {
+            return message;
+        }
+
+        /** @return Value that triggered update, may be <code>null</code> */
+        public String getValue()
+        {
+            return value;
+        }
+
+        /** @return Time stamp for alarm severity/status */
+        public Timestamp getTimestamp()
+        {
+            return timestamp;
+        }
+    }
+
+    /** Latest entry by PV name, in order of last update */
+    final private Map<String, Entry> entries = new LinkedHashMap<String, Entry>();
+
+    /** Add state update, replacing a previous update for the same PV
+     *  @param entry Update
+     */
+    public void add(final Entry entry)
+    {
+        entries.remove(entry.getName());
+        entries.put(entry.getName(), entry);
+    }
+
+    /** @return Number of PVs in batch */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /** @return Entries in batch */
+    public Collection<Entry> getEntries()
+    {
+        return entries.values();
+    }
+
+    /** @return Binary encoding of the batch
+     *  @throws IOException on error
+     */
+    public byte[] toByteArray() throws IOException
+    {
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream(64 * entries.size() + 16);
+        final DataOutputStream out = new DataOutputStream(buf);
+        final Map<String, Integer> texts = new HashMap<String, Integer>();
+        out.writeInt(MAGIC);
+        out.writeInt(entries.size());
+        for (Entry entry : entries.values())
+        {
+            writeString(out, entry.name);
+            out.writeByte(entry.current_severity.ordinal());
+            writeText(out, entry.current_message, texts);
+            out.writeByte(entry.severity.ordinal());
+            writeText(out, entry.message, texts);
+            writeString(out, entry.value);
+            out.writeLong(entry.timestamp.getSec());
+            out.writeInt(entry.timestamp.getNanoSec());
+        }
+        out.close();
+        return buf.toByteArray();
+    }
+
+    /** Decode batch
+     *  @param bytes Binary encoding of a batch
+     *  @return Entries of the batch
+     *  @throws IOException on error
+     */
+    public static List<Entry> fromByteArray(final byte[] bytes) throws IOException
+    {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC)
+            throw new IOException("Invalid alarm state batch");
+        final int count = in.readInt();
+        final List<Entry> result = new ArrayList<Entry>(count);
+        final List<String> texts = new ArrayList<String>();
+        for (int i=0; i<count; ++i)
+        {
+            final String name = readString(in);
+            final SeverityLevel current_severity = readSeverity(in);
+            final String current_message = readText(in, texts);
+            final SeverityLevel severity = readSeverity(in);
+            final String message = readText(in, texts);
+            final String value = readString(in);
+            final long secs = in.readLong();
+            final int nano = in.readInt();
+            result.add(new Entry(name, current_severity, current_message, severity, message,
+                                 value, Timestamp.of(secs, nano)));
+        }
+        in.close();
+        return result;
+    }
+
+    private static void writeString(final DataOutputStream out, final String text) throws IOException
+    {
+        if (text == null)
+            out.writeInt(-1);
+        else
+        {
+            final byte[] bytes = text.getBytes(UTF8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(final DataInputStream in) throws IOException
+    {
+        final int length = in.readInt();
+        if (length < 0)
+            return null;
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    /** Write text as index of a previously written text, or as new text
+     *  @param out Output
+     *  @param text Text to write
+     *  @param texts Index of previously written texts
+     *  @throws IOException on error
+     */
+    private static void writeText(final DataOutputStream out, final String text,
+            final Map<String, Integer> texts) throws IOException
+    {
+        final Integer index = texts.get(text);
+        if (index != null)
+        {
+            out.writeInt(index);
+            return;
+        }
+        out.writeInt(-1);
+        writeString(out, text);
+        texts.put(text, texts.size());
+    }
+
+    private static String readText(final DataInputStream in, final List<String> texts) throws IOException
+    {
+        final int index = in.readInt();
+        if (index >= 0)
+            return texts.get(index);
+        final String text = readString(in);
+        texts.add(text);
+        return text;
+    }
+
+    private static SeverityLevel readSeverity(final DataInputStream in) throws IOException
+    {
+        final int ordinal = in.readByte();
+        if (ordinal < 0  ||  ordinal >= levels.length)
+            throw new IOException("Invalid severity " + ordinal);
+        return levels[ordinal];
+    }
+}
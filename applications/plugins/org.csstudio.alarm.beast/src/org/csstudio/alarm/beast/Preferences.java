@@ -56,6 +56,8 @@ public class Preferences
     final public static String GUI_UPDATE_INITIAL_MILLIS = "gui_update_initial_millis";
     final public static String BATCH_UPDATE_PERIOD = "batch_update_period";
     final public static String BATCH_SIZE = "batch_size";
+    final public static String CONFIG_SNAPSHOT_DIRECTORY = "config_snapshot_directory";
+    final public static String JMS_STATE_BATCH = "jms_state_batch";
 
     final private static String SERVER_SUFFIX = "_SERVER";
     final private static String CLIENT_SUFFIX = "_CLIENT";
@@ -217,6 +219,35 @@ public class Preferences
         }
     }
 
+    /** @return <code>true</code> if the server sends state updates as batches */
+    public static boolean isJMS_StateBatch()
+    {
+        final IPreferencesService service = Platform.getPreferencesService();
+        if (service == null)
+            return false;
+        return service.getBoolean(Activator.ID, JMS_STATE_BATCH, false, null);
+    }
+
+    /** @return Directory for local alarm configuration snapshots,
+     *          or <code>null</code> if snapshots are disabled
+     */
+    public static String getConfigSnapshotDirectory()
+    {
+        final String directory = getString(CONFIG_SNAPSHOT_DIRECTORY);
+        if (directory == null  ||  directory.trim().isEmpty())
+            return null;
+        try
+        {
+            return replaceProperties(directory.trim());
+        }
+        catch (Exception ex)
+        {
+            Activator.getLogger().log(Level.WARNING,
+                    "Error in config_snapshot_directory preference setting", ex);
+            return null;
+        }
+    }
+
     /** @return Time in seconds to wait for OK or error from command */
     public static int getCommandCheckTime()
     {
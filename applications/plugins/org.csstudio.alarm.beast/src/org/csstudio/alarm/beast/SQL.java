@@ -30,6 +30,13 @@ public class SQL
 	final public String sel_auto_actions_by_id;
     final public String sel_items_by_parent;
     final public String sel_item_by_parent_and_name;
+    final public String sel_all_items;
+    final public String sel_all_guidance;
+    final public String sel_all_displays;
+    final public String sel_all_commands;
+    final public String sel_all_auto_actions;
+    final public String sel_all_pv_states;
+    final public String sel_config_stamp;
     final public String sel_last_item_id;
     final public String insert_item;
 
@@ -134,6 +141,40 @@ public class SQL
             " LEFT JOIN " + schema_prefix + "PV p ON p.COMPONENT_ID = t.COMPONENT_ID" +
             " WHERE t.PARENT_CMPNT_ID=? AND t.NAME=?";
 
+        // Bulk reads of the complete configuration, see AlarmConfigurationSnapshot.
+        // Components and PVs of all configurations, ordered by ID
+        // to keep the order of child items as in sel_items_by_parent
+        sel_all_items =
+            //        1               2                  3       4
+            "SELECT t.COMPONENT_ID, t.PARENT_CMPNT_ID, t.NAME, t.CONFIG_TIME," +
+            //  5               6        7                 8            9        10
+            " p.COMPONENT_ID, p.DESCR, p.ANNUNCIATE_IND, p.LATCH_IND, p.DELAY, p.DELAY_COUNT," +
+            //  11
+            " p.FILTER" +
+            " FROM " + schema_prefix + "ALARM_TREE t" +
+            " LEFT JOIN " + schema_prefix + "PV p ON p.COMPONENT_ID = t.COMPONENT_ID" +
+            " ORDER BY t.COMPONENT_ID";
+        sel_all_guidance =
+            "SELECT COMPONENT_ID, TITLE, DETAIL FROM " + schema_prefix + "GUIDANCE ORDER BY COMPONENT_ID, GUIDANCE_ORDER";
+        sel_all_displays =
+            "SELECT COMPONENT_ID, TITLE, DETAIL FROM " + schema_prefix + "DISPLAY ORDER BY COMPONENT_ID, DISPLAY_ORDER";
+        sel_all_commands =
+            "SELECT COMPONENT_ID, TITLE, DETAIL FROM " + schema_prefix + "COMMAND ORDER BY COMPONENT_ID, COMMAND_ORDER";
+        sel_all_auto_actions =
+            "SELECT COMPONENT_ID, TITLE, DETAIL, DELAY FROM " + schema_prefix + "AUTOMATED_ACTION ORDER BY COMPONENT_ID, AUTO_ACTION_ORDER";
+        // Enablement and alarm state of all PVs.
+        // Columns 3.. match the state columns 11.. of sel_items_by_parent
+        sel_all_pv_states =
+            //      1             2            3                4
+            "SELECT COMPONENT_ID, ENABLED_IND, CUR_SEVERITY_ID, CUR_STATUS_ID," +
+            //  5            6          7         8
+            " SEVERITY_ID, STATUS_ID, PV_VALUE, ALARM_TIME" +
+            " FROM " + schema_prefix + "PV";
+        // Changes to the configuration update the CONFIG_TIME,
+        // added or removed items change the count or highest ID
+        sel_config_stamp =
+            "SELECT MAX(CONFIG_TIME), COUNT(*), MAX(COMPONENT_ID) FROM " + schema_prefix + "ALARM_TREE";
+
         sel_last_item_id =
             "SELECT MAX(COMPONENT_ID) FROM " + schema_prefix + "ALARM_TREE";
 
@@ -200,8 +241,9 @@ public class SQL
         update_pv_enablement =
             "UPDATE " + schema_prefix + "PV SET ENABLED_IND=?  WHERE COMPONENT_ID=?";
         delete_pv_by_id = "DELETE FROM " + schema_prefix + "PV WHERE COMPONENT_ID = ?";
-        rename_item = "UPDATE " + schema_prefix + "ALARM_TREE SET NAME=? WHERE COMPONENT_ID=?";
-        move_item = "UPDATE " + schema_prefix + "ALARM_TREE SET PARENT_CMPNT_ID=? WHERE COMPONENT_ID=?";
+        // Rename and move also update the CONFIG_TIME to invalidate configuration snapshots
+        rename_item = "UPDATE " + schema_prefix + "ALARM_TREE SET NAME=?, CONFIG_TIME=" + now + " WHERE COMPONENT_ID=?";
+        move_item = "UPDATE " + schema_prefix + "ALARM_TREE SET PARENT_CMPNT_ID=?, CONFIG_TIME=" + now + " WHERE COMPONENT_ID=?";
 
         sel_severity =
             "SELECT SEVERITY_ID FROM " + schema_prefix + "SEVERITY WHERE NAME=?";
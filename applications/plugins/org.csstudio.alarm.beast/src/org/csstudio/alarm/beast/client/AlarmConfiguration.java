@@ -7,6 +7,7 @@
  ******************************************************************************/
 package org.csstudio.alarm.beast.client;
 
+import java.io.File;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -18,14 +19,17 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import org.csstudio.alarm.beast.Activator;
 import org.csstudio.alarm.beast.AlarmTreePath;
 import org.csstudio.alarm.beast.Messages;
+import org.csstudio.alarm.beast.Preferences;
 import org.csstudio.alarm.beast.SQL;
 import org.csstudio.alarm.beast.TimestampHelper;
+import org.csstudio.alarm.beast.client.AlarmConfigurationSnapshot.Item;
 import org.csstudio.apputil.time.DelayCheck;
 import org.csstudio.platform.utility.rdb.RDBUtil;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -72,8 +76,11 @@ public class AlarmConfiguration
     /** Hash of all PVs in config_tree that maps PV name to PV */
     private HashMap<String, AlarmTreePV> pvs = new HashMap<String, AlarmTreePV>();
 
+    /** Local snapshot of the configuration or <code>null</code> */
+    final private File snapshot_file;
+
     /** Re-used statements */
-    private PreparedStatement sel_items_by_parent_statement, sel_pv_by_id_statement;
+    private PreparedStatement sel_pv_by_id_statement;
 
 
     /** Initialize
@@ -106,6 +113,10 @@ public class AlarmConfiguration
         severity_mapping = new SeverityReader(rdb, sql);
         message_mapping = new MessageReader(rdb, sql);
         config_reader = new AlarmConfigurationReader(rdb, sql);
+        final String snapshot_directory = Preferences.getConfigSnapshotDirectory();
+        snapshot_file = snapshot_directory == null
+            ? null
+            : AlarmConfigurationSnapshot.getFile(snapshot_directory, url, schema);
 
         // Re-enable auto-connect if that was requested
         if (auto_reconnect)
@@ -246,8 +257,15 @@ public class AlarmConfiguration
             }
             final int id = result.getInt(1);
             final AlarmTreeRoot root = createAlarmTreeRoot(id, root_name);
-            config_reader.readGuidanceDisplaysCommands(root);
-            readChildren(root, monitor, monitor_update_delay);
+            // Read complete configuration in bulk, then assemble tree
+            final AlarmConfigurationSnapshot snapshot = config_reader.readSnapshot(snapshot_file);
+            final Item root_item = snapshot.getItem(id);
+            if (root_item != null)
+                applySnapshotInfo(root, root_item);
+            final Map<Integer, AlarmTreePV> pvs_by_id = new HashMap<Integer, AlarmTreePV>();
+            addChildren(root, snapshot, pvs_by_id, monitor, monitor_update_delay);
+            // Alarm state is not part of the snapshot
+            config_reader.readAlarmStates(pvs_by_id, severity_mapping, message_mapping);
             return root;
         }
         finally
@@ -257,60 +275,63 @@ public class AlarmConfiguration
         }
     }
 
-    /** Read configuration for child elements
+    /** Add child elements from configuration snapshot
      *  @param parent Parent node. Children get added to it.
+     *  @param snapshot Configuration snapshot
+     *  @param pvs_by_id Map of PV IDs to PVs, updated with added PVs
      *  @param monitor Progress monitor
      *  @param monitor_update_delay Delay for updates to monitor
      *  @throws Exception on error
      */
-    private void readChildren(final AlarmTreeItem parent,
+    private void addChildren(final AlarmTreeItem parent,
+            final AlarmConfigurationSnapshot snapshot,
+            final Map<Integer, AlarmTreePV> pvs_by_id,
             final IProgressMonitor monitor, final DelayCheck monitor_update_delay) throws Exception
     {
-        if (sel_items_by_parent_statement == null)
-            sel_items_by_parent_statement =
-                rdb.getConnection().prepareStatement(sql.sel_items_by_parent);
-        sel_items_by_parent_statement.setInt(1, parent.getID());
-        final ResultSet result = sel_items_by_parent_statement.executeQuery();
-
-        final List<AlarmTreeItem> recurse_items = new ArrayList<AlarmTreeItem>();
-        while (result.next()  &&  !monitor.isCanceled())
+        for (Item child : snapshot.getChildren(parent.getID()))
         {
-            final int id = result.getInt(1);
-            final String name = result.getString(17);
-            final Timestamp config_time = result.getTimestamp(2);
+            if (monitor.isCanceled())
+                return;
             final AlarmTreeItem item;
-            // Check PV's ID. If null, this is a component, not PV
-            result.getInt(3);
-            if (result.wasNull())
-            {   // Component (area, system), not a PV
-                item = new AlarmTreeItem(parent, name, id);
-                recurse_items.add(item);
-            }
-            else
+            if (child.isPV())
             {
-                final AlarmTreePV pv = new AlarmTreePV(parent, name, id);
-                pvs.put(name, pv);
+                final AlarmTreePV pv = new AlarmTreePV(parent, child.getName(), child.getID());
+                pvs.put(pv.getName(), pv);
+                pvs_by_id.put(pv.getID(), pv);
                 // Periodically update progress monitor
                 if (monitor_update_delay.expired())
                 {
                     final int count = pvs.size();
                     monitor.subTask(NLS.bind(Messages.ReadConfigProgressFmt, count));
                 }
-                config_reader.configurePVfromResult(pv, result, severity_mapping, message_mapping);
+                pv.setDescription(child.getDescription());
+                pv.setAnnunciating(Boolean.TRUE.equals(child.isAnnunciating()));
+                pv.setLatching(Boolean.TRUE.equals(child.isLatching()));
+                pv.setDelay(child.getDelay());
+                pv.setCount(child.getCount());
+                pv.setFilter(child.getFilter());
                 item = pv;
             }
-            if (config_time != null)
-                item.setConfigTime(TimestampHelper.toEPICSTime(config_time));
-            config_reader.readGuidanceDisplaysCommands(item);
-        }
-        result.close();
-
-        // Recurse to children
-        // Cannot do that inside the above while() because that would reuse
-        // the statement of the current ResultSet
-        for (AlarmTreeItem item : recurse_items)
-            readChildren(item, monitor, monitor_update_delay);
-        recurse_items.clear();
+            else
+                item = new AlarmTreeItem(parent, child.getName(), child.getID());
+            applySnapshotInfo(item, child);
+            if (! child.isPV())
+                addChildren(item, snapshot, pvs_by_id, monitor, monitor_update_delay);
+        }
+    }
+
+    /** Configure item's config. time and GUI info from snapshot
+     *  @param item Item to configure
+     *  @param info Configuration snapshot for that item
+     */
+    private void applySnapshotInfo(final AlarmTreeItem item, final Item info)
+    {
+        if (info.getConfigTime() != null)
+            item.setConfigTime(TimestampHelper.toEPICSTime(info.getConfigTime()));
+        item.setGuidance(info.getGuidance());
+        item.setDisplays(info.getDisplays());
+        item.setCommands(info.getCommands());
+        item.setAutomatedActions(info.getAutomatedActions());
     }
 
     /** Add a component to the model and RDB
@@ -936,11 +957,6 @@ public class AlarmConfiguration
     {
         try
         {
-            if (sel_items_by_parent_statement != null)
-            {
-                sel_items_by_parent_statement.close();
-                sel_items_by_parent_statement = null;
-            }
             if (sel_pv_by_id_statement != null)
             {
                 sel_pv_by_id_statement.close();
@@ -7,12 +7,16 @@
  ******************************************************************************/
 package org.csstudio.alarm.beast.client;
 
+import java.io.File;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 
 import org.csstudio.alarm.beast.Activator;
@@ -20,6 +24,8 @@ import org.csstudio.alarm.beast.AlarmTreePath;
 import org.csstudio.alarm.beast.SQL;
 import org.csstudio.alarm.beast.SeverityLevel;
 import org.csstudio.alarm.beast.TimestampHelper;
+import org.csstudio.alarm.beast.client.AlarmConfigurationSnapshot.Item;
+import org.csstudio.alarm.beast.client.AlarmConfigurationSnapshot.Stamp;
 import org.csstudio.platform.utility.rdb.RDBUtil;
 
 /** Helper for reading alarm configuration from RDB
@@ -347,35 +353,283 @@ public class AlarmConfigurationReader
         pv.setCount(result.getInt(9));
         pv.setFilter(result.getString(10));
 
+        configurePVStateFromResult(pv, result, 11, severity_mapping, message_mapping);
+    }
+
+    /** Configure alarm state of a PV from RDB columns
+     *  @param pv PV to configure
+     *  @param result ResultSet with PV state info
+     *  @param column Column of CUR_SEVERITY_ID, followed by
+     *                CUR_STATUS_ID, SEVERITY_ID, STATUS_ID, PV_VALUE, ALARM_TIME
+     *  @param severity_mapping
+     *  @param message_mapping
+     *  @throws Exception on error
+     */
+    private void configurePVStateFromResult(final AlarmTreePV pv,
+            final ResultSet result, final int column, final SeverityReader severity_mapping,
+            final MessageReader message_mapping) throws Exception
+    {
         // If there is severity/status info, use it.
         // Otherwise leave PV "OK" as it was initialized.
-        int severity_id = result.getInt(11);
+        int severity_id = result.getInt(column);
         final SeverityLevel current_severity = result.wasNull()
             ? SeverityLevel.OK
             : severity_mapping.getSeverity(severity_id);
 
         // Current message was added later, so assume "" if not set
-        int status_id = result.getInt(12);
+        int status_id = result.getInt(column + 1);
         final String current_message = result.wasNull()
             ? ""
             : message_mapping.getMessage(status_id);
 
-        severity_id = result.getInt(13);
+        severity_id = result.getInt(column + 2);
         final SeverityLevel severity = result.wasNull()
             ? SeverityLevel.OK
             : severity_mapping.getSeverity(severity_id);
 
-        status_id = result.getInt(14);
+        status_id = result.getInt(column + 3);
         final String message =  result.wasNull()
             ? ""
             : message_mapping.getMessage(status_id);
 
-        final String value = result.getString(15); // OK to have null value
-        final Timestamp sql_time = result.getTimestamp(16);
+        final String value = result.getString(column + 4); // OK to have null value
+        final Timestamp sql_time = result.getTimestamp(column + 5);
         if (!result.wasNull())
         {
             final org.epics.util.time.Timestamp timestamp = TimestampHelper.toEPICSTime(sql_time);
             pv.setAlarmState(current_severity, current_message, severity, message, value, timestamp);
         }
     }
+
+    /** Read the state of the configuration in the RDB
+     *  @return {@link Stamp}
+     *  @throws Exception on error
+     */
+    public Stamp readStamp() throws Exception
+    {
+        final Statement statement = rdb.getConnection().createStatement();
+        try
+        {
+            final ResultSet result = statement.executeQuery(sql.sel_config_stamp);
+            if (! result.next())
+                throw new Exception("Cannot read alarm configuration stamp");
+            return new Stamp(result.getTimestamp(1), result.getInt(2), result.getInt(3));
+        }
+        finally
+        {
+            statement.close();
+        }
+    }
+
+    /** Read configuration snapshot, using a local snapshot file if possible.
+     *
+     *  <p>When the snapshot file matches the current state of the RDB
+     *  configuration, it is used as is.
+     *  Otherwise the configuration is read from the RDB
+     *  and saved in the file for the next time.
+     *
+     *  @param file Snapshot file or <code>null</code>
+     *  @return {@link AlarmConfigurationSnapshot}
+     *  @throws Exception on error
+     */
+    public AlarmConfigurationSnapshot readSnapshot(final File file) throws Exception
+    {
+        // Get stamp before reading the configuration.
+        // If the configuration changes while it's read,
+        // the saved snapshot will appear outdated on the next read.
+        final Stamp stamp = readStamp();
+        if (file != null  &&  file.exists())
+        {
+            try
+            {
+                final AlarmConfigurationSnapshot snapshot = AlarmConfigurationSnapshot.read(file);
+                if (snapshot.getStamp().equals(stamp))
+                {
+                    Activator.getLogger().log(Level.FINE,
+                        "Using alarm configuration snapshot {0}", file);
+                    return snapshot;
+                }
+                Activator.getLogger().log(Level.FINE,
+                    "Alarm configuration snapshot {0} is outdated: {1}, RDB has {2}",
+                    new Object[] { file, snapshot.getStamp(), stamp });
+            }
+            catch (Exception ex)
+            {
+                Activator.getLogger().log(Level.WARNING,
+                    "Cannot read alarm configuration snapshot " + file, ex);
+            }
+        }
+        final AlarmConfigurationSnapshot snapshot = readSnapshot(stamp);
+        if (file != null)
+        {
+            try
+            {
+                snapshot.write(file);
+            }
+            catch (Exception ex)
+            {
+                Activator.getLogger().log(Level.WARNING,
+                    "Cannot write alarm configuration snapshot " + file, ex);
+            }
+        }
+        return snapshot;
+    }
+
+    /** Read complete configuration from RDB.
+     *
+     *  <p>Reads all items, then all guidance, displays, ...
+     *  with one query each instead of individual queries
+     *  for each item.
+     *
+     *  @param stamp Current state of the RDB configuration
+     *  @return {@link AlarmConfigurationSnapshot}
+     *  @throws Exception on error
+     */
+    private AlarmConfigurationSnapshot readSnapshot(final Stamp stamp) throws Exception
+    {
+        final AlarmConfigurationSnapshot snapshot = new AlarmConfigurationSnapshot(stamp);
+        final Statement statement = rdb.getConnection().createStatement();
+        try
+        {
+            ResultSet result = statement.executeQuery(sql.sel_all_items);
+            while (result.next())
+            {
+                final int id = result.getInt(1);
+                int parent_id = result.getInt(2);
+                if (result.wasNull())
+                    parent_id = -1;
+                final String name = result.getString(3);
+                final Timestamp config_time = result.getTimestamp(4);
+                // Check PV's ID. If null, this is a component, not PV
+                result.getInt(5);
+                final boolean is_pv = ! result.wasNull();
+                final Item item = new Item(id, parent_id, name, config_time, is_pv);
+                if (is_pv)
+                {
+                    final String description = result.getString(6);
+                    Boolean annunciating = result.getBoolean(7);
+                    if (result.wasNull())
+                        annunciating = null;
+                    Boolean latching = result.getBoolean(8);
+                    if (result.wasNull())
+                        latching = null;
+                    final int delay = result.getInt(9);
+                    final int count = result.getInt(10);
+                    final String filter = result.getString(11);
+                    item.setPVConfig(description, annunciating, latching, delay, count, filter);
+                }
+                snapshot.add(item);
+            }
+            result.close();
+
+            for (Map.Entry<Integer, GDCDataStructure[]> entry : readAllGDC(statement, sql.sel_all_guidance).entrySet())
+            {
+                final Item item = snapshot.getItem(entry.getKey());
+                if (item != null)
+                    item.setGuidance(entry.getValue());
+            }
+            for (Map.Entry<Integer, GDCDataStructure[]> entry : readAllGDC(statement, sql.sel_all_displays).entrySet())
+            {
+                final Item item = snapshot.getItem(entry.getKey());
+                if (item != null)
+                    item.setDisplays(entry.getValue());
+            }
+            for (Map.Entry<Integer, GDCDataStructure[]> entry : readAllGDC(statement, sql.sel_all_commands).entrySet())
+            {
+                final Item item = snapshot.getItem(entry.getKey());
+                if (item != null)
+                    item.setCommands(entry.getValue());
+            }
+
+            result = statement.executeQuery(sql.sel_all_auto_actions);
+            final List<AADataStructure> actions = new ArrayList<AADataStructure>();
+            Item item = null;
+            while (result.next())
+            {
+                final Item next = snapshot.getItem(result.getInt(1));
+                if (next != item)
+                {
+                    if (item != null)
+                        item.setAutomatedActions(actions.toArray(new AADataStructure[actions.size()]));
+                    actions.clear();
+                    item = next;
+                }
+                actions.add(new AADataStructure(result.getString(2), result.getString(3), result.getInt(4)));
+            }
+            if (item != null)
+                item.setAutomatedActions(actions.toArray(new AADataStructure[actions.size()]));
+            result.close();
+        }
+        finally
+        {
+            statement.close();
+        }
+        return snapshot;
+    }
+
+    /** Read guidance, displays or commands for all items
+     *  @param statement Statement to use
+     *  @param query Query for COMPONENT_ID, TITLE, DETAIL, ordered by COMPONENT_ID
+     *  @return Map of item ID to entries
+     *  @throws Exception on error
+     */
+    private Map<Integer, GDCDataStructure[]> readAllGDC(final Statement statement,
+            final String query) throws Exception
+    {
+        final Map<Integer, GDCDataStructure[]> all = new HashMap<Integer, GDCDataStructure[]>();
+        final List<GDCDataStructure> gdc = new ArrayList<GDCDataStructure>();
+        int id = -1;
+        final ResultSet result = statement.executeQuery(query);
+        try
+        {
+            while (result.next())
+            {
+                final int next_id = result.getInt(1);
+                if (next_id != id  &&  gdc.size() > 0)
+                {
+                    all.put(id, gdc.toArray(new GDCDataStructure[gdc.size()]));
+                    gdc.clear();
+                }
+                id = next_id;
+                gdc.add(new GDCDataStructure(result.getString(2), result.getString(3)));
+            }
+            if (gdc.size() > 0)
+                all.put(id, gdc.toArray(new GDCDataStructure[gdc.size()]));
+        }
+        finally
+        {
+            result.close();
+        }
+        return all;
+    }
+
+    /** Read enablement and alarm state of all PVs
+     *  @param pvs Map of RDB ID to PV. PVs not in map are ignored.
+     *  @param severity_mapping
+     *  @param message_mapping
+     *  @throws Exception on error
+     */
+    public void readAlarmStates(final Map<Integer, AlarmTreePV> pvs,
+            final SeverityReader severity_mapping,
+            final MessageReader message_mapping) throws Exception
+    {
+        final Statement statement = rdb.getConnection().createStatement();
+        try
+        {
+            final ResultSet result = statement.executeQuery(sql.sel_all_pv_states);
+            while (result.next())
+            {
+                final AlarmTreePV pv = pvs.get(result.getInt(1));
+                if (pv == null)
+                    continue;
+                pv.setEnabled(result.getBoolean(2));
+                configurePVStateFromResult(pv, result, 3, severity_mapping, message_mapping);
+            }
+            result.close();
+        }
+        finally
+        {
+            statement.close();
+        }
+    }
 }
@@ -0,0 +1,584 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Snapshot of the alarm configuration in the RDB.
+ *  <p>
+ *  Holds all items of the configuration tables, i.e. the hierarchy,
+ *  PV settings, guidance, displays, commands and automated actions,
+ *  as read with a few bulk queries by the {@link AlarmConfigurationReader}.
+ *  The alarm tree is then assembled from the snapshot in memory.
+ *  <p>
+ *  The alarm state of the PVs changes all the time,
+ *  so it is <u>not</u> part of the snapshot but read separately.
+ *  <p>
+ *  The snapshot can be saved to a local file.
+ *  It includes the {@link Stamp} of the RDB configuration at the time
+ *  it was read, so the next start can check if the file is still valid
+ *  instead of reading the complete configuration again.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class AlarmConfigurationSnapshot
+{
+    /** Marker at start of snapshot file */
+    final private static int MAGIC = 0x42454153; // "BEAS"
+
+    /** Version of file format. Increment when changing what's written */
+    final private static int VERSION = 1;
+
+    final private static Charset UTF8 = Charset.forName("UTF-8");
+
+    /** State of the configuration in the RDB.
+     *  <p>
+     *  Changes to the configuration update the config. time of the item,
+     *  adding or removing items changes their number or the highest ID.
+     */
+    public static class Stamp
+    {
+        final private long config_millis;
+        final private int config_nanos;
+        final private int items;
+        final private int max_id;
+
+        /** Initialize
+         *  @param config_time Most recent config. time of any item, may be <code>null</code>
+         *  @param items Number of items
+         *  @param max_id Highest item ID
+         */
+        public Stamp(final Timestamp config_time, final int items, final int max_id)
+        {
+            if (config_time == null)
+            {
+                config_millis = 0;
+                config_nanos = -1;
+            }
+            else
+            {
+                config_millis = config_time.getTime();
+                config_nanos = config_time.getNanos();
+            }
+            this.items = items;
+            this.max_id = max_id;
+        }
+
+        private Stamp(final long config_millis, final int config_nanos,
+                      final int items, final int max_id)
+        {
+            this.config_millis = config_millis;
+            this.config_nanos = config_nanos;
+            this.items = items;
+            this.max_id = max_id;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            final int prime = 31;
+            int result = (int) (config_millis ^ (config_millis >>> 32));
+            result = prime * result + config_nanos;
+            result = prime * result + items;
+            result = prime * result + max_id;
+            return result;
+        }
+
+        @Override
+        public boolean equals(final Object obj)
+        {
+            if (! (obj instanceof Stamp))
+                return false;
+            final Stamp other = (Stamp) obj;
+            return config_millis == other.config_millis  &&
+                   config_nanos == other.config_nanos  &&
+                   items == other.items  &&
+                   max_id == other.max_id;
+        }
+
+        @Override
+        public String toString()
+        {
+            final String time = config_nanos < 0
+                ? "no config time"
+                : new Timestamp(config_millis).toString();
+            return items + " items, max. ID " + max_id + ", " + time;
+        }
+    }
+
+    /** One item of the configuration: Component or PV */
+    public static class Item
+    {
+        final private int id;
+        final private int parent_id;
+        final private String name;
+        final private Timestamp config_time;
+        final private boolean is_pv;
+
+        // PV settings
+        private String description = null;
+        private Boolean annunciating = null;
+        private Boolean latching = null;
+        private int delay = 0;
+        private int count = 0;
+        private String filter = null;
+
+        // GUI info
+        private GDCDataStructure guidance[] = new GDCDataStructure[0];
+        private GDCDataStructure displays[] = new GDCDataStructure[0];
+        private GDCDataStructure commands[] = new GDCDataStructure[0];
+        private AADataStructure automated_actions[] = new AADataStructure[0];
+
+        /** Initialize
+         *  @param id RDB ID
+         *  @param parent_id RDB ID of parent, -1 for root
+         *  @param name Name
+         *  @param config_time Time of last configuration change or <code>null</code>
+         *  @param is_pv Is this a PV, or a component?
+         */
+        Item(final int id, final int parent_id, final String name,
+             final Timestamp config_time, final boolean is_pv)
+        {
+            this.id = id;
+            this.parent_id = parent_id;
+            this.name = name;
+            this.config_time = config_time;
+            this.is_pv = is_pv;
+        }
+
+        /** Set PV configuration
+         *  @param description Description, may be <code>null</code>
+         *  @param annunciating Annunciate? <code>null</code> if not set
+         *  @param latching Latch? <code>null</code> if not set
+         *  @param delay Alarm delay [seconds]
+         *  @param count Alarm count
+         *  @param filter Enablement filter, may be <code>null</code>
+         */
+        void setPVConfig(final String description,
+                final Boolean annunciating, final Boolean latching,
+                final int delay, final int count, final String filter)
+        {
+            this.description = description;
+            this.annunciating = annunciating;
+            this.latching = latching;
+            this.delay = delay;
+            this.count = count;
+            this.filter = filter;
+        }
+
+        void setGuidance(final GDCDataStructure[] guidance)
+        {
+            this.guidance = guidance;
+        }
+
+        void setDisplays(final GDCDataStructure[] displays)
+        {
+            this.displays = displays;
+        }
+
+        void setCommands(final GDCDataStructure[] commands)
+        {
+            this.commands = commands;
+        }
+
+        void setAutomatedActions(final AADataStructure[] automated_actions)
+        {
+            this.automated_actions = automated_actions;
+        }
+
+        /** @return RDB ID */
+        public int getID()
+        {
+            return id;
+        }
+
+        /** @return RDB ID of parent, -1 for root */
+        public int getParentID()
+        {
+            return parent_id;
+        }
+
+        /** @return Name */
+        public String getName()
+        {
+            return name;
+        }
+
+        /** @return Time of last configuration change or <code>null</code> */
+        public Timestamp getConfigTime()
+        {
+            return config_time;
+        }
+
+        /** @return <code>true</code> for PV, <code>false</code> for component */
+        public boolean isPV()
+        {
+            return is_pv;
+        }
+
+        /** @return PV description or <code>null</code> */
+        public String getDescription()
+        {
+            return description;
+        }
+
+        /** @return Annunciate PV? <code>null</code> if not set */
+        public Boolean isAnnunciating()
+        {
+            return annunciating;
+        }
+
+        /** @return Latch PV alarms? <code>null</code> if not set */
+        public Boolean isLatching()
+        {
+            return latching;
+        }
+
+        /** @return Alarm delay [seconds] */
+        public int getDelay()
+        {
+            return delay;
+        }
+
+        /** @return Alarm count */
+        public int getCount()
+        {
+            return count;
+        }
+
+        /** @return Enablement filter or <code>null</code> */
+        public String getFilter()
+        {
+            return filter;
+        }
+
+        /** @return Guidance */
+        public GDCDataStructure[] getGuidance()
+        {
+            return guidance;
+        }
+
+        /** @return Related displays */
+        public GDCDataStructure[] getDisplays()
+        {
+            return displays;
+        }
+
+        /** @return Commands */
+        public GDCDataStructure[] getCommands()
+        {
+            return commands;
+        }
+
+        /** @return Automated actions */
+        public AADataStructure[] getAutomatedActions()
+        {
+            return automated_actions;
+        }
+
+        @Override
+        public String toString()
+        {
+            return (is_pv ? "PV " : "Component ") + name + " (" + id + ")";
+        }
+    }
+
+    /** State of the RDB configuration when snapshot was read */
+    final private Stamp stamp;
+
+    /** Items by ID */
+    final private Map<Integer, Item> items = new HashMap<Integer, Item>();
+
+    /** Child items by parent ID, each list in order of child ID */
+    final private Map<Integer, List<Item>> children = new HashMap<Integer, List<Item>>();
+
+    /** Initialize empty snapshot
+     *  @param stamp State of the RDB configuration
+     */
+    AlarmConfigurationSnapshot(final Stamp stamp)
+    {
+        this.stamp = stamp;
+    }
+
+    /** Add item.
+     *  Items must be added in order of their ID
+     *  to preserve the order of child items.
+     *  @param item Item to add
+     */
+    void add(final Item item)
+    {
+        items.put(item.getID(), item);
+        List<Item> siblings = children.get(item.getParentID());
+        if (siblings == null)
+        {
+            siblings = new ArrayList<Item>();
+            children.put(item.getParentID(), siblings);
+        }
+        siblings.add(item);
+    }
+
+    /** @return State of the RDB configuration when snapshot was read */
+    public Stamp getStamp()
+    {
+        return stamp;
+    }
+
+    /** @return Number of items */
+    public int size()
+    {
+        return items.size();
+    }
+
+    /** @param id RDB ID
+     *  @return Item or <code>null</code>
+     */
+    public Item getItem(final int id)
+    {
+        return items.get(id);
+    }
+
+    /** @param parent_id RDB ID of parent
+     *  @return Child items, ordered by ID. May be empty.
+     */
+    public List<Item> getChildren(final int parent_id)
+    {
+        final List<Item> siblings = children.get(parent_id);
+        if (siblings == null)
+            return Collections.emptyList();
+        return Collections.unmodifiableList(siblings);
+    }
+
+    /** Determine snapshot file for an RDB configuration
+     *  @param directory Directory for snapshot files
+     *  @param url RDB URL
+     *  @param schema RDB schema
+     *  @return Snapshot file
+     */
+    public static File getFile(final String directory, final String url, final String schema)
+    {
+        final String id = Integer.toHexString((url + "|" + schema).hashCode());
+        return new File(directory, "alarm_config_" + id + ".snapshot");
+    }
+
+    /** Write snapshot to file.
+     *  <p>
+     *  Writes to a temporary file which then replaces the original file,
+     *  so that readers never see a partially written file.
+     *  @param file File
+     *  @throws Exception on error
+     */
+    public void write(final File file) throws Exception
+    {
+        final File tmp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+        try
+        {
+            try
+            (
+                final DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(new FileOutputStream(tmp)));
+            )
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(stamp.config_millis);
+                out.writeInt(stamp.config_nanos);
+                out.writeInt(stamp.items);
+                out.writeInt(stamp.max_id);
+                // Write items in order of ID, which keeps the order of child items
+                final List<Integer> ids = new ArrayList<Integer>(items.keySet());
+                Collections.sort(ids);
+                out.writeInt(ids.size());
+                for (Integer id : ids)
+                    writeItem(out, items.get(id));
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally
+        {
+            tmp.delete();
+        }
+    }
+
+    /** Read snapshot from file
+     *  @param file File
+     *  @return {@link AlarmConfigurationSnapshot}
+     *  @throws Exception on error, including unknown file format
+     */
+    public static AlarmConfigurationSnapshot read(final File file) throws Exception
+    {
+        try
+        (
+            final DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(file)));
+        )
+        {
+            if (in.readInt() != MAGIC)
+                throw new Exception("Not an alarm configuration snapshot: " + file);
+            final int version = in.readInt();
+            if (version != VERSION)
+                throw new Exception("Alarm configuration snapshot " + file +
+                        " has version " + version + ", expected " + VERSION);
+            final long config_millis = in.readLong();
+            final int config_nanos = in.readInt();
+            final int item_count = in.readInt();
+            final int max_id = in.readInt();
+            final AlarmConfigurationSnapshot snapshot = new AlarmConfigurationSnapshot(
+                    new Stamp(config_millis, config_nanos, item_count, max_id));
+            final int count = in.readInt();
+            for (int i=0; i<count; ++i)
+                snapshot.add(readItem(in));
+            return snapshot;
+        }
+    }
+
+    private static void writeItem(final DataOutputStream out, final Item item) throws IOException
+    {
+        out.writeInt(item.id);
+        out.writeInt(item.parent_id);
+        writeString(out, item.name);
+        if (item.config_time == null)
+            out.writeBoolean(false);
+        else
+        {
+            out.writeBoolean(true);
+            out.writeLong(item.config_time.getTime());
+            out.writeInt(item.config_time.getNanos());
+        }
+        out.writeBoolean(item.is_pv);
+        if (item.is_pv)
+        {
+            writeString(out, item.description);
+            writeBoolean(out, item.annunciating);
+            writeBoolean(out, item.latching);
+            out.writeInt(item.delay);
+            out.writeInt(item.count);
+            writeString(out, item.filter);
+        }
+        writeGDC(out, item.guidance);
+        writeGDC(out, item.displays);
+        writeGDC(out, item.commands);
+        out.writeInt(item.automated_actions.length);
+        for (AADataStructure action : item.automated_actions)
+        {
+            writeString(out, action.getTitle());
+            writeString(out, action.getDetails());
+            out.writeInt(action.getDelay());
+        }
+    }
+
+    private static Item readItem(final DataInputStream in) throws IOException
+    {
+        final int id = in.readInt();
+        final int parent_id = in.readInt();
+        final String name = readString(in);
+        Timestamp config_time = null;
+        if (in.readBoolean())
+        {
+            config_time = new Timestamp(in.readLong());
+            config_time.setNanos(in.readInt());
+        }
+        final boolean is_pv = in.readBoolean();
+        final Item item = new Item(id, parent_id, name, config_time, is_pv);
+        if (is_pv)
+        {
+            final String description = readString(in);
+            final Boolean annunciating = readBoolean(in);
+            final Boolean latching = readBoolean(in);
+            final int delay = in.readInt();
+            final int count = in.readInt();
+            final String filter = readString(in);
+            item.setPVConfig(description, annunciating, latching, delay, count, filter);
+        }
+        item.setGuidance(readGDC(in));
+        item.setDisplays(readGDC(in));
+        item.setCommands(readGDC(in));
+        final AADataStructure actions[] = new AADataStructure[in.readInt()];
+        for (int i=0; i<actions.length; ++i)
+        {
+            final String title = readString(in);
+            final String details = readString(in);
+            actions[i] = new AADataStructure(title, details, in.readInt());
+        }
+        item.setAutomatedActions(actions);
+        return item;
+    }
+
+    private static void writeGDC(final DataOutputStream out, final GDCDataStructure[] gdc) throws IOException
+    {
+        out.writeInt(gdc.length);
+        for (GDCDataStructure entry : gdc)
+        {
+            writeString(out, entry.getTitle());
+            writeString(out, entry.getDetails());
+        }
+    }
+
+    private static GDCDataStructure[] readGDC(final DataInputStream in) throws IOException
+    {
+        final GDCDataStructure gdc[] = new GDCDataStructure[in.readInt()];
+        for (int i=0; i<gdc.length; ++i)
+        {
+            final String title = readString(in);
+            gdc[i] = new GDCDataStructure(title, readString(in));
+        }
+        return gdc;
+    }
+
+    /** Write string as UTF-8, not limited to 64k like writeUTF, with support for <code>null</code> */
+    private static void writeString(final DataOutputStream out, final String text) throws IOException
+    {
+        if (text == null)
+            out.writeInt(-1);
+        else
+        {
+            final byte[] bytes = text.getBytes(UTF8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(final DataInputStream in) throws IOException
+    {
+        final int length = in.readInt();
+        if (length < 0)
+            return null;
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    private static void writeBoolean(final DataOutputStream out, final Boolean value) throws IOException
+    {
+        out.writeByte(value == null ? -1 : (value ? 1 : 0));
+    }
+
+    private static Boolean readBoolean(final DataInputStream in) throws IOException
+    {
+        final byte value = in.readByte();
+        if (value < 0)
+            return null;
+        return value != 0;
+    }
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.ui.clientmodel;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+import org.csstudio.alarm.beast.Activator;
+import org.csstudio.alarm.beast.client.AlarmTreePV;
+
+/** PVs that changed while the {@link AlarmClientModel} applied a batch of updates
+ *
+ *  <p>Each PV is listed once, in the order of its first change.
+ *  Its 'parent changed' flag is set when any of its changes
+ *  also updated a parent item.
+ *
+ *  <p>Not thread-safe, the model synchronizes access.
+ *  @author agent
+ */
+class AlarmBatchChanges
+{
+    /** 'Parent changed' flag by PV */
+    final private Map<AlarmTreePV, Boolean> changes = new LinkedHashMap<AlarmTreePV, Boolean>();
+
+    /** Add PV to batch of changes
+     *  @param pv PV that changed
+     *  @param parent_changed true if a parent item was updated as well
+     */
+    void add(final AlarmTreePV pv, final boolean parent_changed)
+    {
+        final Boolean previous = changes.get(pv);
+        if (previous == null  ||  (parent_changed  &&  !previous))
+            changes.put(pv, Boolean.valueOf(parent_changed));
+    }
+
+    /** @return Number of PVs in the batch */
+    int size()
+    {
+        return changes.size();
+    }
+
+    /** Inform listeners about each PV in the batch
+     *  @param model Model that applied the batch
+     *  @param listeners Listeners to notify
+     */
+    void notifyListeners(final AlarmClientModel model,
+                         final Iterable<AlarmClientModelListener> listeners)
+    {
+        for (Map.Entry<AlarmTreePV, Boolean> change : changes.entrySet())
+        {
+            for (AlarmClientModelListener listener : listeners)
+            {
+                try
+                {
+                    listener.newAlarmState(model, change.getKey(), change.getValue());
+                }
+                catch (Throwable ex)
+                {
+                    Activator.getLogger().log(Level.WARNING,
+                        "Alarm update notification error", ex);
+                }
+            }
+        }
+    }
+}
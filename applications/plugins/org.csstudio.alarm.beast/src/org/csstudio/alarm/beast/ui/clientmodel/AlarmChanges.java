@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.ui.clientmodel;
+
+import java.util.List;
+
+import org.csstudio.alarm.beast.client.AlarmTreePV;
+
+/** Changes of the {@link AlarmClientModel}'s alarms since a sequence number.
+ *  <p>
+ *  Lists the PVs that changed, grouped by where they are now:
+ *  Active alarms, acknowledged alarms, or neither.
+ *  A view that displays for example the active alarms
+ *  can determine from this which of its alarms were added,
+ *  removed or changed.
+ *  <p>
+ *  When the model cannot provide the changes, for example because
+ *  the configuration was re-loaded, the changes are a 'reset' that
+ *  lists all current alarms, and the view needs to replace
+ *  everything it displays.
+ *
+ *  @see AlarmClientModel#getAlarmChanges(long)
+ *  @author agent
+ */
+public class AlarmChanges
+{
+    final private long sequence;
+    final private boolean reset;
+    final private List<AlarmTreePV> active, acknowledged, cleared;
+
+    /** Initialize
+     *  @param sequence Sequence number of the model for these changes
+     *  @param reset Are these all alarms, not changes?
+     *  @param active PVs that are now active alarms
+     *  @param acknowledged PVs that are now acknowledged alarms
+     *  @param cleared PVs that are now neither active nor acknowledged
+     */
+    AlarmChanges(final long sequence, final boolean reset,
+            final List<AlarmTreePV> active,
+            final List<AlarmTreePV> acknowledged,
+            final List<AlarmTreePV> cleared)
+    {
+        this.sequence = sequence;
+        this.reset = reset;
+        this.active = active;
+        this.acknowledged = acknowledged;
+        this.cleared = cleared;
+    }
+
+    /** @return Sequence number to use for the next request of changes */
+    public long getSequence()
+    {
+        return sequence;
+    }
+
+    /** @return <code>true</code> if this lists all alarms, and any previously displayed
+     *          alarms that are not listed must be removed
+     */
+    public boolean isReset()
+    {
+        return reset;
+    }
+
+    /** @return <code>true</code> if nothing changed */
+    public boolean isEmpty()
+    {
+        return !reset  &&  active.isEmpty()  &&  acknowledged.isEmpty()  &&  cleared.isEmpty();
+    }
+
+    /** @return PVs that are now active alarms */
+    public List<AlarmTreePV> getActive()
+    {
+        return active;
+    }
+
+    /** @return PVs that are now acknowledged alarms */
+    public List<AlarmTreePV> getAcknowledged()
+    {
+        return acknowledged;
+    }
+
+    /** @return PVs that are now neither active nor acknowledged alarms */
+    public List<AlarmTreePV> getCleared()
+    {
+        return cleared;
+    }
+
+    /** @return Debug representation */
+    @SuppressWarnings("nls")
+    @Override
+    public String toString()
+    {
+        return "Alarm changes up to " + sequence + (reset ? " (reset)" : "") +
+               ": " + active.size() + " active, " + acknowledged.size() + " acknowledged, " +
+               cleared.size() + " cleared";
+    }
+}
@@ -8,8 +8,11 @@
 package org.csstudio.alarm.beast.ui.clientmodel;
 
 import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 
+import javax.jms.BytesMessage;
 import javax.jms.MapMessage;
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
@@ -19,6 +22,7 @@ import javax.security.auth.Subject;
 
 import org.csstudio.alarm.beast.Activator;
 import org.csstudio.alarm.beast.JMSAlarmMessage;
+import org.csstudio.alarm.beast.JMSAlarmStateBatch;
 import org.csstudio.alarm.beast.JMSCommunicationWorkQueueThread;
 import org.csstudio.alarm.beast.Preferences;
 import org.csstudio.alarm.beast.TimeoutTimer;
@@ -70,6 +74,29 @@ class AlarmClientCommunicator extends JMSCommunicationWorkQueueThread
         }
     }
 
+    /** Action to update the state of several PVs */
+    private class BatchUpdateAction implements Runnable
+    {
+        final private List<AlarmUpdateInfo> infos;
+
+        public BatchUpdateAction(final List<AlarmUpdateInfo> infos)
+        {
+            this.infos = infos;
+        }
+
+        @Override
+        public void run()
+        {
+            model.updatePVs(infos);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "Update " + infos.size() + " PVs";
+        }
+    }
+
     /** Action to enable/disable a PV */
     private class EnableAction implements Runnable
     {
@@ -165,6 +192,8 @@ class AlarmClientCommunicator extends JMSCommunicationWorkQueueThread
             {
                 if (message instanceof MapMessage)
                     handleMapMessage((MapMessage) message);
+                else if (message instanceof BytesMessage)
+                    handleBytesMessage((BytesMessage) message);
                 else
                     Activator.getLogger().log(Level.WARNING,
                             "Message type {0} not handled", message.getClass().getName());
@@ -403,23 +432,64 @@ class AlarmClientCommunicator extends JMSCommunicationWorkQueueThread
             else if (JMSAlarmMessage.TEXT_DEBUG.equals(text))
                 model.dump();
 
-            if (action == null)
-                return;
-            // Queue or dispatch?
-            synchronized (queue)
+            if (action != null)
+                dispatch(action);
+        }
+        catch (Throwable ex)
+        {
+            Activator.getLogger().log(Level.SEVERE, "Message handler error", ex);
+        }
+    }
+
+    /** Invoked for received binary messages, i.e. batched state updates */
+    private void handleBytesMessage(final BytesMessage message)
+    {
+        try
+        {
+            final String text = message.getStringProperty(JMSLogMessage.TEXT);
+            final boolean maintenance;
+            if (JMSAlarmMessage.TEXT_STATE_BATCH.equals(text))
+                maintenance = false;
+            else if (JMSAlarmMessage.TEXT_STATE_BATCH_MAINTENANCE.equals(text))
+                maintenance = true;
+            else
             {
-                if (use_queue)
-                {
-                    queue.execute(action);
-                    return;
-                }
+                Activator.getLogger().log(Level.WARNING, "Binary message {0} not handled", text);
+                return;
             }
-            // else: Not using queue, and queue no longer locked
-            action.run();
+            timeout_timer.reset();
+            final byte[] bytes = new byte[(int) message.getBodyLength()];
+            message.readBytes(bytes);
+            final List<JMSAlarmStateBatch.Entry> entries = JMSAlarmStateBatch.fromByteArray(bytes);
+            final List<AlarmUpdateInfo> infos = new ArrayList<AlarmUpdateInfo>(entries.size());
+            for (JMSAlarmStateBatch.Entry entry : entries)
+                infos.add(new AlarmUpdateInfo(entry.getName(),
+                        entry.getCurrentSeverity(), entry.getCurrentMessage(),
+                        entry.getSeverity(), entry.getMessage(),
+                        entry.getValue(), entry.getTimestamp()));
+            model.updateServerState(maintenance);
+            dispatch(new BatchUpdateAction(infos));
         }
         catch (Throwable ex)
         {
             Activator.getLogger().log(Level.SEVERE, "Message handler error", ex);
         }
     }
+
+    /** Queue or dispatch action
+     *  @param action Action for received message
+     */
+    private void dispatch(final Runnable action)
+    {
+        synchronized (queue)
+        {
+            if (use_queue)
+            {
+                queue.execute(action);
+                return;
+            }
+        }
+        // else: Not using queue, and queue no longer locked
+        action.run();
+    }
 }
@@ -7,7 +7,10 @@
  ******************************************************************************/
 package org.csstudio.alarm.beast.ui.clientmodel;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -115,6 +118,14 @@ public class AlarmClientModel
      */
     private Set<AlarmTreePV> acknowledged_alarms = new HashSet<AlarmTreePV>();
 
+    /** Maximum number of PVs in the journal of changes */
+    final private static int JOURNAL_LIMIT = 20000;
+
+    /** Journal of changes to the alarms
+     *  <br><b>SYNC:</b> Access needs to synchronize on <code>this</code>
+     */
+    final private AlarmJournal journal = new AlarmJournal(JOURNAL_LIMIT);
+
     /** Listeners who registered for notifications */
     final private CopyOnWriteArrayList<AlarmClientModelListener> listeners =
         new CopyOnWriteArrayList<AlarmClientModelListener>();
@@ -122,6 +133,12 @@ public class AlarmClientModel
     /** Send events? */
     private boolean notify_listeners = true;
 
+    /** PVs that changed while applying a batch of updates,
+     *  <code>null</code> when not applying a batch.
+     *  SYNC on this
+     */
+    private AlarmBatchChanges batch_changes = null;
+
     /** @return <code>true</code> for read-only model */
     final private boolean allow_write = ! Preferences.isReadOnly();
 
@@ -325,6 +342,7 @@ public class AlarmClientModel
                 config.close();
             active_alarms.clear();
             acknowledged_alarms.clear();
+            journal.reset();
             config = null;
             // Note config_tree stays as it was...
         }
@@ -468,6 +486,7 @@ public class AlarmClientModel
                 config = null;
                 active_alarms.clear();
                 acknowledged_alarms.clear();
+                journal.reset();
             }
         }
         fireNewConfig();
@@ -562,6 +581,40 @@ public class AlarmClientModel
         return acknowledged_alarms.toArray(array);
     }
 
+    /** Get changes of the alarms since an earlier call.
+     *  <p>
+     *  Views that display the alarms can use this to update
+     *  only what changed instead of fetching all alarms.
+     *  Initially, or when the model cannot provide the changes since
+     *  the requested sequence number, the result is a 'reset'
+     *  that lists all current alarms.
+     *
+     *  @param since Sequence number of previous {@link AlarmChanges}, or -1 for all alarms
+     *  @return {@link AlarmChanges}
+     */
+    synchronized public AlarmChanges getAlarmChanges(final long since)
+    {
+        final Collection<AlarmTreePV> changes = journal.getChangesSince(since);
+        if (changes == null)
+            return new AlarmChanges(journal.getSequence(), true,
+                    new ArrayList<AlarmTreePV>(active_alarms),
+                    new ArrayList<AlarmTreePV>(acknowledged_alarms),
+                    new ArrayList<AlarmTreePV>(0));
+        final List<AlarmTreePV> active = new ArrayList<AlarmTreePV>();
+        final List<AlarmTreePV> acknowledged = new ArrayList<AlarmTreePV>();
+        final List<AlarmTreePV> cleared = new ArrayList<AlarmTreePV>();
+        for (AlarmTreePV pv : changes)
+        {
+            if (active_alarms.contains(pv))
+                active.add(pv);
+            else if (acknowledged_alarms.contains(pv))
+                acknowledged.add(pv);
+            else
+                cleared.add(pv);
+        }
+        return new AlarmChanges(journal.getSequence(), false, active, acknowledged, cleared);
+    }
+
     /** Add a component to the model and RDB
      *  @param root_or_component Root or Component under which to add the component
      *  @param name Name of the new component
@@ -917,6 +970,41 @@ public class AlarmClientModel
             "Received update for unknown PV {0}", name);
     }
 
+    /** Update the state of several PVs in model.
+     *  <p>
+     *  Called by AlarmUpdateCommunicator, i.e. from JMS thread.
+     *  Listeners are notified after all updates have been applied,
+     *  once for each PV that actually changed.
+     *
+     *  @param infos Alarm update infos
+     */
+    void updatePVs(final List<AlarmUpdateInfo> infos)
+    {
+        final AlarmBatchChanges changes = new AlarmBatchChanges();
+        synchronized (this)
+        {
+            batch_changes = changes;
+        }
+        try
+        {
+            for (AlarmUpdateInfo info : infos)
+                updatePV(info);
+        }
+        finally
+        {
+            synchronized (this)
+            {
+                batch_changes = null;
+            }
+        }
+        synchronized (this)
+        {
+            if (! notify_listeners)
+                return;
+        }
+        changes.notifyListeners(this, listeners);
+    }
+
     /** Locate PV by name
      *  @param name Name of PV to locate. May be <code>null</code>.
      *  @return PV or <code>null</code> when not found
@@ -951,6 +1039,7 @@ public class AlarmClientModel
         new AlarmTreeItem(config_tree, info, 0);
         active_alarms.clear();
         acknowledged_alarms.clear();
+        journal.reset();
     }
 
     /** Send debug trigger to alarm server */
@@ -1050,10 +1139,25 @@ public class AlarmClientModel
                     active_alarms.remove(pv);
                     acknowledged_alarms.remove(pv);
                 }
+                journal.add(pv);
                 if (!notify_listeners )
                     return;
+                if (batch_changes != null)
+                {   // Notify when batch has been applied
+                    batch_changes.add(pv, parent_changed);
+                    return;
+                }
             }
         }
+        notifyAlarmState(pv, parent_changed);
+    }
+
+    /** Inform listeners about change in alarm state
+     *  @param pv PV that might have changed the alarm state or <code>null</code>
+     *  @param parent_changed true if a parent item was updated as well
+     */
+    private void notifyAlarmState(final AlarmTreePV pv, final boolean parent_changed)
+    {
         for (AlarmClientModelListener listener : listeners)
         {
             try
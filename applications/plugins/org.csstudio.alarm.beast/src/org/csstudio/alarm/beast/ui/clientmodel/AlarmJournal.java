@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.ui.clientmodel;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.csstudio.alarm.beast.client.AlarmTreePV;
+
+/** Journal of changes to the alarms of the {@link AlarmClientModel}
+ *
+ *  <p>Each change is assigned a sequence number.
+ *  The journal lists each PV once, under the sequence number of its last change.
+ *  It holds a limited number of PVs.
+ *  When older entries are dropped, or the journal is reset,
+ *  changes since an earlier sequence number are no longer available.
+ *
+ *  <p>Not thread-safe, the model synchronizes access.
+ *  @author agent
+ */
+class AlarmJournal
+{
+    /** Maximum number of PVs in the journal */
+    final private int limit;
+
+    /** Sequence number of the last change */
+    private long sequence = 0;
+
+    /** Changes since this sequence number are in the journal, older ones are not */
+    private long start = 0;
+
+    /** PVs by the sequence number of their last change */
+    final private TreeMap<Long, AlarmTreePV> journal = new TreeMap<Long, AlarmTreePV>();
+
+    /** Sequence number of the last change by PV, i.e. index into the journal */
+    final private Map<AlarmTreePV, Long> index = new HashMap<AlarmTreePV, Long>();
+
+    /** @param limit Maximum number of PVs in the journal */
+    AlarmJournal(final int limit)
+    {
+        this.limit = limit;
+    }
+
+    /** @return Sequence number of the last change */
+    long getSequence()
+    {
+        return sequence;
+    }
+
+    /** @return Number of PVs in the journal */
+    int size()
+    {
+        return journal.size();
+    }
+
+    /** Add PV to journal of changes
+     *  @param pv PV that changed
+     */
+    void add(final AlarmTreePV pv)
+    {
+        final Long seq = Long.valueOf(++sequence);
+        final Long previous = index.put(pv, seq);
+        if (previous != null)
+            journal.remove(previous);
+        journal.put(seq, pv);
+        // Drop oldest changes. Requests for changes before them get a 'reset'
+        while (journal.size() > limit)
+        {
+            final Map.Entry<Long, AlarmTreePV> oldest = journal.pollFirstEntry();
+            index.remove(oldest.getValue());
+            start = oldest.getKey();
+        }
+    }
+
+    /** Clear journal of changes, for example because all alarms were cleared */
+    void reset()
+    {
+        journal.clear();
+        index.clear();
+        start = ++sequence;
+    }
+
+    /** @param since Sequence number of an earlier request
+     *  @return PVs that changed after that sequence number, in the order of their last change,
+     *          or <code>null</code> if the journal no longer has all the changes
+     */
+    Collection<AlarmTreePV> getChangesSince(final long since)
+    {
+        if (since < start)
+            return null;
+        return journal.tailMap(since, false).values();
+    }
+}
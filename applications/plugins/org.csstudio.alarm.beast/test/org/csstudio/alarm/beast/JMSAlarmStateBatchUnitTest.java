@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.csstudio.alarm.beast.JMSAlarmStateBatch.Entry;
+import org.epics.util.time.Timestamp;
+import org.junit.Test;
+
+/** JUnit test of the {@link JMSAlarmStateBatch}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class JMSAlarmStateBatchUnitTest
+{
+    @Test
+    public void testCoalesce()
+    {
+        final Timestamp time = Timestamp.now();
+        final JMSAlarmStateBatch batch = new JMSAlarmStateBatch();
+        batch.add(new Entry("a", SeverityLevel.MINOR, "HIGH", SeverityLevel.MINOR, "HIGH", "5", time));
+        batch.add(new Entry("b", SeverityLevel.MAJOR, "HIHI", SeverityLevel.MAJOR, "HIHI", "9", time));
+        batch.add(new Entry("a", SeverityLevel.OK, "OK", SeverityLevel.MINOR, "HIGH", "1", time));
+        assertThat(batch.size(), equalTo(2));
+        // 'a' is now last, with its latest state
+        final Entry[] entries = batch.getEntries().toArray(new Entry[2]);
+        assertThat(entries[0].getName(), equalTo("b"));
+        assertThat(entries[1].getName(), equalTo("a"));
+        assertThat(entries[1].getCurrentSeverity(), equalTo(SeverityLevel.OK));
+        assertThat(entries[1].getValue(), equalTo("1"));
+    }
+
+    @Test
+    public void testEncoding() throws Exception
+    {
+        final Timestamp time = Timestamp.of(1234567890L, 123456789);
+        final JMSAlarmStateBatch batch = new JMSAlarmStateBatch();
+        for (int i=0; i<100; ++i)
+            batch.add(new Entry("pv" + i, SeverityLevel.MAJOR, "LOLO",
+                    SeverityLevel.MAJOR_ACK, "LOLO", Integer.toString(i), time));
+        batch.add(new Entry("special", SeverityLevel.UNDEFINED, "Disconnected \u00B0",
+                SeverityLevel.INVALID, "", null, time));
+
+        final byte[] bytes = batch.toByteArray();
+        System.out.println(batch.size() + " updates in " + bytes.length + " bytes");
+
+        final List<Entry> copy = JMSAlarmStateBatch.fromByteArray(bytes);
+        assertThat(copy.size(), equalTo(101));
+        assertThat(copy.get(42).getName(), equalTo("pv42"));
+        assertThat(copy.get(42).getCurrentSeverity(), equalTo(SeverityLevel.MAJOR));
+        assertThat(copy.get(42).getCurrentMessage(), equalTo("LOLO"));
+        assertThat(copy.get(42).getSeverity(), equalTo(SeverityLevel.MAJOR_ACK));
+        assertThat(copy.get(42).getMessage(), equalTo("LOLO"));
+        assertThat(copy.get(42).getValue(), equalTo("42"));
+        assertThat(copy.get(42).getTimestamp(), equalTo(time));
+
+        final Entry special = copy.get(100);
+        assertThat(special.getCurrentMessage(), equalTo("Disconnected \u00B0"));
+        assertThat(special.getSeverity(), equalTo(SeverityLevel.INVALID));
+        assertThat(special.getMessage(), equalTo(""));
+        assertThat(special.getValue(), nullValue());
+    }
+
+    @Test(expected=IOException.class)
+    public void testBadData() throws Exception
+    {
+        JMSAlarmStateBatch.fromByteArray(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+    }
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.client;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.csstudio.alarm.beast.client.AlarmConfigurationSnapshot.Item;
+import org.csstudio.alarm.beast.client.AlarmConfigurationSnapshot.Stamp;
+import org.junit.Test;
+
+/** JUnit test of the {@link AlarmConfigurationSnapshot}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class AlarmConfigurationSnapshotUnitTest
+{
+    @Test
+    public void testStamp()
+    {
+        final Timestamp time = new Timestamp(1000000L);
+        assertThat(new Stamp(time, 10, 42), equalTo(new Stamp(new Timestamp(1000000L), 10, 42)));
+        assertThat(new Stamp(time, 10, 42), not(equalTo(new Stamp(time, 11, 42))));
+        assertThat(new Stamp(time, 10, 42), not(equalTo(new Stamp(time, 10, 43))));
+        assertThat(new Stamp(time, 10, 42), not(equalTo(new Stamp(new Timestamp(1000001L), 10, 42))));
+        assertThat(new Stamp(null, 10, 42), not(equalTo(new Stamp(new Timestamp(0L), 10, 42))));
+    }
+
+    @Test
+    public void testHierarchy()
+    {
+        final AlarmConfigurationSnapshot snapshot = createSnapshot();
+        assertThat(snapshot.size(), equalTo(5));
+        List<Item> children = snapshot.getChildren(1);
+        assertThat(children.size(), equalTo(2));
+        assertThat(children.get(0).getName(), equalTo("Area"));
+        assertThat(children.get(1).getName(), equalTo("Other"));
+        children = snapshot.getChildren(2);
+        assertThat(children.size(), equalTo(2));
+        assertThat(children.get(0).getName(), equalTo("pv1"));
+        assertThat(children.get(1).getName(), equalTo("pv2"));
+        assertThat(snapshot.getChildren(3).size(), equalTo(0));
+        assertThat(snapshot.getItem(47), nullValue());
+    }
+
+    @Test
+    public void testFile() throws Exception
+    {
+        final AlarmConfigurationSnapshot snapshot = createSnapshot();
+        final File file = File.createTempFile("alarm_config", ".snapshot");
+        try
+        {
+            snapshot.write(file);
+            final AlarmConfigurationSnapshot copy = AlarmConfigurationSnapshot.read(file);
+            assertThat(copy.getStamp(), equalTo(snapshot.getStamp()));
+            assertThat(copy.size(), equalTo(snapshot.size()));
+
+            final Item root = copy.getItem(1);
+            assertThat(root.getParentID(), equalTo(-1));
+            assertThat(root.getConfigTime(), nullValue());
+            assertThat(root.getGuidance().length, equalTo(1));
+            assertThat(root.getGuidance()[0], equalTo(new GDCDataStructure("Help", "Call someone")));
+
+            final Item pv = copy.getItem(4);
+            assertThat(pv.isPV(), equalTo(true));
+            assertThat(pv.getName(), equalTo("pv1"));
+            assertThat(pv.getParentID(), equalTo(2));
+            assertThat(pv.getConfigTime(), equalTo(snapshot.getItem(4).getConfigTime()));
+            assertThat(pv.getDescription(), equalTo("Some PV \u00B0C"));
+            assertThat(pv.isAnnunciating(), equalTo(Boolean.TRUE));
+            assertThat(pv.isLatching(), nullValue());
+            assertThat(pv.getDelay(), equalTo(5));
+            assertThat(pv.getCount(), equalTo(2));
+            assertThat(pv.getFilter(), nullValue());
+            assertThat(pv.getDisplays().length, equalTo(2));
+            assertThat(pv.getDisplays()[1].getDetails(), equalTo("/path/to/display.opi"));
+            assertThat(pv.getCommands().length, equalTo(0));
+            assertThat(pv.getAutomatedActions().length, equalTo(1));
+            assertThat(pv.getAutomatedActions()[0].getDelay(), equalTo(30));
+
+            // Order of children is preserved
+            final List<Item> children = copy.getChildren(2);
+            assertThat(children.get(0).getName(), equalTo("pv1"));
+            assertThat(children.get(1).getName(), equalTo("pv2"));
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    @Test(expected=Exception.class)
+    public void testBadFile() throws Exception
+    {
+        final File file = File.createTempFile("alarm_config", ".snapshot");
+        try
+        {
+            AlarmConfigurationSnapshot.read(file);
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    /** @return Snapshot 'Root' with 'Area' (pv1, pv2) and 'Other' */
+    private AlarmConfigurationSnapshot createSnapshot()
+    {
+        final Timestamp time = new Timestamp(1234567890L);
+        time.setNanos(123456789);
+        final AlarmConfigurationSnapshot snapshot =
+            new AlarmConfigurationSnapshot(new Stamp(time, 5, 5));
+
+        final Item root = new Item(1, -1, "Root", null, false);
+        root.setGuidance(new GDCDataStructure[] { new GDCDataStructure("Help", "Call someone") });
+        snapshot.add(root);
+        snapshot.add(new Item(2, 1, "Area", time, false));
+        snapshot.add(new Item(3, 1, "Other", time, false));
+
+        final Item pv1 = new Item(4, 2, "pv1", time, true);
+        pv1.setPVConfig("Some PV \u00B0C", Boolean.TRUE, null, 5, 2, null);
+        pv1.setDisplays(new GDCDataStructure[]
+        {
+            new GDCDataStructure("Web", "http://localhost"),
+            new GDCDataStructure("Screen", "/path/to/display.opi"),
+        });
+        pv1.setAutomatedActions(new AADataStructure[] { new AADataStructure("Mail", "mailto:someone", 30) });
+        snapshot.add(pv1);
+
+        final Item pv2 = new Item(5, 2, "pv2", null, true);
+        pv2.setPVConfig(null, Boolean.FALSE, Boolean.TRUE, 0, 0, "pv1 > 2");
+        snapshot.add(pv2);
+        return snapshot;
+    }
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.ui.clientmodel;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.csstudio.alarm.beast.client.AlarmTreeItem;
+import org.csstudio.alarm.beast.client.AlarmTreePV;
+import org.csstudio.alarm.beast.client.AlarmTreeRoot;
+import org.junit.Test;
+
+/** JUnit test of the {@link AlarmBatchChanges}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class AlarmBatchChangesUnitTest
+{
+    final private AlarmTreeRoot root = new AlarmTreeRoot("Root", 0);
+    final private AlarmTreeItem area = new AlarmTreeItem(root, "Area", 1);
+    final private AlarmTreePV a = new AlarmTreePV(area, "a", 2);
+    final private AlarmTreePV b = new AlarmTreePV(area, "b", 3);
+
+    /** Listener that records the notifications */
+    private static class RecordingListener implements AlarmClientModelListener
+    {
+        final List<String> received = new ArrayList<String>();
+
+        @Override
+        public void newAlarmConfiguration(final AlarmClientModel model)
+        {
+            received.add("config");
+        }
+
+        @Override
+        public void serverModeUpdate(final AlarmClientModel model, final boolean maintenance_mode)
+        {
+            received.add("mode");
+        }
+
+        @Override
+        public void serverTimeout(final AlarmClientModel model)
+        {
+            received.add("timeout");
+        }
+
+        @Override
+        public void newAlarmState(final AlarmClientModel model, final AlarmTreePV pv, final boolean parent_changed)
+        {
+            received.add(pv.getName() + (parent_changed ? " and parent" : ""));
+        }
+    }
+
+    @Test
+    public void testChangeWithoutParent()
+    {
+        // 'b' changes the area, then 'a' is acknowledged
+        // while the area remains in alarm because of 'b'
+        final AlarmBatchChanges changes = new AlarmBatchChanges();
+        changes.add(b, true);
+        changes.add(a, false);
+        assertEquals(2, changes.size());
+
+        final RecordingListener listener = new RecordingListener();
+        changes.notifyListeners(null, Arrays.<AlarmClientModelListener>asList(listener));
+        assertEquals(Arrays.asList("b and parent", "a"), listener.received);
+    }
+
+    @Test
+    public void testRepeatedChanges()
+    {
+        // Each PV is listed once, in the order of its first change,
+        // with the parent flag of any of its changes
+        final AlarmBatchChanges changes = new AlarmBatchChanges();
+        changes.add(a, false);
+        changes.add(b, true);
+        changes.add(a, true);
+        changes.add(b, false);
+        assertEquals(2, changes.size());
+
+        final RecordingListener listener = new RecordingListener();
+        changes.notifyListeners(null, Arrays.<AlarmClientModelListener>asList(listener));
+        assertEquals(Arrays.asList("a and parent", "b and parent"), listener.received);
+    }
+}
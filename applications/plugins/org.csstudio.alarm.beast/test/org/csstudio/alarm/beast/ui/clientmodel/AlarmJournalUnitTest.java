@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ *  All rights reserved. This program and the accompanying materials
+ *  are made available under the terms of the Eclipse Public License v1.0
+ *  which accompanies this distribution, and is available at
+ *  http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.alarm.beast.ui.clientmodel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.csstudio.alarm.beast.client.AlarmTreeItem;
+import org.csstudio.alarm.beast.client.AlarmTreePV;
+import org.csstudio.alarm.beast.client.AlarmTreeRoot;
+import org.junit.Test;
+
+/** JUnit test of the {@link AlarmJournal}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class AlarmJournalUnitTest
+{
+    final private AlarmTreeRoot root = new AlarmTreeRoot("Root", 0);
+    final private AlarmTreeItem area = new AlarmTreeItem(root, "Area", 1);
+    final private AlarmTreePV a = new AlarmTreePV(area, "a", 2);
+    final private AlarmTreePV b = new AlarmTreePV(area, "b", 3);
+    final private AlarmTreePV c = new AlarmTreePV(area, "c", 4);
+
+    @Test
+    public void testChanges()
+    {
+        final AlarmJournal journal = new AlarmJournal(10);
+        final long start = journal.getSequence();
+        assertEquals(0, journal.getChangesSince(start).size());
+
+        journal.add(a);
+        journal.add(b);
+        final long seen = journal.getSequence();
+        journal.add(c);
+        assertEquals(Arrays.asList(a, b, c), new ArrayList<AlarmTreePV>(journal.getChangesSince(start)));
+        assertEquals(Arrays.asList(c), new ArrayList<AlarmTreePV>(journal.getChangesSince(seen)));
+        assertEquals(0, journal.getChangesSince(journal.getSequence()).size());
+    }
+
+    @Test
+    public void testCoalescing()
+    {
+        final AlarmJournal journal = new AlarmJournal(10);
+        final long start = journal.getSequence();
+        // Repeated updates of the same PV result in one entry,
+        // listed under its last change
+        for (int i=0; i<100; ++i)
+        {
+            journal.add(a);
+            journal.add(b);
+        }
+        journal.add(a);
+        assertEquals(2, journal.size());
+        assertEquals(Arrays.asList(b, a), new ArrayList<AlarmTreePV>(journal.getChangesSince(start)));
+        assertEquals(201, journal.getSequence() - start);
+
+        // Only the update of 'a' is after the second to last change
+        assertEquals(Arrays.asList(a), new ArrayList<AlarmTreePV>(journal.getChangesSince(journal.getSequence() - 1)));
+    }
+
+    @Test
+    public void testOverflow()
+    {
+        final AlarmJournal journal = new AlarmJournal(2);
+        final long start = journal.getSequence();
+        journal.add(a);
+        final long after_a = journal.getSequence();
+        journal.add(b);
+        assertNotNull(journal.getChangesSince(start));
+
+        // Adding 'c' drops 'a', so changes since the start are incomplete:
+        // Client needs a full refresh
+        journal.add(c);
+        assertEquals(2, journal.size());
+        assertNull(journal.getChangesSince(start));
+        // Client that has seen the change of 'a' still gets the rest
+        final Collection<AlarmTreePV> changes = journal.getChangesSince(after_a);
+        assertEquals(Arrays.asList(b, c), new ArrayList<AlarmTreePV>(changes));
+
+        // Updating an existing PV doesn't drop others
+        journal.add(b);
+        assertEquals(Arrays.asList(c, b), new ArrayList<AlarmTreePV>(journal.getChangesSince(after_a)));
+    }
+
+    @Test
+    public void testReset()
+    {
+        final AlarmJournal journal = new AlarmJournal(10);
+        journal.add(a);
+        final long before = journal.getSequence();
+        journal.add(b);
+
+        // Reset, for example because all alarms were cleared:
+        // Requests for earlier changes need a full refresh
+        journal.reset();
+        assertEquals(0, journal.size());
+        assertNull(journal.getChangesSince(before));
+        assertNull(journal.getChangesSince(journal.getSequence() - 1));
+
+        // After the refresh, changes are again available
+        final long refreshed = journal.getSequence();
+        assertEquals(0, journal.getChangesSince(refreshed).size());
+        journal.add(c);
+        assertEquals(Arrays.asList(c), new ArrayList<AlarmTreePV>(journal.getChangesSince(refreshed)));
+    }
+}
@@ -47,6 +47,12 @@ public class Messages
     final public static String HTTP_ReceivedValues = "Received Values";
     final public static String HTTP_StartTime = "Start Time";
     final public static String HTTP_State = "State";
+    final public static String HTTP_SpoolBacklog = "Spool Backlog";
+    final public static String HTTP_SpoolDropped = "Spool Dropped";
+    final public static String HTTP_SpoolFile = "Spool File";
+    final public static String HTTP_SpoolReplayRate = "Spool Replay Rate";
+    final public static String HTTP_SpoolReplayed = "Spool Replayed";
+    final public static String HTTP_SpoolSize = "Spool Size";
     final public static String HTTP_Status = "Status";
     final public static String HTTP_Total = "Total";
     final public static String HTTP_Uptime = "Uptime";
@@ -57,4 +63,6 @@ public class Messages
     final public static String HTTP_WriteError = "Write Error";
     final public static String HTTP_WritePeriod = "Write Period";
     final public static String HTTP_WriteState = "Write State";
+    final public static String HTTP_WriteThread = "Write Thread";
+    final public static String HTTP_WriteThreads = "Write Threads";
 }
@@ -49,6 +49,58 @@ public class Preferences
         return prefs.getInt(Activator.ID, "batch_size", batch_size, null);
 	}
 	
+	public static int getWriteThreads()
+	{
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        final int write_threads = 1;
+        if (prefs == null)
+        	return write_threads;
+        return prefs.getInt(Activator.ID, "write_threads", write_threads, null);
+	}
+
+	public static String getSpoolFile()
+	{
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        if (prefs == null)
+        	return "";
+        return prefs.getString(Activator.ID, "spool_file", "", null);
+	}
+
+	public static int getSpoolSizeMB()
+	{
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        final int spool_size = 100;
+        if (prefs == null)
+        	return spool_size;
+        return prefs.getInt(Activator.ID, "spool_size", spool_size, null);
+	}
+
+	public static double getSpoolReplayRate()
+	{
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        final double replay_rate = 1000.0;
+        if (prefs == null)
+        	return replay_rate;
+        return prefs.getDouble(Activator.ID, "spool_replay_rate", replay_rate, null);
+	}
+
+	public static boolean useTimingWheel()
+	{
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        if (prefs == null)
+        	return false;
+        return prefs.getBoolean(Activator.ID, "timing_wheel", false, null);
+	}
+
+	public static int getScanThreads()
+	{
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        final int scan_threads = 0;
+        if (prefs == null)
+        	return scan_threads;
+        return prefs.getInt(Activator.ID, "scan_threads", scan_threads, null);
+	}
+
 	public static double getBufferReserve()
 	{
         final IPreferencesService prefs = Platform.getPreferencesService();
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/** Bounded, lock-free ring buffer.
+ *  <p>
+ *  Multiple threads may add and remove elements without locking.
+ *  Each slot carries a sequence number that tells producers
+ *  and consumers whether the slot is ready for them
+ *  (D. Vyukov's bounded MPMC queue).
+ *  <p>
+ *  Unlike the <code>RingBuffer</code> from apputil,
+ *  {@link #offer(Object)} does not overwrite the oldest element
+ *  when the buffer is full.
+ *  The caller decides what to do, for example {@link #remove()}
+ *  the oldest element and try again.
+ *
+ *  @author agent
+ *  @param <T> Element type
+ */
+class ConcurrentRingBuffer<T>
+{
+    /** Maximum number of elements */
+    final private int capacity;
+
+    /** Elements */
+    final private AtomicReferenceArray<T> ring;
+
+    /** Sequence number of each slot.
+     *  <p>
+     *  <code>sequence[i] == pos</code>: Slot is free for the producer at position <code>pos</code>.
+     *  <code>sequence[i] == pos+1</code>: Slot holds the element added at position <code>pos</code>.
+     */
+    final private AtomicLongArray sequence;
+
+    /** Position of next element to add */
+    final private AtomicLong tail = new AtomicLong();
+
+    /** Position of next element to remove */
+    final private AtomicLong head = new AtomicLong();
+
+    /** Initialize
+     *  @param capacity Maximum number of elements
+     */
+    public ConcurrentRingBuffer(final int capacity)
+    {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive, got " + capacity); //$NON-NLS-1$
+        this.capacity = capacity;
+        ring = new AtomicReferenceArray<T>(capacity);
+        sequence = new AtomicLongArray(capacity);
+        for (int i=0; i<capacity; ++i)
+            sequence.set(i, i);
+    }
+
+    /** @return Maximum number of entries in ring buffer */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /** @return Number of valid entries in ring buffer.
+     *          Only a snapshot while other threads add or remove elements.
+     */
+    public int size()
+    {
+        final long size = tail.get() - head.get();
+        if (size < 0)
+            return 0;
+        if (size > capacity)
+            return capacity;
+        return (int) size;
+    }
+
+    /** @return <code>true</code> if ring buffer is empty */
+    public boolean isEmpty()
+    {
+        return size() <= 0;
+    }
+
+    /** Add item to ring buffer
+     *  @param item Item to add, must not be <code>null</code>
+     *  @return <code>true</code> if added,
+     *          <code>false</code> if the buffer was full
+     */
+    public boolean offer(final T item)
+    {
+        long pos = tail.get();
+        while (true)
+        {
+            final int i = (int) (pos % capacity);
+            final long seq = sequence.get(i);
+            final long diff = seq - pos;
+            if (diff == 0)
+            {   // Slot is free, try to claim it
+                if (tail.compareAndSet(pos, pos + 1))
+                {
+                    ring.lazySet(i, item);
+                    sequence.set(i, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            }
+            else if (diff < 0) // Slot still holds element from previous lap
+                return false;
+            else               // Another producer claimed the slot
+                pos = tail.get();
+        }
+    }
+
+    /** Remove the oldest ring buffer element.
+     *  @return Oldest ring buffer element or <code>null</code>
+     */
+    public T remove()
+    {
+        long pos = head.get();
+        while (true)
+        {
+            final int i = (int) (pos % capacity);
+            final long seq = sequence.get(i);
+            final long diff = seq - (pos + 1);
+            if (diff == 0)
+            {   // Slot holds an element, try to claim it
+                if (head.compareAndSet(pos, pos + 1))
+                {
+                    final T item = ring.get(i);
+                    ring.lazySet(i, null);
+                    // Free slot for the producer in the next lap
+                    sequence.set(i, pos + capacity);
+                    return item;
+                }
+                pos = head.get();
+            }
+            else if (diff < 0) // Slot not yet filled: Empty
+                return null;
+            else               // Another consumer claimed the slot
+                pos = head.get();
+        }
+    }
+}
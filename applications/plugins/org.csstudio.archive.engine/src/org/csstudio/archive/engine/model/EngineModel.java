@@ -7,6 +7,7 @@
  ******************************************************************************/
 package org.csstudio.archive.engine.model;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -19,8 +20,10 @@ import org.csstudio.archive.config.GroupConfig;
 import org.csstudio.archive.config.SampleMode;
 import org.csstudio.archive.engine.Activator;
 import org.csstudio.archive.engine.Preferences;
+import org.csstudio.archive.engine.scanner.ScanScheduler;
 import org.csstudio.archive.engine.scanner.ScanThread;
 import org.csstudio.archive.engine.scanner.Scanner;
+import org.csstudio.archive.engine.scanner.TimingWheelScanner;
 import org.csstudio.archive.vtype.ArchiveVString;
 import org.csstudio.archive.vtype.TimestampHelper;
 import org.epics.util.time.Timestamp;
@@ -40,8 +43,13 @@ public class EngineModel
     /** Name of this model */
     private String name = "Archive Engine";  //$NON-NLS-1$
 
-    /** Thread that writes to the <code>archive</code> */
-    final private WriteThread writer;
+    /** Threads that write to the <code>archive</code>,
+     *  each handling a subset of the channels
+     */
+    final private WriteThread writers[];
+
+    /** Spool for samples that would be lost to buffer overruns, or <code>null</code> */
+    private SampleSpool spool = null;
 
     /** All the channels.
      *  <p>
@@ -62,7 +70,9 @@ public class EngineModel
     final List<ArchiveGroup> groups = new ArrayList<ArchiveGroup>();
 
     /** Scanner for scanned channels */
-    final Scanner scanner = new Scanner();
+    final ScanScheduler scanner = Preferences.useTimingWheel()
+        ? new TimingWheelScanner(Preferences.getScanThreads())
+        : new Scanner();
 
     /** Thread that runs the scanner */
     final ScanThread scan_thread = new ScanThread(scanner);
@@ -97,6 +107,18 @@ public class EngineModel
     /** Write batch size */
     final private static int batch_size = Preferences.getBatchSize();
 
+    /** Number of write threads */
+    final private static int write_threads = Math.max(1, Preferences.getWriteThreads());
+
+    /** Spool file, empty to disable spooling */
+    final private static String spool_file = Preferences.getSpoolFile();
+
+    /** Spool file size in MB */
+    final private static int spool_size = Preferences.getSpoolSizeMB();
+
+    /** Maximum number of spooled samples to write per second */
+    final private static double spool_replay_rate = Preferences.getSpoolReplayRate();
+
     /** Buffer reserve (N times what's ideally needed) */
     final private static double buffer_reserve = Preferences.getBufferReserve();
 
@@ -106,7 +128,14 @@ public class EngineModel
     /** Construct model that writes to archive */
     public EngineModel()
     {
-        writer = new WriteThread();
+        if (write_threads == 1)
+            writers = new WriteThread[] { new WriteThread() };
+        else
+        {
+            writers = new WriteThread[write_threads];
+            for (int i=0; i<write_threads; ++i)
+                writers[i] = new WriteThread("WriteThread " + (i+1)); //$NON-NLS-1$
+        }
     }
 
     /** @return Name (description) */
@@ -133,6 +162,41 @@ public class EngineModel
         return batch_size;
     }
 
+    /** @return Number of write threads */
+    public int getWriteThreadCount()
+    {
+        return writers.length;
+    }
+
+    /** @param index 0 .. getWriteThreadCount()-1
+     *  @return Write thread
+     */
+    public WriteThread getWriteThread(final int index)
+    {
+        return writers[index];
+    }
+
+    /** @param channel_name Channel name
+     *  @return Write thread that handles the channel
+     */
+    private WriteThread getWriteThread(final String channel_name)
+    {
+        final int index = (channel_name.hashCode() & Integer.MAX_VALUE) % writers.length;
+        return writers[index];
+    }
+
+    /** @return Spool for samples that would be lost to buffer overruns, or <code>null</code> */
+    public SampleSpool getSpool()
+    {
+        return spool;
+    }
+
+    /** @return Maximum number of spooled samples to write per second */
+    public double getSpoolReplayRate()
+    {
+        return spool_replay_rate;
+    }
+
     /** @return Current model state */
     public State getState()
     {
@@ -277,7 +341,7 @@ public class EngineModel
             channels.add(channel);
             channel_by_name.put(channel.getName(), channel);
         }
-        writer.addChannel(channel);
+        getWriteThread(channel.getName()).addChannel(channel);
 
         // Connect new or old channel to group
         channel.addGroup(group);
@@ -291,7 +355,16 @@ public class EngineModel
     {
         start_time = Timestamp.now();
         state = State.RUNNING;
-        writer.start(write_period, batch_size);
+        if (spool_file.length() > 0)
+        {
+            final int size = (int) Math.min(Integer.MAX_VALUE, spool_size * 1024L * 1024L);
+            spool = new SampleSpool(new File(spool_file), size);
+            for (WriteThread writer : writers)
+                writer.setSpool(spool, spool_replay_rate / writers.length);
+            SampleBuffer.setSpool(spool);
+        }
+        for (WriteThread writer : writers)
+            writer.start(write_period, batch_size);
         for (ArchiveGroup group : groups)
         {
             group.start();
@@ -304,25 +377,38 @@ public class EngineModel
         scan_thread.start();
     }
 
-    /** @return Timestamp of end of last write run */
+    /** @return Timestamp of end of last write run of any write thread */
     public Timestamp getLastWriteTime()
     {
-        return writer.getLastWriteTime();
+        Timestamp last = null;
+        for (WriteThread writer : writers)
+        {
+            final Timestamp time = writer.getLastWriteTime();
+            if (time != null  &&  (last == null  ||  time.compareTo(last) > 0))
+                last = time;
+        }
+        return last;
     }
 
-    /** @return Average number of values per write run */
+    /** @return Average number of values per write run, summed over all write threads */
     public double getWriteCount()
     {
-        return writer.getWriteCount();
+        double count = 0;
+        for (WriteThread writer : writers)
+            count += writer.getWriteCount();
+        return count;
     }
 
-    /** @return  Average duration of write run in seconds */
+    /** @return  Average duration of write run in seconds, maximum of all write threads */
     public double getWriteDuration()
     {
-        return writer.getWriteDuration();
+        double duration = 0;
+        for (WriteThread writer : writers)
+            duration = Math.max(duration, writer.getWriteDuration());
+        return duration;
     }
 
-    /** @see Scanner#getIdlePercentage() */
+    /** @see ScanScheduler#getIdlePercentage() */
     public double getIdlePercentage()
     {
         return scanner.getIdlePercentage();
@@ -352,7 +438,10 @@ public class EngineModel
     /** Reset engine statistics */
     public void reset()
     {
-        writer.reset();
+        for (WriteThread writer : writers)
+            writer.reset();
+        if (spool != null)
+            spool.reset();
         scanner.reset();
         synchronized (this)
         {
@@ -371,13 +460,30 @@ public class EngineModel
         scan_thread.stop();
         // Assert that scanning has stopped before we add 'off' events
         scan_thread.join();
+        scanner.shutdown();
         // Disconnect from network
         Activator.getLogger().info("Stopping archive groups");
         for (ArchiveGroup group : groups)
             group.stop();
         // Flush all values out
         Activator.getLogger().info("Stopping writer");
-        writer.shutdown();
+        Exception error = null;
+        try
+        {
+            WriteThread.shutdown(writers);
+        }
+        catch (Exception ex)
+        {   // Close spool, then report error
+            error = ex;
+        }
+        if (spool != null)
+        {
+            SampleBuffer.setSpool(null);
+            spool.close();
+            spool = null;
+        }
+        if (error != null)
+            throw error;
         // Update state
         state = State.IDLE;
         start_time = null;
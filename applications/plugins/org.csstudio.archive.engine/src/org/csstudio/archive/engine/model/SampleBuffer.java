@@ -7,17 +7,23 @@
  ******************************************************************************/
 package org.csstudio.archive.engine.model;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
-import org.csstudio.apputil.ringbuffer.RingBuffer;
 import org.csstudio.archive.engine.ThrottledLogger;
 import org.epics.vtype.VType;
 
 /** Buffer for the samples of one channel.
  *  <p>
- *  Assumes that one thread adds samples, while a different
+ *  Assumes that one or more threads add samples, while a different
  *  thread removes them.
  *  When the queue size is reached, older samples get dropped.
+ *  <p>
+ *  The queue is lock-free, so the PV callback threads that add samples
+ *  are not blocked by the write thread that removes them.
+ *  <p>
+ *  When a {@link SampleSpool} is configured, older samples are
+ *  moved to the spool instead of being dropped.
  *
  *  @author Kay Kasemir
  */
@@ -29,29 +35,35 @@ public class SampleBuffer
      */
     final private String channel_name;
 
-    /** The actual samples in a thread-save queue. */
-    final private RingBuffer<VType> samples;
+    /** The actual samples in a lock-free queue. */
+    final private ConcurrentRingBuffer<VType> samples;
 
     /** Statistics */
     final private BufferStats stats = new BufferStats();
 
-    /** Number of overruns when new string of overruns started, or <code>null</code> */
-    private Integer start_of_overruns;
+    /** Number of overruns when new string of overruns started, or -1 */
+    final private AtomicInteger start_of_overruns = new AtomicInteger(-1);
 
     /** Logger for overrun messages */
     final private static ThrottledLogger overrun_msg =
         new ThrottledLogger(Level.WARNING, "log_overrun"); //$NON-NLS-1$
 
-    /** Is the buffer in an error state because of RDB write errors?
+    /** Number of write threads that are in an error state because of RDB write errors.
+     *  The buffers are in an error state while this is above zero.
+     *  Note that this is global for all buffers, not per instance!
+     */
+    final private static AtomicInteger errors = new AtomicInteger();
+
+    /** Spool for samples that would be dropped, or <code>null</code>.
      *  Note that this is global for all buffers, not per instance!
      */
-    private static volatile boolean error = false;
+    private static volatile SampleSpool spool = null;
 
     /** Create sample buffer of given capacity */
     SampleBuffer(final String channel_name, final int capacity)
     {
         this.channel_name = channel_name;
-        samples = new RingBuffer<VType>(capacity);
+        samples = new ConcurrentRingBuffer<VType>(capacity);
     }
 
     /** @return channel name of this buffer */
@@ -63,62 +75,87 @@ public class SampleBuffer
     /** @return Queue capacity, i.e. maximum queue size. */
     public int getCapacity()
     {
-    	synchronized (samples)
-        {
-    		return samples.getCapacity();
-        }
+        return samples.getCapacity();
     }
 
     /** @return Current queue size, i.e. number of samples in the queue. */
     public int getQueueSize()
     {
-    	synchronized (samples)
-        {
-    		return samples.size();
-        }
+        return samples.size();
     }
 
     /** @return <code>true</code> if currently experiencing write errors */
     public static boolean isInErrorState()
     {
-        return error;
+        return errors.get() > 0;
     }
 
-    /** Set the error state. */
-    static void setErrorState(final boolean error)
+    /** Update the error state when a write thread enters or leaves its error state.
+     *  @param error <code>true</code> if a write thread entered its error state,
+     *               <code>false</code> if it recovered
+     */
+    static void updateErrorState(final boolean error)
     {
-        SampleBuffer.error = error;
+        if (error)
+            errors.incrementAndGet();
+        else
+            errors.decrementAndGet();
+    }
+
+    /** @param spool Spool for samples that would be dropped, or <code>null</code> */
+    static void setSpool(final SampleSpool spool)
+    {
+        SampleBuffer.spool = spool;
     }
 
     /** Add a sample to the queue, maybe dropping older samples */
     @SuppressWarnings("nls")
     void add(final VType value)
     {
-    	synchronized (samples)
+        if (samples.offer(value))
         {
-            if (samples.isFull())
-            {   // Note start of overruns, then drop older sample
-                if (start_of_overruns == null)
-                    start_of_overruns = Integer.valueOf(stats.getOverruns());
-                stats.addOverrun();
-            }
-            else if (start_of_overruns != null)
+            if (start_of_overruns.get() >= 0)
             {   // Ending a string of overruns. Maybe log it.
-                final int overruns = stats.getOverruns() - start_of_overruns;
-                overrun_msg.log(channel_name + ": " + overruns + " overruns");
-                start_of_overruns = null;
+                final int start = start_of_overruns.getAndSet(-1);
+                if (start >= 0)
+                {
+                    final int overruns = stats.getOverruns() - start;
+                    overrun_msg.log(channel_name + ": " + overruns + " overruns");
+                }
+            }
+            return;
+        }
+        // Move older samples to the spool until there's room
+        final SampleSpool spool = SampleBuffer.spool;
+        if (spool != null)
+        {
+            while (true)
+            {
+                final VType older = samples.remove();
+                if (older != null  &&  !spool.add(channel_name, older))
+                {   // Spool is full, sample is lost. Continue with overruns
+                    start_of_overruns.compareAndSet(-1, stats.getOverruns());
+                    stats.addOverrun();
+                    break;
+                }
+                if (samples.offer(value))
+                    return;
             }
-            samples.add(value);
         }
+        // Note start of overruns, then drop older samples until there's room
+        start_of_overruns.compareAndSet(-1, stats.getOverruns());
+        do
+        {
+            if (samples.remove() != null)
+                stats.addOverrun();
+        }
+        while (! samples.offer(value));
     }
 
     /** @return latest sample in queue or <code>null</code> if empty */
     VType remove()
     {
-    	synchronized (samples)
-        {
-            return samples.remove();
-        }
+        return samples.remove();
     }
 
     /** Update stats with current values */
@@ -136,7 +173,7 @@ public class SampleBuffer
     /** Reset statistics */
     public void reset()
     {
-        start_of_overruns = null;
+        start_of_overruns.set(-1);
         stats.reset();
     }
 
@@ -0,0 +1,520 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import org.csstudio.archive.engine.Activator;
+import org.csstudio.archive.vtype.ArchiveVEnum;
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.ArchiveVNumberArray;
+import org.csstudio.archive.vtype.ArchiveVString;
+import org.csstudio.archive.vtype.VTypeHelper;
+import org.epics.util.array.ListNumber;
+import org.epics.util.text.NumberFormats;
+import org.epics.util.time.Timestamp;
+import org.epics.vtype.AlarmSeverity;
+import org.epics.vtype.Display;
+import org.epics.vtype.VEnum;
+import org.epics.vtype.VNumber;
+import org.epics.vtype.VNumberArray;
+import org.epics.vtype.VString;
+import org.epics.vtype.VType;
+import org.epics.vtype.ValueFactory;
+
+/** Disk spool for samples that would otherwise be lost
+ *  to {@link SampleBuffer} overruns.
+ *  <p>
+ *  Samples are appended to a memory-mapped file of fixed size
+ *  that is used as a ring buffer:
+ *  Space of replayed samples is re-used right away.
+ *  When the file is full, samples are dropped.
+ *  <p>
+ *  Samples are replayed in the order they were spooled.
+ *  Since a {@link SampleBuffer} spools its oldest samples,
+ *  that is the time stamp order of each channel.
+ *  The {@link WriteThread} replays them at a limited rate
+ *  once it can write to the archive, and holds back the
+ *  samples of channels that still have spooled samples,
+ *  so for each channel the archive receives the spooled samples
+ *  before any newer samples.
+ *  <p>
+ *  The spool is only meant to bridge archive outages while the
+ *  engine is running. The file is truncated on startup.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class SampleSpool
+{
+    /** Type codes for spooled samples */
+    final private static byte DOUBLE = 'd', LONG = 'l', ARRAY = 'a', ENUM = 'e', STRING = 's';
+
+    /** Spooled sample */
+    public static class SpooledSample
+    {
+        final private String channel_name;
+        final private VType value;
+
+        SpooledSample(final String channel_name, final VType value)
+        {
+            this.channel_name = channel_name;
+            this.value = value;
+        }
+
+        /** @return Name of channel */
+        public String getChannelName()
+        {
+            return channel_name;
+        }
+
+        /** @return Sample */
+        public VType getValue()
+        {
+            return value;
+        }
+    }
+
+    /** Spool file */
+    final private File file;
+
+    final private RandomAccessFile access;
+
+    /** Memory-mapped content of the spool file
+     *  <p>
+     *  Synchronize on <code>this</code> for all buffer access.
+     */
+    final private MappedByteBuffer buffer;
+
+    /** Buffer for encoding one sample */
+    final private ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+
+    final private DataOutputStream out = new DataOutputStream(encoded);
+
+    /** Position where the next sample is appended */
+    private int write_pos = 0;
+
+    /** Position of next sample to replay */
+    private int read_pos = 0;
+
+    /** Bytes used by samples between read_pos and write_pos */
+    private int used = 0;
+
+    /** Number of samples between read_pos and write_pos */
+    private int backlog = 0;
+
+    /** Number of spooled samples by channel name */
+    final private Map<String, Integer> channel_backlog = new HashMap<String, Integer>();
+
+    /** Samples handed out by {@link #peek(int)}, not yet {@link #commit()}ted, or <code>null</code> */
+    private List<SpooledSample> peeked = null;
+
+    /** Read position after the peeked samples */
+    private int peeked_pos;
+
+    /** Bytes used by the peeked samples */
+    private int peeked_bytes;
+
+    /** Has the spool been closed? */
+    private boolean closed = false;
+
+    /** Statistics */
+    private long spooled = 0, replayed = 0, dropped = 0;
+
+    /** Create spool
+     *  @param file Spool file, will be truncated
+     *  @param size Size of spool file in bytes
+     *  @throws Exception on error
+     */
+    public SampleSpool(final File file, final int size) throws Exception
+    {
+        this.file = file;
+        access = new RandomAccessFile(file, "rw");
+        access.setLength(0);
+        access.setLength(size);
+        buffer = access.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        Activator.getLogger().log(Level.INFO, "Spooling overruns to {0}, {1} bytes",
+                new Object[] { file, size });
+    }
+
+    /** @return Spool file */
+    public File getFile()
+    {
+        return file;
+    }
+
+    /** @return Size of spool file in bytes */
+    public int getCapacity()
+    {
+        return buffer.capacity();
+    }
+
+    /** @return Bytes used by spooled samples */
+    public synchronized int getUsedBytes()
+    {
+        return used;
+    }
+
+    /** @return Number of spooled samples that still need to be written */
+    public synchronized int getBacklog()
+    {
+        return backlog;
+    }
+
+    /** @param channel_name Name of channel
+     *  @return <code>true</code> if the spool holds samples of that channel
+     *          which still need to be written
+     */
+    public synchronized boolean hasBacklog(final String channel_name)
+    {
+        return channel_backlog.containsKey(channel_name);
+    }
+
+    /** @return Total number of samples added to the spool */
+    public synchronized long getSpooledCount()
+    {
+        return spooled;
+    }
+
+    /** @return Total number of samples replayed from the spool */
+    public synchronized long getReplayedCount()
+    {
+        return replayed;
+    }
+
+    /** @return Number of samples dropped because the spool was full */
+    public synchronized long getDroppedCount()
+    {
+        return dropped;
+    }
+
+    /** Reset statistics */
+    public synchronized void reset()
+    {
+        spooled = replayed = dropped = 0;
+    }
+
+    /** Add sample to spool
+     *  @param channel_name Name of channel
+     *  @param value Sample
+     *  @return <code>true</code> if spooled, <code>false</code> if spool is full or closed
+     */
+    public synchronized boolean add(final String channel_name, final VType value)
+    {
+        if (closed)
+        {
+            ++dropped;
+            return false;
+        }
+        try
+        {
+            encoded.reset();
+            encode(channel_name, value);
+            out.flush();
+        }
+        catch (IOException ex)
+        {
+            Activator.getLogger().log(Level.WARNING, "Cannot spool " + channel_name, ex);
+            ++dropped;
+            return false;
+        }
+        final int size = encoded.size();
+        if (buffer.capacity() - used < 4 + size)
+        {
+            ++dropped;
+            return false;
+        }
+        final byte[] data = encoded.toByteArray();
+        write_pos = put(write_pos, new byte[]
+        {
+            (byte) (size >>> 24), (byte) (size >>> 16), (byte) (size >>> 8), (byte) size
+        });
+        write_pos = put(write_pos, data);
+        used += 4 + size;
+        ++backlog;
+        ++spooled;
+        final Integer count = channel_backlog.get(channel_name);
+        channel_backlog.put(channel_name, count == null ? 1 : count + 1);
+        return true;
+    }
+
+    /** Get oldest spooled samples.
+     *  <p>
+     *  Samples remain in the spool until they are {@link #commit()}ted.
+     *  Only one thread at a time may replay samples.
+     *
+     *  @param max_count Maximum number of samples to get
+     *  @return Samples in the order they were spooled.
+     *          Empty if nothing is spooled or another thread replays samples.
+     *  @throws Exception on error decoding spooled samples
+     */
+    public synchronized List<SpooledSample> peek(final int max_count) throws Exception
+    {
+        if (closed  ||  peeked != null  ||  backlog <= 0)
+            return Collections.emptyList();
+        final int count = Math.min(max_count, backlog);
+        final List<SpooledSample> samples = new ArrayList<SpooledSample>(count);
+        int pos = read_pos;
+        int bytes = 0;
+        final byte[] header = new byte[4];
+        for (int i=0; i<count; ++i)
+        {
+            pos = get(pos, header);
+            final int size = ((header[0] & 0xFF) << 24) | ((header[1] & 0xFF) << 16) |
+                             ((header[2] & 0xFF) << 8)  |  (header[3] & 0xFF);
+            final byte[] data = new byte[size];
+            pos = get(pos, data);
+            bytes += 4 + size;
+            samples.add(decode(new DataInputStream(new ByteArrayInputStream(data))));
+        }
+        peeked = samples;
+        peeked_pos = pos;
+        peeked_bytes = bytes;
+        return samples;
+    }
+
+    /** Remove samples that were obtained by {@link #peek(int)} from the spool
+     *  because they have been written
+     */
+    public synchronized void commit()
+    {
+        if (peeked == null)
+            return;
+        read_pos = peeked_pos;
+        used -= peeked_bytes;
+        backlog -= peeked.size();
+        replayed += peeked.size();
+        for (SpooledSample sample : peeked)
+        {
+            final int count = channel_backlog.get(sample.channel_name) - 1;
+            if (count > 0)
+                channel_backlog.put(sample.channel_name, count);
+            else
+                channel_backlog.remove(sample.channel_name);
+        }
+        peeked = null;
+        // Start over at the beginning of the file when empty
+        if (backlog <= 0)
+            read_pos = write_pos = 0;
+    }
+
+    /** Keep samples that were obtained by {@link #peek(int)} in the spool
+     *  because they could not be written
+     */
+    public synchronized void abort()
+    {
+        peeked = null;
+    }
+
+    /** Close spool file. Samples that have not been replayed are lost.
+     *  <p>
+     *  The memory mapping is released when the buffer is garbage-collected.
+     */
+    public synchronized void close()
+    {
+        if (closed)
+            return;
+        closed = true;
+        if (backlog > 0)
+            Activator.getLogger().log(Level.WARNING, "Closing spool {0} with {1} samples",
+                    new Object[] { file, backlog });
+        try
+        {
+            access.close();
+        }
+        catch (IOException ex)
+        {
+            Activator.getLogger().log(Level.WARNING, "Error closing " + file, ex);
+        }
+    }
+
+    /** Write data into the ring buffer
+     *  @param pos Position where to write
+     *  @param data Data to write
+     *  @return Position after the data
+     */
+    private int put(int pos, final byte[] data)
+    {
+        final int capacity = buffer.capacity();
+        for (byte b : data)
+        {
+            buffer.put(pos, b);
+            if (++pos >= capacity)
+                pos = 0;
+        }
+        return pos;
+    }
+
+    /** Read data from the ring buffer
+     *  @param pos Position where to read
+     *  @param data Data to fill
+     *  @return Position after the data
+     */
+    private int get(int pos, final byte[] data)
+    {
+        final int capacity = buffer.capacity();
+        for (int i=0; i<data.length; ++i)
+        {
+            data[i] = buffer.get(pos);
+            if (++pos >= capacity)
+                pos = 0;
+        }
+        return pos;
+    }
+
+    /** Encode sample into <code>out</code> */
+    private void encode(final String channel_name, final VType value) throws IOException
+    {
+        out.writeUTF(channel_name);
+        final Timestamp time = VTypeHelper.getTimestamp(value);
+        out.writeLong(time.getSec());
+        out.writeInt(time.getNanoSec());
+        out.writeByte(VTypeHelper.getSeverity(value).ordinal());
+        out.writeUTF(VTypeHelper.getMessage(value));
+        if (value instanceof VNumber)
+        {
+            final Number number = ((VNumber) value).getValue();
+            if (number instanceof Double  ||  number instanceof Float)
+            {
+                out.writeByte(DOUBLE);
+                out.writeDouble(number.doubleValue());
+            }
+            else
+            {
+                out.writeByte(LONG);
+                out.writeLong(number.longValue());
+            }
+            encodeDisplay((Display) value);
+        }
+        else if (value instanceof VNumberArray)
+        {
+            out.writeByte(ARRAY);
+            final ListNumber data = ((VNumberArray) value).getData();
+            final int N = data.size();
+            out.writeInt(N);
+            for (int i=0; i<N; ++i)
+                out.writeDouble(data.getDouble(i));
+            encodeDisplay((Display) value);
+        }
+        else if (value instanceof VEnum)
+        {
+            out.writeByte(ENUM);
+            final VEnum num = (VEnum) value;
+            out.writeInt(num.getIndex());
+            final List<String> labels = num.getLabels();
+            out.writeInt(labels.size());
+            for (String label : labels)
+                out.writeUTF(label);
+        }
+        else
+        {
+            out.writeByte(STRING);
+            if (value instanceof VString)
+                out.writeUTF(((VString) value).getValue());
+            else
+                out.writeUTF(value.toString());
+        }
+    }
+
+    /** Encode display info into <code>out</code> */
+    private void encodeDisplay(final Display display) throws IOException
+    {
+        encodeLimit(display.getLowerDisplayLimit());
+        encodeLimit(display.getLowerAlarmLimit());
+        encodeLimit(display.getLowerWarningLimit());
+        encodeLimit(display.getUpperWarningLimit());
+        encodeLimit(display.getUpperAlarmLimit());
+        encodeLimit(display.getUpperDisplayLimit());
+        encodeLimit(display.getLowerCtrlLimit());
+        encodeLimit(display.getUpperCtrlLimit());
+        final String units = display.getUnits();
+        out.writeUTF(units == null ? "" : units);
+        final NumberFormat format = display.getFormat();
+        out.writeInt(format == null ? -1 : format.getMinimumFractionDigits());
+    }
+
+    private void encodeLimit(final Double limit) throws IOException
+    {
+        out.writeDouble(limit == null ? Double.NaN : limit.doubleValue());
+    }
+
+    /** @return Sample decoded from <code>in</code> */
+    private SpooledSample decode(final DataInputStream in) throws Exception
+    {
+        final String channel_name = in.readUTF();
+        final Timestamp time = Timestamp.of(in.readLong(), in.readInt());
+        final AlarmSeverity severity = AlarmSeverity.values()[in.readByte()];
+        final String status = in.readUTF();
+        final byte type = in.readByte();
+        final VType value;
+        if (type == DOUBLE)
+        {
+            final double number = in.readDouble();
+            value = new ArchiveVNumber(time, severity, status, decodeDisplay(in), number);
+        }
+        else if (type == LONG)
+        {
+            final long number = in.readLong();
+            value = new ArchiveVNumber(time, severity, status, decodeDisplay(in), number);
+        }
+        else if (type == ARRAY)
+        {
+            final double data[] = new double[in.readInt()];
+            for (int i=0; i<data.length; ++i)
+                data[i] = in.readDouble();
+            value = new ArchiveVNumberArray(time, severity, status, decodeDisplay(in), data);
+        }
+        else if (type == ENUM)
+        {
+            final int index = in.readInt();
+            final int N = in.readInt();
+            final List<String> labels = new ArrayList<String>(N);
+            for (int i=0; i<N; ++i)
+                labels.add(in.readUTF());
+            value = new ArchiveVEnum(time, severity, status, labels, index);
+        }
+        else if (type == STRING)
+            value = new ArchiveVString(time, severity, status, in.readUTF());
+        else
+            throw new Exception("Spool " + file + " contains unknown sample type " + type);
+        return new SpooledSample(channel_name, value);
+    }
+
+    /** @return Display info decoded from <code>in</code> */
+    private Display decodeDisplay(final DataInputStream in) throws IOException
+    {
+        final double lower_disp = in.readDouble();
+        final double lower_alarm = in.readDouble();
+        final double lower_warn = in.readDouble();
+        final double upper_warn = in.readDouble();
+        final double upper_alarm = in.readDouble();
+        final double upper_disp = in.readDouble();
+        final double lower_ctrl = in.readDouble();
+        final double upper_ctrl = in.readDouble();
+        final String units = in.readUTF();
+        final int precision = in.readInt();
+        final NumberFormat format = precision < 0 ? null : NumberFormats.format(precision);
+        return ValueFactory.newDisplay(lower_disp, lower_alarm, lower_warn, units, format,
+                upper_warn, upper_alarm, upper_disp, lower_ctrl, upper_ctrl);
+    }
+}
@@ -8,10 +8,12 @@
 package org.csstudio.archive.engine.model;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 
 import org.csstudio.apputil.time.BenchmarkTimer;
 import org.csstudio.archive.engine.Activator;
+import org.csstudio.archive.engine.model.SampleSpool.SpooledSample;
 import org.csstudio.archive.writer.ArchiveWriter;
 import org.csstudio.archive.writer.ArchiveWriterFactory;
 import org.csstudio.archive.writer.WriteChannel;
@@ -29,6 +31,15 @@ import org.epics.vtype.VType;
  *  be lost.
  *  The channels that add samples to the sample buffer supposedly notice
  *  the error condition and add a special indicator once we recover.
+ *  <p>
+ *  The engine may use several write threads, each handling
+ *  a subset of the channels with its own {@link ArchiveWriter}.
+ *  <p>
+ *  Samples that were moved to a {@link SampleSpool} because of
+ *  buffer overruns are replayed at a limited rate before writing
+ *  the sample buffers. Sample buffers of channels that still have
+ *  spooled samples are skipped, so each channel's samples are
+ *  written in time stamp order.
  *
  *  @author Kay Kasemir
  */
@@ -37,6 +48,9 @@ public class WriteThread implements Runnable
     /** Minimum write period [seconds] */
     private static final double MIN_WRITE_PERIOD = 5.0;
 
+    /** Name of the thread */
+    final private String name;
+
     /** Server to which this thread writes. */
     private ArchiveWriter writer;
 
@@ -45,7 +59,7 @@ public class WriteThread implements Runnable
         new ArrayList<SampleBuffer>();
 
     /** Flag that tells the write thread to run or quit. */
-    private boolean do_run;
+    private volatile boolean do_run;
 
     /** Synchronization block for waiting.
      *  Signaled in stop().
@@ -67,9 +81,48 @@ public class WriteThread implements Runnable
     /** Average duration of write run */
     private Average write_time = new Average();
 
+    /** Spool with samples to replay, or <code>null</code> */
+    private SampleSpool spool = null;
+
+    /** Maximum number of spooled samples to replay per second */
+    private double replay_rate = 0;
+
+    /** Is this thread currently experiencing write errors? */
+    private volatile boolean in_error = false;
+
     /** Thread the executes this.run() */
     private Thread thread;
 
+    /** Initialize write thread */
+    public WriteThread()
+    {
+        this("WriteThread"); //$NON-NLS-1$
+    }
+
+    /** Initialize write thread
+     *  @param name Name of the thread
+     */
+    public WriteThread(final String name)
+    {
+        this(name, null);
+    }
+
+    /** Initialize write thread
+     *  @param name Name of the thread
+     *  @param writer Archive writer to use, <code>null</code> to get one from the {@link ArchiveWriterFactory}
+     */
+    WriteThread(final String name, final ArchiveWriter writer)
+    {
+        this.name = name;
+        this.writer = writer;
+    }
+
+    /** @return Name of the thread */
+    public String getName()
+    {
+        return name;
+    }
+
     /** Add a channel's buffer that this thread reads */
     public void addChannel(final ArchiveChannel channel)
     {
@@ -82,6 +135,22 @@ public class WriteThread implements Runnable
         buffers.add(buffer);
     }
 
+    /** Configure spool
+     *  @param spool Spool with samples to replay
+     *  @param replay_rate Maximum number of spooled samples to replay per second
+     */
+    void setSpool(final SampleSpool spool, final double replay_rate)
+    {
+        this.spool = spool;
+        this.replay_rate = replay_rate;
+    }
+
+    /** @return Number of sample buffers that this thread reads */
+    public int getChannelCount()
+    {
+        return buffers.size();
+    }
+
     /** Start the write thread.
      *  @param write_period Period between writes in seconds
      *  @param batch_size Number of values to batch
@@ -97,7 +166,9 @@ public class WriteThread implements Runnable
         }
         millisec_delay = (int)(1000.0 * write_period);
         this.batch_size = batch_size;
-        thread = new Thread(this, "WriteThread");
+        // Set before the thread runs, so that an early stop() is not lost
+        do_run = true;
+        thread = new Thread(this, name);
         thread.start();
     }
 
@@ -136,6 +207,23 @@ public class WriteThread implements Runnable
         return write_time.get();
     }
 
+    /** @return <code>true</code> if this thread currently experiences write errors */
+    public boolean isInErrorState()
+    {
+        return in_error;
+    }
+
+    /** Update error state of this thread and the sample buffers
+     *  @param error Did the last write run fail?
+     */
+    private void updateErrorState(final boolean error)
+    {
+        if (error == in_error)
+            return;
+        in_error = error;
+        SampleBuffer.updateErrorState(error);
+    }
+
     /** 'Main loop' of the write thread.
      *  <p>
      *  Writes all values out, then waits.
@@ -153,10 +241,9 @@ public class WriteThread implements Runnable
     @SuppressWarnings("nls")
     public void run()
     {
-        Activator.getLogger().info("WriteThread starts");
+        Activator.getLogger().info(name + " starts");
         final BenchmarkTimer timer = new BenchmarkTimer();
         boolean write_error = false;
-        do_run = true;
         while (do_run)
         {
             long delay;
@@ -174,8 +261,7 @@ public class WriteThread implements Runnable
                     write_error = false;
                     // .. and we continue to write.
                 }
-                if (writer == null)
-                	writer = ArchiveWriterFactory.getArchiveWriter();
+                connect();
                 timer.start();
                 // In case of a network problem, we can hang in here
                 // for a long time...
@@ -194,7 +280,7 @@ public class WriteThread implements Runnable
                 delay = millisec_delay;
                 write_error = true;
             }
-            SampleBuffer.setErrorState(write_error);
+            updateErrorState(write_error);
             // See if there's any time left to wait,
             // or if we already used all that time in the last 'write'
             if (delay > 0)
@@ -212,36 +298,106 @@ public class WriteThread implements Runnable
                 }
             }
         }
-        Activator.getLogger().info("WriteThread exists");
+        Activator.getLogger().info(name + " exits");
+    }
+
+    /** Connect to the archive unless already connected
+     *  @throws Exception on error
+     */
+    private void connect() throws Exception
+    {
+        if (writer == null)
+            writer = ArchiveWriterFactory.getArchiveWriter();
     }
 
     /** Stop the write thread, performing a final write. */
     public void shutdown() throws Exception
     {
-        // Stop the thread
-        stop();
-        // Wait for it to end
-        thread.join();
+        shutdown(new WriteThread[] { this });
+    }
+
+    /** Stop write threads, performing a final write.
+     *  <p>
+     *  All threads are stopped before any of them performs
+     *  its final write, because they share the spool:
+     *  The spool is then replayed completely on the first thread,
+     *  and finally each thread writes all samples that remain in its buffers.
+     *  @param writers Write threads, all using the same spool
+     *  @throws Exception on error of the final write.
+     *          Samples that cannot be written are lost.
+     */
+    @SuppressWarnings("nls")
+    static void shutdown(final WriteThread[] writers) throws Exception
+    {
+        // Stop all threads, then wait for them to end
+        for (WriteThread writer : writers)
+            writer.stop();
+        for (WriteThread writer : writers)
+            writer.thread.join();
         // Then write once more.
-        // Errors in this last write are passed up.
-        try
+        // The first error in this last write is passed up.
+        Exception error = null;
+        final WriteThread first = writers[0];
+        if (first.spool != null)
+        {
+            try
+            {
+                first.connect();
+                // With all threads stopped, nobody else holds samples of the spool,
+                // so replay() only returns 0 once the spool is empty
+                while (first.spool.getBacklog() > 0  &&  first.replay(first.batch_size) > 0)
+                    ; // NOP
+            }
+            catch (Exception ex)
+            {
+                error = ex;
+            }
+        }
+        for (WriteThread writer : writers)
         {
-        	write();
+            try
+            {
+                writer.connect();
+                writer.writeBuffers(false);
+            }
+            catch (Exception ex)
+            {
+                if (error == null)
+                    error = ex;
+                else
+                    Activator.getLogger().log(Level.WARNING, writer.getName() + " shutdown error", ex);
+            }
         }
-        finally
+        for (WriteThread writer : writers)
         {
-        	if (writer != null)
-        	{
-        		writer.close();
-        		writer = null;
-        	}
+            if (writer.writer != null)
+            {
+                writer.writer.close();
+                writer.writer = null;
+            }
         }
+        if (error != null)
+            throw error;
     }
 
     /** Write right now until all sample buffers are empty
      *  @return number of samples written
      */
     private long write() throws Exception
+    {
+        int total_count = 0;
+        // Replay spooled samples, limited to the replay rate
+        if (spool != null)
+            total_count += replay((int) Math.max(1, replay_rate * millisec_delay / 1000.0));
+        total_count += writeBuffers(true);
+        return total_count;
+    }
+
+    /** Write all samples from the sample buffers
+     *  @param hold_back_spooled Skip buffers of channels that have spooled samples?
+     *  @return number of samples written
+     */
+    private long writeBuffers(final boolean hold_back_spooled) throws Exception
     {
         int total_count = 0;
         int count = 0;
@@ -251,6 +407,10 @@ public class WriteThread implements Runnable
             buffer.updateStats();
             // Write samples for one channel
             final String name = buffer.getChannelName();
+            // Spooled samples of the channel are older, they need to be written first.
+            // Meanwhile, new samples remain in the buffer or move to the spool
+            if (hold_back_spooled  &&  spool != null  &&  spool.hasBacklog(name))
+                continue;
             final WriteChannel channel = writer.getChannel(name);
             VType sample = buffer.remove();
             while (sample != null)
@@ -273,4 +433,39 @@ public class WriteThread implements Runnable
         total_count += count;
         return total_count;
     }
+
+    /** Write samples from the spool
+     *  @param max_count Maximum number of samples to write
+     *  @return number of samples written
+     *  @throws Exception on error. Samples remain in the spool,
+     *          some may have been written and will be written again.
+     */
+    private int replay(final int max_count) throws Exception
+    {
+        final List<SpooledSample> samples = spool.peek(max_count);
+        if (samples.isEmpty())
+            return 0;
+        try
+        {
+            int count = 0;
+            for (SpooledSample sample : samples)
+            {
+                final WriteChannel channel = writer.getChannel(sample.getChannelName());
+                writer.addSample(channel, sample.getValue());
+                if (++count >= batch_size)
+                {
+                    count = 0;
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        }
+        catch (Exception ex)
+        {
+            spool.abort();
+            throw ex;
+        }
+        spool.commit();
+        return samples.size();
+    }
 }
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.scanner;
+
+/** Scheduler for periodically scanned items, executed by the {@link ScanThread}
+ *  @see Scanner
+ *  @see TimingWheelScanner
+ *  @author agent
+ */
+public interface ScanScheduler extends Scheduleable
+{
+    /** Add an item to the scheduler.
+     *  @param item Item to scan
+     *  @param period Scan period in seconds
+     */
+    public void add(Runnable item, double period);
+
+    /** Remove an item from the scheduler */
+    public void remove(Runnable item);
+
+    /** Remove all items from the scheduler */
+    public void clear();
+
+    /** Perform one scan: Wait for the next scan, perform it. */
+    public void scanOnce();
+
+    /** Average idle time in percent.
+     *  <p>
+     *  100 means: Nothing to do, always waiting.<br>
+     *   50 means: using about half the allocated time for the scan<br>
+     *    0 means: Busy all the time, actually missing scans<br>
+     */
+    public double getIdlePercentage();
+
+    /** Reset statistics */
+    public void reset();
+
+    /** Release resources like worker threads.
+     *  <p>
+     *  Called once the {@link ScanThread} has stopped.
+     *  Scheduler may be used again after adding items.
+     */
+    public void shutdown();
+}
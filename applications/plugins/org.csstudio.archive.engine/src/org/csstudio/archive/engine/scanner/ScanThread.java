@@ -11,13 +11,13 @@ import java.util.logging.Level;
 
 import org.csstudio.archive.engine.Activator;
 
-/** Thread that runs a Scanner.
+/** Thread that runs a {@link ScanScheduler}.
  *  @author Kay Kasemir
  */
 public class ScanThread implements Runnable
 {
     /** Scanner to execute */
-    final private Scanner scanner;
+    final private ScanScheduler scanner;
 
     /** The thread */
     private Thread thread;
@@ -26,7 +26,7 @@ public class ScanThread implements Runnable
     private volatile boolean do_run;
 
     /** Construct thread which runs scanner */
-    public ScanThread(final Scanner scanner)
+    public ScanThread(final ScanScheduler scanner)
     {
         this.scanner = scanner;
     }
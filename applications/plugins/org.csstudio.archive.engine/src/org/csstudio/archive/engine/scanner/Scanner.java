@@ -17,9 +17,10 @@ import org.csstudio.util.stats.Average;
  *  <p>
  *  Places runnable items on scan lists,
  *  determines how long to wait to the scan next.
+ *  @see TimingWheelScanner
  *  @author Kay Kasemir
  */
-public class Scanner implements Scheduleable
+public class Scanner implements ScanScheduler
 {
     /** Granularity in seconds for the supported lists. */
     final private static double GRANULARITY = 0.1;
@@ -61,6 +62,7 @@ public class Scanner implements Scheduleable
      *  @param item Item to scan
      *  @param period Scan period in seconds
      */
+    @Override
     public void add(final Runnable item, final double period)
     {
         // Avoid duplicates by removing what might be there
@@ -88,6 +90,7 @@ public class Scanner implements Scheduleable
     }
 
     /** Remove an item from the scanner */
+    @Override
     public void remove(final Runnable item)
     {
         // Brute-force remove from all lists,
@@ -103,6 +106,7 @@ public class Scanner implements Scheduleable
     }
 
     /** Remove all items from this scanner */
+    @Override
     public void clear()
     {
         lists.clear();
@@ -165,18 +169,28 @@ public class Scanner implements Scheduleable
      *   50 means: using about half the allocated time for the scan<br>
      *    0 means: Busy all the time, actually missing scans<br>
      */
+    @Override
     public double getIdlePercentage()
     {
         return idle_percentage.get();
     }
 
     /** Reset statistics */
+    @Override
     public void reset()
     {
         idle_percentage.reset();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void shutdown()
+    {
+        // Nothing to release
+    }
+
     /** Perform one scan: Wait for the next scan, perform it. */
+    @Override
     public void scanOnce()
     {
         try
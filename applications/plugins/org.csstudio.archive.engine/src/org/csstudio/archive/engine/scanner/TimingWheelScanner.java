@@ -0,0 +1,539 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.scanner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+import org.csstudio.archive.engine.Activator;
+import org.csstudio.util.stats.Average;
+
+/** Scanner based on a hierarchical timing wheel.
+ *  <p>
+ *  Time is divided into 'ticks'.
+ *  Each item is placed in a slot of a wheel according to its next due tick:
+ *  The first wheel has one slot per tick,
+ *  each slot of the next wheel covers a full revolution of the previous wheel.
+ *  Items in an upper wheel move down ('cascade') as their due time approaches.
+ *  Adding, removing and re-scheduling an item is therefore <i>O(1)</i>,
+ *  and each tick only touches the items that are actually due,
+ *  independent of the total number of items.
+ *  <p>
+ *  Items with the same period are spread across the period
+ *  instead of all being due at the same time.
+ *  <p>
+ *  Due items can be executed by a pool of worker threads.
+ *  The scan thread waits for the workers to finish,
+ *  so an item is never executed by more than one thread at a time.
+ *
+ *  @see Scanner
+ *  @author agent
+ */
+public class TimingWheelScanner implements ScanScheduler
+{
+    /** Default tick duration in system millis */
+    final private static long DEFAULT_TICK = 10;
+
+    /** Default idle delay */
+    final private static long DEFAULT_IDLE_DELAY = 500;
+
+    /** Minimum number of items to hand to a worker thread */
+    final private static int MIN_CHUNK = 100;
+
+    /** Number of bits in slot index of the first wheel */
+    final private static int WHEEL0_BITS = 8;
+
+    /** Number of bits in slot index of the upper wheels */
+    final private static int WHEEL_BITS = 6;
+
+    /** Number of wheels */
+    final private static int WHEELS = 4;
+
+    /** Ticks covered by all wheels */
+    final private static long SPAN = 1L << (WHEEL0_BITS + (WHEELS-1)*WHEEL_BITS);
+
+    /** Fraction of the 'golden ratio', used to spread items across their period */
+    final private static double PHASE_STEP = 0.6180339887498949;
+
+    /** Scheduled item */
+    private static class Entry
+    {
+        final Runnable item;
+        final long period;
+        long due;
+        int wheel = -1;
+        int slot;
+        Entry prev, next;
+
+        Entry(final Runnable item, final long period, final long due)
+        {
+            this.item = item;
+            this.period = period;
+            this.due = due;
+        }
+    }
+
+    /** Tick duration in system millis */
+    final private long tick_millis;
+
+    /** Time to wait in system millis when nothing to do */
+    final private long idle_delay;
+
+    /** Number of worker threads, 0 to execute items on the scan thread */
+    final private int threads;
+
+    /** Wheels, each slot holding a linked list of entries */
+    final private Entry[][] wheels = new Entry[WHEELS][];
+
+    /** Entries by item */
+    final private Map<Runnable, Entry> entries = new HashMap<Runnable, Entry>();
+
+    /** Next tick to process */
+    private long next_tick;
+
+    /** Number of added items, used to spread their phase */
+    private long added = 0;
+
+    /** Items due in current scan. Only accessed by scan thread. */
+    final private List<Runnable> due_items = new ArrayList<Runnable>();
+
+    /** Worker threads, created on demand */
+    private ExecutorService workers = null;
+
+    /** Average idle time in percent. */
+    final private Average idle_percentage = new Average();
+
+    /** Average delay of a scan in millis, relative to its due time */
+    final private Average jitter = new Average();
+
+    /** Maximum delay of a scan in millis */
+    private volatile long max_jitter = 0;
+
+    /** Construct scanner
+     *  @param tick_millis Tick duration in system millis
+     *  @param idle_delay Time to wait in system millis when nothing to do
+     *  @param threads Number of worker threads, 0 to execute items on the scan thread
+     */
+    public TimingWheelScanner(final long tick_millis, final long idle_delay,
+                              final int threads)
+    {
+        if (tick_millis <= 0)
+            throw new IllegalArgumentException("Tick must be positive, got " + tick_millis); //$NON-NLS-1$
+        this.tick_millis = tick_millis;
+        this.idle_delay = idle_delay;
+        this.threads = Math.max(0, threads);
+        wheels[0] = new Entry[1 << WHEEL0_BITS];
+        for (int w=1; w<WHEELS; ++w)
+            wheels[w] = new Entry[1 << WHEEL_BITS];
+        next_tick = currentTick() + 1;
+    }
+
+    /** Construct scanner with default tick and idle delay
+     *  @param threads Number of worker threads, 0 to execute items on the scan thread
+     */
+    public TimingWheelScanner(final int threads)
+    {
+        this(DEFAULT_TICK, DEFAULT_IDLE_DELAY, threads);
+    }
+
+    /** @return Current tick */
+    private long currentTick()
+    {
+        return System.currentTimeMillis() / tick_millis;
+    }
+
+    /** @return Number of worker threads */
+    public int getThreadCount()
+    {
+        return threads;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void add(final Runnable item, final double period)
+    {
+        // Avoid duplicates by removing what might be there
+        remove(item);
+        if (entries.isEmpty())
+            next_tick = currentTick() + 1;
+        final long period_ticks = Math.max(1, Math.round(period * 1000.0 / tick_millis));
+        // Spread items of same period: First scan within one period
+        final double phase = (added++ * PHASE_STEP) % 1.0;
+        final long due = next_tick + (long) (phase * period_ticks);
+        final Entry entry = new Entry(item, period_ticks, due);
+        entries.put(item, entry);
+        insert(entry, next_tick);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void remove(final Runnable item)
+    {
+        final Entry entry = entries.remove(item);
+        if (entry != null)
+            unlink(entry);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void clear()
+    {
+        entries.clear();
+        for (Entry[] wheel : wheels)
+            for (int i=0; i<wheel.length; ++i)
+                wheel[i] = null;
+        added = 0;
+    }
+
+    /** @return Number of scanned items */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized boolean isDueAtAll()
+    {
+        return ! entries.isEmpty();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized long getNextDueTime()
+    {
+        if (entries.isEmpty())
+            throw new Error("Scanner never due"); //$NON-NLS-1$
+        // Check first wheel up to the next cascade,
+        // which is also when we need to wake up if nothing is found
+        final Entry[] wheel = wheels[0];
+        final long cascade = ((next_tick >> WHEEL0_BITS) + 1) << WHEEL0_BITS;
+        for (long tick = next_tick; tick < cascade; ++tick)
+            if (wheel[(int) (tick & (wheel.length-1))] != null)
+                return tick * tick_millis;
+        return cascade * tick_millis;
+    }
+
+    /** Place entry in a wheel slot
+     *  @param entry Entry to place
+     *  @param base Next tick to be processed
+     */
+    private void insert(final Entry entry, final long base)
+    {
+        final long delta = entry.due - base;
+        final int wheel, slot;
+        if (delta < (1L << WHEEL0_BITS))
+        {
+            wheel = 0;
+            slot = (int) (Math.max(entry.due, base) & ((1 << WHEEL0_BITS) - 1));
+        }
+        else
+        {
+            // Determine upper wheel, clamping to the last one
+            int w = 1;
+            int shift = WHEEL0_BITS;
+            while (w < WHEELS-1  &&  delta >= (1L << (shift + WHEEL_BITS)))
+            {
+                ++w;
+                shift += WHEEL_BITS;
+            }
+            final long tick = delta < SPAN ? entry.due : base + SPAN - 1;
+            wheel = w;
+            slot = (int) ((tick >> shift) & ((1 << WHEEL_BITS) - 1));
+        }
+        entry.wheel = wheel;
+        entry.slot = slot;
+        entry.prev = null;
+        entry.next = wheels[wheel][slot];
+        if (entry.next != null)
+            entry.next.prev = entry;
+        wheels[wheel][slot] = entry;
+    }
+
+    /** Remove entry from its wheel slot */
+    private void unlink(final Entry entry)
+    {
+        if (entry.wheel < 0)
+            return;
+        if (entry.prev != null)
+            entry.prev.next = entry.next;
+        else
+            wheels[entry.wheel][entry.slot] = entry.next;
+        if (entry.next != null)
+            entry.next.prev = entry.prev;
+        entry.prev = entry.next = null;
+        entry.wheel = -1;
+    }
+
+    /** Detach all entries from a slot
+     *  @return First entry of the (now detached) list
+     */
+    private Entry detach(final int wheel, final int slot)
+    {
+        final Entry first = wheels[wheel][slot];
+        wheels[wheel][slot] = null;
+        return first;
+    }
+
+    /** Move entries of an upper wheel slot down
+     *  @param wheel Upper wheel
+     *  @param slot Slot in that wheel
+     *  @param tick Tick about to be processed
+     */
+    private void cascade(final int wheel, final int slot, final long tick)
+    {
+        Entry entry = detach(wheel, slot);
+        while (entry != null)
+        {
+            final Entry next = entry.next;
+            entry.wheel = -1;
+            insert(entry, tick);
+            entry = next;
+        }
+    }
+
+    /** Process one tick, adding its due items to <code>due_items</code>
+     *  @param tick Tick to process
+     */
+    private void processTick(final long tick)
+    {
+        // Cascade upper wheels, starting at the top so that
+        // entries can move down more than one wheel
+        if ((tick & ((1 << WHEEL0_BITS) - 1)) == 0)
+        {
+            final int[] slots = new int[WHEELS];
+            int top = 1;
+            int shift = WHEEL0_BITS;
+            for (int w=1; w<WHEELS; ++w)
+            {
+                slots[w] = (int) ((tick >> shift) & ((1 << WHEEL_BITS) - 1));
+                top = w;
+                // Only continue to next wheel when this one wrapped around
+                if (slots[w] != 0)
+                    break;
+                shift += WHEEL_BITS;
+            }
+            for (int w=top; w>=1; --w)
+                cascade(w, slots[w], tick);
+        }
+        Entry entry = detach(0, (int) (tick & ((1 << WHEEL0_BITS) - 1)));
+        while (entry != null)
+        {
+            final Entry next = entry.next;
+            entry.wheel = -1;
+            if (entry.due <= tick)
+            {
+                due_items.add(entry.item);
+                // Next due time, skipping missed scans
+                entry.due += entry.period;
+                if (entry.due <= tick)
+                    entry.due += ((tick - entry.due) / entry.period + 1) * entry.period;
+            }
+            insert(entry, tick + 1);
+            entry = next;
+        }
+    }
+
+    /** Collect items that are due
+     *  @param now Current tick
+     *  @return Due tick of the first due item or -1
+     */
+    private synchronized long collectDueItems(final long now)
+    {
+        long first = -1;
+        // After a long pause, don't spin through each missed tick
+        if (now - next_tick > SPAN)
+            next_tick = now - SPAN;
+        while (next_tick <= now)
+        {
+            final int count = due_items.size();
+            processTick(next_tick);
+            if (first < 0  &&  due_items.size() > count)
+                first = next_tick;
+            ++next_tick;
+        }
+        return first;
+    }
+
+    /** Scan all the items which are currently due
+     *  @param now Current time in system millis
+     */
+    void scanDueItems(final long now)
+    {
+        final long first = collectDueItems(now / tick_millis);
+        if (first < 0)
+            return;
+        final long delay = now - first * tick_millis;
+        jitter.update(delay);
+        if (delay > max_jitter)
+            max_jitter = delay;
+        try
+        {
+            final int chunks = Math.min(threads, due_items.size() / MIN_CHUNK);
+            if (chunks <= 1)
+                runItems(0, due_items.size());
+            else
+                runParallel(chunks);
+        }
+        finally
+        {
+            due_items.clear();
+        }
+    }
+
+    /** Execute range of due items */
+    private void runItems(final int start, final int end)
+    {
+        for (int i=start; i<end; ++i)
+            due_items.get(i).run();
+    }
+
+    /** Execute due items in worker threads, waiting for completion
+     *  @param chunks Number of chunks into which to split the due items
+     */
+    private void runParallel(final int chunks)
+    {
+        if (workers == null)
+            workers = Executors.newFixedThreadPool(threads, new ThreadFactory()
+            {
+                final private AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(final Runnable runnable)
+                {
+                    final Thread thread = new Thread(runnable, "ScanWorker " + count.incrementAndGet()); //$NON-NLS-1$
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        final int total = due_items.size();
+        final CountDownLatch done = new CountDownLatch(chunks - 1);
+        for (int c=0; c<chunks-1; ++c)
+        {
+            final int start = (int) ((long)total * c / chunks);
+            final int end = (int) ((long)total * (c+1) / chunks);
+            workers.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        runItems(start, end);
+                    }
+                    catch (Throwable ex)
+                    {
+                        Activator.getLogger().log(Level.WARNING, "Scan error", ex); //$NON-NLS-1$
+                    }
+                    finally
+                    {
+                        done.countDown();
+                    }
+                }
+            });
+        }
+        try
+        {   // Last chunk is handled by the scan thread
+            runItems((int) ((long)total * (chunks-1) / chunks), total);
+        }
+        finally
+        {
+            try
+            {
+                done.await();
+            }
+            catch (InterruptedException ex)
+            {
+                Activator.getLogger().log(Level.WARNING, "Scanner interrupted", ex); //$NON-NLS-1$
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public double getIdlePercentage()
+    {
+        return idle_percentage.get();
+    }
+
+    /** @return Average delay of scans in millis, relative to their due time */
+    public double getAverageJitter()
+    {
+        return jitter.get();
+    }
+
+    /** @return Maximum delay of scans in millis since last reset */
+    public long getMaxJitter()
+    {
+        return max_jitter;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void reset()
+    {
+        idle_percentage.reset();
+        jitter.reset();
+        max_jitter = 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void shutdown()
+    {
+        if (workers != null)
+        {
+            workers.shutdown();
+            workers = null;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void scanOnce()
+    {
+        try
+        {
+            if (! isDueAtAll())
+            {   // Nothing to do, ever. Just wait.
+                idle_percentage.update(100.0);
+                Thread.sleep(idle_delay);
+                return;
+            }
+            long slept = getNextDueTime() - System.currentTimeMillis();
+            if (slept > idle_delay)
+            {   // Nothing due within idle time
+                idle_percentage.update(100.0);
+                Thread.sleep(idle_delay);
+                return;
+            }
+            if (slept > 0)
+                Thread.sleep(slept);
+            else
+                slept = 0;
+            // Idle percentage based on time spent waiting vs. scanning
+            final long start = System.nanoTime();
+            scanDueItems(System.currentTimeMillis());
+            final double busy = (System.nanoTime() - start) / 1e6;
+            if (slept + busy > 0)
+                idle_percentage.update(slept * 100.0 / (slept + busy));
+        }
+        catch (InterruptedException ex)
+        {
+            Activator.getLogger().log(Level.WARNING, "Scanner interrupted", ex); //$NON-NLS-1$
+        }
+    }
+}
@@ -17,6 +17,8 @@ import org.csstudio.archive.engine.Messages;
 import org.csstudio.archive.engine.model.ArchiveGroup;
 import org.csstudio.archive.engine.model.EngineModel;
 import org.csstudio.archive.engine.model.SampleBuffer;
+import org.csstudio.archive.engine.model.SampleSpool;
+import org.csstudio.archive.engine.model.WriteThread;
 import org.csstudio.archive.vtype.TimestampHelper;
 import org.eclipse.core.runtime.Platform;
 import org.epics.util.time.Timestamp;
@@ -128,6 +130,11 @@ class MainResponse extends AbstractResponse
             Messages.HTTP_WritePeriod,
             model.getWritePeriod() + " sec"
         });
+        html.tableLine(new String[]
+        {
+            Messages.HTTP_WriteThreads,
+            Integer.toString(model.getWriteThreadCount())
+        });
 
         // Currently in 'Write Error' state?
         html.tableLine(new String[]
@@ -156,6 +163,50 @@ class MainResponse extends AbstractResponse
             Messages.HTTP_WriteDuration,
             String.format("%.1f sec", model.getWriteDuration())
         });
+
+        final SampleSpool spool = model.getSpool();
+        if (spool != null)
+        {
+            html.tableLine(new String[]
+            {
+                Messages.HTTP_SpoolFile,
+                spool.getFile().getPath()
+            });
+            final double used = spool.getUsedBytes() / MB;
+            final double capacity = spool.getCapacity() / MB;
+            html.tableLine(new String[]
+            {
+                Messages.HTTP_SpoolSize,
+                String.format("%.1f MB of %.1f MB used (%.1f %%)",
+                              used, capacity, capacity > 0 ? used / capacity * 100.0 : 0.0)
+            });
+            final int backlog = spool.getBacklog();
+            html.tableLine(new String[]
+            {
+                Messages.HTTP_SpoolBacklog,
+                backlog > 0
+                ? HTMLWriter.makeRedText(backlog + " samples")
+                : "0 samples"
+            });
+            html.tableLine(new String[]
+            {
+                Messages.HTTP_SpoolReplayRate,
+                String.format("%.1f samples/sec", model.getSpoolReplayRate())
+            });
+            html.tableLine(new String[]
+            {
+                Messages.HTTP_SpoolReplayed,
+                spool.getReplayedCount() + " of " + spool.getSpooledCount() + " samples"
+            });
+            final long dropped = spool.getDroppedCount();
+            html.tableLine(new String[]
+            {
+                Messages.HTTP_SpoolDropped,
+                dropped > 0
+                ? HTMLWriter.makeRedText(dropped + " samples")
+                : "0 samples"
+            });
+        }
         html.tableLine(new String[]
         {
             Messages.HTTP_Idletime,
@@ -176,6 +227,38 @@ class MainResponse extends AbstractResponse
 
         html.closeTable();
 
+        final int write_threads = model.getWriteThreadCount();
+        if (write_threads > 1)
+        {   // Statistics for each write thread
+            html.h2(Messages.HTTP_WriteThreads);
+            html.openTable(1, new String[]
+            {
+                Messages.HTTP_WriteThread,
+                Messages.HTTP_ChannelCount,
+                Messages.HTTP_WriteState,
+                Messages.HTTP_LastWriteTime,
+                Messages.HTTP_WriteCount,
+                Messages.HTTP_WriteDuration,
+            });
+            for (int i=0; i<write_threads; ++i)
+            {
+                final WriteThread writer = model.getWriteThread(i);
+                final Timestamp time = writer.getLastWriteTime();
+                html.tableLine(new String[]
+                {
+                    writer.getName(),
+                    Integer.toString(writer.getChannelCount()),
+                    writer.isInErrorState()
+                    ? HTMLWriter.makeRedText(Messages.HTTP_WriteError)
+                    : "OK",
+                    time == null ? Messages.HTTP_Never : TimestampHelper.format(time),
+                    (int)writer.getWriteCount() + " samples",
+                    String.format("%.1f sec", writer.getWriteDuration()),
+                });
+            }
+            html.closeTable();
+        }
+
         html.close();
     }
 }
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/** JUnit test of the {@link ConcurrentRingBuffer}
+ *  @author agent
+ */
+public class ConcurrentRingBufferUnitTest
+{
+    @Test
+    public void testBasics()
+    {
+        final ConcurrentRingBuffer<Integer> ring = new ConcurrentRingBuffer<Integer>(3);
+        assertEquals(3, ring.getCapacity());
+        assertTrue(ring.isEmpty());
+        assertNull(ring.remove());
+
+        assertTrue(ring.offer(1));
+        assertTrue(ring.offer(2));
+        assertTrue(ring.offer(3));
+        assertEquals(3, ring.size());
+        // Full
+        assertFalse(ring.offer(4));
+
+        assertEquals(Integer.valueOf(1), ring.remove());
+        assertTrue(ring.offer(4));
+
+        // Wrap around several times
+        for (int i=5; i<20; ++i)
+        {
+            ring.remove();
+            assertTrue(ring.offer(i));
+            assertEquals(3, ring.size());
+        }
+        assertEquals(Integer.valueOf(17), ring.remove());
+        assertEquals(Integer.valueOf(18), ring.remove());
+        assertEquals(Integer.valueOf(19), ring.remove());
+        assertNull(ring.remove());
+        assertEquals(0, ring.size());
+    }
+
+    /** Several producers, one consumer: Nothing gets lost or duplicated */
+    @Test(timeout=20000)
+    public void testThreads() throws Exception
+    {
+        final int producers = 4;
+        final int per_producer = 100000;
+        final ConcurrentRingBuffer<Integer> ring = new ConcurrentRingBuffer<Integer>(100);
+        final Thread threads[] = new Thread[producers];
+        for (int p=0; p<producers; ++p)
+        {
+            threads[p] = new Thread()
+            {
+                @Override
+                public void run()
+                {
+                    for (int i=0; i<per_producer; ++i)
+                        while (! ring.offer(i))
+                            Thread.yield();
+                }
+            };
+            threads[p].start();
+        }
+
+        final AtomicInteger received = new AtomicInteger();
+        long sum = 0;
+        while (received.get() < producers * per_producer)
+        {
+            final Integer value = ring.remove();
+            if (value == null)
+                Thread.yield();
+            else
+            {
+                sum += value;
+                received.incrementAndGet();
+            }
+        }
+        for (Thread thread : threads)
+            thread.join();
+        assertNull(ring.remove());
+        final long expected = producers * ((long)per_producer * (per_producer - 1) / 2);
+        assertEquals(expected, sum);
+    }
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.model;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.csstudio.apputil.ringbuffer.RingBuffer;
+import org.epics.vtype.VType;
+import org.junit.Test;
+
+/** Benchmark of the {@link SampleBuffer} with concurrent producers.
+ *  <p>
+ *  Compares the original <code>synchronized</code> {@link RingBuffer}
+ *  with the lock-free {@link ConcurrentRingBuffer} used by the {@link SampleBuffer}.
+ *  Several 'PV' threads add samples while one 'write' thread removes them.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class SampleBufferDemo
+{
+    private static final long RUNTIME = 10 * 1000l;
+
+    private static final int PRODUCERS = 4;
+
+    private static final int CAPACITY = 1000;
+
+    /** Common interface for the buffers under test */
+    private interface Buffer
+    {
+        void add(VType value);
+        VType remove();
+    }
+
+    /** Original implementation: RingBuffer with lock */
+    private static class LockedBuffer implements Buffer
+    {
+        final private RingBuffer<VType> samples = new RingBuffer<VType>(CAPACITY);
+        final private BufferStats stats = new BufferStats();
+
+        @Override
+        public void add(final VType value)
+        {
+            synchronized (samples)
+            {
+                if (samples.isFull())
+                    stats.addOverrun();
+                samples.add(value);
+            }
+        }
+
+        @Override
+        public VType remove()
+        {
+            synchronized (samples)
+            {
+                return samples.remove();
+            }
+        }
+    }
+
+    /** Current implementation */
+    private static class LockFreeBuffer implements Buffer
+    {
+        final private SampleBuffer samples = new SampleBuffer("Demo", CAPACITY);
+
+        @Override
+        public void add(final VType value)
+        {
+            samples.add(value);
+        }
+
+        @Override
+        public VType remove()
+        {
+            return samples.remove();
+        }
+    }
+
+    private void runBenchmark(final String title, final Buffer buffer) throws Exception
+    {
+        final VType value = TestHelper.newValue(3.14);
+        final AtomicBoolean run = new AtomicBoolean(true);
+        final AtomicLong added = new AtomicLong();
+        final CountDownLatch done = new CountDownLatch(PRODUCERS);
+        for (int p=0; p<PRODUCERS; ++p)
+        {
+            new Thread("PV " + p)
+            {
+                @Override
+                public void run()
+                {
+                    long count = 0;
+                    while (run.get())
+                    {
+                        buffer.add(value);
+                        ++count;
+                    }
+                    added.addAndGet(count);
+                    done.countDown();
+                }
+            }.start();
+        }
+
+        final long start = System.currentTimeMillis();
+        final long end = start + RUNTIME;
+        long removed = 0;
+        while (end > System.currentTimeMillis())
+        {
+            if (buffer.remove() != null)
+                ++removed;
+        }
+        run.set(false);
+        done.await();
+        final double secs = (System.currentTimeMillis() - start) / 1000.0;
+        System.out.format(
+            "%-18s: %12d added, %12d removed in %.2f sec = %12.1f adds/sec\n",
+            title, added.get(), removed, secs, added.get() / secs);
+    }
+
+    @Test
+    public void testLockedBuffer() throws Exception
+    {
+        runBenchmark("Locked RingBuffer", new LockedBuffer());
+    }
+
+    @Test
+    public void testLockFreeBuffer() throws Exception
+    {
+        runBenchmark("Lock-free buffer", new LockFreeBuffer());
+    }
+}
@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import org.csstudio.archive.engine.model.SampleSpool.SpooledSample;
+import org.csstudio.archive.vtype.ArchiveVEnum;
+import org.csstudio.archive.vtype.ArchiveVNumberArray;
+import org.csstudio.archive.vtype.ArchiveVString;
+import org.csstudio.archive.vtype.VTypeHelper;
+import org.epics.util.time.Timestamp;
+import org.epics.vtype.AlarmSeverity;
+import org.epics.vtype.Display;
+import org.epics.vtype.VEnum;
+import org.epics.vtype.VNumberArray;
+import org.epics.vtype.VString;
+import org.epics.vtype.VType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** JUnit test of the {@link SampleSpool}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class SampleSpoolUnitTest
+{
+    private File file;
+
+    @Before
+    public void setup() throws Exception
+    {
+        file = File.createTempFile("spool", ".dat");
+    }
+
+    @After
+    public void cleanup()
+    {
+        file.delete();
+    }
+
+    @Test
+    public void testSpool() throws Exception
+    {
+        final SampleSpool spool = new SampleSpool(file, 1000);
+        assertTrue(spool.add("a", TestHelper.newValue(1.0)));
+        final Timestamp now = Timestamp.now();
+        assertTrue(spool.add("b", new ArchiveVString(now, AlarmSeverity.MINOR, "Test", "Hello")));
+        assertTrue(spool.add("c", new ArchiveVEnum(now, AlarmSeverity.NONE, "OK", Arrays.asList("Off", "On"), 1)));
+        assertTrue(spool.add("d", new ArchiveVNumberArray(now, AlarmSeverity.NONE, "OK", TestHelper.display, 1.0, 2.0, 3.0)));
+        assertEquals(4, spool.getBacklog());
+
+        List<SpooledSample> samples = spool.peek(10);
+        assertEquals(4, samples.size());
+        // In the order spooled
+        assertEquals("a", samples.get(0).getChannelName());
+        assertEquals(1.0, VTypeHelper.toDouble(samples.get(0).getValue()), 0.01);
+        assertEquals(TestHelper.display.getUnits(), ((Display) samples.get(0).getValue()).getUnits());
+        for (SpooledSample sample : samples)
+        {
+            final VType value = sample.getValue();
+            if (sample.getChannelName().equals("b"))
+            {
+                assertEquals("Hello", ((VString) value).getValue());
+                assertEquals(AlarmSeverity.MINOR, VTypeHelper.getSeverity(value));
+            }
+            else if (sample.getChannelName().equals("c"))
+            {
+                assertEquals(1, ((VEnum) value).getIndex());
+                assertEquals("On", ((VEnum) value).getValue());
+            }
+            else if (sample.getChannelName().equals("d"))
+                assertEquals(3, ((VNumberArray) value).getData().size());
+        }
+
+        // Not committed: Still in spool
+        spool.abort();
+        assertEquals(4, spool.getBacklog());
+
+        samples = spool.peek(2);
+        assertEquals(2, samples.size());
+        spool.commit();
+        assertEquals(2, spool.getBacklog());
+        samples = spool.peek(10);
+        assertEquals(2, samples.size());
+        spool.commit();
+        assertEquals(0, spool.getBacklog());
+        assertEquals(0, spool.getUsedBytes());
+        assertEquals(4, spool.getReplayedCount());
+
+        // Fill spool
+        int count = 0;
+        while (spool.add("a", TestHelper.newValue(count)))
+            ++count;
+        assertTrue(count > 0);
+        assertEquals(count, spool.getBacklog());
+        assertEquals(1, spool.getDroppedCount());
+        spool.close();
+    }
+
+    /** Replayed space is re-used while samples remain in the spool */
+    @Test
+    public void testRing() throws Exception
+    {
+        final SampleSpool spool = new SampleSpool(file, 1000);
+        int count = 0;
+        while (spool.add("a", TestHelper.newValue(count)))
+            ++count;
+        assertTrue(count > 4);
+        final int full = spool.getUsedBytes();
+
+        // Replay some, which makes room for the same number of samples
+        List<SpooledSample> samples = spool.peek(3);
+        assertEquals(0.0, VTypeHelper.toDouble(samples.get(0).getValue()), 0.01);
+        spool.commit();
+        assertEquals(count - 3, spool.getBacklog());
+        assertTrue(spool.getUsedBytes() < full);
+        for (int i=0; i<3; ++i)
+            assertTrue(spool.add("a", TestHelper.newValue(count + i)));
+        assertFalse(spool.add("a", TestHelper.newValue(-1)));
+
+        // Samples that wrapped around the end of the file are replayed in order
+        samples = spool.peek(count + 10);
+        assertEquals(count, samples.size());
+        for (int i=0; i<count; ++i)
+            assertEquals(i + 3.0, VTypeHelper.toDouble(samples.get(i).getValue()), 0.01);
+        spool.commit();
+        assertEquals(0, spool.getBacklog());
+        assertEquals(0, spool.getUsedBytes());
+
+        // Closed spool drops samples
+        spool.close();
+        assertFalse(spool.add("a", TestHelper.newValue(1.0)));
+        assertEquals(0, spool.peek(10).size());
+    }
+
+    /** Spool tracks which channels have samples to replay */
+    @Test
+    public void testChannelBacklog() throws Exception
+    {
+        final SampleSpool spool = new SampleSpool(file, 1000);
+        assertFalse(spool.hasBacklog("a"));
+        spool.add("a", TestHelper.newValue(1.0));
+        spool.add("b", TestHelper.newValue(2.0));
+        spool.add("a", TestHelper.newValue(3.0));
+        assertTrue(spool.hasBacklog("a"));
+        assertTrue(spool.hasBacklog("b"));
+
+        spool.peek(2);
+        spool.abort();
+        assertTrue(spool.hasBacklog("b"));
+
+        spool.peek(2);
+        spool.commit();
+        assertTrue(spool.hasBacklog("a"));
+        assertFalse(spool.hasBacklog("b"));
+
+        spool.peek(2);
+        spool.commit();
+        assertFalse(spool.hasBacklog("a"));
+        spool.close();
+    }
+
+    /** Buffer moves older samples to spool instead of dropping them */
+    @Test
+    public void testOverrun() throws Exception
+    {
+        final SampleSpool spool = new SampleSpool(file, 10000);
+        SampleBuffer.setSpool(spool);
+        try
+        {
+            final SampleBuffer buffer = new SampleBuffer("Demo", 10);
+            for (int i=0; i<15; ++i)
+                buffer.add(TestHelper.newValue(i));
+            assertEquals(10, buffer.getQueueSize());
+            assertEquals(0, buffer.getBufferStats().getOverruns());
+            assertEquals(5, spool.getBacklog());
+            final List<SpooledSample> samples = spool.peek(10);
+            assertEquals(0.0, VTypeHelper.toDouble(samples.get(0).getValue()), 0.01);
+            assertEquals(4.0, VTypeHelper.toDouble(samples.get(4).getValue()), 0.01);
+            assertFalse(spool.peek(10).size() > 0);
+        }
+        finally
+        {
+            SampleBuffer.setSpool(null);
+            spool.close();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.VTypeHelper;
+import org.csstudio.archive.writer.ArchiveWriter;
+import org.csstudio.archive.writer.WriteChannel;
+import org.epics.util.time.Timestamp;
+import org.epics.vtype.AlarmSeverity;
+import org.epics.vtype.VType;
+import org.junit.Test;
+
+/** JUnit test of the {@link WriteThread} with a spool, writing to a fake archive
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class WriteThreadUnitTest
+{
+    /** Values written to the fake archive, by channel name */
+    final private Map<String, List<Double>> archive = new HashMap<String, List<Double>>();
+
+    /** Archive writer that adds flushed samples to <code>archive</code> */
+    private class FakeWriter implements ArchiveWriter
+    {
+        final private List<String> names = new ArrayList<String>();
+        final private List<VType> samples = new ArrayList<VType>();
+
+        @Override
+        public WriteChannel getChannel(final String name) throws Exception
+        {
+            return new WriteChannel()
+            {
+                @Override
+                public String getName()
+                {
+                    return name;
+                }
+            };
+        }
+
+        @Override
+        public void addSample(final WriteChannel channel, final VType sample) throws Exception
+        {
+            names.add(channel.getName());
+            samples.add(sample);
+        }
+
+        @Override
+        public void flush() throws Exception
+        {
+            synchronized (archive)
+            {
+                for (int i=0; i<samples.size(); ++i)
+                {
+                    List<Double> values = archive.get(names.get(i));
+                    if (values == null)
+                    {
+                        values = new ArrayList<Double>();
+                        archive.put(names.get(i), values);
+                    }
+                    values.add(VTypeHelper.toDouble(samples.get(i)));
+                }
+            }
+            names.clear();
+            samples.clear();
+        }
+
+        @Override
+        public void close()
+        {
+            // NOP
+        }
+    }
+
+    /** Two writers share a spool that still has samples on shutdown */
+    @Test(timeout=20000)
+    public void testShutdownWithBacklog() throws Exception
+    {
+        final File file = File.createTempFile("spool", ".dat");
+        final SampleSpool spool = new SampleSpool(file, 100000);
+        SampleBuffer.setSpool(spool);
+        try
+        {
+            final String[] channels = { "a", "b", "c", "d" };
+            final WriteThread[] writers =
+            {
+                new WriteThread("Writer 1", new FakeWriter()),
+                new WriteThread("Writer 2", new FakeWriter())
+            };
+            // Each buffer overruns into the spool
+            final long seconds = Timestamp.now().getSec();
+            for (int c=0; c<channels.length; ++c)
+            {
+                final SampleBuffer buffer = new SampleBuffer(channels[c], 10);
+                for (int i=0; i<25; ++i)
+                    buffer.add(new ArchiveVNumber(Timestamp.of(seconds, i), AlarmSeverity.NONE, "OK",
+                                                  TestHelper.display, Double.valueOf(i)));
+                writers[c % writers.length].addSampleBuffer(buffer);
+            }
+            assertEquals(60, spool.getBacklog());
+
+            // Replay at most a few spooled samples per write run,
+            // so spooled samples remain when shutting down
+            for (WriteThread writer : writers)
+            {
+                writer.setSpool(spool, 1.0);
+                writer.start(5.0, 500);
+            }
+            WriteThread.shutdown(writers);
+
+            // All samples written, in order
+            assertEquals(0, spool.getBacklog());
+            for (String channel : channels)
+            {
+                final List<Double> values = archive.get(channel);
+                assertEquals(25, values.size());
+                for (int i=0; i<25; ++i)
+                    assertEquals(i, values.get(i), 0.0);
+            }
+        }
+        finally
+        {
+            SampleBuffer.setSpool(null);
+            spool.close();
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.scanner;
+
+import org.junit.Test;
+
+/** Benchmark of the {@link Scanner} vs. the {@link TimingWheelScanner}.
+ *  <p>
+ *  Scans many items with a few different periods,
+ *  where each item only does a minimal amount of work,
+ *  to show the scheduling overhead.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ScannerDemo
+{
+    private static final long RUNTIME = 10 * 1000l;
+
+    private static final int ITEMS = 100000;
+
+    private static final double[] PERIODS = { 0.5, 1.0, 2.0, 10.0 };
+
+    /** Item that counts scans and does a little work */
+    private static class Item implements Runnable
+    {
+        volatile int scans = 0;
+        double value;
+
+        @Override
+        public void run()
+        {
+            value = Math.sin(value + scans);
+            ++scans;
+        }
+    }
+
+    private void run(final String title, final ScanScheduler scanner)
+    {
+        final Item[] items = new Item[ITEMS];
+        double expected = 0.0;
+        for (int i=0; i<ITEMS; ++i)
+        {
+            items[i] = new Item();
+            final double period = PERIODS[i % PERIODS.length];
+            scanner.add(items[i], period);
+            expected += RUNTIME / 1000.0 / period;
+        }
+
+        final long start = System.currentTimeMillis();
+        final long end = start + RUNTIME;
+        while (System.currentTimeMillis() < end)
+            scanner.scanOnce();
+        scanner.shutdown();
+
+        long scans = 0;
+        for (Item item : items)
+            scans += item.scans;
+        System.out.println(title);
+        System.out.format("Scans   : %d (%.1f %% of expected), %.0f scans/sec\n",
+                scans, 100.0 * scans / expected, scans * 1000.0 / RUNTIME);
+        System.out.format("Idle    : %.1f %%\n", scanner.getIdlePercentage());
+        if (scanner instanceof TimingWheelScanner)
+        {
+            final TimingWheelScanner wheel = (TimingWheelScanner) scanner;
+            System.out.format("Jitter  : %.1f ms average, %d ms max\n",
+                    wheel.getAverageJitter(), wheel.getMaxJitter());
+        }
+    }
+
+    @Test
+    public void testScanner()
+    {
+        run("Scanner with ScanLists", new Scanner());
+    }
+
+    @Test
+    public void testTimingWheel()
+    {
+        run("Timing wheel", new TimingWheelScanner(0));
+    }
+
+    @Test
+    public void testTimingWheelWorkers()
+    {
+        run("Timing wheel, 4 worker threads", new TimingWheelScanner(4));
+    }
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.engine.scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/** Unit test of the {@link TimingWheelScanner}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class TimingWheelScannerUnitTest
+{
+    /** Scannable item that remembers when it was invoked */
+    static class ScanItem implements Runnable
+    {
+        final List<Long> times = new ArrayList<Long>();
+        long now;
+
+        @Override
+        public void run()
+        {
+            times.add(now);
+        }
+    }
+
+    /** Items with periods that use all the wheels, simulated time */
+    @Test
+    public void testWheels() throws Exception
+    {
+        final long tick = 1000;
+        final TimingWheelScanner scanner = new TimingWheelScanner(tick, 500, 0);
+        assertFalse(scanner.isDueAtAll());
+
+        final double[] periods = { 1.0, 300.0, 20000.0, 2000000.0 };
+        final ScanItem[] items = new ScanItem[periods.length];
+        for (int i=0; i<periods.length; ++i)
+        {
+            items[i] = new ScanItem();
+            scanner.add(items[i], periods[i]);
+        }
+        assertTrue(scanner.isDueAtAll());
+        assertEquals(periods.length, scanner.size());
+
+        // Step through time one tick at a time
+        final long start = (System.currentTimeMillis() / tick + 1) * tick;
+        final long end = start + 5000000 * tick;
+        for (long now = start; now <= end; now += tick)
+        {
+            for (ScanItem item : items)
+                item.now = now;
+            scanner.scanDueItems(now);
+        }
+
+        for (int i=0; i<periods.length; ++i)
+        {
+            final List<Long> times = items[i].times;
+            final long period = (long) (periods[i] * 1000);
+            System.out.println("Period " + periods[i] + " s: " + times.size() + " scans");
+            // First scan within one period, then exactly once per period
+            assertTrue(times.get(0) - start < period);
+            assertEquals((end - times.get(0)) / period + 1, times.size());
+            for (int t=1; t<times.size(); ++t)
+                assertEquals(period, times.get(t) - times.get(t-1));
+        }
+    }
+
+    /** Removing items */
+    @Test
+    public void testRemove() throws Exception
+    {
+        final long tick = 1000;
+        final TimingWheelScanner scanner = new TimingWheelScanner(tick, 500, 0);
+        final ScanItem a = new ScanItem(), b = new ScanItem();
+        scanner.add(a, 5.0);
+        scanner.add(b, 5.0);
+        // Adding again replaces the first entry
+        scanner.add(b, 5.0);
+        assertEquals(2, scanner.size());
+
+        final long start = (System.currentTimeMillis() / tick + 1) * tick;
+        for (long now = start; now < start + 10 * tick; now += tick)
+            scanner.scanDueItems(now);
+        assertEquals(2, a.times.size());
+        assertEquals(2, b.times.size());
+
+        scanner.remove(a);
+        assertEquals(1, scanner.size());
+        for (long now = start + 10 * tick; now < start + 20 * tick; now += tick)
+            scanner.scanDueItems(now);
+        assertEquals(2, a.times.size());
+        assertEquals(4, b.times.size());
+
+        scanner.clear();
+        assertFalse(scanner.isDueAtAll());
+    }
+
+    /** Many items, executed by worker threads in real time */
+    @Test
+    public void testWorkers() throws Exception
+    {
+        final TimingWheelScanner scanner = new TimingWheelScanner(4);
+        final AtomicInteger scans = new AtomicInteger();
+        final int count = 10000;
+        for (int i=0; i<count; ++i)
+            scanner.add(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    scans.incrementAndGet();
+                }
+            }, 0.5);
+
+        final long end = System.currentTimeMillis() + 2000;
+        while (System.currentTimeMillis() < end)
+            scanner.scanOnce();
+        scanner.shutdown();
+
+        System.out.format("%d scans, idle %.1f %%, jitter %.1f ms (max. %d ms)\n",
+                scans.get(), scanner.getIdlePercentage(),
+                scanner.getAverageJitter(), scanner.getMaxJitter());
+        // Each item scanned about 4 times within 2 seconds
+        assertTrue(scans.get() >= 3 * count);
+        assertTrue(scans.get() <= 5 * count);
+        assertTrue(scanner.getIdlePercentage() > 0.0);
+    }
+}
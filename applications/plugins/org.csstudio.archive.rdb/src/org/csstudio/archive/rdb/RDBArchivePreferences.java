@@ -7,6 +7,10 @@
  ******************************************************************************/
 package org.csstudio.archive.rdb;
 
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import org.csstudio.security.preferences.SecurePreferences;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.preferences.IPreferencesService;
@@ -23,6 +27,7 @@ public class RDBArchivePreferences
     public static final String PASSWORD = "password";
     public static final String SQL_TIMEOUT = "sql_timeout";
     public static final String USE_ARRAY_BLOB = "use_array_blob";
+    public static final String ROLLUP_BINS = "rollup_bins";
 
     /** @return URL of RDB archive server */
     public static String getURL()
@@ -69,6 +74,36 @@ public class RDBArchivePreferences
         return prefs.getBoolean(Activator.ID, USE_ARRAY_BLOB, true, null);
     }
 
+    /** @return Bin sizes in seconds of the 'sample_rollup' tiers, sorted ascending.
+     *          Empty if rollups are not used.
+     */
+    public static int[] getRollupBins()
+    {
+        final String spec = getString(ROLLUP_BINS);
+        if (spec == null  ||  spec.trim().isEmpty())
+            return new int[0];
+        final String[] items = spec.split("\\s*,\\s*");
+        final int[] bins = new int[items.length];
+        int count = 0;
+        for (String item : items)
+        {
+            try
+            {
+                final int secs = Integer.parseInt(item.trim());
+                if (secs > 0)
+                    bins[count++] = secs;
+            }
+            catch (NumberFormatException ex)
+            {
+                Logger.getLogger(Activator.ID).log(Level.WARNING,
+                    "Ignoring invalid " + ROLLUP_BINS + " entry ''{0}''", item);
+            }
+        }
+        final int[] result = Arrays.copyOf(bins, count);
+        Arrays.sort(result);
+        return result;
+    }
+
     /** Get string preference
      *  @param key Preference key
      *  @return String or <code>null</code>
@@ -23,6 +23,7 @@ import org.csstudio.archive.reader.ValueIterator;
 import org.csstudio.archive.vtype.TimestampHelper;
 import org.csstudio.platform.utility.rdb.RDBUtil;
 import org.csstudio.platform.utility.rdb.RDBUtil.Dialect;
+import org.epics.util.time.TimeDuration;
 import org.epics.util.time.Timestamp;
 import org.epics.vtype.AlarmSeverity;
 
@@ -51,6 +52,9 @@ public class RDBArchiveReader implements ArchiveReader
     /** Name of stored procedure or "" */
     final private String stored_procedure;
 
+    /** Bin sizes of 'sample_rollup' tiers, sorted ascending, empty if not used */
+    final private int[] rollup_bins;
+
     final private RDBUtil rdb;
     final private SQL sql;
     final private boolean is_oracle;
@@ -101,6 +105,7 @@ public class RDBArchiveReader implements ArchiveReader
         this.password = (password == null) ? 0 : password.length();
         this.use_array_blob = use_array_blob;
         timeout = RDBArchivePreferences.getSQLTimeoutSecs();
+        rollup_bins = RDBArchivePreferences.getRollupBins();
         rdb = RDBUtil.connect(url, user, password, false);
         // Read-only allows MySQL to use load balancing
         rdb.getConnection().setReadOnly(true);
@@ -371,37 +376,105 @@ public class RDBArchiveReader implements ArchiveReader
     	if (count <= 1)
             throw new Exception("Count must be > 1");
         final int channel_id = getChannelID(name);
-        
+
+        // Use pre-aggregated rollup data?
+        final int bin_secs = selectRollupBin(channel_id, start, end, count);
+        if (bin_secs > 0)
+            return new RollupValueIterator(this, channel_id, bin_secs, start, end);
+
         // Use stored procedure in RDB server?
         if (stored_procedure.length() > 0)
             return new StoredProcedureValueIterator(this, stored_procedure, channel_id, start, end, count);
 
         // Else: Determine how many samples there are
-        final int counted;
+        final int counted = countRawSamples(channel_id, start, end);
+        // Fetch raw data and perform averaging
+        final ValueIterator raw_data = getRawValues(channel_id, start, end);
+        
+        // If there weren't that many, that's it
+        if (counted < count)
+        	return raw_data;
+        
+        // Else: Perform averaging to reduce sample count
+        final double seconds = end.durationFrom(start).toSeconds() / count;
+        return new AveragedValueIterator(raw_data, seconds);
+    }
+
+    /** Count raw samples
+     *  @param channel_id Channel ID in RDB
+     *  @param start Start time
+     *  @param end End time
+     *  @return Number of samples from start to end
+     *  @throws Exception on error
+     */
+    int countRawSamples(final int channel_id,
+            final Timestamp start, final Timestamp end) throws Exception
+    {
         try
         (
             final PreparedStatement count_samples = rdb.getConnection().prepareStatement(
                     sql.sample_count_by_id_start_end);
         )
         {
+            if (timeout > 0)
+                count_samples.setQueryTimeout(timeout);
 	        count_samples.setInt(1, channel_id);
 	        count_samples.setTimestamp(2, TimestampHelper.toSQLTimestamp(start));
 	        count_samples.setTimestamp(3, TimestampHelper.toSQLTimestamp(end));
 	        final ResultSet result = count_samples.executeQuery();
 	        if (! result.next())
 	        	throw new Exception("Cannot count samples");
-	        counted = result.getInt(1);
+	        return result.getInt(1);
         }
-        // Fetch raw data and perform averaging
-        final ValueIterator raw_data = getRawValues(channel_id, start, end);
-        
-        // If there weren't that many, that's it
-        if (counted < count)
-        	return raw_data;
-        
-        // Else: Perform averaging to reduce sample count
+    }
+
+    /** Select rollup bin size for optimized data
+     *  @param channel_id Channel ID in RDB
+     *  @param start Start time
+     *  @param end End time
+     *  @param count Desired value count
+     *  @return Largest bin size in seconds that still provides the desired
+     *          value count and has data in the time range,
+     *          or 0 if rollup data cannot be used
+     */
+    private int selectRollupBin(final int channel_id,
+            final Timestamp start, final Timestamp end, final int count)
+    {
         final double seconds = end.durationFrom(start).toSeconds() / count;
-        return new AveragedValueIterator(raw_data, seconds);
+        int bin_secs = 0;
+        for (int bin : rollup_bins)
+            if (bin <= seconds)
+                bin_secs = bin;
+        if (bin_secs <= 0)
+            return 0;
+        // Rollups only exist since the writer started to maintain them,
+        // and only for numeric channels.
+        // If there are none in the time range, use the raw samples.
+        // Otherwise the RollupValueIterator reads raw samples
+        // for time ranges that are not covered by bins.
+        try
+        (
+            final PreparedStatement statement =
+                rdb.getConnection().prepareStatement(sql.rollup_sel_bin_in_range);
+        )
+        {
+            if (timeout > 0)
+                statement.setQueryTimeout(timeout);
+            statement.setInt(1, channel_id);
+            statement.setInt(2, bin_secs);
+            statement.setTimestamp(3, TimestampHelper.toSQLTimestamp(start.minus(TimeDuration.ofSeconds(bin_secs))));
+            statement.setTimestamp(4, TimestampHelper.toSQLTimestamp(end));
+            final ResultSet result = statement.executeQuery();
+            if (! result.next()  ||  result.getTimestamp(1) == null)
+                return 0;
+            return bin_secs;
+        }
+        catch (Exception ex)
+        {
+            Activator.getLogger().log(Level.WARNING,
+                "Cannot read " + bin_secs + " second rollup for channel ID " + channel_id, ex);
+            return 0;
+        }
     }
 
     /** @param name Channel name
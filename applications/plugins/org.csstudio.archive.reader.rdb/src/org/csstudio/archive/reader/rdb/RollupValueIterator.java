@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.reader.rdb;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.csstudio.archive.reader.ValueIterator;
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.ArchiveVStatistics;
+import org.csstudio.archive.vtype.TimestampHelper;
+import org.epics.util.time.TimeDuration;
+import org.epics.util.time.Timestamp;
+import org.epics.vtype.AlarmSeverity;
+import org.epics.vtype.VType;
+
+/** Value Iterator that reads pre-aggregated min/max/average
+ *  data from the SAMPLE_ROLLUP table.
+ *  <p>
+ *  Each row of the table describes one bin.
+ *  The samples are placed in the center of their bin,
+ *  similar to the {@link AveragedValueIterator}.
+ *  Bins that end in a gap, for example because the channel
+ *  was disconnected, are followed by a 'no value' sample at the end of the bin.
+ *  <p>
+ *  Bins without a row either had no samples, or the rollup data is
+ *  missing, for example because it was enabled after the samples were written,
+ *  or because the engine has not yet written the current bin.
+ *  Since the engine maintains the rollup data for all samples once enabled,
+ *  bins between two rows are taken as empty.
+ *  Only the time ranges before the first and after the last row
+ *  are checked for raw samples, which are then averaged
+ *  over the bin size like for a reader without rollup data.
+ *
+ *  @author agent
+ */
+public class RollupValueIterator extends AbstractRDBValueIterator
+{
+    /** Status of the sample that marks a gap at the end of a bin */
+    final private static String GAP_STATUS = "Gap"; //$NON-NLS-1$
+
+    /** Bin size in seconds */
+    final private int bin_secs;
+
+    /** Bin size */
+    final private TimeDuration bin;
+
+    /** Offset from start to center of bin */
+    final private TimeDuration half_bin;
+
+    /** End time */
+    final private Timestamp end;
+
+    /** Time up to which bins have been read */
+    private Timestamp covered;
+
+    /** Has the first bin been read? */
+    private boolean have_bins = false;
+
+    /** Averaged raw samples for a time range without bins,
+     *  returned before the <code>bin_values</code>,
+     *  or <code>null</code>
+     */
+    private ValueIterator hole = null;
+
+    /** Values of the last bin that was read */
+    final private List<VType> bin_values = new ArrayList<VType>(2);
+
+    /** SELECT ... for the start .. end bins. */
+    private PreparedStatement sel_bins = null;
+
+    /** Result of <code>sel_bins</code> */
+    private ResultSet result_set = null;
+
+    /** 'Current' value that <code>next()</code> will return,
+     *  or <code>null</code>
+     */
+    private VType value = null;
+
+    /** Initialize
+     *  @param reader RDBArchiveReader
+     *  @param channel_id ID of channel
+     *  @param bin_secs Bin size in seconds
+     *  @param start Start time
+     *  @param end End time
+     *  @throws Exception on error
+     */
+    public RollupValueIterator(final RDBArchiveReader reader,
+            final int channel_id, final int bin_secs,
+            final Timestamp start, final Timestamp end) throws Exception
+    {
+        super(reader, channel_id);
+        this.bin_secs = bin_secs;
+        bin = TimeDuration.ofSeconds(bin_secs);
+        half_bin = TimeDuration.ofSeconds(bin_secs / 2.0);
+        this.end = end;
+        covered = start;
+        try
+        {
+            // Include the bin that contains the start time
+            final Timestamp bin_start = start.minus(bin);
+            sel_bins = reader.getRDB().getConnection().prepareStatement(
+                    reader.getSQL().rollup_sel_by_id_bin_start_end);
+            sel_bins.setFetchDirection(ResultSet.FETCH_FORWARD);
+            sel_bins.setFetchSize(Preferences.getFetchSize());
+            reader.addForCancellation(sel_bins);
+            sel_bins.setInt(1, channel_id);
+            sel_bins.setInt(2, bin_secs);
+            sel_bins.setTimestamp(3, TimestampHelper.toSQLTimestamp(bin_start));
+            sel_bins.setTimestamp(4, TimestampHelper.toSQLTimestamp(end));
+            result_set = sel_bins.executeQuery();
+            value = fetchValue();
+        }
+        catch (Exception ex)
+        {
+            close();
+            if (! RDBArchiveReader.isCancellation(ex))
+                throw ex;
+            // Else: Not a real error; return empty iterator
+        }
+    }
+
+    /** @return Bin size in seconds */
+    public int getBinSeconds()
+    {
+        return bin_secs;
+    }
+
+    /** @return Next value from the bins or raw samples for holes, <code>null</code> at end
+     *  @throws Exception on error
+     */
+    private VType fetchValue() throws Exception
+    {
+        while (true)
+        {
+            if (hole != null)
+            {
+                if (hole.hasNext())
+                    return hole.next();
+                hole.close();
+                hole = null;
+            }
+            if (! bin_values.isEmpty())
+                return bin_values.remove(0);
+            if (result_set == null)
+                return null;
+            if (result_set.next())
+            {
+                final Timestamp bin_time = TimestampHelper.fromSQLTimestamp(result_set.getTimestamp(1));
+                decodeRollupValues(result_set, bin_time);
+                // Check for raw samples before the first bin,
+                // which may predate the rollup data
+                if (! have_bins)
+                {
+                    hole = getHole(covered, bin_time);
+                    have_bins = true;
+                }
+                final Timestamp bin_end = bin_time.plus(bin);
+                if (bin_end.compareTo(covered) > 0)
+                    covered = bin_end;
+            }
+            else
+            {   // Check for raw samples after the last bin,
+                // which the engine may not have written, yet
+                closeBins();
+                hole = getHole(covered, end);
+            }
+        }
+    }
+
+    /** @param from Start of time range without bins
+     *  @param to End of time range
+     *  @return Averaged raw samples for the time range or <code>null</code>
+     *  @throws Exception on error
+     */
+    private ValueIterator getHole(final Timestamp from, final Timestamp to) throws Exception
+    {
+        if (to.compareTo(from) <= 0)
+            return null;
+        // Raw samples at 'to' belong to the next bin
+        final Timestamp last = to.minus(TimeDuration.ofNanos(1));
+        if (reader.countRawSamples(channel_id, from, last) <= 0)
+            return null;
+        return new AveragedValueIterator(reader.getRawValues(channel_id, from, last), bin_secs);
+    }
+
+    /** Decode values from rollup table into <code>bin_values</code>
+     *  @param result ResultSet with bin_time, min_val, max_val, sum_val, sum_sq, cnt, gaps, gap_end
+     *  @param bin_time Start of the bin
+     *  @throws Exception on error
+     */
+    private void decodeRollupValues(final ResultSet result, final Timestamp bin_time) throws Exception
+    {
+        final Timestamp time = bin_time.plus(half_bin);
+        final double min = result.getDouble(2);
+        final double max = result.getDouble(3);
+        final double sum = result.getDouble(4);
+        final double sum_sq = result.getDouble(5);
+        final int count = result.getInt(6);
+        final boolean gap_end = result.getInt(8) != 0;
+        if (count == 1)
+            bin_values.add(new ArchiveVNumber(time, AlarmSeverity.NONE, "", display, sum)); //$NON-NLS-1$
+        else if (count > 1)
+        {
+            final double average = sum / count;
+            final double variance = sum_sq / count - average * average;
+            final double stddev = variance > 0 ? Math.sqrt(variance) : 0.0;
+            bin_values.add(new ArchiveVStatistics(time, AlarmSeverity.NONE, "", display, //$NON-NLS-1$
+                    average, min, max, stddev, count));
+        }
+        if (gap_end  ||  count <= 0)
+            bin_values.add(new ArchiveVNumber(bin_time.plus(bin), AlarmSeverity.UNDEFINED,
+                    GAP_STATUS, display, Double.NaN));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasNext()
+    {
+        return value != null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("nls")
+    public VType next() throws Exception
+    {
+        if (value == null)
+            throw new Exception("RollupValueIterator.next(" + channel_id + ") called after end");
+
+        final VType result = value;
+        try
+        {
+            value = fetchValue();
+            if (value == null)
+                close();
+        }
+        catch (Exception ex)
+        {
+            close();
+            if (! RDBArchiveReader.isCancellation(ex))
+                throw ex;
+            // Else: Not a real error; return empty iterator
+        }
+        return result;
+    }
+
+    /** Release all database resources.
+     *  OK to call more than once.
+     */
+    @Override
+    public void close()
+    {
+        super.close();
+        value = null;
+        bin_values.clear();
+        if (hole != null)
+        {
+            hole.close();
+            hole = null;
+        }
+        closeBins();
+    }
+
+    /** Release the database resources for reading bins */
+    private void closeBins()
+    {
+        if (result_set != null)
+        {
+            try
+            {
+                result_set.close();
+            }
+            catch (Exception ex)
+            {
+                // Ignore
+            }
+            result_set = null;
+        }
+        if (sel_bins != null)
+        {
+            reader.removeFromCancellation(sel_bins);
+            try
+            {
+                sel_bins.close();
+            }
+            catch (Exception ex)
+            {
+                // Ignore
+            }
+            sel_bins = null;
+        }
+    }
+}
@@ -38,6 +38,10 @@ public class SQL
     final public String sample_sel_by_id_start_end_with_blob;
     final public String sample_sel_array_vals;
 	final public String sample_count_by_id_start_end;
+
+	// 'sample_rollup' table
+	final public String rollup_sel_bin_in_range;
+	final public String rollup_sel_by_id_bin_start_end;
     
     /** Initialize SQL statements
      *  @param dialect RDB dialect
@@ -128,5 +132,14 @@ public class SQL
         // Rough count, ignoring nanosecs for the non-Oracle dialects
         sample_count_by_id_start_end = "SELECT COUNT(*) FROM " + prefix + "sample" +
           "   WHERE channel_id=? AND smpl_time BETWEEN ? AND ?";
+
+        // 'sample_rollup' table
+        rollup_sel_bin_in_range = "SELECT MIN(bin_time) FROM " + prefix + "sample_rollup" +
+          "   WHERE channel_id=? AND bin_secs=? AND bin_time>=? AND bin_time<=?";
+        rollup_sel_by_id_bin_start_end =
+            "SELECT bin_time, min_val, max_val, sum_val, sum_sq, cnt, gaps, gap_end FROM " + prefix + "sample_rollup" +
+            "   WHERE channel_id=? AND bin_secs=?" +
+            "     AND bin_time>=? AND bin_time<=?" +
+            "   ORDER BY bin_time";
     }
 }
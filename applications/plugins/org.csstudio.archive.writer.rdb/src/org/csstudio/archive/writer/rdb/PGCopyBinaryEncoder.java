@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.rdb;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.TimeZone;
+
+/**
+ * Encoder for rows in the PostgreSQL binary COPY format.
+ * <p>
+ * See <a href="http://www.postgresql.org/docs/9.2/static/sql-copy.html"
+ * >http://www.postgresql.org/docs/9.2/static/sql-copy.html</a>
+ * for the binary file format.
+ *
+ * @author agent
+ */
+@SuppressWarnings("nls")
+public class PGCopyBinaryEncoder {
+
+	/** Binary COPY signature, followed by 32 bit flags and header extension length */
+	private static final byte[] SIGNATURE = new byte[] { 'P', 'G', 'C', 'O',
+			'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0 };
+
+	/** Micro seconds between 1970-01-01 (Java) and 2000-01-01 (PostgreSQL) */
+	private static final long PG_EPOCH_MICROS = 946684800000000L;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/** Column types supported in binary format */
+	public enum ColumnType {
+		INT2, INT4, INT8, FLOAT4, FLOAT8, BOOL, TEXT, BYTEA, TIMESTAMP, TIMESTAMPTZ;
+
+		/**
+		 * @param typeName
+		 *            PostgreSQL type name
+		 * @return {@link ColumnType} or <code>null</code> if not supported
+		 */
+		public static ColumnType forName(String typeName) {
+			if ("int2".equals(typeName)) {
+				return INT2;
+			}
+			if ("int4".equals(typeName) || "serial".equals(typeName)) {
+				return INT4;
+			}
+			if ("int8".equals(typeName) || "bigserial".equals(typeName)) {
+				return INT8;
+			}
+			if ("float4".equals(typeName)) {
+				return FLOAT4;
+			}
+			if ("float8".equals(typeName)) {
+				return FLOAT8;
+			}
+			if ("bool".equals(typeName)) {
+				return BOOL;
+			}
+			if ("varchar".equals(typeName) || "bpchar".equals(typeName)
+					|| "text".equals(typeName)) {
+				return TEXT;
+			}
+			if ("bytea".equals(typeName)) {
+				return BYTEA;
+			}
+			if ("timestamp".equals(typeName)) {
+				return TIMESTAMP;
+			}
+			if ("timestamptz".equals(typeName)) {
+				return TIMESTAMPTZ;
+			}
+			return null;
+		}
+	}
+
+	/** Type of each column */
+	private final ColumnType[] columnTypes;
+
+	/** Encoded rows */
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+	/** Row that is being encoded, added to the buffer when complete */
+	private final ByteArrayOutputStream row = new ByteArrayOutputStream();
+
+	private final DataOutputStream data = new DataOutputStream(row);
+
+	/** Number of encoded rows */
+	private int rows = 0;
+
+	/**
+	 * @param columnTypes
+	 *            Type of each column
+	 */
+	public PGCopyBinaryEncoder(ColumnType[] columnTypes) {
+		this.columnTypes = columnTypes.clone();
+	}
+
+	/** @return Number of columns */
+	public int getColumnCount() {
+		return columnTypes.length;
+	}
+
+	/** @return Number of rows added since the last {@link #clear()} */
+	public int getRowCount() {
+		return rows;
+	}
+
+	/**
+	 * Add a row
+	 *
+	 * @param values
+	 *            Value for each column, <code>null</code> for NULL
+	 * @throws SQLException
+	 *             if a value doesn't match the column type. The row is not
+	 *             added.
+	 */
+	public void addRow(Object[] values) throws SQLException {
+		if (values.length != columnTypes.length) {
+			throw new SQLException("Expected " + columnTypes.length
+					+ " values, got " + values.length);
+		}
+		row.reset();
+		try {
+			data.writeShort(values.length);
+			for (int i = 0; i < values.length; i++) {
+				writeField(columnTypes[i], values[i]);
+			}
+			data.flush();
+			row.writeTo(buffer);
+		} catch (IOException e) {
+			throw new SQLException(e);
+		}
+		++rows;
+	}
+
+	/**
+	 * @return COPY data with header, the rows added since the last
+	 *         {@link #clear()} and trailer
+	 */
+	public byte[] toByteArray() {
+		final ByteArrayOutputStream result = new ByteArrayOutputStream(
+				SIGNATURE.length + 8 + buffer.size() + 2);
+		final DataOutputStream out = new DataOutputStream(result);
+		try {
+			out.write(SIGNATURE);
+			// Flags, header extension length
+			out.writeInt(0);
+			out.writeInt(0);
+			buffer.writeTo(out);
+			out.writeShort(-1);
+			out.flush();
+		} catch (IOException e) {
+			// Cannot happen for a ByteArrayOutputStream
+			throw new IllegalStateException(e);
+		}
+		return result.toByteArray();
+	}
+
+	/** Remove all rows */
+	public void clear() {
+		buffer.reset();
+		rows = 0;
+	}
+
+	/**
+	 * Write one field in binary COPY format
+	 *
+	 * @param type
+	 *            Column type
+	 * @param value
+	 *            Value of the field, <code>null</code> for NULL
+	 * @throws IOException
+	 *             on error
+	 * @throws SQLException
+	 *             if value doesn't match the column type
+	 */
+	private void writeField(ColumnType type, Object value) throws IOException,
+			SQLException {
+		if (value == null) {
+			data.writeInt(-1);
+			return;
+		}
+		switch (type) {
+		case INT2:
+			data.writeInt(2);
+			data.writeShort(toNumber(value).shortValue());
+			break;
+		case INT4:
+			data.writeInt(4);
+			data.writeInt(toNumber(value).intValue());
+			break;
+		case INT8:
+			data.writeInt(8);
+			data.writeLong(toNumber(value).longValue());
+			break;
+		case FLOAT4:
+			data.writeInt(4);
+			data.writeFloat(toNumber(value).floatValue());
+			break;
+		case FLOAT8:
+			data.writeInt(8);
+			data.writeDouble(toNumber(value).doubleValue());
+			break;
+		case BOOL:
+			data.writeInt(1);
+			data.writeByte(Boolean.TRUE.equals(value) ? 1 : 0);
+			break;
+		case TEXT: {
+			final byte[] bytes = value.toString().getBytes(UTF8);
+			data.writeInt(bytes.length);
+			data.write(bytes);
+			break;
+		}
+		case BYTEA: {
+			if (!(value instanceof byte[])) {
+				throw new SQLException("Expected byte[] for BYTEA, got "
+						+ value.getClass().getName());
+			}
+			final byte[] bytes = (byte[]) value;
+			data.writeInt(bytes.length);
+			data.write(bytes);
+			break;
+		}
+		case TIMESTAMP:
+		case TIMESTAMPTZ: {
+			if (!(value instanceof Timestamp)) {
+				throw new SQLException("Expected Timestamp, got "
+						+ value.getClass().getName());
+			}
+			data.writeInt(8);
+			data.writeLong(toPostgresMicros((Timestamp) value,
+					type == ColumnType.TIMESTAMP));
+			break;
+		}
+		default:
+			throw new SQLException("Unsupported type " + type);
+		}
+	}
+
+	private static Number toNumber(Object value) throws SQLException {
+		if (value instanceof Number) {
+			return (Number) value;
+		}
+		if (value instanceof Boolean) {
+			return Integer.valueOf(((Boolean) value).booleanValue() ? 1 : 0);
+		}
+		throw new SQLException("Expected number, got "
+				+ value.getClass().getName());
+	}
+
+	/**
+	 * @param stamp
+	 *            Time stamp
+	 * @param local
+	 *            Convert to local wall-clock time as used for 'timestamp
+	 *            without time zone', like the JDBC driver does?
+	 * @return Micro seconds since 2000-01-01
+	 */
+	public static long toPostgresMicros(Timestamp stamp, boolean local) {
+		final long millis = stamp.getTime();
+		// getTime() includes the milliseconds of getNanos(), so use the full
+		// seconds, rounding down for times before 1970
+		long secs = millis / 1000;
+		if (millis % 1000 < 0) {
+			--secs;
+		}
+		long micros = secs * 1000000L + stamp.getNanos() / 1000;
+		if (local) {
+			micros += TimeZone.getDefault().getOffset(millis) * 1000L;
+		}
+		return micros - PG_EPOCH_MICROS;
+	}
+}
@@ -1,10 +1,9 @@
 package org.csstudio.archive.writer.rdb;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PushbackReader;
 import java.io.Reader;
-import java.io.StringReader;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.Array;
@@ -22,6 +21,7 @@ import java.sql.RowId;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
 import java.sql.SQLXML;
+import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.Arrays;
@@ -31,71 +31,157 @@ import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.csstudio.archive.writer.rdb.PGCopyBinaryEncoder.ColumnType;
 import org.postgresql.PGConnection;
 import org.postgresql.copy.CopyManager;
 
+/**
+ * {@link PreparedStatement} for an INSERT that batches the rows in the
+ * PostgreSQL binary COPY format and submits them via
+ * <code>COPY table (columns) FROM STDIN WITH BINARY</code>.
+ * <p>
+ * Supports the column types used by the archive sample tables. The
+ * constructor throws an {@link SQLException} for other column types or when
+ * the server doesn't use integer date/time values, so that the caller can
+ * fall back to a plain prepared statement.
+ * <p>
+ * The rows are encoded by the {@link PGCopyBinaryEncoder}.
+ */
+@SuppressWarnings("nls")
 public class PGCopyPreparedStatement implements PreparedStatement {
 
 	private Connection connection;
 
-	private String[] rowValues;
+	/** COPY command, listing the columns in the order of the INSERT parameters */
+	private final String copySql;
 
-	private StringBuffer batchBuilder;
+	/** Values of the current row, index 0 for first parameter */
+	private Object[] rowValues;
 
-	private int[] columnOrderMapping;
+	/** Encoded rows of the current batch */
+	private PGCopyBinaryEncoder encoder;
 
 	public PGCopyPreparedStatement(Connection connection, String insertSqlQuery)
 			throws SQLException {
 		this.connection = connection;
-		batchBuilder = new StringBuffer();
 
 		// Analyze query string to get table name and list of column
-		String tableName = null;
-		String[] columnsArrays = null;
 		Pattern p = Pattern.compile(
-				"^INSERT[ ]+INTO[ ]+([^ ]+)[ ]+\\(([^)]+)\\)",
+				"^INSERT[ ]+INTO[ ]+([^ (]+)[ ]*\\(([^)]+)\\)",
 				Pattern.CASE_INSENSITIVE);
-		Matcher m = p.matcher(insertSqlQuery);
-		if (m.find()) {
-			tableName = m.group(1);
-			columnsArrays = m.group(2).split(",");
+		Matcher m = p.matcher(insertSqlQuery.trim());
+		if (!m.find()) {
+			throw new SQLException("Cannot parse INSERT for COPY: "
+					+ insertSqlQuery);
 		}
+		final String tableName = m.group(1);
+		final String[] columnsArrays = m.group(2).split(",");
 
-		// Get the column order as it's stored in database
-		Map<String, Integer> postgresColumnOrderMap = new HashMap<String, Integer>();
-		ResultSet columnsRs = connection.getMetaData().getColumns(
-				connection.getCatalog(), null, "sample", null);
-		while (columnsRs.next()) {
-			postgresColumnOrderMap.put(columnsRs.getString("COLUMN_NAME"),
-					columnsRs.getInt("ORDINAL_POSITION"));
-		}
-		rowValues = new String[postgresColumnOrderMap.size()];
+		// Binary timestamps are 64 bit integers unless the server was
+		// compiled with floating point date/time
+		checkIntegerDateTimes();
 
-		// Generate a tab containing mapping between order in insert query and
-		// database order
-		columnOrderMapping = new int[columnsArrays.length + 1];
-		columnOrderMapping[0] = -1;
+		// Get the column types as defined in the database
+		final Map<String, String> postgresColumnTypes = getColumnTypes(tableName);
+		final ColumnType[] columnTypes = new ColumnType[columnsArrays.length];
+		final StringBuilder columns = new StringBuilder();
 		for (int i = 0; i < columnsArrays.length; i++) {
-			String columnName = columnsArrays[i].trim();
-			Integer postgresColumnOrder = postgresColumnOrderMap
-					.get(columnName);
-			if (postgresColumnOrder == null) {
+			String columnName = columnsArrays[i].trim().toLowerCase();
+			String typeName = postgresColumnTypes.get(columnName);
+			if (typeName == null) {
 				throw new SQLException("Unable to find column " + columnName
 						+ "  in table " + tableName);
 			}
-			columnOrderMapping[i + 1] = postgresColumnOrder.intValue() - 1;
+			columnTypes[i] = ColumnType.forName(typeName);
+			if (columnTypes[i] == null) {
+				throw new SQLException("Column " + columnName + " in table "
+						+ tableName + " has type " + typeName
+						+ ", not supported for binary COPY");
+			}
+			if (i > 0) {
+				columns.append(", ");
+			}
+			columns.append(columnName);
 		}
+		copySql = "COPY " + tableName + " (" + columns
+				+ ") FROM STDIN WITH BINARY";
+		rowValues = new Object[columnTypes.length];
+		encoder = new PGCopyBinaryEncoder(columnTypes);
 	}
 
-	@Override
-	public void addBatch() throws SQLException {
-		for (int i = 0; i < rowValues.length; i++) {
-			if (rowValues[i] != null) {
-				batchBuilder.append(rowValues[i]);
+	/**
+	 * @throws SQLException
+	 *             if server uses floating point date/time values
+	 */
+	private void checkIntegerDateTimes() throws SQLException {
+		final Statement statement = connection.createStatement();
+		try {
+			final ResultSet result = statement
+					.executeQuery("SHOW integer_datetimes");
+			if (!result.next() || !"on".equalsIgnoreCase(result.getString(1))) {
+				throw new SQLException(
+						"Binary COPY requires integer_datetimes");
 			}
-			batchBuilder.append(",");
+			result.close();
+		} finally {
+			statement.close();
 		}
-		batchBuilder.setCharAt(batchBuilder.length() - 1, '\n');
+	}
+
+	/**
+	 * @param tableName
+	 *            Table name, may include "schema."
+	 * @return Map of column name to PostgreSQL type name
+	 * @throws SQLException
+	 *             on error, or when the table is unknown
+	 */
+	private Map<String, String> getColumnTypes(String tableName)
+			throws SQLException {
+		String schema = null;
+		String table = tableName.toLowerCase();
+		final int sep = table.lastIndexOf('.');
+		if (sep > 0) {
+			schema = table.substring(0, sep);
+			table = table.substring(sep + 1);
+		}
+		final Map<String, String> types = new HashMap<String, String>();
+		final ResultSet columnsRs = connection.getMetaData().getColumns(
+				connection.getCatalog(), schema, table, null);
+		try {
+			while (columnsRs.next()) {
+				types.put(columnsRs.getString("COLUMN_NAME").toLowerCase(),
+						columnsRs.getString("TYPE_NAME").toLowerCase());
+			}
+		} finally {
+			columnsRs.close();
+		}
+		if (types.isEmpty()) {
+			throw new SQLException("Unable to find table " + tableName);
+		}
+		return types;
+	}
+
+	/**
+	 * Set value of a parameter
+	 * 
+	 * @param parameterIndex
+	 *            1, 2, ...
+	 * @param value
+	 *            Value or <code>null</code>
+	 * @throws SQLException
+	 *             on invalid index
+	 */
+	private void setValue(int parameterIndex, Object value)
+			throws SQLException {
+		if (parameterIndex < 1 || parameterIndex > rowValues.length) {
+			throw new SQLException("Invalid parameter index " + parameterIndex);
+		}
+		rowValues[parameterIndex - 1] = value;
+	}
+
+	@Override
+	public void addBatch() throws SQLException {
+		encoder.addRow(rowValues);
 		Arrays.fill(rowValues, null);
 	}
 
@@ -112,7 +198,7 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 
 	@Override
 	public void clearBatch() throws SQLException {
-		batchBuilder.setLength(0);
+		encoder.clear();
 	}
 
 	@Override
@@ -124,8 +210,7 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 	@Override
 	public void close() throws SQLException {
 		rowValues = null;
-		columnOrderMapping = null;
-		batchBuilder = null;
+		encoder = null;
 		connection = null;
 	}
 
@@ -161,19 +246,25 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 
 	@Override
 	public int[] executeBatch() throws SQLException {
-		long res = 0;
+		final int rows = encoder.getRowCount();
+		if (rows <= 0) {
+			return new int[0];
+		}
 		try {
-			CopyManager cpManager = ((PGConnection) connection).getCopyAPI();
-			PushbackReader reader = new PushbackReader(new StringReader(""),
-					batchBuilder.length());
-			reader.unread(batchBuilder.toString().toCharArray());
-			res = cpManager.copyIn("COPY sample FROM STDIN WITH CSV", reader);
-			batchBuilder.setLength(0);
-			reader.close();
+			final CopyManager cpManager = ((PGConnection) connection)
+					.getCopyAPI();
+			final InputStream input = new ByteArrayInputStream(
+					encoder.toByteArray());
+			cpManager.copyIn(copySql, input);
+			input.close();
 		} catch (IOException e) {
 			throw new SQLException(e);
+		} finally {
+			clearBatch();
 		}
-		return new int[] { (int) res };
+		final int[] counts = new int[rows];
+		Arrays.fill(counts, 1);
+		return counts;
 	}
 
 	@Override
@@ -437,11 +528,7 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 	@Override
 	public void setBigDecimal(int parameterIndex, BigDecimal x)
 			throws SQLException {
-		if (x == null) {
-			rowValues[columnOrderMapping[parameterIndex]] = null;
-		} else {
-			rowValues[columnOrderMapping[parameterIndex]] = x.toPlainString();
-		}
+		setValue(parameterIndex, x);
 	}
 
 	@Override
@@ -487,7 +574,7 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 
 	@Override
 	public void setBoolean(int parameterIndex, boolean x) throws SQLException {
-		rowValues[columnOrderMapping[parameterIndex]] = Boolean.toString(x);
+		setValue(parameterIndex, Boolean.valueOf(x));
 	}
 
 	@Override
@@ -498,41 +585,7 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 
 	@Override
 	public void setBytes(int parameterIndex, byte[] x) throws SQLException {
-		if (x == null) {
-			rowValues[columnOrderMapping[parameterIndex]] = null;
-		} else {
-			rowValues[columnOrderMapping[parameterIndex]] = bytesToByteA(x);
-		}
-	}
-
-	/**
-	 * <p>
-	 * Convert to string representation of given byte array to postgreSQL format
-	 * (octal).
-	 * </p>
-	 * <p>
-	 * See <a
-	 * href="http://www.postgresql.org/docs/9.2/static/datatype-binary.html"
-	 * >http://www.postgresql.org/docs/9.2/static/datatype-binary.html</a>
-	 * </p>
-	 * 
-	 * @param bytes
-	 * @return
-	 */
-	public static String bytesToByteA(byte[] bytes) {
-		StringBuilder sb = new StringBuilder(bytes.length * 4);
-		int v;
-		for (int j = 0; j < bytes.length; j++) {
-			v = bytes[j] & 0xFF;
-			sb.append("\\");
-			String octal = Integer.toString(v, 8);
-			int nbHeadingZeroToadd = 3 - octal.length();
-			for (int i = 0; i < nbHeadingZeroToadd; i++) {
-				sb.append("0");
-			}
-			sb.append(octal);
-		}
-		return sb.toString();
+		setValue(parameterIndex, x);
 	}
 
 	@Override
@@ -590,22 +643,22 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 
 	@Override
 	public void setDouble(int parameterIndex, double x) throws SQLException {
-		rowValues[columnOrderMapping[parameterIndex]] = Double.toString(x);
+		setValue(parameterIndex, Double.valueOf(x));
 	}
 
 	@Override
 	public void setFloat(int parameterIndex, float x) throws SQLException {
-		rowValues[columnOrderMapping[parameterIndex]] = Float.toString(x);
+		setValue(parameterIndex, Float.valueOf(x));
 	}
 
 	@Override
 	public void setInt(int parameterIndex, int x) throws SQLException {
-		rowValues[columnOrderMapping[parameterIndex]] = Integer.toString(x);
+		setValue(parameterIndex, Integer.valueOf(x));
 	}
 
 	@Override
 	public void setLong(int parameterIndex, long x) throws SQLException {
-		rowValues[columnOrderMapping[parameterIndex]] = Long.toString(x);
+		setValue(parameterIndex, Long.valueOf(x));
 	}
 
 	@Override
@@ -644,22 +697,18 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 	@Override
 	public void setNString(int parameterIndex, String value)
 			throws SQLException {
-		if (value == null) {
-			rowValues[columnOrderMapping[parameterIndex]] = null;
-		} else {
-			rowValues[columnOrderMapping[parameterIndex]] = value;
-		}
+		setValue(parameterIndex, value);
 	}
 
 	@Override
 	public void setNull(int parameterIndex, int sqlType) throws SQLException {
-		rowValues[columnOrderMapping[parameterIndex]] = null;
+		setValue(parameterIndex, null);
 	}
 
 	@Override
 	public void setNull(int parameterIndex, int sqlType, String typeName)
 			throws SQLException {
-		rowValues[columnOrderMapping[parameterIndex]] = null;
+		setValue(parameterIndex, null);
 	}
 
 	@Override
@@ -703,12 +752,12 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 
 	@Override
 	public void setShort(int parameterIndex, short x) throws SQLException {
-		rowValues[columnOrderMapping[parameterIndex]] = Short.toString(x);
+		setValue(parameterIndex, Short.valueOf(x));
 	}
 
 	@Override
 	public void setString(int parameterIndex, String x) throws SQLException {
-		rowValues[columnOrderMapping[parameterIndex]] = x;
+		setValue(parameterIndex, x);
 	}
 
 	@Override
@@ -727,11 +776,7 @@ public class PGCopyPreparedStatement implements PreparedStatement {
 	@Override
 	public void setTimestamp(int parameterIndex, Timestamp x)
 			throws SQLException {
-		if (x == null) {
-			rowValues[columnOrderMapping[parameterIndex]] = null;
-		} else {
-			rowValues[columnOrderMapping[parameterIndex]] = x.toString();
-		}
+		setValue(parameterIndex, x);
 	}
 
 	@Override
@@ -18,8 +18,11 @@ import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 
 import org.csstudio.archive.rdb.RDBArchivePreferences;
@@ -57,6 +60,9 @@ public class RDBArchiveWriter implements ArchiveWriter
 
     final private boolean use_array_blob;
 
+    /** Bin sizes of 'sample_rollup' tiers, empty if not used */
+    final private int[] rollup_bins = RDBArchivePreferences.getRollupBins();
+
     /** RDB connection */
     final private RDBUtil rdb;
 
@@ -84,6 +90,9 @@ public class RDBArchiveWriter implements ArchiveWriter
     /** Prepared statement for inserting 'String' samples */
     private PreparedStatement insert_txt_sample = null;
 
+    /** Prepared statement for inserting or updating rollup bins */
+    private PreparedStatement upsert_rollup = null;
+
     /** Counter for accumulated samples in 'double' batch */
     private int batched_double_inserts = 0;
 
@@ -96,10 +105,24 @@ public class RDBArchiveWriter implements ArchiveWriter
     /** Counter for accumulated samples in 'String' batch */
     private int batched_txt_inserts = 0;
 
+    /** Counter for accumulated rollup bins in batch */
+    private int batched_rollups = 0;
+
+    /** Channels with rollup bins that have data which is not written */
+    private final Set<RDBWriteChannel> rollup_channels = new HashSet<RDBWriteChannel>();
+
+    /** End of the earliest rollup bin with data that is not written [epoch seconds] */
+    private long next_rollup_end = Long.MAX_VALUE;
+
     /** Copy of batched samples, used to display batch errors */
     private final List<RDBWriteChannel> batched_channel = new ArrayList<RDBWriteChannel>();
     private final List<VType> batched_samples = new ArrayList<VType>();
 
+    /** Insert statement of each batched sample, used to update the rollups
+     *  once that statement has been committed
+     */
+    private final List<PreparedStatement> batched_insert = new ArrayList<PreparedStatement>();
+
     /** Initialize from preferences.
      *  This constructor will be invoked when an {@link ArchiveWriter}
      *  is created via the extension point.
@@ -221,11 +244,12 @@ public class RDBArchiveWriter implements ArchiveWriter
     
 	/**
 	 * Create a new prepared statement. For PostgreSQL connections, this method
-	 * create a PGCopyPreparedStatement to improve insert speed using COPY
-	 * insetad of INSERT.
+	 * creates a PGCopyPreparedStatement to improve insert speed using binary
+	 * COPY instead of INSERT. Other dialects, or tables that cannot be handled
+	 * by binary COPY, fall back to batched INSERTs.
 	 * 
-	 * @param sqlQuery
-	 * @return
+	 * @param sqlQuery INSERT statement
+	 * @return {@link PreparedStatement} for batched inserts
 	 * @throws SQLException
 	 * @throws Exception
 	 */
@@ -235,11 +259,21 @@ public class RDBArchiveWriter implements ArchiveWriter
 		PreparedStatement statement = null;
 		if (rdb.getDialect() == Dialect.PostgreSQL
 				&& Preferences.isUsePostgresCopy()) {
-			statement = new PGCopyPreparedStatement(rdb.getConnection(),
-					sqlQuery);
-		} else {
-			statement = rdb.getConnection().prepareStatement(sqlQuery);
+			try {
+				statement = new PGCopyPreparedStatement(rdb.getConnection(),
+						sqlQuery);
+			} catch (SQLException ex) {
+				Activator.getLogger().log(Level.WARNING,
+						"Cannot use COPY, falling back to INSERT for " + sqlQuery, ex);
+				// Don't leave a failed metadata query in the transaction.
+				// Samples are only sent to the RDB in flush(),
+				// so nothing else is lost.
+				if (!rdb.getConnection().getAutoCommit())
+					rdb.getConnection().rollback();
+			}
 		}
+		if (statement == null)
+			statement = rdb.getConnection().prepareStatement(sqlQuery);
 		if (SQL_TIMEOUT_SECS > 0)
 			statement.setQueryTimeout(SQL_TIMEOUT_SECS);
 		return statement;
@@ -396,8 +430,7 @@ public class RDBArchiveWriter implements ArchiveWriter
         {
             if (insert_array_sample == null)
                 insert_array_sample =
-                    rdb.getConnection().prepareStatement(
-                        sql.sample_insert_double_array_element);
+                    createInsertPrepareStatement(sql.sample_insert_double_array_element);
             final int N = additional.size();
             for (int i = 1; i < N; i++)
             {
@@ -478,6 +511,193 @@ public class RDBArchiveWriter implements ArchiveWriter
             insert_xx.setInt(6, stamp.getNanos());
         // Batch
         insert_xx.addBatch();
+        batched_insert.add(insert_xx);
+    }
+
+    /** Add sample to the rollup bins of the channel.
+     *  <p>Bins that are completed by the sample are added to the batch,
+     *  other bins are written in flushRollups()
+     *  @param channel Channel
+     *  @param sample Sample to add
+     *  @throws Exception on error
+     */
+    private void rollupSample(final RDBWriteChannel channel, final VType sample) throws Exception
+    {
+        // Same samples that the reader would use when averaging:
+        // Numbers or first array element, no enums, no strings.
+        // Samples that indicate 'no value' are counted as gaps,
+        // but only for channels that already have numeric rollups.
+        final long secs = VTypeHelper.getTimestamp(sample).getSec();
+        if (isRollupGap(sample))
+        {
+            final SampleRollup[] rollups = channel.getRollups();
+            if (rollups == null)
+                return;
+            for (SampleRollup rollup : rollups)
+            {
+                if (rollup.isNewBin(secs))
+                    batchRollup(channel, rollup);
+                rollup.addGap(secs);
+                next_rollup_end = Math.min(next_rollup_end, rollup.getBinEnd());
+            }
+            rollup_channels.add(channel);
+            return;
+        }
+        final double value;
+        if (sample instanceof VNumber)
+            value = ((VNumber)sample).getValue().doubleValue();
+        else if (sample instanceof VNumberArray  &&  ((VNumberArray)sample).getData().size() > 0)
+            value = ((VNumberArray)sample).getData().getDouble(0);
+        else
+            return;
+        for (SampleRollup rollup : channel.getRollups(rollup_bins))
+        {
+            if (rollup.isNewBin(secs))
+                batchRollup(channel, rollup);
+            rollup.add(secs, value);
+            next_rollup_end = Math.min(next_rollup_end, rollup.getBinEnd());
+        }
+        rollup_channels.add(channel);
+    }
+
+    /** @param sample Sample
+     *  @return <code>true</code> if the sample indicates that there is no value,
+     *          for example because the channel was disconnected
+     */
+    private boolean isRollupGap(final VType sample)
+    {
+        if (VTypeHelper.getSeverity(sample) == AlarmSeverity.UNDEFINED)
+            return true;
+        final String status = VTypeHelper.getMessage(sample);
+        if (status.equalsIgnoreCase("Archive_Off") ||
+            status.equalsIgnoreCase("Archive_Disabled") ||
+            status.equalsIgnoreCase("Disconnected") ||
+            status.equalsIgnoreCase("Write_Error"))
+            return true;
+        if (sample instanceof VNumber)
+            return Double.isNaN(((VNumber)sample).getValue().doubleValue());
+        if (sample instanceof VNumberArray  &&  ((VNumberArray)sample).getData().size() > 0)
+            return Double.isNaN(((VNumberArray)sample).getData().getDouble(0));
+        return false;
+    }
+
+    /** Add 'upsert' of rollup bin to batch, clear the rollup
+     *  @param channel Channel
+     *  @param rollup Rollup bin with data
+     *  @throws Exception on error
+     */
+    private void batchRollup(final RDBWriteChannel channel, final SampleRollup rollup) throws Exception
+    {
+        if (upsert_rollup == null)
+        {
+            upsert_rollup = rdb.getConnection().prepareStatement(sql.rollup_upsert);
+            if (SQL_TIMEOUT_SECS > 0)
+                upsert_rollup.setQueryTimeout(SQL_TIMEOUT_SECS);
+        }
+        upsert_rollup.setInt(1, channel.getId());
+        upsert_rollup.setInt(2, rollup.getBinSeconds());
+        upsert_rollup.setTimestamp(3, new Timestamp(rollup.getBinStart() * 1000L));
+        if (rollup.getCount() > 0)
+        {
+            upsert_rollup.setDouble(4, rollup.getMin());
+            upsert_rollup.setDouble(5, rollup.getMax());
+        }
+        else
+        {   // Only gaps, no values
+            upsert_rollup.setNull(4, Types.DOUBLE);
+            upsert_rollup.setNull(5, Types.DOUBLE);
+        }
+        upsert_rollup.setDouble(6, rollup.getSum());
+        upsert_rollup.setDouble(7, rollup.getSumOfSquares());
+        upsert_rollup.setInt(8, rollup.getCount());
+        upsert_rollup.setInt(9, rollup.getGaps());
+        upsert_rollup.setInt(10, rollup.isGapAtEnd() ? 1 : 0);
+        upsert_rollup.addBatch();
+        ++batched_rollups;
+        rollup.clear();
+    }
+
+    /** Add the samples of a committed batch to the rollup bins,
+     *  then write the bins that ended.
+     *  <p>Called after the samples have been committed,
+     *  so the rollups only include samples that are in the sample tables.
+     *  Rollups are secondary to the samples,
+     *  so errors are logged, not passed on.
+     *  @param insert Statement that was committed
+     */
+    private void rollupSamples(final PreparedStatement insert)
+    {
+        if (rollup_bins.length <= 0)
+            return;
+        try
+        {
+            final int N = Math.min(batched_samples.size(),
+                                   Math.min(batched_channel.size(), batched_insert.size()));
+            for (int i=0; i<N; ++i)
+                if (batched_insert.get(i) == insert)
+                    rollupSample(batched_channel.get(i), batched_samples.get(i));
+        }
+        catch (Exception ex)
+        {
+            Activator.getLogger().log(Level.WARNING, "Cannot update sample_rollup", ex);
+        }
+        flushRollups(false);
+    }
+
+    /** Write rollup bins.
+     *  <p>Bins are written once they ended, not on each flush,
+     *  so that each bin is typically written only once.
+     *  Late samples for a bin that was already written are
+     *  combined with the existing bin by the RDB.
+     *  <p>Only channels with pending bins are checked,
+     *  and only once the earliest pending bin may have ended.
+     *  <p>Rollups are secondary to the samples,
+     *  so errors are logged, not passed on.
+     *  @param all Also write partial bins that may still receive samples?
+     */
+    private void flushRollups(final boolean all)
+    {
+        if (rollup_bins.length <= 0)
+            return;
+        try
+        {
+            final long now = System.currentTimeMillis() / 1000;
+            if (all  ||  next_rollup_end <= now)
+            {
+                long next_end = Long.MAX_VALUE;
+                final Iterator<RDBWriteChannel> iter = rollup_channels.iterator();
+                while (iter.hasNext())
+                {
+                    final RDBWriteChannel channel = iter.next();
+                    boolean pending = false;
+                    for (SampleRollup rollup : channel.getRollups())
+                    {
+                        if (! rollup.hasData())
+                            continue;
+                        if (all  ||  rollup.getBinEnd() <= now)
+                            batchRollup(channel, rollup);
+                        else
+                        {
+                            pending = true;
+                            next_end = Math.min(next_end, rollup.getBinEnd());
+                        }
+                    }
+                    if (! pending)
+                        iter.remove();
+                }
+                next_rollup_end = next_end;
+            }
+            if (batched_rollups > 0)
+                checkBatchExecution(upsert_rollup);
+        }
+        catch (Exception ex)
+        {
+            Activator.getLogger().log(Level.WARNING, "Cannot update sample_rollup", ex);
+        }
+        finally
+        {
+            batched_rollups = 0;
+        }
     }
 
     /** {@inheritDoc}
@@ -498,6 +718,8 @@ public class RDBArchiveWriter implements ArchiveWriter
                 {
                     batched_double_inserts = 0;
                 }
+                // Samples are committed, add them to the rollups
+                rollupSamples(insert_double_sample);
             }
             if (batched_long_inserts > 0)
             {
@@ -509,6 +731,8 @@ public class RDBArchiveWriter implements ArchiveWriter
                 {
                     batched_long_inserts = 0;
                 }
+                // Samples are committed, add them to the rollups
+                rollupSamples(insert_long_sample);
             }
             if (batched_txt_inserts > 0)
             {
@@ -520,6 +744,8 @@ public class RDBArchiveWriter implements ArchiveWriter
                 {
                     batched_txt_inserts = 0;
                 }
+                // Samples are committed, add them to the rollups
+                rollupSamples(insert_txt_sample);
             }
             if (batched_double_array_inserts > 0)
             {
@@ -550,6 +776,7 @@ public class RDBArchiveWriter implements ArchiveWriter
         {
             batched_channel.clear();
             batched_samples.clear();
+            batched_insert.clear();
         }
     }
 
@@ -676,6 +903,9 @@ public class RDBArchiveWriter implements ArchiveWriter
     @Override
     public void close()
     {
+        // Write partial rollup bins, which would otherwise be lost
+        flushRollups(true);
+        rollup_channels.clear();
         channels.clear();
         if (severities != null)
         {
@@ -720,6 +950,14 @@ public class RDBArchiveWriter implements ArchiveWriter
 			}
 			insert_txt_sample = null;
 		}
+		if (upsert_rollup != null) {
+			try {
+				upsert_rollup.close();
+			} catch (SQLException e) {
+				Activator.getLogger().log(Level.WARNING, "close() error", e);
+			}
+			upsert_rollup = null;
+		}
 		rdb.close();
     }
 }
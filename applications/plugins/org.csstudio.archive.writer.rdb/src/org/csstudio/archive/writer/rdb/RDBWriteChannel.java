@@ -18,6 +18,7 @@ public class RDBWriteChannel implements WriteChannel
 	final private String name;
 	final private int id;
 	private Object meta = null;
+	private SampleRollup[] rollups = null;
 	
 	/** Initialize
 	 *  @param name Channel name
@@ -60,4 +61,24 @@ public class RDBWriteChannel implements WriteChannel
 	{
 		this.meta = meta;
 	}
+
+	/** @param bins Rollup bin sizes in seconds
+	 *  @return Rollup accumulators for the channel, created on first call
+	 */
+	public SampleRollup[] getRollups(final int[] bins)
+	{
+		if (rollups == null)
+		{
+			rollups = new SampleRollup[bins.length];
+			for (int i=0; i<bins.length; ++i)
+				rollups[i] = new SampleRollup(bins[i]);
+		}
+		return rollups;
+	}
+
+	/** @return Rollup accumulators for the channel or <code>null</code> */
+	public SampleRollup[] getRollups()
+	{
+		return rollups;
+	}
 }
@@ -46,6 +46,9 @@ public class SQL
 	final public String sample_insert_int;
 	final public String sample_insert_string;
 
+	// 'sample_rollup' table
+	final public String rollup_upsert;
+
 	/** Initialize
 	 *  @param dialect RDB Dialect
 	 *  @param schema Schema prefix (May be ""), not including "."
@@ -163,5 +166,47 @@ public class SQL
     	default:
         	 throw new Error("Unknown RDB Dialect " + dialect);
 		}
+
+	    // 'sample_rollup' table:
+	    // Insert new bin, or combine with existing bin.
+	    // min_val, max_val are NULL for bins that only have gaps.
+	    // Parameters are in the same order for all dialects.
+	    switch (dialect)
+	    {
+	    case Oracle:
+	        rollup_upsert =
+	            "MERGE INTO " + schema + "sample_rollup r" +
+	            " USING (SELECT ? channel_id, ? bin_secs, ? bin_time, ? min_val, ? max_val, ? sum_val, ? sum_sq, ? cnt, ? gaps, ? gap_end FROM dual) s" +
+	            " ON (r.channel_id=s.channel_id AND r.bin_secs=s.bin_secs AND r.bin_time=s.bin_time)" +
+	            " WHEN MATCHED THEN UPDATE SET" +
+	            "  r.min_val=LEAST(COALESCE(r.min_val, s.min_val), COALESCE(s.min_val, r.min_val))," +
+	            "  r.max_val=GREATEST(COALESCE(r.max_val, s.max_val), COALESCE(s.max_val, r.max_val))," +
+	            "  r.sum_val=r.sum_val+s.sum_val, r.sum_sq=r.sum_sq+s.sum_sq, r.cnt=r.cnt+s.cnt," +
+	            "  r.gaps=r.gaps+s.gaps, r.gap_end=s.gap_end" +
+	            " WHEN NOT MATCHED THEN INSERT (channel_id, bin_secs, bin_time, min_val, max_val, sum_val, sum_sq, cnt, gaps, gap_end)" +
+	            "  VALUES (s.channel_id, s.bin_secs, s.bin_time, s.min_val, s.max_val, s.sum_val, s.sum_sq, s.cnt, s.gaps, s.gap_end)";
+	        break;
+	    case PostgreSQL:
+	        rollup_upsert =
+	            "INSERT INTO " + schema + "sample_rollup AS r" +
+	            " (channel_id, bin_secs, bin_time, min_val, max_val, sum_val, sum_sq, cnt, gaps, gap_end)" +
+	            " VALUES (?,?,?,?,?,?,?,?,?,?)" +
+	            " ON CONFLICT (channel_id, bin_secs, bin_time) DO UPDATE SET" +
+	            "  min_val=LEAST(r.min_val, EXCLUDED.min_val), max_val=GREATEST(r.max_val, EXCLUDED.max_val)," +
+	            "  sum_val=r.sum_val+EXCLUDED.sum_val, sum_sq=r.sum_sq+EXCLUDED.sum_sq, cnt=r.cnt+EXCLUDED.cnt," +
+	            "  gaps=r.gaps+EXCLUDED.gaps, gap_end=EXCLUDED.gap_end";
+	        break;
+	    default:
+	        // MySQL LEAST/GREATEST return NULL if any argument is NULL
+	        rollup_upsert =
+	            "INSERT INTO " + schema + "sample_rollup" +
+	            " (channel_id, bin_secs, bin_time, min_val, max_val, sum_val, sum_sq, cnt, gaps, gap_end)" +
+	            " VALUES (?,?,?,?,?,?,?,?,?,?)" +
+	            " ON DUPLICATE KEY UPDATE" +
+	            "  min_val=LEAST(COALESCE(min_val, VALUES(min_val)), COALESCE(VALUES(min_val), min_val))," +
+	            "  max_val=GREATEST(COALESCE(max_val, VALUES(max_val)), COALESCE(VALUES(max_val), max_val))," +
+	            "  sum_val=sum_val+VALUES(sum_val), sum_sq=sum_sq+VALUES(sum_sq), cnt=cnt+VALUES(cnt)," +
+	            "  gaps=gaps+VALUES(gaps), gap_end=VALUES(gap_end)";
+	    }
 	}
 }
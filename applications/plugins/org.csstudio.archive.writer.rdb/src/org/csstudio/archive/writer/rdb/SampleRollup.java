@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.rdb;
+
+/** Accumulator for one channel's 'sample_rollup' bin of one size.
+ *  <p>
+ *  Holds the min/max/sum of the numeric samples that were added
+ *  to the current bin since the bin data was last written,
+ *  and the number of samples that indicate a gap in the data
+ *  like 'Disconnected' or 'Archive_Off'.
+ *  The RDB combines that with what it already has for the bin,
+ *  so partial bins can be written at any time.
+ *
+ *  @author agent
+ */
+public class SampleRollup
+{
+    /** Bin size in seconds */
+    final private int bin_secs;
+
+    /** Start of current bin in epoch seconds */
+    private long bin_start = Long.MIN_VALUE;
+
+    // Statistics of samples in current bin since last write
+    private int count = 0;
+    private double min, max, sum, sum_sq;
+
+    /** Number of gap samples in current bin since last write */
+    private int gaps = 0;
+
+    /** Was the last sample in the current bin a gap? */
+    private boolean gap_end = false;
+
+    /** @param bin_secs Bin size in seconds */
+    public SampleRollup(final int bin_secs)
+    {
+        this.bin_secs = bin_secs;
+    }
+
+    /** @return Bin size in seconds */
+    public int getBinSeconds()
+    {
+        return bin_secs;
+    }
+
+    /** @param epoch_secs Time of a sample in epoch seconds
+     *  @return Start of the bin for that time in epoch seconds
+     */
+    public long getBinStart(final long epoch_secs)
+    {
+        // Round down, also for negative times
+        final long bin = epoch_secs / bin_secs;
+        if (epoch_secs < 0  &&  bin * bin_secs != epoch_secs)
+            return (bin - 1) * bin_secs;
+        return bin * bin_secs;
+    }
+
+    /** @param epoch_secs Time of a sample in epoch seconds
+     *  @return <code>true</code> if there is data for a different bin,
+     *          which needs to be written before adding the sample
+     */
+    public boolean isNewBin(final long epoch_secs)
+    {
+        return hasData()  &&  getBinStart(epoch_secs) != bin_start;
+    }
+
+    /** Move to the bin for a sample, dropping data of the previous bin
+     *  @param epoch_secs Time of the sample in epoch seconds
+     */
+    private void selectBin(final long epoch_secs)
+    {
+        final long start = getBinStart(epoch_secs);
+        if (start != bin_start)
+        {
+            bin_start = start;
+            clear();
+        }
+    }
+
+    /** Add sample to bin.
+     *  If the sample is in a different bin, the previous data is dropped,
+     *  so check {@link #isNewBin(long)} and write it before.
+     *  @param epoch_secs Time of the sample in epoch seconds
+     *  @param value Numeric value of the sample
+     */
+    public void add(final long epoch_secs, final double value)
+    {
+        selectBin(epoch_secs);
+        if (count == 0)
+        {
+            min = max = sum = value;
+            sum_sq = value * value;
+        }
+        else
+        {
+            if (value < min)
+                min = value;
+            if (value > max)
+                max = value;
+            sum += value;
+            sum_sq += value * value;
+        }
+        ++count;
+        gap_end = false;
+    }
+
+    /** Add sample without a value to bin.
+     *  If the sample is in a different bin, the previous data is dropped,
+     *  so check {@link #isNewBin(long)} and write it before.
+     *  @param epoch_secs Time of the sample in epoch seconds
+     */
+    public void addGap(final long epoch_secs)
+    {
+        selectBin(epoch_secs);
+        ++gaps;
+        gap_end = true;
+    }
+
+    /** @return <code>true</code> if there is data to write */
+    public boolean hasData()
+    {
+        return count > 0  ||  gaps > 0;
+    }
+
+    /** @return Start of the current bin in epoch seconds */
+    public long getBinStart()
+    {
+        return bin_start;
+    }
+
+    /** @return End of the current bin in epoch seconds */
+    public long getBinEnd()
+    {
+        return bin_start + bin_secs;
+    }
+
+    /** @return Number of samples with a value */
+    public int getCount()
+    {
+        return count;
+    }
+
+    /** @return Number of samples without a value */
+    public int getGaps()
+    {
+        return gaps;
+    }
+
+    /** @return <code>true</code> if the last sample was a gap,
+     *          i.e. there is no value at the end of the bin
+     */
+    public boolean isGapAtEnd()
+    {
+        return gap_end;
+    }
+
+    /** @return Minimum value, only valid if there are samples with a value */
+    public double getMin()
+    {
+        return min;
+    }
+
+    /** @return Maximum value, only valid if there are samples with a value */
+    public double getMax()
+    {
+        return max;
+    }
+
+    /** @return Sum of values */
+    public double getSum()
+    {
+        return sum;
+    }
+
+    /** @return Sum of squared values */
+    public double getSumOfSquares()
+    {
+        return sum_sq;
+    }
+
+    /** Clear accumulated data after it has been written.
+     *  Further samples for the same bin start over.
+     */
+    public void clear()
+    {
+        count = 0;
+        gaps = 0;
+        gap_end = false;
+    }
+}
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.rdb;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.TimeZone;
+
+import org.csstudio.archive.writer.rdb.PGCopyBinaryEncoder.ColumnType;
+import org.junit.Test;
+
+/** JUnit test of the {@link PGCopyBinaryEncoder}
+ *
+ *  <p>Compares the encoded COPY data with byte sequences
+ *  of the PostgreSQL binary COPY format.
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class PGCopyBinaryEncoderUnitTest
+{
+    /** Header: Signature, flags, header extension length */
+    final private static int[] HEADER =
+    {
+        'P', 'G', 'C', 'O', 'P', 'Y', '\n', 0xFF, '\r', '\n', 0,
+        0, 0, 0, 0,
+        0, 0, 0, 0
+    };
+
+    /** Trailer: Field count -1 */
+    final private static int[] TRAILER = { 0xFF, 0xFF };
+
+    /** Micro seconds from 1970-01-01 to 2000-01-01 */
+    final private static long PG_EPOCH_MICROS = 946684800000000L;
+
+    /** @param parts Byte values of header, fields, trailer
+     *  @return Concatenated bytes
+     */
+    private static byte[] bytes(final int[]... parts)
+    {
+        final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        for (int[] part : parts)
+            for (int b : part)
+                buf.write(b);
+        return buf.toByteArray();
+    }
+
+    @Test
+    public void testEmpty()
+    {
+        final PGCopyBinaryEncoder encoder = new PGCopyBinaryEncoder(new ColumnType[] { ColumnType.INT4 });
+        assertThat(encoder.getRowCount(), equalTo(0));
+        assertArrayEquals(bytes(HEADER, TRAILER), encoder.toByteArray());
+    }
+
+    @Test
+    public void testFieldEncoding() throws Exception
+    {
+        final PGCopyBinaryEncoder encoder = new PGCopyBinaryEncoder(new ColumnType[]
+        {
+            ColumnType.INT2, ColumnType.INT4, ColumnType.INT8,
+            ColumnType.FLOAT4, ColumnType.FLOAT8, ColumnType.BOOL,
+            ColumnType.TEXT, ColumnType.BYTEA, ColumnType.INT4
+        });
+        encoder.addRow(new Object[]
+        {
+            Short.valueOf((short) -2), Integer.valueOf(42), Long.valueOf(0x0102030405060708L),
+            Float.valueOf(1.0f), Double.valueOf(-2.0), Boolean.TRUE,
+            "A\u00e9", new byte[] { 7, 8 }, null
+        });
+        final int[] row =
+        {
+            0, 9,                                         // Field count
+            0, 0, 0, 2,    0xFF, 0xFE,                    // INT2 -2
+            0, 0, 0, 4,    0, 0, 0, 42,                   // INT4 42
+            0, 0, 0, 8,    1, 2, 3, 4, 5, 6, 7, 8,        // INT8
+            0, 0, 0, 4,    0x3F, 0x80, 0, 0,              // FLOAT4 1.0
+            0, 0, 0, 8,    0xC0, 0, 0, 0, 0, 0, 0, 0,     // FLOAT8 -2.0
+            0, 0, 0, 1,    1,                             // BOOL true
+            0, 0, 0, 3,    'A', 0xC3, 0xA9,               // TEXT in UTF-8
+            0, 0, 0, 2,    7, 8,                          // BYTEA
+            0xFF, 0xFF, 0xFF, 0xFF                        // NULL: Length -1, no data
+        };
+        assertThat(encoder.getRowCount(), equalTo(1));
+        assertArrayEquals(bytes(HEADER, row, TRAILER), encoder.toByteArray());
+    }
+
+    @Test
+    public void testRowsAndClear() throws Exception
+    {
+        final PGCopyBinaryEncoder encoder = new PGCopyBinaryEncoder(new ColumnType[] { ColumnType.INT4, ColumnType.BOOL });
+        encoder.addRow(new Object[] { Integer.valueOf(1), Boolean.FALSE });
+        // Booleans are accepted for numeric columns
+        encoder.addRow(new Object[] { Boolean.TRUE, null });
+        final int[] rows =
+        {
+            0, 2,  0, 0, 0, 4,  0, 0, 0, 1,  0, 0, 0, 1,  0,
+            0, 2,  0, 0, 0, 4,  0, 0, 0, 1,  0xFF, 0xFF, 0xFF, 0xFF
+        };
+        assertThat(encoder.getRowCount(), equalTo(2));
+        assertArrayEquals(bytes(HEADER, rows, TRAILER), encoder.toByteArray());
+
+        encoder.clear();
+        assertThat(encoder.getRowCount(), equalTo(0));
+        assertArrayEquals(bytes(HEADER, TRAILER), encoder.toByteArray());
+    }
+
+    @Test
+    public void testTimestampField() throws Exception
+    {
+        final PGCopyBinaryEncoder encoder = new PGCopyBinaryEncoder(new ColumnType[] { ColumnType.TIMESTAMPTZ });
+        // 2000-01-01 00:00:01 UTC is 1000000 us after the PostgreSQL epoch
+        encoder.addRow(new Object[] { new Timestamp(946684801000L) });
+        final int[] row =
+        {
+            0, 1,
+            0, 0, 0, 8,  0, 0, 0, 0, 0, 0x0F, 0x42, 0x40
+        };
+        assertArrayEquals(bytes(HEADER, row, TRAILER), encoder.toByteArray());
+    }
+
+    @Test
+    public void testPostgresMicros()
+    {
+        // PostgreSQL epoch
+        assertThat(PGCopyBinaryEncoder.toPostgresMicros(new Timestamp(946684800000L), false), equalTo(0L));
+        // Java epoch, before the PostgreSQL epoch
+        assertThat(PGCopyBinaryEncoder.toPostgresMicros(new Timestamp(0), false), equalTo(-PG_EPOCH_MICROS));
+
+        // Micro seconds from the nanos, not only the milliseconds of getTime()
+        final Timestamp stamp = new Timestamp(946684800123L);
+        stamp.setNanos(123456789);
+        assertThat(PGCopyBinaryEncoder.toPostgresMicros(stamp, false), equalTo(123456L));
+
+        // 1.5 seconds before 1970: getTime() is -1500, nanos are positive 500000000
+        final Timestamp negative = new Timestamp(-1500);
+        assertThat(negative.getNanos(), equalTo(500000000));
+        assertThat(PGCopyBinaryEncoder.toPostgresMicros(negative, false), equalTo(-1500000L - PG_EPOCH_MICROS));
+
+        // Same for a time stamp with micro seconds before 1970
+        final Timestamp negative_micros = new Timestamp(-1);
+        negative_micros.setNanos(999999000);
+        assertThat(PGCopyBinaryEncoder.toPostgresMicros(negative_micros, false), equalTo(-1L - PG_EPOCH_MICROS));
+    }
+
+    @Test
+    public void testLocalPostgresMicros()
+    {
+        final TimeZone original = TimeZone.getDefault();
+        try
+        {
+            // 'timestamp without time zone' uses local wall-clock time
+            TimeZone.setDefault(TimeZone.getTimeZone("GMT+02:00"));
+            assertThat(PGCopyBinaryEncoder.toPostgresMicros(new Timestamp(946684800000L), true), equalTo(7200000000L));
+            TimeZone.setDefault(TimeZone.getTimeZone("GMT-05:00"));
+            assertThat(PGCopyBinaryEncoder.toPostgresMicros(new Timestamp(946684800000L), true), equalTo(-18000000000L));
+        }
+        finally
+        {
+            TimeZone.setDefault(original);
+        }
+    }
+
+    @Test
+    public void testErrors()
+    {
+        final PGCopyBinaryEncoder encoder = new PGCopyBinaryEncoder(new ColumnType[] { ColumnType.INT4, ColumnType.TIMESTAMP });
+        final Object[][] invalid =
+        {
+            { Integer.valueOf(1), "2000-01-01" },     // Not a Timestamp
+            { Integer.valueOf(1), new Timestamp(0), null }, // Too many values
+        };
+        for (Object[] values : invalid)
+        {
+            try
+            {
+                encoder.addRow(values);
+                fail("Accepted " + values.length + " values");
+            }
+            catch (SQLException ex)
+            {
+                // Expected
+            }
+        }
+        // Failed rows leave no partial data
+        assertThat(encoder.getRowCount(), equalTo(0));
+        assertArrayEquals(bytes(HEADER, TRAILER), encoder.toByteArray());
+        try
+        {
+            new PGCopyBinaryEncoder(new ColumnType[] { ColumnType.BYTEA }).addRow(new Object[] { "text" });
+            fail("Accepted text for BYTEA");
+        }
+        catch (SQLException ex)
+        {
+            // Expected
+        }
+        assertThat(ColumnType.forName("int4"), equalTo(ColumnType.INT4));
+        assertThat(ColumnType.forName("bpchar"), equalTo(ColumnType.TEXT));
+        assertThat(ColumnType.forName("numeric"), equalTo(null));
+    }
+}
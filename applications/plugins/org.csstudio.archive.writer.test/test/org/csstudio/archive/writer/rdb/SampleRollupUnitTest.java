@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.archive.writer.rdb;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/** JUnit test of the {@link SampleRollup}
+ *  @author agent
+ */
+public class SampleRollupUnitTest
+{
+    @Test
+    public void testBinStart()
+    {
+        final SampleRollup rollup = new SampleRollup(60);
+        assertThat(rollup.getBinStart(0), equalTo(0L));
+        assertThat(rollup.getBinStart(59), equalTo(0L));
+        assertThat(rollup.getBinStart(60), equalTo(60L));
+        assertThat(rollup.getBinStart(1234567), equalTo(1234560L));
+        assertThat(rollup.getBinStart(-1), equalTo(-60L));
+        assertThat(rollup.getBinStart(-60), equalTo(-60L));
+    }
+
+    @Test
+    public void testAccumulation()
+    {
+        final SampleRollup rollup = new SampleRollup(10);
+        assertThat(rollup.hasData(), equalTo(false));
+        assertThat(rollup.isNewBin(100), equalTo(false));
+
+        rollup.add(100, 2.0);
+        rollup.add(103, -1.0);
+        rollup.add(109, 5.0);
+        assertThat(rollup.hasData(), equalTo(true));
+        assertThat(rollup.getBinStart(), equalTo(100L));
+        assertThat(rollup.getCount(), equalTo(3));
+        assertThat(rollup.getMin(), equalTo(-1.0));
+        assertThat(rollup.getMax(), equalTo(5.0));
+        assertThat(rollup.getSum(), equalTo(6.0));
+        assertThat(rollup.getSumOfSquares(), equalTo(30.0));
+
+        // Same bin, or new one?
+        assertThat(rollup.isNewBin(105), equalTo(false));
+        assertThat(rollup.isNewBin(110), equalTo(true));
+        assertThat(rollup.isNewBin(99), equalTo(true));
+
+        // After write, continue in same bin with only the new data
+        rollup.clear();
+        assertThat(rollup.hasData(), equalTo(false));
+        rollup.add(105, 7.0);
+        assertThat(rollup.getBinStart(), equalTo(100L));
+        assertThat(rollup.getCount(), equalTo(1));
+        assertThat(rollup.getMin(), equalTo(7.0));
+        assertThat(rollup.getMax(), equalTo(7.0));
+
+        // Move to next bin
+        rollup.clear();
+        rollup.add(112, 1.0);
+        assertThat(rollup.getBinStart(), equalTo(110L));
+        assertThat(rollup.getSum(), equalTo(1.0));
+    }
+
+    @Test
+    public void testGaps()
+    {
+        final SampleRollup rollup = new SampleRollup(10);
+        rollup.add(100, 2.0);
+        rollup.addGap(104);
+        assertThat(rollup.hasData(), equalTo(true));
+        assertThat(rollup.getCount(), equalTo(1));
+        assertThat(rollup.getGaps(), equalTo(1));
+        assertThat(rollup.isGapAtEnd(), equalTo(true));
+        assertThat(rollup.getBinEnd(), equalTo(110L));
+
+        // Value after the gap
+        rollup.add(106, 4.0);
+        assertThat(rollup.getCount(), equalTo(2));
+        assertThat(rollup.getGaps(), equalTo(1));
+        assertThat(rollup.isGapAtEnd(), equalTo(false));
+
+        // Bin with only a gap
+        rollup.clear();
+        assertThat(rollup.isNewBin(112), equalTo(false));
+        rollup.addGap(112);
+        assertThat(rollup.hasData(), equalTo(true));
+        assertThat(rollup.getBinStart(), equalTo(110L));
+        assertThat(rollup.getCount(), equalTo(0));
+        assertThat(rollup.getGaps(), equalTo(1));
+        assertThat(rollup.isGapAtEnd(), equalTo(true));
+        assertThat(rollup.isNewBin(125), equalTo(true));
+
+        // Next bin starts without gaps
+        rollup.clear();
+        rollup.add(125, 1.0);
+        assertThat(rollup.getGaps(), equalTo(0));
+        assertThat(rollup.isGapAtEnd(), equalTo(false));
+    }
+}
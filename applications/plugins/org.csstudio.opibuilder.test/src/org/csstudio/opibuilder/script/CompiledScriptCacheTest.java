@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.opibuilder.script;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+
+import org.eclipse.core.runtime.Path;
+import org.junit.Test;
+
+/**
+ * Test of the keys and content of the {@link CompiledScriptCache}.
+ * @author agent
+ *
+ */
+public class CompiledScriptCacheTest {
+
+	@Test
+	public void testKey() throws Exception {
+		String key = CompiledScriptCache.createKey(ScriptService.PY, new Path("/opi/a.py"), "x = 1");
+		assertEquals(key, CompiledScriptCache.createKey(ScriptService.PY, new Path("/opi/a.py"), "x = 1"));
+		// String and bytes of the same content
+		assertEquals(key, CompiledScriptCache.createKey(ScriptService.PY, new Path("/opi/a.py"),
+				"x = 1".getBytes("UTF-8")));
+
+		// Modified content
+		assertFalse(key.equals(CompiledScriptCache.createKey(ScriptService.PY, new Path("/opi/a.py"), "x = 2")));
+		// Same content in another file
+		assertFalse(key.equals(CompiledScriptCache.createKey(ScriptService.PY, new Path("/opi/b.py"), "x = 1")));
+		// Rule or embedded script
+		assertFalse(key.equals(CompiledScriptCache.createKey(ScriptService.PY, null, "x = 1")));
+		// Other engine
+		assertFalse(key.equals(CompiledScriptCache.createKey(ScriptService.JS, new Path("/opi/a.py"), "x = 1")));
+	}
+
+	@Test
+	public void testCache() throws Exception {
+		String key = CompiledScriptCache.createKey(ScriptService.JS, null, "var test = " + System.nanoTime());
+		assertNull(CompiledScriptCache.get(key));
+		Object code = new Object();
+		CompiledScriptCache.put(key, code);
+		assertSame(code, CompiledScriptCache.get(key));
+	}
+
+	@Test
+	public void testRead() throws Exception {
+		byte[] content = new byte[10000];
+		for(int i=0; i<content.length; i++)
+			content[i] = (byte) i;
+		assertArrayEquals(content, CompiledScriptCache.read(new ByteArrayInputStream(content)));
+	}
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.opibuilder.script;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.python.core.PySystemState;
+
+/**
+ * Test of the reference counting in {@link JythonStatePool}.
+ * @author agent
+ *
+ */
+public class JythonStatePoolTest {
+
+	@Test
+	public void testSharing() {
+		Object display = new Object();
+		PySystemState state = JythonStatePool.acquire(display, "/a");
+		assertSame(state, JythonStatePool.acquire(display, "/a"));
+		assertEquals(2, JythonStatePool.getReferenceCount(display, "/a"));
+
+		// Other folder or other display use another state
+		PySystemState other_folder = JythonStatePool.acquire(display, null);
+		assertNotSame(state, other_folder);
+		Object other_display = new Object();
+		PySystemState other = JythonStatePool.acquire(other_display, "/a");
+		assertNotSame(state, other);
+
+		JythonStatePool.release(display, null);
+		JythonStatePool.release(other_display, "/a");
+		JythonStatePool.release(display, "/a");
+		JythonStatePool.release(display, "/a");
+		assertEquals(0, JythonStatePool.getReferenceCount(display, "/a"));
+		assertEquals(0, JythonStatePool.getReferenceCount(display, null));
+		assertEquals(0, JythonStatePool.getReferenceCount(other_display, "/a"));
+	}
+
+	@Test
+	public void testRelease() {
+		Object display = new Object();
+		PySystemState state = JythonStatePool.acquire(display, "/b");
+		JythonStatePool.acquire(display, "/b");
+
+		// Still used by one script
+		JythonStatePool.release(display, "/b");
+		assertEquals(1, JythonStatePool.getReferenceCount(display, "/b"));
+		assertSame(state, JythonStatePool.acquire(display, "/b"));
+		JythonStatePool.release(display, "/b");
+
+		// Last release drops the state, so re-opening the display gets a new one
+		JythonStatePool.release(display, "/b");
+		assertEquals(0, JythonStatePool.getReferenceCount(display, "/b"));
+		PySystemState reopened = JythonStatePool.acquire(display, "/b");
+		assertNotSame(state, reopened);
+		JythonStatePool.release(display, "/b");
+
+		// Unbalanced release has no effect
+		JythonStatePool.release(display, "/b");
+		assertEquals(0, JythonStatePool.getReferenceCount(display, "/b"));
+	}
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.opibuilder.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.csstudio.opibuilder.script.RuleExpression;
+import org.csstudio.opibuilder.script.RuleExpression.Type;
+import org.junit.Test;
+
+public class RuleExpressionTest {
+
+	private final RuleExpression.Variables variables = new RuleExpression.Variables() {
+		public double getDouble(int pv) {
+			return pv == 0 ? 3.5 : -1.0;
+		}
+
+		public double getLong(int pv) {
+			return pv == 0 ? 3 : -1;
+		}
+
+		public String getString(int pv) {
+			return pv == 0 ? "OK" : "";
+		}
+
+		public double getSeverity(int pv) {
+			return pv;
+		}
+	};
+
+	private Object evaluate(String expression) throws Exception {
+		return RuleExpression.parse(expression, 2).evaluate(variables);
+	}
+
+	private boolean isTrue(String expression) throws Exception {
+		return RuleExpression.parse(expression, 2).isTrue(variables);
+	}
+
+	@Test
+	public void testEvaluation() throws Exception {
+		assertEquals(7.0, evaluate("pv0 * 2"));
+		assertEquals(-0.5, evaluate("pv0 % 2 - 2"));
+		assertEquals(6.0, evaluate("(pv0 + pvInt1) * 2 - -1"));
+		assertEquals(1e3, evaluate("1e3"));
+		assertEquals(true, evaluate("pv0 > 3 && pvInt0 == 3"));
+		assertEquals(false, evaluate("pv0 >= 4 || pvSev1 != 1"));
+		assertEquals(true, evaluate("pvStr0 == \"OK\" && pvStr1 !== 'OK'"));
+		assertEquals("OK!", evaluate("pvStr0 + \"!\""));
+		assertEquals("high", evaluate("pv0 > 3 ? 'high' : 'low'"));
+		assertEquals(true, evaluate("!(pv0 < 3)"));
+		assertEquals(Type.BOOLEAN, RuleExpression.parse("true", 0).getType());
+	}
+
+	@Test
+	public void testTruth() throws Exception {
+		assertTrue(isTrue("pv0"));
+		assertFalse(isTrue("pv1 + 1"));
+		assertTrue(isTrue("pvStr0"));
+		assertFalse(isTrue("pvStr1"));
+		assertTrue(isTrue("!pvStr1"));
+		assertFalse(isTrue("0/0"));
+	}
+
+	@Test
+	public void testUnsupported() throws Exception {
+		final String[] unsupported = {
+			"pv2 > 1",				// Only two PVs
+			"pv0 == \"3\"",			// Number vs. string
+			"pvStr0 < 'X'",
+			"pv0 + 'x'",
+			"pv0 && pv1 > 1",		// JavaScript result would be a number
+			"Math.abs(pv0) > 1",
+			"pvs[0] != null",
+			"pv0 = 1",
+			"010 == 8",
+			"pv0 > ",
+			"(pv0 > 1",
+			"'open",
+			"pv00",
+		};
+		for (String expression : unsupported) {
+			try {
+				RuleExpression.parse(expression, 2);
+				fail("Accepted " + expression);
+			} catch (Exception e) {
+				System.out.println(e.getMessage());
+			}
+		}
+	}
+}
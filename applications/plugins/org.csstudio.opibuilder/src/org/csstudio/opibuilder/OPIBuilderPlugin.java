@@ -101,7 +101,9 @@ public class OPIBuilderPlugin extends AbstractUIPlugin {
 							PreferencesHelper.FONT_FILE))
 						MediaService.getInstance().reloadFontFile();
 					else if (event.getProperty().equals(
-							PreferencesHelper.OPI_GUI_REFRESH_CYCLE))
+							PreferencesHelper.OPI_GUI_REFRESH_CYCLE) ||
+							event.getProperty().equals(
+									PreferencesHelper.OPI_GUI_REFRESH_BUDGET))
 						GUIRefreshThread.getInstance(true).reLoadGUIRefreshCycle();
 					else if (event.getProperty().equals(
 							PreferencesHelper.DISABLE_ADVANCED_GRAPHICS)) {
@@ -32,6 +32,11 @@ public class WidgetIgnorableUITask {
 	final private Runnable runnableTask;
 	
 	final private Display display;
+	
+	/**
+	 * Low priority tasks are executed after the other tasks of a frame.
+	 */
+	final private boolean lowPriority;
 
 	/**Constructor.
 	 * @param identifyObject the object that identifies this task. If the task associated
@@ -41,9 +46,23 @@ public class WidgetIgnorableUITask {
 	 */
 	public WidgetIgnorableUITask(final Object identifyObject, final Runnable runnableTask,
 			final Display display){
+		this(identifyObject, runnableTask, display, false);
+	}
+	
+	/**Constructor.
+	 * @param identifyObject the object that identifies this task. If the task associated
+	 * with the same identifyObject has not been executed, it will be ignored.
+	 * @param runnableTask the task to be executed.
+	 * @param display Associated Display.
+	 * @param lowPriority <code>true</code> if the task may be deferred in favor of other tasks,
+	 * for example because it updates an invisible widget.
+	 */
+	public WidgetIgnorableUITask(final Object identifyObject, final Runnable runnableTask,
+			final Display display, final boolean lowPriority){
 		this.identifyObject = identifyObject;
 		this.runnableTask = runnableTask;
 		this.display = display;
+		this.lowPriority = lowPriority;
 	}
 	
 	
@@ -65,6 +84,13 @@ public class WidgetIgnorableUITask {
 		return runnableTask;
 	}
 	
+	/**
+	 * @return <code>true</code> if the task may be deferred in favor of other tasks.
+	 */
+	public boolean isLowPriority() {
+		return lowPriority;
+	}
+	
 	/** @param obj Possible other {@link WidgetIgnorableUITask}
 	 *  @return <code>true</code> if other {@link WidgetIgnorableUITask}
 	 *          refers to the same {@link AbstractWidgetProperty}
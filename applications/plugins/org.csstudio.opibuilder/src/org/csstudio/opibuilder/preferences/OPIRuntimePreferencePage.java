@@ -108,6 +108,14 @@ public class OPIRuntimePreferencePage extends FieldEditorPreferencePage
 		guiRefreshCycleEditor.getTextControl(parent).setToolTipText(
 				"The fatest refresh cycle for OPI GUI in millisecond");
 		addField(guiRefreshCycleEditor);	
+		
+		IntegerFieldEditor guiRefreshBudgetEditor = 
+			new IntegerFieldEditor(PreferencesHelper.OPI_GUI_REFRESH_BUDGET,
+					"OPI GUI Refresh Budget (ms)", parent);
+		guiRefreshBudgetEditor.setValidRange(0, 5000);
+		guiRefreshBudgetEditor.getTextControl(parent).setToolTipText(
+				"The longest time for GUI updates in one refresh cycle in millisecond, 0 for no limit");
+		addField(guiRefreshBudgetEditor);
 	
 		String[] allPVFactories = SimplePVLayer.getAllPVFactoryExtensions();
 		String[][] entries = new String[allPVFactories.length][2];
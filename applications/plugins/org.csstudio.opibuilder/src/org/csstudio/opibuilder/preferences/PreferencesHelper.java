@@ -47,6 +47,7 @@ public class PreferencesHelper {
 	public static final String RUN_MACROS= "macros"; //$NON-NLS-1$
 	public static final String AUTOSAVE= "auto_save"; //$NON-NLS-1$
 	public static final String OPI_GUI_REFRESH_CYCLE = "opi_gui_refresh_cycle"; //$NON-NLS-1$
+	public static final String OPI_GUI_REFRESH_BUDGET = "opi_gui_refresh_budget"; //$NON-NLS-1$
 	public static final String NO_EDIT = "no_edit"; //$NON-NLS-1$
 	public static final String TOP_OPIS = "top_opis"; //$NON-NLS-1$
 	public static final String DISABLE_ADVANCED_GRAPHICS = "disable_advanced_graphics"; //$NON-NLS-1$
@@ -173,6 +174,14 @@ public class PreferencesHelper {
     	return service.getInt(OPIBuilderPlugin.PLUGIN_ID, OPI_GUI_REFRESH_CYCLE, 100, null);
     }
 
+    /**
+     * @return time budget in ms for GUI updates in one refresh cycle, 0 for no limit.
+     */
+    public static Integer getGUIRefreshBudget(){
+    	final IPreferencesService service = Platform.getPreferencesService();
+    	return service.getInt(OPIBuilderPlugin.PLUGIN_ID, OPI_GUI_REFRESH_BUDGET, 50, null);
+    }
+
     /**Get the macros map from preference store.
      * @return the macros map. null if failed to get macros from preference store.
      */
@@ -15,6 +15,7 @@ import java.util.List;
 import org.csstudio.opibuilder.datadefinition.WidgetIgnorableUITask;
 import org.csstudio.opibuilder.editparts.AbstractBaseEditPart;
 import org.csstudio.opibuilder.editparts.ExecutionMode;
+import org.csstudio.opibuilder.model.AbstractWidgetModel;
 import org.csstudio.opibuilder.util.GUIRefreshThread;
 import org.eclipse.draw2d.IFigure;
 import org.eclipse.swt.widgets.Display;
@@ -57,7 +58,10 @@ public class WidgetPropertyChangeListener implements PropertyChangeListener {
 			}
 		};		
 		Display display = editpart.getViewer().getControl().getDisplay();
-		WidgetIgnorableUITask task = new WidgetIgnorableUITask(widgetProperty, runnable, display);
+		//updates of invisible widgets can wait, but not the update that shows them.
+		boolean lowPriority = !editpart.getWidgetModel().isVisible() &&
+				!AbstractWidgetModel.PROP_VISIBLE.equals(widgetProperty.getPropertyID());
+		WidgetIgnorableUITask task = new WidgetIgnorableUITask(widgetProperty, runnable, display, lowPriority);
 			
 		GUIRefreshThread.getInstance(
 				editpart.getExecutionMode() == ExecutionMode.RUN_MODE)
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.opibuilder.script;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Runtime-wide cache of compiled scripts, shared by all script stores.
+ * Displays often contain many widgets with the same rule or script, which
+ * then only need to be compiled once.
+ * Entries are keyed by script engine, script path and a hash of the script content,
+ * so a modified script file is compiled again.
+ * Compiled code must not hold per-widget state: Jython <code>PyCode</code> and
+ * Rhino <code>Script</code> are executed with a separate namespace for each widget.
+ * @author agent
+ *
+ */
+public class CompiledScriptCache {
+
+	/**
+	 * Maximum number of cached scripts.
+	 */
+	private static final int MAX_ENTRIES = 500;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8"); //$NON-NLS-1$
+
+	private static final Map<String, Object> cache =
+			new LinkedHashMap<String, Object>(16, 0.75f, true){
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/**
+	 * @param engine name of the script engine, for example {@link ScriptService#PY}
+	 * @param path path of the script file, <code>null</code> for rules and embedded scripts
+	 * @param content script content
+	 * @return key for the compiled script
+	 */
+	public static String createKey(String engine, IPath path, byte[] content) {
+		StringBuilder key = new StringBuilder(engine).append(':');
+		if(path != null)
+			key.append(path.toPortableString());
+		key.append(':');
+		try {
+			for(byte b : MessageDigest.getInstance("SHA-1").digest(content)) //$NON-NLS-1$
+				key.append(Character.forDigit((b >> 4) & 0xF, 16))
+					.append(Character.forDigit(b & 0xF, 16));
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform supports SHA-1, fall back to the content itself
+			key.append(new String(content, UTF8));
+		}
+		return key.toString();
+	}
+
+	/**
+	 * @param engine name of the script engine, for example {@link ScriptService#PY}
+	 * @param path path of the script file, <code>null</code> for rules and embedded scripts
+	 * @param content script content
+	 * @return key for the compiled script
+	 */
+	public static String createKey(String engine, IPath path, String content) {
+		return createKey(engine, path, content.getBytes(UTF8));
+	}
+
+	/**
+	 * @param key key of the script
+	 * @return the compiled script or <code>null</code> if not cached
+	 */
+	public static synchronized Object get(String key) {
+		return cache.get(key);
+	}
+
+	/**
+	 * @param key key of the script
+	 * @param code the compiled script
+	 */
+	public static synchronized void put(String key, Object code) {
+		cache.put(key, code);
+	}
+
+	/**Read the complete content of a script.
+	 * @param s InputStream of the script. It will be closed by this method.
+	 * @return the script content
+	 * @throws IOException
+	 */
+	public static byte[] read(InputStream s) throws IOException {
+		try {
+			ByteArrayOutputStream buf = new ByteArrayOutputStream();
+			byte[] bytes = new byte[4096];
+			int len;
+			while((len = s.read(bytes)) >= 0)
+				buf.write(bytes, 0, len);
+			return buf.toByteArray();
+		} finally {
+			s.close();
+		}
+	}
+}
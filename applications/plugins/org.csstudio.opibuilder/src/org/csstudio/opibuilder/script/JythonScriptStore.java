@@ -7,6 +7,7 @@
  ******************************************************************************/
 package org.csstudio.opibuilder.script;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 
 import org.csstudio.opibuilder.editparts.AbstractBaseEditPart;
@@ -14,11 +15,13 @@ import org.csstudio.opibuilder.util.ResourceUtil;
 import org.csstudio.simplepv.IPV;
 import org.eclipse.core.runtime.IPath;
 import org.python.core.PyCode;
-import org.python.core.PyString;
 import org.python.core.PySystemState;
 
 /**
  * This is the implementation of {@link AbstractScriptStore} for Jython PythonInterpreter. 
+ * The {@link PySystemState} is shared with the other scripts of the display via the
+ * {@link JythonStatePool}, and compiled code is shared via the {@link CompiledScriptCache}.
+ * Each store has its own interpreter namespace.
  * @author Xihui Chen
  *
  */
@@ -28,6 +31,15 @@ public class JythonScriptStore extends AbstractScriptStore{
 
 	private PyCode code;
 
+	/**
+	 * The display and script folder for which the system state is acquired from the pool.
+	 * The state is only acquired when the script is compiled, so a store
+	 * that fails before that never holds a reference to the display in the pool.
+	 */
+	private Object display;
+	private String scriptFolder;
+	private boolean stateAcquired = false;
+
 	
 	public static CombinedJythonClassLoader COMBINDED_CLASS_LOADER = new CombinedJythonClassLoader();
 
@@ -40,32 +52,63 @@ public class JythonScriptStore extends AbstractScriptStore{
 	protected void initScriptEngine() {		
 		IPath scriptPath = getAbsoluteScriptPath();
 		//Add the path of script to python module search path
-		PySystemState state = new PySystemState();
-		state.setClassLoader(COMBINDED_CLASS_LOADER);
+		scriptFolder = null;
 		if(scriptPath != null && !scriptPath.isEmpty()){
 			
 			//If it is a workspace file.
 			if(ResourceUtil.isExistingWorkspaceFile(scriptPath)){
 				IPath folderPath = scriptPath.removeLastSegments(1);
-				String sysLocation = ResourceUtil.workspacePathToSysPath(folderPath).toOSString();
-				state.path.append(new PyString(sysLocation));
+				scriptFolder = ResourceUtil.workspacePathToSysPath(folderPath).toOSString();
 			}else if(ResourceUtil.isExistingLocalFile(scriptPath)){
 				IPath folderPath = scriptPath.removeLastSegments(1);
-				state.path.append(new PyString(folderPath.toOSString()));
+				scriptFolder = folderPath.toOSString();
 			}
 		}
-		
-		interpreter = new PythonInterpreter(null, state);	
+		display = getEditPart().getRoot();
+	}
+
+	/**Acquire the shared system state and create the interpreter, unless already done.
+	 * Must be balanced by {@link #releaseState()}.
+	 */
+	private void acquireState() {
+		if(stateAcquired)
+			return;
+		PySystemState state = JythonStatePool.acquire(display, scriptFolder);
+		stateAcquired = true;
+		interpreter = new PythonInterpreter(null, state);
 	}
 	
 	@Override
 	protected void compileString(String string) throws Exception {
-		code = interpreter.compile(string);
+		try {
+			acquireState();
+			String key = CompiledScriptCache.createKey(ScriptService.PY, null, string);
+			code = (PyCode) CompiledScriptCache.get(key);
+			if(code == null){
+				code = interpreter.compile(string);
+				CompiledScriptCache.put(key, code);
+			}
+		} catch (Exception e) {
+			releaseState();
+			throw e;
+		}
 	}
 
 	@Override
 	protected void compileInputStream(InputStream s) throws Exception {
-		code = interpreter.compile(s);
+		try {
+			acquireState();
+			byte[] content = CompiledScriptCache.read(s);
+			String key = CompiledScriptCache.createKey(ScriptService.PY, getAbsoluteScriptPath(), content);
+			code = (PyCode) CompiledScriptCache.get(key);
+			if(code == null){
+				code = interpreter.compile(new ByteArrayInputStream(content));
+				CompiledScriptCache.put(key, code);
+			}
+		} catch (Exception e) {
+			releaseState();
+			throw e;
+		}
 	}
 
 	@Override
@@ -78,6 +121,18 @@ public class JythonScriptStore extends AbstractScriptStore{
 		interpreter.set(ScriptService.TRIGGER_PV, triggerPV);
 		interpreter.exec(code);		
 	}
-	
+
+	@Override
+	public void unRegister() {
+		super.unRegister();
+		releaseState();
+	}
+
+	private void releaseState() {
+		if(!stateAcquired)
+			return;
+		stateAcquired = false;
+		JythonStatePool.release(display, scriptFolder);
+	}
 
 }
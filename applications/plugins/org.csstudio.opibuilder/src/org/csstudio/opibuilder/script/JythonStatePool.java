@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.opibuilder.script;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.python.core.PyString;
+import org.python.core.PySystemState;
+
+/**
+ * Pool of Jython system states shared by the Jython scripts of a display.
+ * A {@link PySystemState} with its module table is large and slow to create,
+ * so all scripts of one display that use the same script folder share one state.
+ * Each script keeps its own interpreter namespace, so variables like
+ * <code>widget</code>, <code>pvs</code> and <code>triggerPV</code> stay isolated.
+ * States are reference counted and removed when the last script of the display
+ * releases it, so re-opening a display will load modified modules.
+ * <p>
+ * The pool keeps a reference to the display object, typically the root edit part,
+ * until every {@link #acquire(Object, String)} has been balanced by a
+ * {@link #release(Object, String)}. A missing release keeps the display
+ * and its system state in memory for the lifetime of the runtime.
+ * </p>
+ * @author agent
+ *
+ */
+public class JythonStatePool {
+
+	private static class SharedState{
+		final PySystemState state;
+		int references = 0;
+
+		SharedState(PySystemState state) {
+			this.state = state;
+		}
+	}
+
+	private static final Map<List<Object>, SharedState> states =
+			new HashMap<List<Object>, SharedState>();
+
+	/**Get a system state, creating it if needed.
+	 * Every call must be balanced by a call to {@link #release(Object, String)}.
+	 * @param display the object that identifies the display, for example its root edit part.
+	 * @param scriptFolder the folder to add to the python module search path, may be <code>null</code>
+	 * @return the shared system state
+	 */
+	public static synchronized PySystemState acquire(Object display, String scriptFolder) {
+		List<Object> key = Arrays.asList(display, scriptFolder);
+		SharedState shared = states.get(key);
+		if(shared == null){
+			PySystemState state = new PySystemState();
+			state.setClassLoader(JythonScriptStore.COMBINDED_CLASS_LOADER);
+			if(scriptFolder != null)
+				state.path.append(new PyString(scriptFolder));
+			shared = new SharedState(state);
+			states.put(key, shared);
+		}
+		shared.references++;
+		return shared.state;
+	}
+
+	/**Release a system state obtained from {@link #acquire(Object, String)}.
+	 * @param display the object that identifies the display
+	 * @param scriptFolder the folder of the script, may be <code>null</code>
+	 */
+	public static synchronized void release(Object display, String scriptFolder) {
+		List<Object> key = Arrays.asList(display, scriptFolder);
+		SharedState shared = states.get(key);
+		if(shared != null && --shared.references <= 0)
+			states.remove(key);
+	}
+
+	/**
+	 * @param display the object that identifies the display
+	 * @param scriptFolder the folder of the script, may be <code>null</code>
+	 * @return number of references to the system state, 0 if not in the pool
+	 */
+	static synchronized int getReferenceCount(Object display, String scriptFolder) {
+		SharedState shared = states.get(Arrays.asList(display, scriptFolder));
+		return shared == null ? 0 : shared.references;
+	}
+}
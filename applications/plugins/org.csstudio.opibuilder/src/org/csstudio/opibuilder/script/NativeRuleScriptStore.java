@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.opibuilder.script;
+
+import java.io.InputStream;
+
+import org.csstudio.opibuilder.editparts.AbstractBaseEditPart;
+import org.csstudio.simplepv.IPV;
+
+/**
+ * This is the implementation of {@link AbstractScriptStore} for rules that
+ * are evaluated by a {@link RuleEvaluator} instead of a script engine.
+ * @author agent
+ *
+ */
+public class NativeRuleScriptStore extends AbstractScriptStore{
+
+	private RuleEvaluator evaluator;
+
+	public NativeRuleScriptStore(final RuleScriptData scriptData, final AbstractBaseEditPart editpart,
+			final IPV[] pvArray) throws Exception {
+		super(scriptData, editpart, pvArray);
+	}
+
+	@Override
+	protected void initScriptEngine() throws Exception {
+		evaluator = ((RuleScriptData)getScriptData()).getRuleEvaluator();
+	}
+
+	@Override
+	protected void compileString(String string) throws Exception {
+		// Nothing to compile
+	}
+
+	@Override
+	protected void compileInputStream(InputStream s) throws Exception {
+		s.close();
+	}
+
+	@Override
+	protected void execScript(final IPV triggerPV) throws Exception {
+		evaluator.execute(getEditPart(), getPvArray());
+	}
+
+}
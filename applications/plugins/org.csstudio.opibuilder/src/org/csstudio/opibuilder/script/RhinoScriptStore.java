@@ -8,6 +8,7 @@
 package org.csstudio.opibuilder.script;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -61,15 +62,26 @@ public class RhinoScriptStore extends AbstractScriptStore{
 	
 	@Override
 	protected void compileString(String string) throws Exception{
-		script = scriptContext.compileString(string, "rule", 1, null);		
+		String key = CompiledScriptCache.createKey(ScriptService.JS, null, string);
+		script = (Script) CompiledScriptCache.get(key);
+		if(script == null){
+			script = scriptContext.compileString(string, "rule", 1, null);		
+			CompiledScriptCache.put(key, script);
+		}
 	}
 
 	@Override
 	protected void compileInputStream(InputStream s) throws IOException {
-		BufferedReader reader = new BufferedReader(new InputStreamReader(s));
-		script = scriptContext.compileReader(reader, "script", 1, null); //$NON-NLS-1$
-		s.close();
-		reader.close();
+		byte[] content = CompiledScriptCache.read(s);
+		String key = CompiledScriptCache.createKey(ScriptService.JS, getAbsoluteScriptPath(), content);
+		script = (Script) CompiledScriptCache.get(key);
+		if(script == null){
+			BufferedReader reader = new BufferedReader(
+					new InputStreamReader(new ByteArrayInputStream(content)));
+			script = scriptContext.compileReader(reader, "script", 1, null); //$NON-NLS-1$
+			reader.close();
+			CompiledScriptCache.put(key, script);
+		}
 	}
 
 	@Override
@@ -243,12 +243,18 @@ public class RuleData implements IAdaptable{
 	
 	/**Convert this {@link RuleData} to {@link RuleScriptData} so 
 	 * that the scriptEngine code can be reused for running rules.
+	 * Rules that the {@link RuleEvaluator} can handle are evaluated directly,
+	 * only the other rules are executed as generated script.
 	 * @return
 	 */
 	public RuleScriptData convertToScriptData(){
 		RuleScriptData ruleScriptData  = new RuleScriptData(this);
 		ruleScriptData.setPVList(pvList);
-		ruleScriptData.setScriptString(generateScript());
+		RuleEvaluator evaluator = RuleEvaluator.create(this);
+		if(evaluator != null)
+			ruleScriptData.setRuleEvaluator(evaluator);
+		else
+			ruleScriptData.setScriptString(generateScript());
 		return ruleScriptData;
 	}
 	
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.opibuilder.script;
+
+import java.util.List;
+import java.util.logging.Level;
+
+import org.csstudio.opibuilder.OPIBuilderPlugin;
+import org.csstudio.opibuilder.editparts.AbstractBaseEditPart;
+import org.csstudio.opibuilder.properties.AbstractWidgetProperty;
+import org.csstudio.opibuilder.scriptUtil.PVUtil;
+import org.csstudio.simplepv.IPV;
+
+/**
+ * Evaluates a {@link RuleData} directly, without generating and executing a script.
+ * It has the same effect as the script generated by {@link RuleData#generateScript()}:
+ * The property is set to the value of the first expression whose boolean expression
+ * is true, or to the original property value if none is true.
+ * @author agent
+ *
+ */
+public class RuleEvaluator {
+
+	private final String propId;
+
+	private final RuleExpression[] conditions;
+
+	/**
+	 * Output expressions, or <code>null</code> if the rule sets the values of the expressions.
+	 */
+	private final RuleExpression[] outputs;
+
+	private final Object[] values;
+
+	private final Object defaultValue;
+
+	private RuleEvaluator(String propId, RuleExpression[] conditions,
+			RuleExpression[] outputs, Object[] values, Object defaultValue) {
+		this.propId = propId;
+		this.conditions = conditions;
+		this.outputs = outputs;
+		this.values = values;
+		this.defaultValue = defaultValue;
+	}
+
+	/**Create evaluator for a rule.
+	 * @param ruleData the rule.
+	 * @return the evaluator, or <code>null</code> if the rule uses expressions that are
+	 * not supported by {@link RuleExpression}, so it must be executed as a script.
+	 */
+	public static RuleEvaluator create(RuleData ruleData) {
+		List<Expression> expressions = ruleData.getExpressionList();
+		int pvCount = ruleData.getPVList().size();
+		int n = expressions.size();
+		RuleExpression[] conditions = new RuleExpression[n];
+		RuleExpression[] outputs = ruleData.isOutputExpValue() ? new RuleExpression[n] : null;
+		Object[] values = new Object[n];
+		try {
+			for(int i=0; i<n; i++){
+				Expression exp = expressions.get(i);
+				conditions[i] = RuleExpression.parse(exp.getBooleanExpression(), pvCount);
+				if(outputs != null)
+					outputs[i] = RuleExpression.parse(exp.getValue().toString(), pvCount);
+				else
+					values[i] = exp.getValue();
+			}
+		} catch (Exception e) {
+			OPIBuilderPlugin.getLogger().log(Level.FINE,
+					"Rule " + ruleData.getName() + " will be executed as script: " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+			return null;
+		}
+		// Like the script, use the property value at the time the rule was created
+		AbstractWidgetProperty property = ruleData.getProperty();
+		Object defaultValue = property == null ? null : property.getPropertyValue();
+		return new RuleEvaluator(ruleData.getPropId(), conditions, outputs, values, defaultValue);
+	}
+
+	/**Evaluate the rule and set the property of the widget.
+	 * @param widget the widget.
+	 * @param pvs the input PVs of the rule.
+	 * @throws Exception on error reading a PV value.
+	 */
+	public void execute(AbstractBaseEditPart widget, final IPV[] pvs) throws Exception {
+		if(conditions.length <= 0)
+			return;
+		RuleExpression.Variables variables = new RuleExpression.Variables() {
+			public double getDouble(int pv) {
+				return PVUtil.getDouble(pvs[pv]);
+			}
+
+			public double getLong(int pv) {
+				return PVUtil.getLong(pvs[pv]);
+			}
+
+			public String getString(int pv) {
+				return PVUtil.getString(pvs[pv]);
+			}
+
+			public double getSeverity(int pv) {
+				return PVUtil.getSeverity(pvs[pv]);
+			}
+		};
+		for(int i=0; i<conditions.length; i++){
+			if(conditions[i].isTrue(variables)){
+				widget.setPropertyValue(propId,
+						outputs == null ? values[i] : outputs[i].evaluate(variables));
+				return;
+			}
+		}
+		widget.setPropertyValue(propId, defaultValue);
+	}
+}
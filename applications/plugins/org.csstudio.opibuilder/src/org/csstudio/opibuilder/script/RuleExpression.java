@@ -0,0 +1,657 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.opibuilder.script;
+
+/**
+ * A rule expression parsed into a typed syntax tree, so it can be evaluated
+ * without a script engine.
+ * <p>
+ * Supports the subset of JavaScript that is typically used in rules:
+ * number, string and boolean literals, the rule variables <code>pv0</code>,
+ * <code>pvInt0</code>, <code>pvStr0</code> and <code>pvSev0</code>,
+ * arithmetic <code>+ - * / %</code>, comparisons, <code>! &amp;&amp; ||</code>
+ * and <code>? :</code>.
+ * Types are checked when parsing. Expressions that use anything else,
+ * for example functions or comparisons between numbers and strings,
+ * are rejected so that the rule is executed as a script.
+ * @author agent
+ *
+ */
+@SuppressWarnings("nls")
+public class RuleExpression {
+
+	/**Type of a value */
+	public enum Type {
+		NUMBER, STRING, BOOLEAN
+	}
+
+	/**Access to the values of the rule variables */
+	public interface Variables {
+		/** @param pv index of the PV
+		 *  @return value of <code>pv<i>N</i></code> */
+		public double getDouble(int pv) throws Exception;
+
+		/** @param pv index of the PV
+		 *  @return value of <code>pvInt<i>N</i></code> */
+		public double getLong(int pv) throws Exception;
+
+		/** @param pv index of the PV
+		 *  @return value of <code>pvStr<i>N</i></code> */
+		public String getString(int pv) throws Exception;
+
+		/** @param pv index of the PV
+		 *  @return value of <code>pvSev<i>N</i></code> */
+		public double getSeverity(int pv) throws Exception;
+	}
+
+	private final Node root;
+
+	private RuleExpression(Node root) {
+		this.root = root;
+	}
+
+	/**Parse an expression
+	 * @param expression the expression text.
+	 * @param pvCount number of PVs that the rule variables may refer to.
+	 * @return the parsed expression.
+	 * @throws Exception if the expression is not supported.
+	 */
+	public static RuleExpression parse(String expression, int pvCount) throws Exception {
+		Parser parser = new Parser(expression, pvCount);
+		return new RuleExpression(parser.parse());
+	}
+
+	/**
+	 * @return type of the expression value.
+	 */
+	public Type getType() {
+		return root.type;
+	}
+
+	/**
+	 * @param variables the rule variables.
+	 * @return value of the expression as {@link Double}, {@link String} or {@link Boolean}.
+	 * @throws Exception on error reading a variable.
+	 */
+	public Object evaluate(Variables variables) throws Exception {
+		switch (root.type) {
+		case NUMBER:
+			return root.number(variables);
+		case STRING:
+			return root.string(variables);
+		default:
+			return root.bool(variables);
+		}
+	}
+
+	/**
+	 * @param variables the rule variables.
+	 * @return <code>true</code> if the value of the expression is true in JavaScript,
+	 * 	i.e. a true boolean, a number other than 0 and NaN, or a non-empty string.
+	 * @throws Exception on error reading a variable.
+	 */
+	public boolean isTrue(Variables variables) throws Exception {
+		return root.truth(variables);
+	}
+
+	@Override
+	public String toString() {
+		return root.toString();
+	}
+
+	/** Node of the syntax tree */
+	private static abstract class Node {
+		final Type type;
+
+		Node(Type type) {
+			this.type = type;
+		}
+
+		double number(Variables v) throws Exception {
+			throw new IllegalStateException(type + " is not a number");
+		}
+
+		String string(Variables v) throws Exception {
+			throw new IllegalStateException(type + " is not a string");
+		}
+
+		boolean bool(Variables v) throws Exception {
+			throw new IllegalStateException(type + " is not a boolean");
+		}
+
+		boolean truth(Variables v) throws Exception {
+			switch (type) {
+			case NUMBER:
+				double value = number(v);
+				return value != 0.0 && !Double.isNaN(value);
+			case STRING:
+				return !string(v).isEmpty();
+			default:
+				return bool(v);
+			}
+		}
+	}
+
+	private static class NumberLiteral extends Node {
+		final double value;
+
+		NumberLiteral(double value) {
+			super(Type.NUMBER);
+			this.value = value;
+		}
+
+		@Override
+		double number(Variables v) {
+			return value;
+		}
+
+		@Override
+		public String toString() {
+			return Double.toString(value);
+		}
+	}
+
+	private static class StringLiteral extends Node {
+		final String value;
+
+		StringLiteral(String value) {
+			super(Type.STRING);
+			this.value = value;
+		}
+
+		@Override
+		String string(Variables v) {
+			return value;
+		}
+
+		@Override
+		public String toString() {
+			return '"' + value + '"';
+		}
+	}
+
+	private static class BooleanLiteral extends Node {
+		final boolean value;
+
+		BooleanLiteral(boolean value) {
+			super(Type.BOOLEAN);
+			this.value = value;
+		}
+
+		@Override
+		boolean bool(Variables v) {
+			return value;
+		}
+
+		@Override
+		public String toString() {
+			return Boolean.toString(value);
+		}
+	}
+
+	private static class Variable extends Node {
+		final String prefix;
+		final int pv;
+
+		Variable(String prefix, int pv) {
+			super(prefix.equals("pvStr") ? Type.STRING : Type.NUMBER);
+			this.prefix = prefix;
+			this.pv = pv;
+		}
+
+		@Override
+		double number(Variables v) throws Exception {
+			if (prefix.equals("pv"))
+				return v.getDouble(pv);
+			if (prefix.equals("pvInt"))
+				return v.getLong(pv);
+			return v.getSeverity(pv);
+		}
+
+		@Override
+		String string(Variables v) throws Exception {
+			return v.getString(pv);
+		}
+
+		@Override
+		public String toString() {
+			return prefix + pv;
+		}
+	}
+
+	private static class Negate extends Node {
+		final Node arg;
+
+		Negate(Node arg) {
+			super(Type.NUMBER);
+			this.arg = arg;
+		}
+
+		@Override
+		double number(Variables v) throws Exception {
+			return -arg.number(v);
+		}
+
+		@Override
+		public String toString() {
+			return "-" + arg;
+		}
+	}
+
+	private static class Not extends Node {
+		final Node arg;
+
+		Not(Node arg) {
+			super(Type.BOOLEAN);
+			this.arg = arg;
+		}
+
+		@Override
+		boolean bool(Variables v) throws Exception {
+			return !arg.truth(v);
+		}
+
+		@Override
+		public String toString() {
+			return "!" + arg;
+		}
+	}
+
+	private static abstract class Binary extends Node {
+		final String op;
+		final Node left, right;
+
+		Binary(Type type, String op, Node left, Node right) {
+			super(type);
+			this.op = op;
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		public String toString() {
+			return "(" + left + " " + op + " " + right + ")";
+		}
+	}
+
+	private static class Arithmetic extends Binary {
+		Arithmetic(String op, Node left, Node right) {
+			super(Type.NUMBER, op, left, right);
+		}
+
+		@Override
+		double number(Variables v) throws Exception {
+			double a = left.number(v), b = right.number(v);
+			switch (op.charAt(0)) {
+			case '+':
+				return a + b;
+			case '-':
+				return a - b;
+			case '*':
+				return a * b;
+			case '/':
+				return a / b;
+			default:
+				return a % b;
+			}
+		}
+	}
+
+	private static class Concat extends Binary {
+		Concat(Node left, Node right) {
+			super(Type.STRING, "+", left, right);
+		}
+
+		@Override
+		String string(Variables v) throws Exception {
+			return left.string(v) + right.string(v);
+		}
+	}
+
+	private static class Compare extends Binary {
+		Compare(String op, Node left, Node right) {
+			super(Type.BOOLEAN, op, left, right);
+		}
+
+		@Override
+		boolean bool(Variables v) throws Exception {
+			boolean equal;
+			switch (left.type) {
+			case STRING:
+				equal = left.string(v).equals(right.string(v));
+				break;
+			case BOOLEAN:
+				equal = left.bool(v) == right.bool(v);
+				break;
+			default:
+				double a = left.number(v), b = right.number(v);
+				if (op.equals("<"))
+					return a < b;
+				if (op.equals("<="))
+					return a <= b;
+				if (op.equals(">"))
+					return a > b;
+				if (op.equals(">="))
+					return a >= b;
+				equal = a == b;
+			}
+			return op.charAt(0) == '=' ? equal : !equal;
+		}
+	}
+
+	private static class Logic extends Binary {
+		Logic(String op, Node left, Node right) {
+			super(Type.BOOLEAN, op, left, right);
+		}
+
+		@Override
+		boolean bool(Variables v) throws Exception {
+			if (op.equals("&&"))
+				return left.bool(v) && right.bool(v);
+			return left.bool(v) || right.bool(v);
+		}
+	}
+
+	private static class Conditional extends Node {
+		final Node condition, yes, no;
+
+		Conditional(Node condition, Node yes, Node no) {
+			super(yes.type);
+			this.condition = condition;
+			this.yes = yes;
+			this.no = no;
+		}
+
+		@Override
+		double number(Variables v) throws Exception {
+			return condition.truth(v) ? yes.number(v) : no.number(v);
+		}
+
+		@Override
+		String string(Variables v) throws Exception {
+			return condition.truth(v) ? yes.string(v) : no.string(v);
+		}
+
+		@Override
+		boolean bool(Variables v) throws Exception {
+			return condition.truth(v) ? yes.bool(v) : no.bool(v);
+		}
+
+		@Override
+		public String toString() {
+			return "(" + condition + " ? " + yes + " : " + no + ")";
+		}
+	}
+
+	/** Recursive descent parser following the JavaScript operator precedence */
+	private static class Parser {
+		private static final String[] OPERATORS = {
+			"===", "!==", "==", "!=", "<=", ">=", "&&", "||",
+			"<", ">", "+", "-", "*", "/", "%", "!", "(", ")", "?", ":"
+		};
+
+		private final String text;
+		private final int pvCount;
+		private int pos = 0;
+
+		Parser(String text, int pvCount) {
+			this.text = text;
+			this.pvCount = pvCount;
+		}
+
+		Node parse() throws Exception {
+			Node node = conditional();
+			skipSpace();
+			if (pos < text.length())
+				throw error("Unexpected '" + text.substring(pos) + "'");
+			return node;
+		}
+
+		private Exception error(String message) {
+			return new Exception(message + " in rule expression '" + text + "'");
+		}
+
+		private void skipSpace() {
+			while (pos < text.length() && Character.isWhitespace(text.charAt(pos)))
+				++pos;
+		}
+
+		/** @return the operator at the current position, which is not consumed, or <code>null</code> */
+		private String peekOperator() {
+			skipSpace();
+			for (String op : OPERATORS)
+				if (text.startsWith(op, pos))
+					return op;
+			return null;
+		}
+
+		private boolean accept(String op) {
+			if (op.equals(peekOperator())) {
+				pos += op.length();
+				return true;
+			}
+			return false;
+		}
+
+		private Node conditional() throws Exception {
+			Node condition = or();
+			if (!accept("?"))
+				return condition;
+			Node yes = conditional();
+			if (!accept(":"))
+				throw error("Missing ':'");
+			Node no = conditional();
+			if (yes.type != no.type)
+				throw error("Different types for '?:'");
+			return new Conditional(condition, yes, no);
+		}
+
+		private Node or() throws Exception {
+			Node node = and();
+			while (accept("||"))
+				node = new Logic("||", checkBoolean(node), checkBoolean(and()));
+			return node;
+		}
+
+		private Node and() throws Exception {
+			Node node = equality();
+			while (accept("&&"))
+				node = new Logic("&&", checkBoolean(node), checkBoolean(equality()));
+			return node;
+		}
+
+		private Node checkBoolean(Node node) throws Exception {
+			if (node.type != Type.BOOLEAN)
+				throw error("Expected boolean for '&&' or '||'");
+			return node;
+		}
+
+		private Node equality() throws Exception {
+			Node node = relational();
+			while (true) {
+				String op = peekOperator();
+				if (!("==".equals(op) || "!=".equals(op) || "===".equals(op) || "!==".equals(op)))
+					return node;
+				pos += op.length();
+				Node right = relational();
+				if (node.type != right.type)
+					throw error("Cannot compare " + node.type + " and " + right.type);
+				node = new Compare(op.substring(0, 2), node, right);
+			}
+		}
+
+		private Node relational() throws Exception {
+			Node node = additive();
+			while (true) {
+				String op = peekOperator();
+				if (!("<".equals(op) || "<=".equals(op) || ">".equals(op) || ">=".equals(op)))
+					return node;
+				pos += op.length();
+				Node right = additive();
+				if (node.type != Type.NUMBER || right.type != Type.NUMBER)
+					throw error("Can only compare numbers with '" + op + "'");
+				node = new Compare(op, node, right);
+			}
+		}
+
+		private Node additive() throws Exception {
+			Node node = multiplicative();
+			while (true) {
+				String op = peekOperator();
+				if (!("+".equals(op) || "-".equals(op)))
+					return node;
+				pos += op.length();
+				Node right = multiplicative();
+				if (op.equals("+") && node.type == Type.STRING && right.type == Type.STRING)
+					node = new Concat(node, right);
+				else if (node.type == Type.NUMBER && right.type == Type.NUMBER)
+					node = new Arithmetic(op, node, right);
+				else
+					throw error("Cannot use '" + op + "' with " + node.type + " and " + right.type);
+			}
+		}
+
+		private Node multiplicative() throws Exception {
+			Node node = unary();
+			while (true) {
+				String op = peekOperator();
+				if (!("*".equals(op) || "/".equals(op) || "%".equals(op)))
+					return node;
+				pos += op.length();
+				Node right = unary();
+				if (node.type != Type.NUMBER || right.type != Type.NUMBER)
+					throw error("Cannot use '" + op + "' with " + node.type + " and " + right.type);
+				node = new Arithmetic(op, node, right);
+			}
+		}
+
+		private Node unary() throws Exception {
+			if (accept("!"))
+				return new Not(unary());
+			if (accept("-")) {
+				Node arg = unary();
+				if (arg.type != Type.NUMBER)
+					throw error("Cannot negate " + arg.type);
+				if (arg instanceof NumberLiteral)
+					return new NumberLiteral(-((NumberLiteral) arg).value);
+				return new Negate(arg);
+			}
+			if (accept("+")) {
+				Node arg = unary();
+				if (arg.type != Type.NUMBER)
+					throw error("Cannot use '+' with " + arg.type);
+				return arg;
+			}
+			return primary();
+		}
+
+		private Node primary() throws Exception {
+			if (accept("(")) {
+				Node node = conditional();
+				if (!accept(")"))
+					throw error("Missing ')'");
+				return node;
+			}
+			skipSpace();
+			if (pos >= text.length())
+				throw error("Unexpected end");
+			char c = text.charAt(pos);
+			if (c == '"' || c == '\'')
+				return stringLiteral(c);
+			if (Character.isDigit(c) || c == '.')
+				return numberLiteral();
+			if (Character.isJavaIdentifierStart(c))
+				return identifier();
+			throw error("Unexpected '" + c + "'");
+		}
+
+		private Node numberLiteral() throws Exception {
+			int start = pos;
+			while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.'))
+				++pos;
+			if (pos < text.length() && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+				++pos;
+				if (pos < text.length() && (text.charAt(pos) == '+' || text.charAt(pos) == '-'))
+					++pos;
+				while (pos < text.length() && Character.isDigit(text.charAt(pos)))
+					++pos;
+			}
+			if (pos < text.length() && Character.isJavaIdentifierPart(text.charAt(pos)))
+				throw error("Unsupported number format");
+			String number = text.substring(start, pos);
+			// Octal-like numbers have a different meaning in JavaScript
+			if (number.length() > 1 && number.charAt(0) == '0' && Character.isDigit(number.charAt(1)))
+				throw error("Unsupported number format");
+			try {
+				return new NumberLiteral(Double.parseDouble(number));
+			} catch (NumberFormatException e) {
+				throw error("Invalid number '" + number + "'");
+			}
+		}
+
+		private Node stringLiteral(char quote) throws Exception {
+			StringBuilder buf = new StringBuilder();
+			++pos;
+			while (pos < text.length()) {
+				char c = text.charAt(pos++);
+				if (c == quote)
+					return new StringLiteral(buf.toString());
+				if (c != '\\') {
+					buf.append(c);
+					continue;
+				}
+				if (pos >= text.length())
+					break;
+				c = text.charAt(pos++);
+				switch (c) {
+				case 'n':
+					buf.append('\n');
+					break;
+				case 't':
+					buf.append('\t');
+					break;
+				case 'r':
+					buf.append('\r');
+					break;
+				case '\\':
+				case '"':
+				case '\'':
+					buf.append(c);
+					break;
+				default:
+					throw error("Unsupported escape '\\" + c + "'");
+				}
+			}
+			throw error("Unterminated string");
+		}
+
+		private Node identifier() throws Exception {
+			int start = pos;
+			while (pos < text.length() && Character.isJavaIdentifierPart(text.charAt(pos)))
+				++pos;
+			String name = text.substring(start, pos);
+			if (name.equals("true"))
+				return new BooleanLiteral(true);
+			if (name.equals("false"))
+				return new BooleanLiteral(false);
+			int digits = name.length();
+			while (digits > 0 && Character.isDigit(name.charAt(digits - 1)))
+				--digits;
+			String prefix = name.substring(0, digits);
+			if (digits < name.length() && digits + 6 > name.length() &&
+					(name.charAt(digits) != '0' || digits + 1 == name.length()) &&
+					(prefix.equals("pv") || prefix.equals("pvInt") ||
+					 prefix.equals("pvStr") || prefix.equals("pvSev"))) {
+				int pv = Integer.parseInt(name.substring(digits));
+				if (pv < pvCount)
+					return new Variable(prefix, pv);
+			}
+			throw error("Unsupported identifier '" + name + "'");
+		}
+	}
+}
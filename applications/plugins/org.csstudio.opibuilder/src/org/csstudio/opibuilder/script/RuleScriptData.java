@@ -17,6 +17,7 @@ public class RuleScriptData extends ScriptData {
 
 	private String scriptString;
 	private RuleData ruleData;
+	private RuleEvaluator ruleEvaluator;
 	
 	
 	public RuleScriptData(RuleData ruleData) {
@@ -41,6 +42,21 @@ public class RuleScriptData extends ScriptData {
 		this.scriptString = scriptString;
 	}
 	
+	/**
+	 * @return the evaluator for the rule, or <code>null</code> if the rule
+	 * must be executed as script.
+	 */
+	public final RuleEvaluator getRuleEvaluator() {
+		return ruleEvaluator;
+	}
+
+	/**
+	 * @param ruleEvaluator the evaluator for the rule, <code>null</code> to execute the script.
+	 */
+	public final void setRuleEvaluator(RuleEvaluator ruleEvaluator) {
+		this.ruleEvaluator = ruleEvaluator;
+	}
+
 	public void setPVList(List<PVTuple> pvList){
 		this.pvList = pvList;
 	}
@@ -82,6 +82,9 @@ public class ScriptStoreFactory {
 	 */
 	public static AbstractScriptStore getScriptStore(
 			ScriptData scriptData, AbstractBaseEditPart editpart, IPV[] pvArray) throws Exception{
+		if(scriptData instanceof RuleScriptData &&
+				((RuleScriptData)scriptData).getRuleEvaluator() != null)
+			return new NativeRuleScriptStore((RuleScriptData)scriptData, editpart, pvArray);
 		boolean jsEngineInitialized = displayContextMap.containsKey(Display.getCurrent());
 		if(!scriptData.isEmbedded() && 
 				(scriptData.getPath() == null || scriptData.getPath().getFileExtension() == null)){
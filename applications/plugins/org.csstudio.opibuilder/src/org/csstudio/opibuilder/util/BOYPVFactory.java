@@ -7,11 +7,13 @@ import org.csstudio.opibuilder.preferences.PreferencesHelper;
 import org.csstudio.simplepv.AbstractPVFactory;
 import org.csstudio.simplepv.ExceptionHandler;
 import org.csstudio.simplepv.IPV;
+import org.csstudio.simplepv.PreferenceHelper;
 import org.csstudio.simplepv.SimplePVLayer;
 import org.eclipse.swt.widgets.Display;
 
 /**The factory to create a PV for BOY. It will create either Utility PV or PVManager PV
- * which depends on the preference settings.
+ * which depends on the preference settings. PVs with the same name and settings share
+ * one connection unless this is disabled in the simplepv preferences.
  * @author Xihui Chen
  *
  */
@@ -73,6 +75,9 @@ public class BOYPVFactory{
 					(pvConnectionLayer);
 			if(pvFactory == null)
 				throw new Exception("No such PVFactory extension available: " + pvConnectionLayer);			
+			if(PreferenceHelper.isPVSharingEnabled())
+				return pvFactory.createSharedPV(
+						name, false, updateDuration, bufferAllValues,  BOY_PV_THREAD, exceptionHandler);
 			return pvFactory.createPV(
 					name, false, updateDuration, bufferAllValues,  BOY_PV_THREAD, exceptionHandler);	
 	}
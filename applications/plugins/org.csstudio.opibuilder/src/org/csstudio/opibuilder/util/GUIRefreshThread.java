@@ -7,7 +7,14 @@
  ******************************************************************************/
 package org.csstudio.opibuilder.util;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 
 import org.csstudio.opibuilder.OPIBuilderPlugin;
@@ -22,6 +29,12 @@ import org.eclipse.swt.widgets.Display;
  * A singleton back thread which will help to execute tasks for OPI GUI refreshing.
  * This thread sleeps for a time which can be set in the preference page. It can
  * help throttle the unnecessary repaint caused by fast PV value updating.
+ * <p>
+ * Each refresh cycle posts the pending tasks of a display as one batch to
+ * the UI thread. Only the latest task for each widget property is kept.
+ * A batch stops after the frame budget is used up, and its remaining tasks,
+ * starting with the low priority tasks, are deferred to the next cycle.
+ * </p>
  *
  * @author Xihui Chen
  *
@@ -48,16 +61,30 @@ public final class GUIRefreshThread implements Runnable {
 
 	private int guiRefreshCycle = 100;
 
-	private long start;
+	/**
+	 * Time budget in ms for executing the tasks of one frame in the UI thread, 0 for no limit.
+	 */
+	private int frameBudget = 0;
 
-	private volatile boolean asyncEmpty = true;
+	private long start;
 
-	private Runnable resetAsyncEmpty;
+	/**
+	 * Displays which have a batch of tasks waiting or executing in the UI thread.
+	 * Sync on this for access.
+	 */
+	private Set<Display> busyDisplays = new HashSet<Display>();
 
 	private Display rcpDisplay;
 	
 	private boolean isRuntime;
 
+	/**
+	 * Metrics. Dropped and deferred counts sync on this for access.
+	 */
+	private long droppedTasks = 0, deferredTasks = 0;
+	private volatile long frames = 0;
+	private volatile long lastFrameLatency = 0, lastFrameDuration = 0;
+
 	/**
 	 * Standard constructor.
 	 */
@@ -68,12 +95,6 @@ public final class GUIRefreshThread implements Runnable {
 			rcpDisplay = DisplayUtils.getDisplay();			
 		}
 		tasksQueue = new LinkedHashSet<WidgetIgnorableUITask>();
-		resetAsyncEmpty = new Runnable() {
-
-			public void run() {
-				asyncEmpty = true;
-			}
-		};
 		reLoadGUIRefreshCycle();
 		thread = new Thread(this, "OPI GUI Refresh Thread"); //$NON-NLS-1$
 		thread.start();
@@ -100,8 +121,10 @@ public final class GUIRefreshThread implements Runnable {
 	 * Reschedule this task upon the new GUI refresh cycle.
 	 */
 	public void reLoadGUIRefreshCycle(){
-		if(isRuntime)
+		if(isRuntime){
 			guiRefreshCycle = PreferencesHelper.getGUIRefreshCycle();
+			frameBudget = PreferencesHelper.getGUIRefreshBudget();
+		}
 	}
 	
 	/**Set GUI Refresh Cycle. This should be temporarily used only. It must be 
@@ -116,6 +139,50 @@ public final class GUIRefreshThread implements Runnable {
 		return guiRefreshCycle;
 	}
 
+	/**
+	 * @return time budget in ms for executing the tasks of one frame, 0 for no limit.
+	 */
+	public int getFrameBudget() {
+		return frameBudget;
+	}
+
+	/**
+	 * @return number of frames executed in the UI thread.
+	 */
+	public long getFrameCount() {
+		return frames;
+	}
+
+	/**
+	 * @return time in ms between posting the last frame and its start in the UI thread.
+	 */
+	public double getLastFrameLatency() {
+		return lastFrameLatency / 1e6;
+	}
+
+	/**
+	 * @return time in ms for executing the tasks of the last frame in the UI thread.
+	 */
+	public double getLastFrameDuration() {
+		return lastFrameDuration / 1e6;
+	}
+
+	/**
+	 * @return number of tasks that were dropped because a newer task
+	 * for the same widget property arrived before they were executed.
+	 */
+	public synchronized long getDroppedTaskCount() {
+		return droppedTasks;
+	}
+
+	/**
+	 * @return number of tasks that were deferred to a later frame
+	 * because the frame budget was used up.
+	 */
+	public synchronized long getDeferredTaskCount() {
+		return deferredTasks;
+	}
+
 	/**
 	 * {@inheritDoc}.
 	 */
@@ -127,10 +194,7 @@ public final class GUIRefreshThread implements Runnable {
 			}
 			if(!isEmpty){
 					start = System.currentTimeMillis();
-					if(OPIBuilderPlugin.isRAP())
-						rapProcessQueue();
-					else
-						rcpProcessQueue();
+					processQueue();
 					
 				try {
 					long current = System.currentTimeMillis();
@@ -150,51 +214,121 @@ public final class GUIRefreshThread implements Runnable {
 	}
 
 	/**
-	 * Process the complete queue in RCP.
+	 * Post the queued tasks as one batch per display.
+	 * Tasks of a display that is still busy with the previous batch stay in the queue.
 	 */
-	private void rcpProcessQueue() {
-		//avoid add too many stuff to Display async queue.		
-		if(!asyncEmpty)
-			return;
-		asyncEmpty = false;		
-		Object[] tasksArray;
-		//copy the tasks queue.
+	private void processQueue() {
+		Map<Display, List<WidgetIgnorableUITask>> normalTasks =
+				new HashMap<Display, List<WidgetIgnorableUITask>>();
+		Map<Display, List<WidgetIgnorableUITask>> lowPriorityTasks =
+				new HashMap<Display, List<WidgetIgnorableUITask>>();
 		synchronized (this) {
-			tasksArray = tasksQueue.toArray();
-			tasksQueue.clear();
+			Iterator<WidgetIgnorableUITask> iterator = tasksQueue.iterator();
+			while(iterator.hasNext()){
+				WidgetIgnorableUITask task = iterator.next();
+				Display display = OPIBuilderPlugin.isRAP() ? task.getDisplay() : rcpDisplay;
+				if(display == null || display.isDisposed()){
+					iterator.remove();
+					continue;
+				}
+				//avoid add too many stuff to Display async queue.		
+				if(busyDisplays.contains(display))
+					continue;
+				Map<Display, List<WidgetIgnorableUITask>> tasks =
+						task.isLowPriority() ? lowPriorityTasks : normalTasks;
+				List<WidgetIgnorableUITask> list = tasks.get(display);
+				if(list == null){
+					list = new ArrayList<WidgetIgnorableUITask>();
+					tasks.put(display, list);
+				}
+				list.add(task);
+				iterator.remove();
+			}
+			busyDisplays.addAll(normalTasks.keySet());
+			busyDisplays.addAll(lowPriorityTasks.keySet());
 		}
-		if (rcpDisplay == null || rcpDisplay.isDisposed())
-			return;
-		for (Object o : tasksArray) {
-			try {
-				rcpDisplay.asyncExec(((WidgetIgnorableUITask) o)
-						.getRunnableTask());
-			} catch (Exception e) {
-				OPIBuilderPlugin.getLogger().log(Level.WARNING,
-						"Display has been disposed.", e); //$NON-NLS-1$
+		for(Display display : normalTasks.keySet())
+			postFrame(display, normalTasks.get(display), lowPriorityTasks.remove(display));
+		for(Display display : lowPriorityTasks.keySet())
+			postFrame(display, new ArrayList<WidgetIgnorableUITask>(), lowPriorityTasks.get(display));
+	}
+
+	/**
+	 * @param display the display.
+	 * @param tasks normal priority tasks, low priority tasks will be added.
+	 * @param lowPriority low priority tasks, may be <code>null</code>.
+	 */
+	private void postFrame(Display display, List<WidgetIgnorableUITask> tasks,
+			List<WidgetIgnorableUITask> lowPriority) {
+		if(lowPriority != null)
+			tasks.addAll(lowPriority);
+		try {
+			display.asyncExec(new Frame(display, tasks));
+		} catch (Exception e) {
+			synchronized (this) {
+				busyDisplays.remove(display);
 			}
+			OPIBuilderPlugin.getLogger().log(Level.WARNING,
+					"Display has been disposed.", e); //$NON-NLS-1$
 		}
-		rcpDisplay.asyncExec(resetAsyncEmpty);
 	}
-	
+
 	/**
-	 * Process the complete queue in RAP.
+	 * Put tasks that did not fit into a frame back at the head of the queue,
+	 * unless they have been replaced by newer tasks.
+	 * @param tasks the deferred tasks.
 	 */
-	private void rapProcessQueue() {
-		Object[] tasksArray;
-		//copy the tasks queue.
-		synchronized (this) {
-			tasksArray = tasksQueue.toArray();
-			tasksQueue.clear();
+	private synchronized void defer(List<WidgetIgnorableUITask> tasks) {
+		LinkedHashSet<WidgetIgnorableUITask> queue = new LinkedHashSet<WidgetIgnorableUITask>();
+		for(WidgetIgnorableUITask task : tasks){
+			if(tasksQueue.contains(task))
+				++droppedTasks;
+			else
+				queue.add(task);
 		}
-		for(Object o : tasksArray){
-			Display display = ((WidgetIgnorableUITask)o).getDisplay();
-				if(display!=null && !display.isDisposed())
+		deferredTasks += queue.size();
+		queue.addAll(tasksQueue);
+		tasksQueue = queue;
+	}
+
+	/**
+	 * The tasks of one display, executed in its UI thread within the frame budget.
+	 */
+	private class Frame implements Runnable {
+		private final Display display;
+		private final List<WidgetIgnorableUITask> tasks;
+		private final long posted = System.nanoTime();
+
+		public Frame(Display display, List<WidgetIgnorableUITask> tasks) {
+			this.display = display;
+			this.tasks = tasks;
+		}
+
+		public void run() {
+			long begin = System.nanoTime();
+			lastFrameLatency = begin - posted;
+			long deadline = begin + frameBudget * 1000000L;
+			try {
+				int i = 0;
+				for(; i<tasks.size(); i++){
+					//execute at least one task per frame
+					if(frameBudget > 0 && i > 0 && System.nanoTime() >= deadline)
+						break;
 					try {
-						display.asyncExec(((WidgetIgnorableUITask) o).getRunnableTask());
+						tasks.get(i).getRunnableTask().run();
 					} catch (Exception e) {
-					    OPIBuilderPlugin.getLogger().log(Level.WARNING, "GUI refresh error", e); //$NON-NLS-1$
+						OPIBuilderPlugin.getLogger().log(Level.WARNING, "GUI refresh error", e); //$NON-NLS-1$
 					}
+				}
+				if(i < tasks.size())
+					defer(tasks.subList(i, tasks.size()));
+			} finally {
+				lastFrameDuration = System.nanoTime() - begin;
+				++frames;
+				synchronized (GUIRefreshThread.this) {
+					busyDisplays.remove(display);
+				}
+			}
 		}
 	}
 
@@ -205,7 +339,8 @@ public final class GUIRefreshThread implements Runnable {
 	 *            the ignorable UI task.
 	 */
 	public synchronized void addIgnorableTask(final WidgetIgnorableUITask task) {
-		tasksQueue.remove(task);
+		if(tasksQueue.remove(task))
+			++droppedTasks;
 		tasksQueue.add(task);
 
 	}
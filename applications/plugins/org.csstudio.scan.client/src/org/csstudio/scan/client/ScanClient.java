@@ -17,8 +17,11 @@ package org.csstudio.scan.client;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+import java.io.BufferedReader;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URL;
@@ -36,6 +39,7 @@ import org.csstudio.scan.PathUtil;
 import org.csstudio.scan.SystemSettings;
 import org.csstudio.scan.command.DOMHelper;
 import org.csstudio.scan.data.ScanData;
+import org.csstudio.scan.data.ScanDataCSV;
 import org.csstudio.scan.device.DeviceInfo;
 import org.csstudio.scan.server.Scan;
 import org.csstudio.scan.server.ScanInfo;
@@ -203,8 +207,11 @@ public class ScanClient
             final long non_heap = DOMHelper.getSubelementLong(root_node, "non_heap", 0);
             final String[] paths = PathUtil.splitPath(DOMHelper.getSubelementString(root_node, "script_paths", ""));
             final String macros = DOMHelper.getSubelementString(root_node, "macros", "");
+            final int running_scans = DOMHelper.getSubelementInt(root_node, "running_scans", 0);
+            final int queued_scans = DOMHelper.getSubelementInt(root_node, "queued_scans", 0);
             return new ScanServerInfo(version, start_time,
-                    scan_config, simulation_config, paths, macros, used_mem, max_mem, non_heap);
+                    scan_config, simulation_config, paths, macros,
+                    running_scans, queued_scans, used_mem, max_mem, non_heap);
         }
         finally
         {
@@ -306,6 +313,39 @@ public class ScanClient
         }
     }
 
+    /** Obtain data logged by a scan since a given serial
+     *
+     *  <p>Allows polling a running scan without fetching all the data again:
+     *  Request data beginning with the last serial of the data that's already known,
+     *  then merge.
+     *  <pre>
+     *  ScanData data = client.getScanData(id, 0);
+     *  ...
+     *  data = data.merge(client.getScanData(id, data.getLastSerial()));
+     *  </pre>
+     *
+     *  @param id ID that uniquely identifies a scan (within JVM of the scan engine)
+     *  @param first_serial Serial of first sample to include
+     *  @return {@link ScanData} with samples at or beyond that serial
+     *  @throws Exception on error
+     *  @see ScanData#merge(ScanData)
+     */
+    public ScanData getScanData(final long id, final long first_serial) throws Exception
+    {
+        final HttpURLConnection connection = connect("/scan/" + id + "/data/" + first_serial);
+        try
+        {
+            checkResponse(connection);
+            final Reader reader = new BufferedReader(
+                    new InputStreamReader(connection.getInputStream(), "UTF-8"));
+            return ScanDataCSV.read(reader);
+        }
+        finally
+        {
+            connection.disconnect();
+        }
+    }
+
     /** Get serial of last logged sample.
      *
      *  <p>Can be used to determine if there are new samples
@@ -9,13 +9,10 @@ package org.csstudio.scan.client;
 
 import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.csstudio.scan.data.ScanData;
-import org.csstudio.scan.data.ScanSample;
-import org.csstudio.scan.data.ScanSampleFactory;
+import org.csstudio.scan.data.ScanDataColumn;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
@@ -64,9 +61,9 @@ public class ScanDataSAXHandler extends DefaultHandler
     private Object value = null;
 
     /** Samples for the currently parsed device */
-    private List<ScanSample> samples;
+    private ScanDataColumn samples;
     
-    private Map<String, List<ScanSample>> data = new HashMap<>();
+    private List<ScanDataColumn> data = new ArrayList<>();
 
     /** {@inheritDoc} */
     @Override
@@ -104,8 +101,8 @@ public class ScanDataSAXHandler extends DefaultHandler
             if ("name".equalsIgnoreCase(qName))
             {
                 device = cdata;
-                samples = new ArrayList<>();
-                data.put(device, samples);
+                samples = new ScanDataColumn(device);
+                data.add(samples);
                 state = State.NeedSample;
             }
             break;
@@ -136,12 +133,10 @@ public class ScanDataSAXHandler extends DefaultHandler
             {
                 if (time == null  ||  value == null)
                     throw new SAXException("Missing time or value for sample ");
-                final ScanSample sample;
-                if (value instanceof Number)
-                    sample = ScanSampleFactory.createSample(time, serial, (Number)value);
+                if (value instanceof Double)
+                    samples.add(serial, time.getTime(), ((Double)value).doubleValue());
                 else
-                    sample = ScanSampleFactory.createSample(time, serial, (String)value);
-                samples.add(sample);
+                    samples.add(serial, time.getTime(), (String)value);
                 
                 state = State.NeedSample;
             }
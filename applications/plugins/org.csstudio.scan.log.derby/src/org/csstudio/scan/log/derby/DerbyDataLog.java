@@ -7,6 +7,13 @@
  ******************************************************************************/
 package org.csstudio.scan.log.derby;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import org.csstudio.scan.data.ScanData;
 import org.csstudio.scan.data.ScanSample;
 import org.csstudio.scan.log.DataLog;
@@ -17,14 +24,47 @@ import org.csstudio.scan.log.DataLog;
  *  Creates a logger on <code>doLog()</code> and keeps that open
  *  until <code>close()</code>
  *
+ *  <p>Samples are written in batches.
+ *  A full batch is written right away.
+ *  After a <code>flush()</code>, remaining samples are written
+ *  by a background thread after the flush period,
+ *  so samples of several scan commands end up in the same batch.
+ *  When the background write fails, the samples remain pending.
+ *  The next <code>log()</code> retries to write them,
+ *  and reports the error if that fails again.
+ *
  *  @author Kay Kasemir
  */
+@SuppressWarnings("nls")
 public class DerbyDataLog extends DataLog
 {
+    /** Thread that writes flushed samples of all logs */
+    final private static ScheduledExecutorService writer =
+        Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(final Runnable runnable)
+            {
+                final Thread thread = new Thread(runnable, "DerbyDataLogWriter");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
 	final private long scan_id;
 
+	/** Delay between flush() and writing the samples [millisec] */
+	final private long flush_delay = Math.round(Preferences.getFlushPeriod() * 1000);
+
+	/** Logger. Access synchronizes on 'this' */
 	private RDBDataLogger logger = null;
 
+	/** Is a write of flushed samples scheduled? Access synchronizes on 'this' */
+	private boolean write_scheduled = false;
+
+	/** Error of the last background write, <code>null</code> if OK. Access synchronizes on 'this' */
+	private Exception write_error = null;
+
 	/** Initialize
 	 *  @param scan_id ID of scan for which this logger should operate
 	 */
@@ -45,22 +85,94 @@ public class DerbyDataLog extends DataLog
 
     /** {@inheritDoc} */
 	@Override
-	public void doLog(final String device, final ScanSample sample) throws Exception
+	public synchronized void doLog(final String device, final ScanSample sample) throws Exception
 	{
 		if (logger == null)
-			logger = new DerbyDataLogger();
+			logger = new DerbyDataLogger(Preferences.getBatchSize());
+		else if (write_error != null)
+		{   // Retry samples that failed to write in the background
+		    try
+		    {
+		        logger.flush();
+		    }
+		    catch (Exception ex)
+		    {
+		        write_error = ex;
+		        throw new Exception("Error writing samples of scan " + scan_id, ex);
+		    }
+		    write_error = null;
+		}
 		logger.log(scan_id, device, sample);
 	}
 
+    /** {@inheritDoc} */
+	@Override
+	public void flush()
+	{
+	    synchronized (this)
+	    {
+	        if (logger != null  &&  logger.getPendingSamples() > 0  &&  !write_scheduled)
+	        {
+	            write_scheduled = true;
+	            writer.schedule(new Runnable()
+	            {
+	                @Override
+	                public void run()
+	                {
+	                    writePendingSamples();
+	                }
+	            }, flush_delay, TimeUnit.MILLISECONDS);
+	        }
+	    }
+	    super.flush();
+	}
+
+	/** Write samples that have been logged but not written
+	 *
+	 *  <p>On error, the samples remain pending and the error is remembered
+	 *  to be reported by the next <code>log()</code>
+	 *  @return Error or <code>null</code>
+	 */
+	private synchronized Exception writePendingSamples()
+	{
+	    write_scheduled = false;
+	    if (logger == null)
+	        return null;
+	    try
+	    {
+	        logger.flush();
+	        write_error = null;
+	    }
+	    catch (Exception ex)
+	    {
+	        Logger.getLogger(getClass().getName()).log(Level.WARNING,
+	                "Error writing samples of scan " + scan_id + ", " +
+	                logger.getPendingSamples() + " samples pending", ex);
+	        write_error = ex;
+	    }
+	    return write_error;
+	}
+
     /** {@inheritDoc} */
 	@Override
 	public ScanData getScanData() throws Exception
 	{
+	    return getScanData(0);
+	}
+
+    /** {@inheritDoc} */
+	@Override
+	public ScanData getScanData(final long first_serial) throws Exception
+	{
+	    // Samples that have been logged but not yet written need to be included
+	    final Exception error = writePendingSamples();
+	    if (error != null)
+	        throw new Exception("Error writing samples of scan " + scan_id, error);
 	    // Can be called without doLog(), so use separate logger just for this call
 		final RDBDataLogger logger = new DerbyDataLogger();
 		try
 		{
-			return logger.getScanData(scan_id);
+			return logger.getScanData(scan_id, first_serial);
 		}
 		finally
 		{
@@ -74,6 +186,9 @@ public class DerbyDataLog extends DataLog
 	{
 		if (logger != null)
 		{
+		    if (writePendingSamples() != null)
+		        Logger.getLogger(getClass().getName()).log(Level.SEVERE,
+		                "Scan " + scan_id + " lost " + logger.getPendingSamples() + " samples");
 			logger.close();
 			logger = null;
 		}
@@ -45,6 +45,13 @@ public class DerbyDataLogger extends RDBDataLogger
     	// System.setProperty("derby.language.logQueryPlan", "true");
 		System.setProperty("derby.drda.logConnections", "true");
 
+		// Keep the default durability, i.e. force the log to disk on commit.
+		// derby.system.durability=test would be faster, but it applies
+		// to all Derby databases in the JVM, and after a system crash
+		// the database can be corrupt and unrecoverable, not just
+		// missing the most recent samples.
+		// Samples are written in batches, so commits are infrequent.
+
 		// Add network data server to embedded database instance
 		// to allow connections via 'ij' for debugging.
 
@@ -81,7 +88,7 @@ public class DerbyDataLogger extends RDBDataLogger
 		}
 	}
 
-	/** Initialize
+	/** Initialize logger that writes each sample right away
 	 *  @throws Exception on error
 	 */
 	public DerbyDataLogger() throws Exception
@@ -89,6 +96,15 @@ public class DerbyDataLogger extends RDBDataLogger
 		// only calls super();
     }
 
+	/** Initialize
+	 *  @param batch_size Number of samples to write in one batch
+	 *  @throws Exception on error
+	 */
+	public DerbyDataLogger(final int batch_size) throws Exception
+	{
+	    super(batch_size);
+	}
+
 	/** Connect to Derby RDB
 	 *  @return Connection
 	 *  @throws Exception on error
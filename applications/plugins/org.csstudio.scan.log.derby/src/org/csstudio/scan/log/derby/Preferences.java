@@ -35,4 +35,24 @@ public class Preferences
 			port = prefs.getInt(Activator.ID, "server_port", port, null);
 		return port;
 	}
+
+	/** @return Number of samples to write in one batch */
+    public static int getBatchSize()
+	{
+    	int size = 1000;
+    	final IPreferencesService prefs = Platform.getPreferencesService();
+		if (prefs != null)
+			size = prefs.getInt(Activator.ID, "batch_size", size, null);
+		return size;
+	}
+
+	/** @return Delay between flushing the log and writing its samples [seconds] */
+    public static double getFlushPeriod()
+	{
+    	double period = 0.5;
+    	final IPreferencesService prefs = Platform.getPreferencesService();
+		if (prefs != null)
+			period = prefs.getDouble(Activator.ID, "flush_period", period, null);
+		return period;
+	}
 }
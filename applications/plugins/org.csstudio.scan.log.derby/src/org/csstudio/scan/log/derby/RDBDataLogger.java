@@ -22,14 +22,20 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.csstudio.scan.data.ScanData;
+import org.csstudio.scan.data.ScanDataColumn;
 import org.csstudio.scan.data.ScanSample;
-import org.csstudio.scan.data.ScanSampleFactory;
 import org.csstudio.scan.server.Scan;
 
 /** Base for an RDB-based sample logger
  *
  *  <p>Can write and read data for any scan.
  *
+ *  <p>Samples can be written one by one, or grouped into
+ *  JDBC batches that are written in one transaction
+ *  once the batch is full or when <code>flush()</code> is called.
+ *  Samples of a batch that could not be written remain
+ *  in the batch, and writing them is retried on the next flush.
+ *
  *  <p>Derived class needs to handle connection to specific RDB.
  *  @author Kay Kasemir
  */
@@ -44,11 +50,47 @@ abstract public class RDBDataLogger
 	/** Re-used statement */
 	private PreparedStatement insert_sample_statement = null;
 
-	/** Initialize
+	/** Number of samples to write in one batch, 1 to write each sample right away */
+	final private int batch_size;
+
+	/** Sample that has been logged, but not written */
+	private static class PendingSample
+	{
+	    final long scan_id;
+	    final int device_id;
+	    final long serial;
+	    final Timestamp timestamp;
+	    final SampleValue value;
+
+	    PendingSample(final long scan_id, final int device_id, final long serial,
+	                  final Timestamp timestamp, final SampleValue value)
+	    {
+	        this.scan_id = scan_id;
+	        this.device_id = device_id;
+	        this.serial = serial;
+	        this.timestamp = timestamp;
+	        this.value = value;
+	    }
+	}
+
+	/** Samples of the current batch that have not been written */
+	final private List<PendingSample> pending = new ArrayList<PendingSample>();
+
+	/** Initialize logger that writes each sample right away
  	 *  @throws Exception on error
 	 */
 	public RDBDataLogger() throws Exception
 	{
+		this(1);
+	}
+
+	/** Initialize
+	 *  @param batch_size Number of samples to write in one batch
+ 	 *  @throws Exception on error
+	 */
+	public RDBDataLogger(final int batch_size) throws Exception
+	{
+		this.batch_size = Math.max(1, batch_size);
 		connection = connect();
 	}
 
@@ -224,27 +266,92 @@ abstract public class RDBDataLogger
     }
 
 	/** Log a sample
+	 *
+	 *  <p>When using batches, the sample is added to the current batch,
+	 *  and only written once the batch is full.
 	 *  @param scan_id ID of associated scan
 	 *  @param device Device name
 	 *  @param sample Sample to log
 	 *  @throws Exception on error
+	 *  @see #flush()
 	 */
     public void log(final long scan_id, final String device, final ScanSample sample) throws Exception
     {
-    	final int device_id = getDevice(device);
-
-    	if (insert_sample_statement == null)
-			insert_sample_statement = connection.prepareStatement(
-					"INSERT INTO samples(scan_id, device_id, serial, timestamp, value)" +
-					" VALUES (?,?,?,?,?)");
-		insert_sample_statement.setLong(1, scan_id);
-		insert_sample_statement.setInt(2, device_id);
-		insert_sample_statement.setLong(3, sample.getSerial());
-		insert_sample_statement.setTimestamp(4, new Timestamp(sample.getTimestamp().getTime()));
-		insert_sample_statement.setObject(5, new SampleValue(sample.getValues()));
-		final int rows = insert_sample_statement.executeUpdate();
-		if (rows != 1)
+    	final PendingSample pending_sample = new PendingSample(scan_id, getDevice(device),
+    	        sample.getSerial(), new Timestamp(sample.getTimestamp().getTime()),
+    	        new SampleValue(sample.getValues()));
+		if (batch_size <= 1)
+		{
+		    setSample(pending_sample);
+			final int rows = insert_sample_statement.executeUpdate();
+			if (rows != 1)
 				throw new Exception("Sample insert affected " + rows + " rows");
+			return;
+		}
+		pending.add(pending_sample);
+		if (pending.size() >= batch_size)
+			flush();
+    }
+
+    /** Set parameters of the insert statement for a sample
+     *  @param sample Sample to insert
+     *  @throws Exception on error
+     */
+    private void setSample(final PendingSample sample) throws Exception
+    {
+        if (insert_sample_statement == null)
+            insert_sample_statement = connection.prepareStatement(
+                    "INSERT INTO samples(scan_id, device_id, serial, timestamp, value)" +
+                    " VALUES (?,?,?,?,?)");
+        insert_sample_statement.setLong(1, sample.scan_id);
+        insert_sample_statement.setInt(2, sample.device_id);
+        insert_sample_statement.setLong(3, sample.serial);
+        insert_sample_statement.setTimestamp(4, sample.timestamp);
+        insert_sample_statement.setObject(5, sample.value);
+    }
+
+    /** @return Number of logged samples that have not been written */
+    public int getPendingSamples()
+    {
+        return pending.size();
+    }
+
+    /** Write the current batch of samples in one transaction
+     *
+     *  <p>On error, the samples remain pending,
+     *  and the next flush will try again to write them.
+     *  @throws Exception on error
+     */
+    public void flush() throws Exception
+    {
+        if (pending.isEmpty())
+            return;
+        final int count = pending.size();
+        connection.setAutoCommit(false);
+        try
+        {
+            for (PendingSample sample : pending)
+            {
+                setSample(sample);
+                insert_sample_statement.addBatch();
+            }
+            final int[] rows = insert_sample_statement.executeBatch();
+            if (rows.length != count)
+                throw new Exception("Sample batch of " + count + " inserted " + rows.length + " rows");
+            connection.commit();
+            pending.clear();
+        }
+        catch (Exception ex)
+        {
+            if (insert_sample_statement != null)
+                insert_sample_statement.clearBatch();
+            connection.rollback();
+            throw ex;
+        }
+        finally
+        {
+            connection.setAutoCommit(true);
+        }
     }
 
     /** Get serial of last logged sample.
@@ -258,6 +365,7 @@ abstract public class RDBDataLogger
      */
     public long getLastScanDataSerial(final long scan_id) throws Exception
     {
+        flush();
         try
         (
             final PreparedStatement statement = connection.prepareStatement(
@@ -289,43 +397,55 @@ abstract public class RDBDataLogger
      */
     public ScanData getScanData(final long scan_id) throws Exception
     {
-    	final Map<String, List<ScanSample>> device_logs = new HashMap<String, List<ScanSample>>();
+        return getScanData(scan_id, 0);
+    }
+
+    /** Obtain data for a scan that was logged since a given serial
+     *  @param scan_id ID of the scan
+     *  @param first_serial Serial of first sample to include
+     *  @return {@link ScanData}
+     *  @throws Exception on error
+     */
+    public ScanData getScanData(final long scan_id, final long first_serial) throws Exception
+    {
+        flush();
+    	final List<ScanDataColumn> columns = new ArrayList<ScanDataColumn>();
 
     	// Could fetch all samples for scan ID, but
     	// organizing the retrieval by device in case
     	// that's helpful later on
-    	final String[] devices = getScanDevices(scan_id);
+    	final String[] devices = getScanDevices(scan_id, first_serial);
     	for (String device : devices)
-    	{
-    		final List<ScanSample> samples = getScanSamples(scan_id, device);
-    		device_logs.put(device, samples);
-    	}
+    		columns.add(getScanSamples(scan_id, device, first_serial));
 
-		return new ScanData(device_logs);
+		return new ScanData(columns);
     }
 
     /** Get samples
      *  @param scan_id ID of the scan
      *  @param device_name Name of the device
+     *  @param first_serial Serial of first sample to include
      *  @return Samples for that scan
      *  @throws Exception on error
      */
-    private List<ScanSample> getScanSamples(final long scan_id, final String device_name) throws Exception
+    private ScanDataColumn getScanSamples(final long scan_id, final String device_name,
+            final long first_serial) throws Exception
     {
-		final List<ScanSample> samples = new ArrayList<ScanSample>();
+		final ScanDataColumn samples = new ScanDataColumn(device_name);
 		final PreparedStatement statement = connection.prepareStatement(
-			"SELECT serial, timestamp, value FROM samples WHERE scan_id=? AND device_id=? ORDER BY serial");
+			"SELECT serial, timestamp, value FROM samples WHERE scan_id=? AND device_id=? AND serial>=? ORDER BY serial");
 		try
 		{
 			statement.setLong(1, scan_id);
 			statement.setInt(2, getDevice(device_name));
+			statement.setLong(3, first_serial);
 			final ResultSet result = statement.executeQuery();
 			while (result.next())
 			{
 				final long serial = result.getLong(1);
-				final Date timestamp = result.getTimestamp(2);
+				final long time = result.getTimestamp(2).getTime();
 				final SampleValue value = (SampleValue) result.getObject(3);
-				samples.add(ScanSampleFactory.createSample(timestamp, serial, value.getValues()));
+				samples.add(serial, time, value.getValues());
 			}
 			result.close();
 		}
@@ -338,17 +458,19 @@ abstract public class RDBDataLogger
 
 	/** Obtain devices that have data for a scan
      *  @param scan_id ID of the scan
+     *  @param first_serial Serial of first sample to consider
      *  @return Device names
      *  @throws SQLException on error
      */
-	private String[] getScanDevices(final long scan_id) throws SQLException
+	private String[] getScanDevices(final long scan_id, final long first_serial) throws SQLException
     {
 		final List<String> devices = new ArrayList<String>();
 		final PreparedStatement statement = connection.prepareStatement(
-			"SELECT DISTINCT d.name FROM samples s JOIN devices d ON s.device_id = d.id  WHERE scan_id=?");
+			"SELECT DISTINCT d.name FROM samples s JOIN devices d ON s.device_id = d.id  WHERE scan_id=? AND serial>=?");
 		try
 		{
 			statement.setLong(1, scan_id);
+			statement.setLong(2, first_serial);
 			final ResultSet result = statement.executeQuery();
 			while (result.next())
 				devices.add(result.getString(1));
@@ -409,9 +531,19 @@ abstract public class RDBDataLogger
 
 	/** Close database.
 	 *  Must be called to release resources.
+	 *  Writes remaining samples of the current batch.
 	 */
 	public void close()
 	{
+		try
+		{
+			flush();
+		}
+		catch (Exception ex)
+		{
+			Logger.getLogger(getClass().getName()).log(Level.WARNING,
+			        "Error writing samples to log RDB", ex);
+		}
 		try
 		{
 			if (insert_sample_statement != null)
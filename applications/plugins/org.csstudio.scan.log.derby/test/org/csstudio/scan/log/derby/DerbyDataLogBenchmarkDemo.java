@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.scan.log.derby;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Date;
+
+import org.csstudio.scan.data.ScanData;
+import org.csstudio.scan.data.ScanSampleFactory;
+import org.csstudio.scan.server.Scan;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/** Benchmark of the {@link DerbyDataLogger}:
+ *  Log samples one by one and in batches.
+ *
+ *  <p>Takes many minutes.
+ *  Will execute Derby for the database, cannot run if another Derby instance (Scan Server)
+ *  already runs the database.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class DerbyDataLogBenchmarkDemo
+{
+    /** Number of samples to log */
+    final private static int SAMPLES = 1000000;
+
+	@BeforeClass
+	public static void startup() throws Exception
+	{
+		DerbyDataLogger.startup();
+	}
+
+	@AfterClass
+	public static void shutdown() throws Exception
+	{
+		DerbyDataLogger.shutdown();
+	}
+
+	/** @param batch_size Batch size, 1 for one sample at a time
+	 *  @throws Exception on error
+	 */
+	private void logSamples(final int batch_size) throws Exception
+	{
+		final DerbyDataLogger log = new DerbyDataLogger(batch_size);
+		final Scan scan = log.createScan("Benchmark " + batch_size);
+		final long scan_id = scan.getId();
+
+		long start = System.nanoTime();
+		for (long serial = 0; serial < SAMPLES; ++serial)
+			log.log(scan_id, "x", ScanSampleFactory.createSample(new Date(), serial, serial * 0.01));
+		log.flush();
+		long nanos = System.nanoTime() - start;
+		System.out.format("Batch size %5d: Writing %8d vals/sec\n",
+		        batch_size, SAMPLES * 1000000000L / nanos);
+
+		start = System.nanoTime();
+		final ScanData data = log.getScanData(scan_id);
+		nanos = System.nanoTime() - start;
+		System.out.format("Batch size %5d: Reading %8d vals/sec\n",
+		        batch_size, SAMPLES * 1000000000L / nanos);
+		assertEquals(SAMPLES, data.getSamples("x").size());
+
+		log.deleteDataLog(scan_id);
+		log.close();
+	}
+
+	@Test
+	public void benchmarkSingleSamples() throws Exception
+	{
+	    logSamples(1);
+	}
+
+	@Test
+	public void benchmarkBatches() throws Exception
+	{
+	    logSamples(Preferences.getBatchSize());
+	}
+}
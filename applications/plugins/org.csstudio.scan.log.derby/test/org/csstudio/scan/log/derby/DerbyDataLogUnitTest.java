@@ -15,6 +15,7 @@ import java.util.Date;
 
 import org.csstudio.scan.data.ScanData;
 import org.csstudio.scan.data.ScanDataIterator;
+import org.csstudio.scan.data.ScanSample;
 import org.csstudio.scan.data.ScanSampleFactory;
 import org.csstudio.scan.server.Scan;
 import org.junit.AfterClass;
@@ -118,6 +119,14 @@ public class DerbyDataLogUnitTest
         final long vals_per_sec = 50000L * 1000000000L / nanos;
         System.out.println("Reading " + vals_per_sec + " vals/sec");
 
+        // Only samples since a serial
+        final long last = data.getLastSerial();
+        final ScanData update = log.getScanData(scan_id, last - 9);
+        for (String device : update.getDevices())
+            for (ScanSample sample : update.getSamples(device))
+                assertTrue(sample.getSerial() >= last - 9);
+        assertEquals(last, update.getLastSerial());
+
 		log.close();
 	}
 
@@ -16,10 +16,12 @@
 package org.csstudio.scan.log;
 
 import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.csstudio.scan.data.ScanData;
+import org.csstudio.scan.data.ScanDataColumn;
 import org.csstudio.scan.data.ScanSample;
 
 /** Logger for {@link ScanSample}s
@@ -115,6 +117,38 @@ abstract public class DataLog implements Closeable
      */
     abstract public ScanData getScanData() throws Exception;
 
+    /** Get samples logged since a given serial
+     *
+     *  <p>Several devices can be logged with the same serial,
+     *  and they may not have all been logged when a client
+     *  last fetched the data.
+     *  Clients should therefore fetch beginning with the last serial
+     *  they already have, skipping the known samples.
+     *
+     *  <p>Default implementation filters the complete data.
+     *  Derived classes should override with a more efficient implementation.
+     *
+     *  @param first_serial Serial of first sample to include
+     *  @return {@link ScanData} with copy of samples that have a serial at or above <code>first_serial</code>,
+     *          or <code>null</code>
+     *  @throws Exception on error
+     */
+    public ScanData getScanData(final long first_serial) throws Exception
+    {
+        final ScanData data = getScanData();
+        if (data == null  ||  first_serial <= 0)
+            return data;
+        final List<ScanDataColumn> columns = new ArrayList<>();
+        for (String device : data.getDevices())
+        {
+            final ScanDataColumn column = data.getColumn(device);
+            final int start = column.indexOf(first_serial);
+            if (start < column.size())
+                columns.add(new ScanDataColumn(column, start, 0));
+        }
+        return new ScanData(columns);
+    }
+
     /** Should be called when done logging samples
      *  to allow logging mechanism to release resources.
      */
@@ -22,6 +22,7 @@ import java.util.Map;
 
 import org.csstudio.scan.ScanSystemPreferences;
 import org.csstudio.scan.data.ScanData;
+import org.csstudio.scan.data.ScanDataColumn;
 import org.csstudio.scan.data.ScanSample;
 import org.csstudio.scan.server.MemoryInfo;
 
@@ -33,9 +34,9 @@ import org.csstudio.scan.server.MemoryInfo;
  */
 public class MemoryDataLog extends DataLog
 {
-	/** Map from device name to list of samples for that device */
-	final private Map<String, List<ScanSample>> device_logs =
-			new HashMap<String, List<ScanSample>>();
+	/** Map from device name to samples for that device */
+	final private Map<String, ScanDataColumn> device_logs =
+			new HashMap<String, ScanDataColumn>();
 
     final private double threshold = ScanSystemPreferences.getOldScanRemovalMemoryThreshold();
 
@@ -48,10 +49,10 @@ public class MemoryDataLog extends DataLog
 		if (mem.getMemoryPercentage() > threshold)
     		return;
 
-		List<ScanSample> samples = device_logs.get(device);
+		ScanDataColumn samples = device_logs.get(device);
 		if (samples == null)
 		{
-			samples = new ArrayList<ScanSample>();
+			samples = new ScanDataColumn(device);
 			device_logs.put(device, samples);
 		}
 		samples.add(sample);
@@ -59,8 +60,24 @@ public class MemoryDataLog extends DataLog
 
     /** {@inheritDoc} */
 	@Override
-    public synchronized ScanData getScanData()  throws Exception
+    public ScanData getScanData()  throws Exception
 	{
-		return new ScanData(new HashMap<String, List<ScanSample>>(device_logs));
+		return getScanData(0);
+	}
+
+    /** {@inheritDoc} */
+	@Override
+    public synchronized ScanData getScanData(final long first_serial)  throws Exception
+	{
+	    // Columns keep growing, so data gets a copy
+	    final List<ScanDataColumn> result = new ArrayList<ScanDataColumn>(device_logs.size());
+	    for (ScanDataColumn samples : device_logs.values())
+	    {
+	        // Samples are logged in order of their serial
+	        final int start = samples.indexOf(first_serial);
+	        if (start < samples.size())
+	            result.add(new ScanDataColumn(samples, start, 0));
+	    }
+	    return new ScanData(result);
 	}
 }
@@ -17,6 +17,7 @@ package org.csstudio.scan.commandimpl;
 
 import org.csstudio.scan.command.CommentCommand;
 import org.csstudio.scan.server.JythonSupport;
+import org.csstudio.scan.server.MacroContext;
 import org.csstudio.scan.server.ScanCommandImpl;
 import org.csstudio.scan.server.ScanContext;
 
@@ -32,6 +33,13 @@ public class CommentCommandImpl extends ScanCommandImpl<CommentCommand>
         super(command, jython);
     }
     
+    /** {@inheritDoc} */
+    @Override
+    public String[] getWriteDeviceNames(final MacroContext macros) throws Exception
+    {
+        return new String[0];
+    }
+
     /** {@inheritDoc} */
     @Override
     public void execute(final ScanContext context) throws Exception
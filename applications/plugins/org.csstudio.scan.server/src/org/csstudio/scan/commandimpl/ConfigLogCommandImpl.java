@@ -17,6 +17,7 @@ package org.csstudio.scan.commandimpl;
 
 import org.csstudio.scan.command.ConfigLogCommand;
 import org.csstudio.scan.server.JythonSupport;
+import org.csstudio.scan.server.MacroContext;
 import org.csstudio.scan.server.ScanCommandImpl;
 import org.csstudio.scan.server.ScanContext;
 
@@ -31,6 +32,13 @@ public class ConfigLogCommandImpl extends ScanCommandImpl<ConfigLogCommand>
         super(command, jython);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public String[] getWriteDeviceNames(final MacroContext macros) throws Exception
+    {
+        return new String[0];
+    }
+
 	/** {@inheritDoc} */
 	@Override
     public void execute(final ScanContext context)  throws Exception
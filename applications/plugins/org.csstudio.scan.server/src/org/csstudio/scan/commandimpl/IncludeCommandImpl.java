@@ -88,6 +88,30 @@ public class IncludeCommandImpl extends ScanCommandImpl<IncludeCommand>
 	    }
 	}
 	
+    /** {@inheritDoc} */
+    @Override
+    public String[] getWriteDeviceNames(final MacroContext macros) throws Exception
+    {
+        macros.pushMacros(command.getMacros());
+        try
+        {
+            final Set<String> devices = new HashSet<String>();
+            for (ScanCommandImpl<?> command : scan_impl)
+            {
+                final String[] names = command.getWriteDeviceNames(macros);
+                if (names == null)
+                    return null;
+                for (String device_name : names)
+                    devices.add(device_name);
+            }
+            return devices.toArray(new String[devices.size()]);
+        }
+        finally
+        {
+            macros.popMacros();
+        }
+    }
+
 	/** {@inheritDoc} */
     @Override
     public void simulate(final SimulationContext context) throws Exception
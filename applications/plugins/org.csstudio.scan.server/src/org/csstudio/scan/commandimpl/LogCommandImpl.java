@@ -56,6 +56,13 @@ public class LogCommandImpl extends ScanCommandImpl<LogCommand>
         return names;
 	}
 
+    /** {@inheritDoc} */
+    @Override
+    public String[] getWriteDeviceNames(final MacroContext macros) throws Exception
+    {
+        return new String[0];
+    }
+
 	/** {@inheritDoc} */
 	@Override
 	public void execute(final ScanContext context) throws Exception
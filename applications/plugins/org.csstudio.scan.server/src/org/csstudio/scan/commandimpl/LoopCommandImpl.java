@@ -100,6 +100,23 @@ public class LoopCommandImpl extends ScanCommandImpl<LoopCommand>
         return device_names.toArray(new String[device_names.size()]);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public String[] getWriteDeviceNames(final MacroContext macros) throws Exception
+    {
+        final Set<String> device_names = new HashSet<String>();
+        device_names.add(macros.resolveMacros(command.getDeviceName()));
+        for (ScanCommandImpl<?> command : implementation)
+        {
+            final String[] names = command.getWriteDeviceNames(macros);
+            if (names == null)
+                return null;
+            for (String name : names)
+                device_names.add(name);
+        }
+        return device_names.toArray(new String[device_names.size()]);
+    }
+
     private double getLoopStart()
     {
     	return Math.min(command.getStart(), command.getEnd());
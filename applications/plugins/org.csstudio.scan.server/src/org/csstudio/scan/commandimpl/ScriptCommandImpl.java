@@ -17,11 +17,11 @@ package org.csstudio.scan.commandimpl;
 
 import org.csstudio.scan.command.ScanScript;
 import org.csstudio.scan.command.ScriptCommand;
-import org.csstudio.scan.command.ScanScriptContext;
 import org.csstudio.scan.server.JythonSupport;
 import org.csstudio.scan.server.MacroContext;
 import org.csstudio.scan.server.ScanCommandImpl;
 import org.csstudio.scan.server.ScanContext;
+import org.csstudio.scan.server.ScriptStatistics;
 import org.python.core.PyException;
 
 /** {@link ScanCommandImpl} that executes a script
@@ -36,6 +36,13 @@ public class ScriptCommandImpl extends ScanCommandImpl<ScriptCommand>
 {
 	final private ScanScript script_object;
 
+	/** Execution time statistics of the script */
+	final private ScriptStatistics statistics;
+
+	/** Script context for the most recent {@link ScanContext}, re-used when the command is executed again */
+	private ScriptCommandContextImpl script_context = null;
+	private ScanContext last_context = null;
+
     /** {@inheritDoc} */
     public ScriptCommandImpl(final ScriptCommand command, final JythonSupport jython) throws Exception
     {
@@ -48,6 +55,7 @@ public class ScriptCommandImpl extends ScanCommandImpl<ScriptCommand>
         {
             throw new Exception(JythonSupport.getExceptionMessage(ex), ex);
         }
+        statistics = ScriptStatistics.forScript(command.getScript());
     }
 
     /** {@inheritDoc} */
@@ -67,19 +75,37 @@ public class ScriptCommandImpl extends ScanCommandImpl<ScriptCommand>
         }
     }
 
+    /** {@inheritDoc}
+     *  <p>A script may write any of the devices that it uses.
+     */
+    @Override
+    public String[] getWriteDeviceNames(final MacroContext macros) throws Exception
+    {
+        return getDeviceNames(macros);
+    }
+
     /** {@inheritDoc} */
 	@Override
     public void execute(final ScanContext context) throws Exception
     {
+        if (context != last_context)
+        {
+            script_context = new ScriptCommandContextImpl(context);
+            last_context = context;
+        }
+        final long start = System.nanoTime();
         try
         {
-        	final ScanScriptContext script_context = new ScriptCommandContextImpl(context);
         	script_object.run(script_context);
         }
         catch (PyException ex)
         {
         	throw new Exception(command.getScript() + ":" + JythonSupport.getExceptionMessage(ex), ex);
         }
+        finally
+        {
+            statistics.record(System.nanoTime() - start);
+        }
 
 		context.workPerformed(1);
     }
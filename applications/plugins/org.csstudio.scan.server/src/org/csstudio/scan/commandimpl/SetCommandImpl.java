@@ -55,6 +55,13 @@ public class SetCommandImpl extends ScanCommandImpl<SetCommand>
         return new String[] { device_name };
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public String[] getWriteDeviceNames(final MacroContext macros) throws Exception
+    {
+        return new String[] { macros.resolveMacros(command.getDeviceName()) };
+    }
+
 	/** {@inheritDoc} */
 	@Override
     public void simulate(final SimulationContext context) throws Exception
@@ -55,6 +55,13 @@ public class WaitCommandImpl extends ScanCommandImpl<WaitCommand>
         return new String[] { macros.resolveMacros(command.getDeviceName()) };
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public String[] getWriteDeviceNames(final MacroContext macros) throws Exception
+    {
+        return new String[0];
+    }
+
 	/** {@inheritDoc} */
 	@Override
     public void simulate(final SimulationContext context) throws Exception
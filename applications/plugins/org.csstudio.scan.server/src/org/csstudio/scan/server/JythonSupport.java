@@ -7,11 +7,20 @@
  ******************************************************************************/
 package org.csstudio.scan.server;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -20,15 +29,28 @@ import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
 import org.osgi.framework.Bundle;
+import org.python.core.CompileMode;
+import org.python.core.CompilerFlags;
 import org.python.core.Py;
+import org.python.core.PyCode;
 import org.python.core.PyException;
 import org.python.core.PyObject;
 import org.python.core.PyString;
+import org.python.core.PyStringMap;
 import org.python.core.PySystemState;
 import org.python.core.imp;
 import org.python.util.PythonInterpreter;
 
 /** Helper for obtaining Jython interpreter
+ *
+ *  <p>Creating an interpreter and compiling the scan scripts
+ *  is expensive compared to executing a script.
+ *  Interpreters can therefore be pre-warmed and pooled via
+ *  {@link #prewarm(int)}, {@link #acquire()} and {@link #release()}.
+ *  Scripts found as files on the script path are compiled once
+ *  and the compiled code is shared by all interpreters until
+ *  the file is modified.
+ *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -38,8 +60,42 @@ public class JythonSupport
     private static List<String> paths = new ArrayList<String>();
     private static ClassLoader plugin_class_loader;
 
+    /** Compiled script code, valid for one version of the script file */
+    private static class CompiledScript
+    {
+        final long modified, length;
+        final PyCode code;
+
+        CompiledScript(final long modified, final long length, final PyCode code)
+        {
+            this.modified = modified;
+            this.length = length;
+            this.code = code;
+        }
+    }
+
+    /** Compiled scripts by script file path */
+    final private static Map<String, CompiledScript> compiled_scripts = new ConcurrentHashMap<>();
+
+    /** Idle, pre-warmed interpreters */
+    final private static BlockingQueue<JythonSupport> pool = new LinkedBlockingQueue<>();
+
+    /** Number of idle interpreters to keep */
+    private static volatile int pool_size = 0;
+
 	final private PythonInterpreter interpreter;
 
+	final private PySystemState state;
+
+	/** Modules of the pre-warmed interpreter, restored on {@link #release()} */
+	private PyObject initial_modules = null;
+
+	/** Script modules loaded by this interpreter since it was acquired */
+	final private Map<String, PyObject> script_modules = new HashMap<>();
+
+	/** Is this interpreter currently handed out? */
+	final private AtomicBoolean in_use = new AtomicBoolean(true);
+
 	/** Locate a path inside a bundle.
 	 *
 	 *  <p>If the bundle is JAR-ed up, the {@link FileLocator} will
@@ -160,7 +216,7 @@ public class JythonSupport
 	public JythonSupport() throws Exception
 	{
 	    init();
-		final PySystemState state = new PySystemState();
+		state = new PySystemState();
 		if (plugin_class_loader != null)
 		    state.setClassLoader(plugin_class_loader);
 
@@ -171,6 +227,190 @@ public class JythonSupport
     	interpreter = new PythonInterpreter(null, state);
 	}
 
+	/** Pre-warm interpreters in the background and keep them pooled
+	 *  @param size Number of idle interpreters to keep, 0 to disable the pool
+	 */
+	public static void prewarm(final int size)
+	{
+	    pool_size = size;
+	    final Thread thread = new Thread("JythonPrewarm")
+	    {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    while (pool.size() < pool_size)
+                    {
+                        final long start = System.nanoTime();
+                        final JythonSupport jython = new JythonSupport();
+                        jython.warmup();
+                        jython.in_use.set(false);
+                        pool.offer(jython);
+                        Logger.getLogger(JythonSupport.class.getName()).log(Level.FINE,
+                            "Pre-warmed Jython interpreter in {0} ms", (System.nanoTime() - start) / 1000000);
+                    }
+                }
+                catch (Exception ex)
+                {
+                    Logger.getLogger(JythonSupport.class.getName()).log(Level.WARNING,
+                        "Cannot pre-warm Jython interpreter", ex);
+                }
+            }
+	    };
+	    thread.setDaemon(true);
+	    thread.start();
+	}
+
+	/** Obtain interpreter
+	 *
+	 *  <p>Returns a pooled interpreter if one is available,
+	 *  otherwise creates a new one.
+	 *  Caller should {@link #release()} the interpreter when done.
+	 *
+	 *  @return {@link JythonSupport}
+	 *  @throws Exception on error
+	 */
+	public static JythonSupport acquire() throws Exception
+	{
+	    JythonSupport jython = pool.poll();
+	    if (jython == null)
+	    {
+	        jython = new JythonSupport();
+	        if (pool_size > 0)
+	            jython.warmup();
+	    }
+	    else
+	        jython.in_use.set(true);
+	    return jython;
+	}
+
+	/** @return Number of idle interpreters in the pool */
+	static int getIdleCount()
+	{
+	    return pool.size();
+	}
+
+	/** @return Interpreter, for tests */
+	PythonInterpreter getInterpreter()
+	{
+	    return interpreter;
+	}
+
+	/** Return interpreter to the pool
+	 *
+	 *  <p>Script modules loaded since the interpreter was acquired
+	 *  are removed, so the next user will again load the current version of scripts.
+	 *  The interpreter must no longer be used after calling this method.
+	 */
+	public void release()
+	{
+	    if (! in_use.getAndSet(false))
+	        return;
+	    if (initial_modules == null  ||  pool.size() >= pool_size)
+	        return;
+	    try
+	    {
+	        script_modules.clear();
+	        state.modules.invoke("clear");
+	        state.modules.invoke("update", initial_modules);
+	        interpreter.setLocals(new PyStringMap());
+	        pool.offer(this);
+	    }
+	    catch (Exception ex)
+	    {
+	        Logger.getLogger(getClass().getName()).log(Level.WARNING,
+	            "Cannot return Jython interpreter to pool", ex);
+	    }
+	}
+
+	/** Perform the initial imports that every scan script needs
+	 *  and remember the resulting modules
+	 *  @throws Exception on error
+	 */
+	private void warmup() throws Exception
+	{
+	    interpreter.exec("import sys");
+	    interpreter.exec("from org.csstudio.scan.command import ScanScript, ScanScriptContext");
+	    initial_modules = state.modules.invoke("copy");
+	    interpreter.setLocals(new PyStringMap());
+	}
+
+	/** Locate script file on the script path
+	 *  @param pack_name Package name
+	 *  @return Script file or <code>null</code> when not found as plain file
+	 */
+	private static File findScript(final String pack_name)
+	{
+	    for (String path : paths)
+	    {
+	        final File file = new File(path, pack_name + ".py");
+	        if (file.isFile())
+	            return file;
+	    }
+	    return null;
+	}
+
+	/** Get compiled code for a script file
+	 *
+	 *  <p>Compiled code is cached until the file is modified.
+	 *
+	 *  @param file Script file
+	 *  @return Compiled code
+	 *  @throws Exception on error
+	 */
+	static PyCode getCompiledScript(final File file) throws Exception
+	{
+	    final String key = file.getAbsolutePath();
+	    final long modified = file.lastModified();
+	    final long length = file.length();
+	    CompiledScript compiled = compiled_scripts.get(key);
+	    if (compiled == null  ||  compiled.modified != modified  ||  compiled.length != length)
+	    {
+	        final String source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	        final PyCode code = Py.compile_flags(source, key, CompileMode.exec, new CompilerFlags());
+	        compiled = new CompiledScript(modified, length, code);
+	        compiled_scripts.put(key, compiled);
+	        Logger.getLogger(JythonSupport.class.getName()).log(Level.FINE, "Compiled {0}", key);
+	    }
+	    return compiled.code;
+	}
+
+	/** Get the Jython class
+	 *  @param class_name Name of the Jython class
+	 *  @param pack_name Name of its package
+	 *  @return Python class
+	 *  @throws Exception on error
+	 */
+	private PyObject getPythonClass(final String class_name, final String pack_name) throws Exception
+	{
+	    final File file = findScript(pack_name);
+	    if (file == null)
+	    {   // Script in jar etc.: Use plain import
+	        interpreter.exec("from " + pack_name +  " import " + class_name);
+	        return interpreter.get(class_name);
+	    }
+	    PyObject module = script_modules.get(pack_name);
+	    if (module == null)
+	    {   // Execute the cached code as a module of this interpreter
+	        final PyCode code = getCompiledScript(file);
+	        final PySystemState original = Py.setSystemState(state);
+	        try
+	        {
+	            module = imp.createFromCode(pack_name, code, file.getAbsolutePath());
+	        }
+	        finally
+	        {
+	            Py.setSystemState(original);
+	        }
+	        script_modules.put(pack_name, module);
+	    }
+	    final PyObject py_class = module.__findattr__(class_name);
+	    if (py_class == null)
+	        throw Py.ImportError("cannot import name " + class_name);
+	    return py_class;
+	}
+
 	/** Load a Jython class
 	 *
  	 *  @param type Type of the Java object to return
@@ -192,10 +432,11 @@ public class JythonSupport
 		// Display path
 		//interpreter.exec("import sys");
         //interpreter.exec("print 'Jython Path: ', sys.path");
+		final PyObject py_class;
 		try
 		{
         	// Import class into Jython
-    		interpreter.exec("from " + pack_name +  " import " + class_name);
+		    py_class = getPythonClass(class_name, pack_name);
 		}
 		catch (PyException ex)
 		{
@@ -205,7 +446,6 @@ public class JythonSupport
 		    throw new Exception("Error loading Jython class " + class_name + ":" + getExceptionMessage(ex), ex);
 		}
 		// Create Java reference
-        final PyObject py_class = interpreter.get(class_name);
         final PyObject py_object;
         if (args.length <= 0)
             py_object = py_class.__call__();
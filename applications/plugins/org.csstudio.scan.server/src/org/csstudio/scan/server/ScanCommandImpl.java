@@ -121,6 +121,21 @@ abstract public class ScanCommandImpl<C extends ScanCommand>
         return new String[0];
     }
 
+    /** Determine which devices are written by this command
+     *
+     *  <p>Scans that write different devices may execute concurrently.
+     *  Commands that write devices or might write them
+     *  must either list the devices or return <code>null</code>.
+     *  @param macros {@link MacroContext} for resolving macros
+     *  @return Device (alias) names written by the command,
+     *          <code>null</code> if unknown, in which case the scan executes by itself
+     *  @throws Exception on macro error
+     */
+    public String[] getWriteDeviceNames(final MacroContext macros) throws Exception
+    {
+        return null;
+    }
+
 	/** Simulate the command
      *
      *  <p>Should log the execution steps in the {@link SimulationContext}
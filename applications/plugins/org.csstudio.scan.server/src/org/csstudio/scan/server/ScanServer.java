@@ -99,6 +99,21 @@ public interface ScanServer
      */
     public ScanData getScanData(long id) throws Exception;
 
+    /** Query server for scan data that was logged since a given serial
+     *
+     *  <p>Several devices can be logged with the same serial.
+     *  To obtain all new samples, request data beginning with
+     *  the last serial that was already received
+     *  and skip known samples, see {@link ScanData#merge(ScanData)}.
+     *
+     *  @param id ID that uniquely identifies a scan
+     *  @param first_serial Serial of first sample to include
+     *  @return Data for that scan on the server or <code>null</code>
+     *  @throws Exception on error
+     *  @see #getLastScanDataSerial(long)
+     */
+    public ScanData getScanData(long id, long first_serial) throws Exception;
+
     /** Ask server to update a command parameter to a new value
      *  @param id ID that uniquely identifies a scan
      *  @param address Address of the command
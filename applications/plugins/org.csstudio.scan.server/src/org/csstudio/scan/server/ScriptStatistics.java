@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.scan.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/** Execution time statistics of a scan script
+ *
+ *  <p>Statistics are kept for all scripts executed by the scan server,
+ *  by script name.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ScriptStatistics
+{
+    /** Statistics by script name */
+    final private static ConcurrentMap<String, ScriptStatistics> statistics = new ConcurrentHashMap<>();
+
+    final private String script;
+
+    /** SYNC on this for access */
+    private long count = 0, total_nanos = 0, max_nanos = 0;
+
+    /** @param script Script name */
+    private ScriptStatistics(final String script)
+    {
+        this.script = script;
+    }
+
+    /** @param script Script name
+     *  @return {@link ScriptStatistics} for that script
+     */
+    public static ScriptStatistics forScript(final String script)
+    {
+        ScriptStatistics stats = statistics.get(script);
+        if (stats == null)
+        {
+            final ScriptStatistics new_stats = new ScriptStatistics(script);
+            stats = statistics.putIfAbsent(script, new_stats);
+            if (stats == null)
+                stats = new_stats;
+        }
+        return stats;
+    }
+
+    /** @return Statistics of all scripts, sorted by name */
+    public static List<ScriptStatistics> getAll()
+    {
+        final List<ScriptStatistics> all = new ArrayList<>(statistics.values());
+        Collections.sort(all, new Comparator<ScriptStatistics>()
+        {
+            @Override
+            public int compare(final ScriptStatistics a, final ScriptStatistics b)
+            {
+                return a.script.compareTo(b.script);
+            }
+        });
+        return all;
+    }
+
+    /** Reset statistics of all scripts */
+    public static void reset()
+    {
+        statistics.clear();
+    }
+
+    /** @return Script name */
+    public String getScript()
+    {
+        return script;
+    }
+
+    /** @param nanos Execution time of the script in nanoseconds */
+    public synchronized void record(final long nanos)
+    {
+        ++count;
+        total_nanos += nanos;
+        if (nanos > max_nanos)
+            max_nanos = nanos;
+    }
+
+    /** @return Number of executions */
+    public synchronized long getCount()
+    {
+        return count;
+    }
+
+    /** @return Average execution time in milliseconds */
+    public synchronized double getAverageMillis()
+    {
+        return count > 0 ? total_nanos / 1e6 / count : 0.0;
+    }
+
+    /** @return Maximum execution time in milliseconds */
+    public synchronized double getMaxMillis()
+    {
+        return max_nanos / 1e6;
+    }
+
+    /** @return Total execution time in milliseconds */
+    public synchronized double getTotalMillis()
+    {
+        return total_nanos / 1e6;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return String.format("%s: %d runs, average %.3f ms, max %.3f ms, total %.1f ms",
+                script, count, getAverageMillis(), getMaxMillis(), getTotalMillis());
+    }
+}
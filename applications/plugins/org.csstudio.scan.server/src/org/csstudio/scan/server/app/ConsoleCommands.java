@@ -27,6 +27,7 @@ import org.csstudio.scan.data.ScanSampleFormatter;
 import org.csstudio.scan.device.Device;
 import org.csstudio.scan.server.ScanInfo;
 import org.csstudio.scan.server.ScanServer;
+import org.csstudio.scan.server.ScriptStatistics;
 import org.csstudio.scan.server.internal.ScanServerImpl;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.preferences.IPreferencesService;
@@ -77,6 +78,7 @@ public class ConsoleCommands implements CommandProvider
         buf.append("\tcommands ID     - Show commands of scan with given ID\n");
         buf.append("\tremove ID       - Remove (finished) scan with given ID\n");
         buf.append("\tremoveCompleted - Remove completed scans\n");
+        buf.append("\tscripts         - List script execution statistics\n");
         buf.append("\tprefs           - List all preferences\n");
         return buf.toString();
     }
@@ -347,6 +349,18 @@ public class ConsoleCommands implements CommandProvider
         return _scans(intp);
     }
 
+    /** 'scripts' command */
+    public Object _scripts(final CommandInterpreter intp)
+    {
+        final List<ScriptStatistics> statistics = ScriptStatistics.getAll();
+        if (statistics.isEmpty())
+            intp.println("- No scripts executed -");
+        else
+            for (ScriptStatistics stats : statistics)
+                intp.println(stats.toString());
+        return null;
+    }
+
     /** 'prefs' command */
     public Object _prefs(final CommandInterpreter intp)
     {
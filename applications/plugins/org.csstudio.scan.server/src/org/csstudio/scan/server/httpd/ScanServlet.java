@@ -20,6 +20,7 @@ import javax.xml.parsers.DocumentBuilderFactory;
 
 import org.csstudio.scan.command.DOMHelper;
 import org.csstudio.scan.data.ScanData;
+import org.csstudio.scan.data.ScanDataCSV;
 import org.csstudio.scan.device.DeviceInfo;
 import org.csstudio.scan.server.ScanInfo;
 import org.csstudio.scan.server.ScanServer;
@@ -177,6 +178,7 @@ public class ScanServlet extends HttpServlet
      *  <p>GET scan/{id} - get scan info
      *  <p>GET scan/{id}/commands - get scan commands
      *  <p>GET scan/{id}/data - get scan data
+     *  <p>GET scan/{id}/data/{serial} - get scan data beginning at serial, CSV encoded
      *  <p>GET scan/{id}/last_serial - get scan data's last serial
      *  <p>GET scan/{id}/devices - get devices used by a scan
      */
@@ -220,6 +222,14 @@ public class ScanServlet extends HttpServlet
                 out.print(scan_server.getScanCommands(id));
                 out.flush();
             }
+            else if ("data".equalsIgnoreCase(object)  &&  path.size() > 2)
+            {   // Get data since serial
+                final ScanData data = scan_server.getScanData(id, path.getLong(2));
+                if (data == null)
+                    throw new Exception("No data for scan ID " + id);
+                response.setContentType("text/csv; charset=UTF-8");
+                ScanDataCSV.write(data, response.getWriter());
+            }
             else if ("data".equalsIgnoreCase(object))
             {   // Get data
                 final ScanData data = scan_server.getScanData(id);
@@ -108,6 +108,8 @@ public class ServletHelper
         
         server.appendChild(createXMLElement(doc, "script_paths", PathUtil.joinPaths(info.getScriptPaths())));
         server.appendChild(createXMLElement(doc, "macros", info.getMacros()));
+        server.appendChild(createXMLElement(doc, "running_scans", Long.valueOf(info.getRunningScans())));
+        server.appendChild(createXMLElement(doc, "queued_scans", Long.valueOf(info.getQueuedScans())));
         
         server.appendChild(createXMLElement(doc, "used_mem", info.getUsedMem()));
         server.appendChild(createXMLElement(doc, "max_mem", info.getMaxMem()));
@@ -19,11 +19,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -40,6 +45,7 @@ import org.csstudio.scan.device.DeviceContextHelper;
 import org.csstudio.scan.device.DeviceInfo;
 import org.csstudio.scan.log.DataLog;
 import org.csstudio.scan.log.DataLogFactory;
+import org.csstudio.scan.server.JythonSupport;
 import org.csstudio.scan.server.MacroContext;
 import org.csstudio.scan.server.MemoryInfo;
 import org.csstudio.scan.server.Scan;
@@ -111,7 +117,17 @@ public class ExecutableScan extends LoggedScan implements ScanContext, Callable<
     /** {@link Future} after scan has been submitted to {@link ExecutorService} */
     private volatile Future<Object> future = null;
 
-    /** Device Names for status PVs */
+    /** Jython interpreter used by the commands, released after execution, or <code>null</code> */
+    private volatile JythonSupport jython = null;
+
+    /** Scan that updates the status PVs, <code>null</code> if none.
+     *  When several scans execute at the same time,
+     *  only the first of them updates the status PVs
+     *  instead of having all of them write the same PVs.
+     */
+    final private static AtomicReference<ExecutableScan> status_pv_scan = new AtomicReference<>();
+
+    /** Device Names for status PVs, <code>null</code> unless this scan updates them */
 	private String device_active = null, device_status = null, device_progress = null, device_finish = null;
 
 	/** Timeout for updating the status PVs */
@@ -179,15 +195,139 @@ public class ExecutableScan extends LoggedScan implements ScanContext, Callable<
         total_work_units = work_units;
     }
 
+    /** @param jython Jython interpreter used by the commands of this scan,
+     *                to be released once the submitted scan has been executed
+     *                or cancelled before it started
+     */
+    public void setJythonSupport(final JythonSupport jython)
+    {
+        this.jython = jython;
+    }
+
     /** Submit scan for execution
      *  @param executor {@link ExecutorService} to use
      *  @throws IllegalStateException if scan had been submitted before
      */
     public void submit(final ExecutorService executor)
+    {
+        submit(executor, null);
+    }
+
+    /** @return <code>true</code> if scan has been submitted to an {@link ExecutorService} */
+    boolean isSubmitted()
+    {
+        return future != null;
+    }
+
+    /** Submit scan for execution
+     *  @param executor {@link ExecutorService} to use
+     *  @param on_done Invoked once the scan has been executed,
+     *                 or when it was cancelled before it started.
+     *                 May be <code>null</code>
+     *  @throws IllegalStateException if scan had been submitted before
+     */
+    public void submit(final ExecutorService executor, final Runnable on_done)
     {
         if (future != null)
             throw new IllegalStateException("Already submitted for execution");
-        future = executor.submit(this);
+        // Set by either call() or done(), whichever comes first
+        final AtomicBoolean started = new AtomicBoolean(false);
+        final FutureTask<Object> task = new FutureTask<Object>(new Callable<Object>()
+        {
+            @Override
+            public Object call() throws Exception
+            {
+                // Cancelled before it could start?
+                if (! started.compareAndSet(false, true))
+                    return null;
+                try
+                {
+                    return ExecutableScan.this.call();
+                }
+                finally
+                {
+                    executionDone(on_done);
+                }
+            }
+        })
+        {
+            @Override
+            protected void done()
+            {
+                // When cancelled before running, call() won't invoke on_done
+                if (isCancelled()  &&  started.compareAndSet(false, true))
+                    executionDone(on_done);
+            }
+        };
+        future = task;
+        executor.execute(task);
+    }
+
+    /** Release resources once the scan has been executed or cancelled
+     *
+     *  <p>Also called by the {@link ScanEngine} for a scan
+     *  that was aborted before it was submitted.
+     *  @param on_done Invoked after releasing the resources, may be <code>null</code>
+     */
+    void executionDone(final Runnable on_done)
+    {
+        // Return interpreter to pool
+        final JythonSupport used_jython = jython;
+        if (used_jython != null)
+        {
+            jython = null;
+            used_jython.release();
+        }
+        if (on_done != null)
+            on_done.run();
+    }
+
+    /** Determine the devices written by this scan
+     *
+     *  <p>Aliases are replaced by the underlying device name
+     *  when the alias is known to the device context.
+     *  Status PVs are not included, they are only updated
+     *  by one scan at a time.
+     *
+     *  @return Names of devices written by the commands of this scan,
+     *          <code>null</code> if a command cannot tell which devices it writes
+     *  @throws Exception on error
+     */
+    public Set<String> getWriteDevices() throws Exception
+    {
+        final Set<String> names = new HashSet<String>();
+        if (addWriteDevices(names, pre_scan)  &&
+            addWriteDevices(names, implementations)  &&
+            addWriteDevices(names, post_scan))
+            return names;
+        return null;
+    }
+
+    /** @param names Set of device names to update
+     *  @param commands Commands to check for written devices
+     *  @return <code>false</code> if a command cannot tell which devices it writes
+     *  @throws Exception on error
+     */
+    private boolean addWriteDevices(final Set<String> names, final List<ScanCommandImpl<?>> commands) throws Exception
+    {
+        for (ScanCommandImpl<?> command : commands)
+        {
+            final String[] command_names = command.getWriteDeviceNames(macros);
+            if (command_names == null)
+                return false;
+            for (String name : command_names)
+            {
+                try
+                {
+                    names.add(devices.getDevice(name).getName());
+                }
+                catch (Exception ex)
+                {   // Not (yet) in device context
+                    names.add(name);
+                }
+            }
+        }
+        return true;
     }
 
     /** @return {@link ScanState} */
@@ -373,6 +513,15 @@ public class ExecutableScan extends LoggedScan implements ScanContext, Callable<
             return super.getScanData();
         return data_logger.getScanData();
     }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized ScanData getScanData(final long first_serial) throws Exception
+    {
+        if (data_logger == null)
+            return super.getScanData(first_serial);
+        return data_logger.getScanData(first_serial);
+    }
     
     /** Callable for executing all commands on the scan,
      *  turning exceptions into a 'Failed' scan state.
@@ -419,6 +568,8 @@ public class ExecutableScan extends LoggedScan implements ScanContext, Callable<
         {
             data_logger = null;
         }
+        // Allow next scan to update the status PVs
+        status_pv_scan.compareAndSet(this, null);
         return null;
     }
 
@@ -440,9 +591,10 @@ public class ExecutableScan extends LoggedScan implements ScanContext, Callable<
     	}
     	start_ms = System.currentTimeMillis();
     	
-        // Locate devices for status PVs
+        // Locate devices for status PVs unless another scan already updates them
         final String prefix = ScanSystemPreferences.getStatusPvPrefix();
-        if (prefix != null   &&   !prefix.isEmpty())
+        if (prefix != null   &&   !prefix.isEmpty()  &&
+            status_pv_scan.compareAndSet(null, this))
         {
         	device_active = prefix + "Active";
             devices.addPVDevice(new DeviceInfo(device_active));
@@ -77,6 +77,22 @@ public class LoggedScan extends Scan
 	    }
 	}
 
+    /** Get samples logged since a given serial.
+     *  @param first_serial Serial of first sample to include
+     *  @return {@link ScanData}
+     *  @throws Exception on error
+     */
+    public ScanData getScanData(final long first_serial) throws Exception
+    {
+        try
+        (
+            final DataLog logger = DataLogFactory.getDataLog(this);
+        )
+        {
+            return logger.getScanData(first_serial);
+        }
+    }
+
     // Compare by ID
     @Override
     public boolean equals(final Object obj)
@@ -16,24 +16,43 @@
 package org.csstudio.scan.server.internal;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import org.csstudio.scan.ScanSystemPreferences;
 import org.csstudio.scan.log.DataLogFactory;
 import org.csstudio.scan.server.Scan;
+import org.csstudio.scan.server.ScanState;
 import org.csstudio.scan.server.UnknownScanException;
 
 /** Engine that accepts {@link ExecutableScan}s, queuing them and executing
  *  them in order
+ *
+ *  <p>When configured to execute more than one scan at a time,
+ *  scans that write different devices run concurrently.
+ *  A scan that writes a device used by a running scan or by a scan
+ *  that was submitted earlier and is still waiting remains queued,
+ *  so scans that write the same device execute in submission order.
+ *
  *  @author Kay Kasemir
  */
 public class ScanEngine
 {
-    final private ExecutorService executor = Executors.newSingleThreadExecutor();
+    /** Maximum number of concurrently executing scans */
+    final private int max_scans;
+
+    final private ExecutorService executor;
 
     /** All the scans handled by this engine
      *
@@ -44,6 +63,37 @@ public class ScanEngine
      */
     final private List<LoggedScan> scan_queue = new LinkedList<LoggedScan>();
 
+    /** Scans that wait to be executed, in submission order,
+     *  with the devices that they write or <code>null</code> if unknown.
+     *  Only used when executing several scans at a time.
+     *  SYNC on scan_queue
+     */
+    final private Map<ExecutableScan, Set<String>> pending_scans = new LinkedHashMap<>();
+
+    /** Executing scans with the devices that they write.
+     *  Only used when executing several scans at a time.
+     *  SYNC on scan_queue
+     */
+    final private Map<ExecutableScan, Set<String>> running_scans = new HashMap<>();
+
+    /** Initialize with number of concurrent scans from preferences */
+    public ScanEngine()
+    {
+        this(ScanSystemPreferences.getMaxConcurrentScans());
+    }
+
+    /** Initialize
+     *  @param max_scans Maximum number of scans that execute at the same time
+     */
+    public ScanEngine(final int max_scans)
+    {
+        this.max_scans = Math.max(1, max_scans);
+        if (this.max_scans == 1)
+            executor = Executors.newSingleThreadExecutor();
+        else
+            executor = Executors.newFixedThreadPool(this.max_scans);
+    }
+
     /** Start the scan engine, i.e. create thread that will process
      *  scans
      *  @param load_existing_scans Load info about existing scans?
@@ -64,6 +114,12 @@ public class ScanEngine
      */
     public void stop()
     {
+        synchronized (scan_queue)
+        {
+            for (ExecutableScan scan : pending_scans.keySet())
+                scan.executionDone(null);
+            pending_scans.clear();
+        }
         executor.shutdownNow();
         try
         {
@@ -85,11 +141,160 @@ public class ScanEngine
      */
     public void submit(final ExecutableScan scan)
     {
-        scan.submit(executor);
+        if (max_scans == 1)
+        {
+            scan.submit(executor);
+            synchronized (scan_queue)
+            {
+                scan_queue.add(scan);
+            }
+            return;
+        }
+
+        Set<String> write_devices;
+        try
+        {
+            write_devices = scan.getWriteDevices();
+        }
+        catch (Exception ex)
+        {
+            Logger.getLogger(getClass().getName()).log(Level.WARNING,
+                "Cannot determine devices written by scan " + scan.getName() + ", will execute it by itself", ex);
+            write_devices = null;
+        }
         synchronized (scan_queue)
         {
+            if (scan.isSubmitted()  ||  pending_scans.containsKey(scan))
+                throw new IllegalStateException("Already submitted for execution");
             scan_queue.add(scan);
+            pending_scans.put(scan, write_devices);
+            startPendingScans();
+        }
+    }
+
+    /** Start pending scans that don't conflict with running scans
+     *  nor with scans that were submitted before them
+     *
+     *  <p>Caller must SYNC on scan_queue
+     */
+    private void startPendingScans()
+    {
+        final Iterator<ExecutableScan> iterator = pending_scans.keySet().iterator();
+        while (iterator.hasNext())
+        {
+            final ExecutableScan scan = iterator.next();
+            if (scan.getScanState().isDone())
+            {   // Aborted while waiting
+                iterator.remove();
+                scan.executionDone(null);
+            }
+        }
+
+        for (final ExecutableScan scan : selectScansToStart(pending_scans, running_scans, max_scans))
+        {
+            running_scans.put(scan, pending_scans.remove(scan));
+            scan.submit(executor, new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    scanDone(scan);
+                }
+            });
+        }
+    }
+
+    /** Determine which waiting scans may start
+     *
+     *  <p>A scan may start while fewer than the maximum number of scans
+     *  are running and its write set is disjoint from the running scans
+     *  and from all scans that are still waiting ahead of it.
+     *
+     *  @param pending Waiting scans in submission order with their write sets, <code>null</code> if unknown
+     *  @param running Running scans with their write sets, <code>null</code> if unknown
+     *  @param max_scans Maximum number of running scans
+     *  @return Scans to start, in submission order
+     */
+    static <S> List<S> selectScansToStart(final Map<S, Set<String>> pending,
+            final Map<S, Set<String>> running, final int max_scans)
+    {
+        final List<S> start = new ArrayList<>();
+        final List<Set<String>> busy = new ArrayList<>(running.values());
+        final List<Set<String>> waiting = new ArrayList<>();
+        for (Map.Entry<S, Set<String>> entry : pending.entrySet())
+        {
+            final Set<String> write_devices = entry.getValue();
+            if (busy.size() < max_scans  &&
+                !conflicts(write_devices, busy)  &&
+                !conflicts(write_devices, waiting))
+            {
+                start.add(entry.getKey());
+                busy.add(write_devices);
+            }
+            else
+                waiting.add(write_devices);
+        }
+        return start;
+    }
+
+    /** @param scan Scan that is no longer executing */
+    private void scanDone(final ExecutableScan scan)
+    {
+        synchronized (scan_queue)
+        {
+            // Write devices may be null, so check key
+            if (running_scans.containsKey(scan))
+            {
+                running_scans.remove(scan);
+                startPendingScans();
+            }
+        }
+    }
+
+    /** @param write_devices Devices written by a scan, <code>null</code> if unknown
+     *  @param others Devices written by other scans, <code>null</code> if unknown
+     *  @return <code>true</code> if the scan writes a device that other scans also write
+     */
+    static boolean conflicts(final Set<String> write_devices, final Collection<Set<String>> others)
+    {
+        for (Set<String> other : others)
+        {
+            if (write_devices == null  ||  other == null)
+                return true;
+            for (String device : write_devices)
+                if (other.contains(device))
+                    return true;
+        }
+        return false;
+    }
+
+    /** @return Number of scans that are executing or paused */
+    public int getRunningScanCount()
+    {
+        int count = 0;
+        synchronized (scan_queue)
+        {
+            for (LoggedScan scan : scan_queue)
+            {
+                final ScanState state = scan.getScanState();
+                if (state == ScanState.Running  ||  state == ScanState.Paused)
+                    ++count;
+            }
+        }
+        return count;
+    }
+
+    /** @return Number of scans that wait to be executed */
+    public int getQueuedScanCount()
+    {
+        int count = 0;
+        synchronized (scan_queue)
+        {
+            for (LoggedScan scan : scan_queue)
+                if (scan.getScanState() == ScanState.Idle)
+                    ++count;
         }
+        return count;
     }
 
     /** @return List of scans */
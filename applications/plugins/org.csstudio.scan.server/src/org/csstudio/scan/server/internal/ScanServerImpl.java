@@ -62,6 +62,8 @@ public class ScanServerImpl implements ScanServer
             throw new Exception("Already started");
 
         scan_engine.start(true);
+        // Keep an interpreter for each concurrent scan plus one for simulations
+        JythonSupport.prewarm(ScanSystemPreferences.getMaxConcurrentScans() + 1);
         start_time = new Date();
     }
 
@@ -80,7 +82,9 @@ public class ScanServerImpl implements ScanServer
     			ScanSystemPreferences.getScanConfigPath(),
     			ScanSystemPreferences.getSimulationConfigPath(),
     			ScanSystemPreferences.getScriptPaths(),
-    			ScanSystemPreferences.getMacros());
+    			ScanSystemPreferences.getMacros(),
+    			scan_engine.getRunningScanCount(),
+    			scan_engine.getQueuedScanCount());
     }
 
     /** Query server for devices used by a scan
@@ -140,22 +144,29 @@ public class ScanServerImpl implements ScanServer
             final XMLCommandReader reader = new XMLCommandReader(new ScanCommandFactory());
             final List<ScanCommand> commands = reader.readXMLString(commands_as_xml);
             
-            // Create Jython interpreter for this scan
-            final JythonSupport jython = new JythonSupport();
-
-            // Implement commands
-            final ScanCommandImplTool tool = ScanCommandImplTool.getInstance();
-            List<ScanCommandImpl<?>> scan = tool.implement(commands, jython);
-
-            // Setup simulation log
+            // Obtain Jython interpreter for this scan
+            final JythonSupport jython = JythonSupport.acquire();
+            final SimulationContext simulation;
             ByteArrayOutputStream log_buf = new ByteArrayOutputStream();
             PrintStream log_out = new PrintStream(log_buf);
-            log_out.println("Simulation:");
-            log_out.println("--------");
+            try
+            {
+                // Implement commands
+                final ScanCommandImplTool tool = ScanCommandImplTool.getInstance();
+                List<ScanCommandImpl<?>> scan = tool.implement(commands, jython);
+
+                // Setup simulation log
+                log_out.println("Simulation:");
+                log_out.println("--------");
 
-            // Simulate
-			final SimulationContext simulation = new SimulationContext(log_out);
-            simulation.simulate(scan);
+                // Simulate
+                simulation = new SimulationContext(log_out);
+                simulation.simulate(scan);
+            }
+            finally
+            {
+                jython.release();
+            }
 
             // Close log
             log_out.println("--------");
@@ -196,20 +207,31 @@ public class ScanServerImpl implements ScanServer
             for (String path : ScanSystemPreferences.getPostScanPaths())
                 post_commands.addAll(reader.readXMLStream(PathStreamTool.openStream(path)));
 
-            // Create Jython interpreter for this scan
-            final JythonSupport jython = new JythonSupport();
+            // Obtain Jython interpreter for this scan,
+            // released by the scan once it has been executed
+            final JythonSupport jython = JythonSupport.acquire();
+            final ExecutableScan scan;
+            try
+            {
+                // Obtain implementations for the requested commands as well as pre/post scan
+                final ScanCommandImplTool implementor = ScanCommandImplTool.getInstance();
+                final List<ScanCommandImpl<?>> pre_impl = implementor.implement(pre_commands, jython);
+                final List<ScanCommandImpl<?>> main_impl = implementor.implement(commands, jython);
+                final List<ScanCommandImpl<?>> post_impl = implementor.implement(post_commands, jython);
 
-            // Obtain implementations for the requested commands as well as pre/post scan
-            final ScanCommandImplTool implementor = ScanCommandImplTool.getInstance();
-            final List<ScanCommandImpl<?>> pre_impl = implementor.implement(pre_commands, jython);
-            final List<ScanCommandImpl<?>> main_impl = implementor.implement(commands, jython);
-            final List<ScanCommandImpl<?>> post_impl = implementor.implement(post_commands, jython);
+                // Get empty device context
+                final DeviceContext devices = new DeviceContext();
 
-            // Get empty device context
-    		final DeviceContext devices = new DeviceContext();
+                scan = new ExecutableScan(scan_name, devices, pre_impl, main_impl, post_impl);
+                scan.setJythonSupport(jython);
+            }
+            catch (Exception ex)
+            {
+                jython.release();
+                throw ex;
+            }
 
             // Submit scan to engine for execution
-            final ExecutableScan scan = new ExecutableScan(scan_name, devices, pre_impl, main_impl, post_impl);
             scan_engine.submit(scan);
             return scan.getId();
         }
@@ -311,6 +333,21 @@ public class ScanServerImpl implements ScanServer
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public ScanData getScanData(final long id, final long first_serial) throws Exception
+    {
+        try
+        {
+            final LoggedScan scan = scan_engine.getScan(id);
+            return scan.getScanData(first_serial);
+        }
+        catch (Exception ex)
+        {
+            throw new Exception("Error retrieving log data", ex);
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public void updateScanProperty(final long id, final long address,
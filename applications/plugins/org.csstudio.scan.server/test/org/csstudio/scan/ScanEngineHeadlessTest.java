@@ -216,6 +216,49 @@ public class ScanEngineHeadlessTest
         engine.stop();
     }
 
+    /** Test concurrent execution of scans that write different devices */
+    @Test(timeout=30000)
+    public void testConcurrentScans() throws Exception
+    {
+        final ExecutableScan scan_x = new ExecutableScan("Scan Motor X",
+            getDemoDevices(),
+            new LoopCommandImpl(
+                new LoopCommand("xpos", 1.0, 3.0, 1.0,
+                    new DelayCommand(1.0),
+                    new LogCommand("xpos"))));
+        final ExecutableScan scan_y = new ExecutableScan("Scan Motor Y",
+            getDemoDevices(),
+            new LoopCommandImpl(
+                new LoopCommand("ypos", 1.0, 3.0, 1.0,
+                    new DelayCommand(1.0),
+                    new LogCommand("ypos"))));
+        // Also writes xpos, must wait for scan_x
+        final ExecutableScan scan_x2 = new ExecutableScan("Set Motor X",
+            getDemoDevices(),
+            new SetCommandImpl(new SetCommand("xpos", 1.0)));
+
+        final ScanEngine engine = new ScanEngine(4);
+        engine.start(false);
+        engine.submit(scan_x);
+        engine.submit(scan_y);
+        engine.submit(scan_x2);
+
+        waitForState(scan_x, ScanState.Running);
+        waitForState(scan_y, ScanState.Running);
+        assertEquals(ScanState.Idle, scan_x2.getScanState());
+        assertEquals(2, engine.getRunningScanCount());
+        assertEquals(1, engine.getQueuedScanCount());
+
+        waitForState(scan_x, ScanState.Finished);
+        waitForState(scan_x2, ScanState.Finished);
+        while (! isIdle(engine))
+            Thread.sleep(200);
+        assertEquals(0, engine.getRunningScanCount());
+        assertEquals(0, engine.getQueuedScanCount());
+
+        engine.stop();
+    }
+
     @Test(timeout=10000)
     public void testEngineStop() throws Exception
     {
@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.scan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+
+import org.csstudio.scan.server.ScriptStatistics;
+import org.junit.Test;
+
+/** JUnit test of the {@link ScriptStatistics}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ScriptStatisticsUnitTest
+{
+    @Test
+    public void testStatistics() throws Exception
+    {
+        ScriptStatistics.reset();
+        final ScriptStatistics b = ScriptStatistics.forScript("b");
+        b.record(2000000);
+        b.record(4000000);
+        assertSame(b, ScriptStatistics.forScript("b"));
+        ScriptStatistics.forScript("a").record(1000000);
+
+        final List<ScriptStatistics> all = ScriptStatistics.getAll();
+        System.out.println(all);
+        assertEquals(2, all.size());
+        assertEquals("a", all.get(0).getScript());
+        assertEquals(2, all.get(1).getCount());
+        assertEquals(3.0, all.get(1).getAverageMillis(), 0.001);
+        assertEquals(4.0, all.get(1).getMaxMillis(), 0.001);
+        assertEquals(6.0, all.get(1).getTotalMillis(), 0.001);
+    }
+}
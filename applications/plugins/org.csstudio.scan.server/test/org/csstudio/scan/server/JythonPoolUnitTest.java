@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.scan.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.csstudio.scan.TestSettings;
+import org.junit.Test;
+import org.python.core.PyCode;
+import org.python.core.PyObject;
+
+/** JUnit test of the {@link JythonSupport} interpreter pool
+ *  and script cache
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class JythonPoolUnitTest
+{
+    /** @param interpreter Interpreter
+     *  @param module Module name
+     *  @return <code>true</code> if module is in sys.modules of the interpreter
+     */
+    private static boolean isLoaded(final JythonSupport interpreter, final String module)
+    {
+        final PyObject modules = interpreter.getInterpreter().getSystemState().modules;
+        return modules.__finditem__(module) != null;
+    }
+
+    @Test(timeout=60000)
+    public void testPoolReset() throws Exception
+    {
+        TestSettings.init();
+
+        JythonSupport.prewarm(1);
+        while (JythonSupport.getIdleCount() < 1)
+            Thread.sleep(100);
+
+        final JythonSupport jython = JythonSupport.acquire();
+        assertEquals(0, JythonSupport.getIdleCount());
+        assertTrue(isLoaded(jython, "sys"));
+
+        // Use the interpreter like a scan would
+        jython.getInterpreter().exec("import jythontest");
+        jython.getInterpreter().set("answer", Integer.valueOf(42));
+        assertTrue(isLoaded(jython, "jythontest"));
+        assertNotNull(jython.getInterpreter().get("answer"));
+
+        // Release returns it to the pool
+        jython.release();
+        assertEquals(1, JythonSupport.getIdleCount());
+        // Duplicate release has no effect
+        jython.release();
+        assertEquals(1, JythonSupport.getIdleCount());
+
+        // Next user gets the same interpreter, restored to the pre-warmed state
+        final JythonSupport again = JythonSupport.acquire();
+        assertSame(jython, again);
+        assertFalse(isLoaded(again, "jythontest"));
+        assertTrue(isLoaded(again, "sys"));
+        assertNull(again.getInterpreter().get("answer"));
+
+        JythonSupport.prewarm(0);
+        again.release();
+        assertEquals(0, JythonSupport.getIdleCount());
+    }
+
+    /** @param file File to write
+     *  @param text Text to write
+     *  @throws IOException on error
+     */
+    private static void write(final File file, final String text) throws IOException
+    {
+        try
+        (
+            final FileOutputStream out = new FileOutputStream(file);
+        )
+        {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testScriptCache() throws Exception
+    {
+        TestSettings.init();
+
+        final File file = File.createTempFile("cachetest", ".py");
+        file.deleteOnExit();
+        write(file, "x = 1\n");
+        file.setLastModified(1000000000000L);
+
+        // Compiled once, then cached
+        final PyCode code = JythonSupport.getCompiledScript(file);
+        assertNotNull(code);
+        assertSame(code, JythonSupport.getCompiledScript(file));
+
+        // Changed size, same time stamp
+        write(file, "x = 42\n");
+        file.setLastModified(1000000000000L);
+        final PyCode resized = JythonSupport.getCompiledScript(file);
+        assertNotSame(code, resized);
+        assertSame(resized, JythonSupport.getCompiledScript(file));
+
+        // Same size, changed time stamp
+        write(file, "x = 43\n");
+        file.setLastModified(1000000010000L);
+        final PyCode modified = JythonSupport.getCompiledScript(file);
+        assertNotSame(resized, modified);
+        assertSame(modified, JythonSupport.getCompiledScript(file));
+
+        file.delete();
+    }
+}
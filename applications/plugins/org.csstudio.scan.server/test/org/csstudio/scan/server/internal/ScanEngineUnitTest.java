@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.scan.server.internal;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+/** JUnit test of the {@link ScanEngine} logic for concurrent scans
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ScanEngineUnitTest
+{
+    private static Set<String> devices(final String... names)
+    {
+        return new HashSet<String>(Arrays.asList(names));
+    }
+
+    @Test
+    public void testConflicts()
+    {
+        final List<Set<String>> others = Arrays.asList(devices("a", "b"), devices("c"));
+        assertThat(ScanEngine.conflicts(devices("d"), others), equalTo(false));
+        assertThat(ScanEngine.conflicts(devices(), others), equalTo(false));
+        assertThat(ScanEngine.conflicts(devices("d", "b"), others), equalTo(true));
+        assertThat(ScanEngine.conflicts(devices("c"), others), equalTo(true));
+
+        // Nothing else running
+        assertThat(ScanEngine.conflicts(devices("a"), Collections.<Set<String>>emptyList()), equalTo(false));
+        assertThat(ScanEngine.conflicts(null, Collections.<Set<String>>emptyList()), equalTo(false));
+
+        // Unknown write set conflicts with everything
+        assertThat(ScanEngine.conflicts(null, others), equalTo(true));
+        assertThat(ScanEngine.conflicts(devices("d"), Arrays.asList(devices("a"), null)), equalTo(true));
+        assertThat(ScanEngine.conflicts(devices(), Arrays.<Set<String>>asList((Set<String>)null)), equalTo(true));
+    }
+
+    @Test
+    public void testDisjointScansStart()
+    {
+        final Map<String, Set<String>> pending = new LinkedHashMap<>();
+        final Map<String, Set<String>> running = new HashMap<>();
+        pending.put("x", devices("x"));
+        pending.put("y", devices("y"));
+        pending.put("z", devices("z"));
+        assertThat(ScanEngine.selectScansToStart(pending, running, 3), equalTo(Arrays.asList("x", "y", "z")));
+
+        // Limited by number of threads
+        assertThat(ScanEngine.selectScansToStart(pending, running, 2), equalTo(Arrays.asList("x", "y")));
+        running.put("w", devices("w"));
+        assertThat(ScanEngine.selectScansToStart(pending, running, 2), equalTo(Arrays.asList("x")));
+        running.put("v", devices("v"));
+        assertThat(ScanEngine.selectScansToStart(pending, running, 2), equalTo(Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void testQueuedBehindRunning()
+    {
+        final Map<String, Set<String>> pending = new LinkedHashMap<>();
+        final Map<String, Set<String>> running = new HashMap<>();
+        running.put("x1", devices("x"));
+        pending.put("x2", devices("x", "y"));
+        pending.put("z", devices("z"));
+        // x2 waits for the running x1, z may start
+        assertThat(ScanEngine.selectScansToStart(pending, running, 4), equalTo(Arrays.asList("z")));
+
+        // Once x1 is done, x2 starts
+        running.clear();
+        assertThat(ScanEngine.selectScansToStart(pending, running, 4), equalTo(Arrays.asList("x2", "z")));
+    }
+
+    @Test
+    public void testSubmissionOrder()
+    {
+        final Map<String, Set<String>> pending = new LinkedHashMap<>();
+        final Map<String, Set<String>> running = new HashMap<>();
+        running.put("x1", devices("x"));
+        pending.put("x2", devices("x"));
+        // y doesn't conflict with running x1, but with the waiting x2
+        pending.put("y", devices("x", "y"));
+        pending.put("z", devices("z"));
+        assertThat(ScanEngine.selectScansToStart(pending, running, 4), equalTo(Arrays.asList("z")));
+
+        // Two scans for the same device submitted while nothing runs: Only the first starts
+        running.clear();
+        pending.clear();
+        pending.put("a1", devices("a"));
+        pending.put("a2", devices("a"));
+        assertThat(ScanEngine.selectScansToStart(pending, running, 4), equalTo(Arrays.asList("a1")));
+    }
+
+    @Test
+    public void testUnknownWriteSet()
+    {
+        final Map<String, Set<String>> pending = new LinkedHashMap<>();
+        final Map<String, Set<String>> running = new HashMap<>();
+
+        // Scan with unknown write set runs by itself
+        running.put("x", devices("x"));
+        pending.put("unknown", null);
+        pending.put("z", devices("z"));
+        assertThat(ScanEngine.selectScansToStart(pending, running, 4), equalTo(Collections.<String>emptyList()));
+
+        running.clear();
+        assertThat(ScanEngine.selectScansToStart(pending, running, 4), equalTo(Arrays.asList("unknown")));
+
+        // Nothing starts while it runs
+        pending.remove("unknown");
+        running.put("unknown", null);
+        assertThat(ScanEngine.selectScansToStart(pending, running, 4), equalTo(Collections.<String>emptyList()));
+    }
+}
@@ -56,6 +56,12 @@ public class PlotDataModel implements Runnable
      */
     private volatile long last_serial = -1;
 
+    /** Data fetched so far for the scan with ID <code>scan_data_id</code>,
+     *  only accessed by update thread
+     */
+    private ScanData scan_data = null;
+    private long scan_data_id = -1;
+
     /** Device used for the X axis
      *  SYNC on this
      */
@@ -184,6 +190,25 @@ public class PlotDataModel implements Runnable
         model.release();
     }
 
+    /** Fetch scan data
+     *
+     *  <p>Only fetches samples that were added since the last call
+     *  for the same scan.
+     *  @param client {@link ScanClient}
+     *  @param id Scan ID
+     *  @return {@link ScanData}
+     *  @throws Exception on error
+     */
+    private ScanData fetchScanData(final ScanClient client, final long id) throws Exception
+    {
+        if (scan_data == null  ||  scan_data_id != id)
+            scan_data = client.getScanData(id, 0);
+        else
+            scan_data = scan_data.merge(client.getScanData(id, scan_data.getLastSerial()));
+        scan_data_id = id;
+        return scan_data;
+    }
+
     /** Runnable of the update thread.
      *
      *  Fetches scan data from selected scan,
@@ -207,7 +232,7 @@ public class PlotDataModel implements Runnable
                     final long current_serial = client.getLastScanDataSerial(scan.getId());
                     if (last_serial != current_serial)
                     {
-                        final ScanData scan_data = client.getScanData(scan.getId());
+                        final ScanData scan_data = fetchScanData(client, scan.getId());
                         last_serial = current_serial;
                         if (scan_data == null)
                             devices = null;
@@ -227,6 +252,7 @@ public class PlotDataModel implements Runnable
                 {
                     Logger.getLogger(getClass().getName()).log(Level.WARNING, "Plot data error", ex);
                     devices = null;
+                    scan_data = null;
                 }
             }
 
@@ -13,14 +13,13 @@ import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.csstudio.scan.data.ScanData;
 import org.csstudio.scan.data.ScanDataIterator;
-import org.csstudio.scan.data.ScanSample;
 import org.csstudio.swt.xygraph.dataprovider.IDataProvider;
 import org.csstudio.swt.xygraph.dataprovider.IDataProviderListener;
 import org.csstudio.swt.xygraph.dataprovider.ISample;
 import org.csstudio.swt.xygraph.linearscale.Range;
 import org.eclipse.swt.widgets.Display;
 
-/** Data provider for XYGraph based on {@link ScanSample}
+/** Data provider for XYGraph based on {@link ScanData}
  *
  *  <p>Updated by {@link PlotDataModel},
  *  and this {@link IDataProvider} then refreshes the plot widget.
@@ -95,10 +94,8 @@ public class PlotDataProvider implements IDataProvider
 
         while (sheet.hasNext())
         {
-            final ScanSample[] samples = sheet.getSamples();
-
             // Add sample
-            final SampleAdapter sample = new SampleAdapter(y_device, samples[0], samples[1]);
+            final SampleAdapter sample = new SampleAdapter(y_device, sheet.getDouble(0), sheet.getDouble(1));
             new_samples.add(sample);
 
             // Update ranges
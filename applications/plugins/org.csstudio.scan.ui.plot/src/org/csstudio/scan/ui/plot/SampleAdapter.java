@@ -7,11 +7,9 @@
  ******************************************************************************/
 package org.csstudio.scan.ui.plot;
 
-import org.csstudio.scan.data.ScanSample;
-import org.csstudio.scan.data.ScanSampleFormatter;
 import org.csstudio.swt.xygraph.dataprovider.ISample;
 
-/** Adapter from a {@link ScanSample} pair (x, y)
+/** Adapter from the (x, y) values of a scan data line
  *  to an {@link ISample} as used by the XYGraph
  *  @author Kay Kasemir
  */
@@ -19,13 +17,14 @@ import org.csstudio.swt.xygraph.dataprovider.ISample;
 public class SampleAdapter implements ISample
 {
     final private String device;
-    final private ScanSample x, y;
+    final private double x, y;
 
     /** Initialize
-     *  @param x
-     *  @param y
+     *  @param device Device name for info
+     *  @param x X value, NaN if there is none
+     *  @param y Y value, NaN if there is none
      */
-    public SampleAdapter(final String device, final ScanSample x, final ScanSample y)
+    public SampleAdapter(final String device, final double x, final double y)
     {
         this.device = device;
         this.x = x;
@@ -36,14 +35,14 @@ public class SampleAdapter implements ISample
     @Override
     public double getXValue()
     {
-        return ScanSampleFormatter.asDouble(x);
+        return x;
     }
 
     /** {@inheritDoc} */
     @Override
     public double getYValue()
     {
-        return ScanSampleFormatter.asDouble(y);
+        return y;
     }
 
     /** {@inheritDoc} */
@@ -93,8 +93,16 @@ public class ScanDataModel implements ScanInfoModelListener
 			if (serial == last_scan_data_serial)
 				return;
 
-			// Get data
-			final ScanData data = client.getScanData(scan_id);
+			// Get data, only fetching samples that were added since last time
+			ScanData data;
+			synchronized (this)
+			{
+				data = scan_data;
+			}
+			if (data == null)
+				data = client.getScanData(scan_id, 0);
+			else
+				data = data.merge(client.getScanData(scan_id, data.getLastSerial()));
 			synchronized (this)
 			{
 				scan_data = data;
@@ -155,6 +155,16 @@ public class ScanSystemPreferences extends SystemSettings
         return macros;
     }
 
+    /** @return Maximum number of scans that execute at the same time, at least 1 */
+    public static int getMaxConcurrentScans()
+    {
+        int scans = 1;
+        final IPreferencesService service = Platform.getPreferencesService();
+        if (service != null)
+            scans = service.getInt(Activator.ID, "max_concurrent_scans", scans, null);
+        return Math.max(1, scans);
+    }
+
     /** @return Minimum PV update period [seconds] */
     public static double getMinPVUpdatePeriod()
     {
@@ -7,13 +7,10 @@
  ******************************************************************************/
 package org.csstudio.scan.command;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import org.csstudio.scan.data.ScanData;
 import org.csstudio.scan.data.ScanDataIterator;
-import org.csstudio.scan.data.ScanSample;
-import org.csstudio.scan.data.ScanSampleFormatter;
 import org.epics.util.time.TimeDuration;
 
 /** Context in which a {@link ScriptCommand}'s script is executed
@@ -47,26 +44,25 @@ abstract public class ScanScriptContext
     public double[][] getData(final String... devices) throws Exception
     {
     	ScanDataIterator sheet = new ScanDataIterator(getScanData(), devices);
-    	final List<List<Double>> data = new ArrayList<List<Double>>(devices.length);
-    	for (int i=0; i<devices.length; ++i)
-    		data.add(new ArrayList<Double>());
+    	final double[][] result = new double[devices.length][16];
+    	int lines = 0, capacity = 16;
     	while (sheet.hasNext())
     	{
-    		final ScanSample[] samples = sheet.getSamples();
+    		if (lines >= capacity)
+    		{
+    			capacity *= 2;
+    			for (int i=0; i<devices.length; ++i)
+    				result[i] = Arrays.copyOf(result[i], capacity);
+    		}
         	for (int i=0; i<devices.length; ++i)
-        		data.get(i).add(ScanSampleFormatter.asDouble(samples[i]));
+        		result[i][lines] = sheet.getDouble(i);
+        	++lines;
     	}
     	sheet = null;
 
-    	// Convert to plain array
-    	final double[][] result = new double[devices.length][];
+    	// Trim to actual size
     	for (int i=0; i<devices.length; ++i)
-    	{
-    		final List<Double> list = data.get(i);
-    		result[i] = new double[list.size()];
-    		for (int j=list.size()-1; j>=0; --j)
-    			result[i][j] = list.get(j);
-    	}
+    		result[i] = Arrays.copyOf(result[i], lines);
     	return result;
     }
 
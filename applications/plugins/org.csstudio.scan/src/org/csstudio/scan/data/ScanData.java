@@ -16,37 +16,73 @@
 package org.csstudio.scan.data;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /** Data set taken by a scan.
  *
  *  <p>The data in a scan is organized by device.
  *  For each device, a list of samples can be obtained.
  *
+ *  <p>Samples are kept in a {@link ScanDataColumn} per device.
+ *  The {@link List} of {@link ScanSample}s returned by <code>getSamples</code>
+ *  is a view that creates samples as they are accessed.
+ *  Code that handles large data sets should use <code>getColumn</code>
+ *  or the {@link ScanDataIterator}.
+ *
  *  @author Kay Kasemir
  */
 public class ScanData
 {
-    /** Map from device name to list of samples for that device */
-    final private Map<String, List<ScanSample>> device_logs;
+    /** Map from device name to samples for that device */
+    final private Map<String, ScanDataColumn> columns;
+
+    /** Sorted device names */
+    final private String[] devices;
 
     /** Initialize
      *  @param device_logs Map from device name to list of samples for that device
      */
     public ScanData(final Map<String, List<ScanSample>> device_logs)
     {
-        this.device_logs = device_logs;
+        columns = new HashMap<String, ScanDataColumn>(device_logs.size());
+        for (Map.Entry<String, List<ScanSample>> entry : device_logs.entrySet())
+        {
+            final List<ScanSample> samples = entry.getValue();
+            final ScanDataColumn column = new ScanDataColumn(entry.getKey(), samples.size());
+            for (ScanSample sample : samples)
+                column.add(sample);
+            columns.put(entry.getKey(), column);
+        }
+        devices = sortedDevices();
+    }
+
+    /** Initialize
+     *  @param columns Samples for each device.
+     *                 Columns must not be modified once passed to the scan data.
+     */
+    public ScanData(final Collection<ScanDataColumn> columns)
+    {
+        this.columns = new HashMap<String, ScanDataColumn>(columns.size());
+        for (ScanDataColumn column : columns)
+            this.columns.put(column.getDevice(), column);
+        devices = sortedDevices();
+    }
+
+    /** @return Sorted names of devices in <code>columns</code> */
+    private String[] sortedDevices()
+    {
+        final String[] names = columns.keySet().toArray(new String[columns.size()]);
+        Arrays.sort(names);
+        return names;
     }
 
     /** @return Names of devices for which there are samples */
     public String[] getDevices()
     {
-        final Set<String> names = device_logs.keySet();
-        final String[] name_array = names.toArray(new String[names.size()]);
-        Arrays.sort(name_array);
-        return name_array;
+        return devices.clone();
     }
 
     /** @param device_name Name of a device
@@ -55,6 +91,59 @@ public class ScanData
      */
     public List<ScanSample> getSamples(final String device_name)
     {
-        return device_logs.get(device_name);
+        final ScanDataColumn column = columns.get(device_name);
+        if (column == null)
+            return null;
+        return column.asList();
+    }
+
+    /** @param device_name Name of a device
+     *  @return Samples that were taken for this device.
+     *          <code>null</code> if the device has no samples.
+     */
+    public ScanDataColumn getColumn(final String device_name)
+    {
+        return columns.get(device_name);
+    }
+
+    /** @return Serial of the last sample, -1 if there are no samples */
+    public long getLastSerial()
+    {
+        long last = -1;
+        for (ScanDataColumn column : columns.values())
+            last = Math.max(last, column.getLastSerial());
+        return last;
+    }
+
+    /** Merge additional samples
+     *
+     *  <p>Samples in the update that have a serial at or below
+     *  the last serial of the same device in this data set
+     *  are already known and skipped.
+     *  The original data is not modified.
+     *  The merged data appends to the columns of the original data,
+     *  see {@link ScanDataColumn#append(ScanDataColumn, int)},
+     *  so merging a small update into a large data set is cheap.
+     *
+     *  @param update {@link ScanData} with samples that were logged since this data was obtained
+     *  @return {@link ScanData} with the samples of this data and the update
+     */
+    public ScanData merge(final ScanData update)
+    {
+        final Map<String, ScanDataColumn> merged = new HashMap<String, ScanDataColumn>(columns);
+        for (ScanDataColumn added : update.columns.values())
+        {
+            final ScanDataColumn known = columns.get(added.getDevice());
+            if (known == null  ||  known.size() <= 0)
+            {
+                merged.put(added.getDevice(), added);
+                continue;
+            }
+            final int start = added.indexOf(known.getLastSerial() + 1);
+            if (start >= added.size())
+                continue;
+            merged.put(added.getDevice(), known.append(added, start));
+        }
+        return new ScanData(merged.values());
     }
 }
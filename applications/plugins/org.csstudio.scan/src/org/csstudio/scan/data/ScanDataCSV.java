@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.scan.data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Compact text encoding of {@link ScanData}
+ *
+ *  <p>Used to transfer (partial) scan data as a stream
+ *  with much less overhead than XML.
+ *  Each line is a record of comma-separated fields.
+ *  A 'device' record selects the device for the samples that follow:
+ *  <pre>
+ *  device,"readback"
+ *  0,1370020734123,0.0
+ *  1,1370020734625,0.5
+ *  device,"counts"
+ *  1,1370020734625,42
+ *  device,"status"
+ *  1,1370020734625,"OK"
+ *  2,1370020735127,"Busy, ""moving"""
+ *  </pre>
+ *  Sample records contain serial, time stamp in epoch milliseconds,
+ *  and one or more values.
+ *  Integer numbers are written without decimal point and read as {@link Long},
+ *  floating point numbers always have a decimal point or exponent
+ *  (or are NaN, Infinity) and are read as {@link Double}.
+ *  Text is quoted, with quotes inside the text doubled.
+ *  Samples with all-numeric values are {@link NumberScanSample}s,
+ *  samples with any quoted value are {@link StringScanSample}s.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ScanDataCSV
+{
+    /** Field of a 'device' record */
+    final private static String DEVICE = "device";
+
+    /** Write scan data
+     *  @param data {@link ScanData}
+     *  @param out {@link Writer}, will be flushed but not closed
+     *  @throws IOException on error
+     */
+    public static void write(final ScanData data, final Writer out) throws IOException
+    {
+        for (String device : data.getDevices())
+        {
+            out.write(DEVICE);
+            out.write(',');
+            writeText(device, out);
+            out.write('\n');
+            final ScanDataColumn column = data.getColumn(device);
+            final int N = column.size();
+            for (int i=0; i<N; ++i)
+            {
+                out.write(Long.toString(column.getSerial(i)));
+                out.write(',');
+                out.write(Long.toString(column.getTime(i)));
+                for (Object value : column.getValues(i))
+                {
+                    out.write(',');
+                    if (value instanceof Long  ||  value instanceof Integer  ||
+                        value instanceof Short  ||  value instanceof Byte)
+                        out.write(Long.toString(((Number) value).longValue()));
+                    else if (value instanceof Number)
+                        out.write(Double.toString(((Number) value).doubleValue()));
+                    else
+                        writeText(String.valueOf(value), out);
+                }
+                out.write('\n');
+            }
+        }
+        out.flush();
+    }
+
+    /** @param text Text to write as quoted field
+     *  @param out {@link Writer}
+     *  @throws IOException on error
+     */
+    private static void writeText(final String text, final Writer out) throws IOException
+    {
+        out.write('"');
+        out.write(text.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    /** Read scan data
+     *  @param in {@link Reader}, should be buffered
+     *  @return {@link ScanData}
+     *  @throws Exception on error
+     */
+    public static ScanData read(final Reader in) throws Exception
+    {
+        final Map<String, ScanDataColumn> columns = new HashMap<>();
+        final List<Object> fields = new ArrayList<>();
+        ScanDataColumn column = null;
+        int line = 0;
+        while (readRecord(in, fields))
+        {
+            ++line;
+            if (fields.isEmpty())
+                continue;
+            if (DEVICE.contentEquals((CharSequence) fields.get(0)))
+            {
+                if (fields.size() != 2)
+                    throw new Exception("Line " + line + ": Expected device name");
+                final String device = fields.get(1).toString();
+                column = columns.get(device);
+                if (column == null)
+                {
+                    column = new ScanDataColumn(device);
+                    columns.put(device, column);
+                }
+                continue;
+            }
+            if (column == null)
+                throw new Exception("Line " + line + ": Sample without device");
+            if (fields.size() < 3)
+                throw new Exception("Line " + line + ": Expected serial, time and value");
+            final long serial, millis;
+            try
+            {
+                serial = Long.parseLong(fields.get(0).toString());
+                millis = Long.parseLong(fields.get(1).toString());
+            }
+            catch (NumberFormatException ex)
+            {
+                throw new Exception("Line " + line + ": Cannot parse serial and time", ex);
+            }
+            addSample(column, line, serial, millis, fields.subList(2, fields.size()));
+        }
+        return new ScanData(columns.values());
+    }
+
+    /** @param column Column to which sample is added
+     *  @param line Line number for error messages
+     *  @param serial Sample serial
+     *  @param millis Time stamp in epoch milliseconds
+     *  @param fields Values as {@link String} for quoted text, otherwise {@link StringBuilder}
+     *  @throws Exception on error
+     */
+    private static void addSample(final ScanDataColumn column, final int line,
+            final long serial, final long millis, final List<Object> fields) throws Exception
+    {
+        final int N = fields.size();
+        boolean numeric = true;
+        for (Object field : fields)
+            if (field instanceof String)
+            {
+                numeric = false;
+                break;
+            }
+        if (numeric)
+        {
+            final Number[] numbers = new Number[N];
+            for (int i=0; i<N; ++i)
+                numbers[i] = parseNumber(line, fields.get(i).toString());
+            column.add(serial, millis, (Object[]) numbers);
+            return;
+        }
+        final String[] texts = new String[N];
+        for (int i=0; i<N; ++i)
+            texts[i] = fields.get(i).toString();
+        column.add(serial, millis, (Object[]) texts);
+    }
+
+    /** @param line Line number for error messages
+     *  @param text Unquoted field
+     *  @return {@link Long} for integer text, otherwise {@link Double}
+     *  @throws Exception on error
+     */
+    private static Number parseNumber(final int line, final String text) throws Exception
+    {
+        try
+        {
+            return Long.valueOf(text);
+        }
+        catch (NumberFormatException ex)
+        {
+            // Not an integer
+        }
+        try
+        {
+            return Double.valueOf(text);
+        }
+        catch (NumberFormatException ex)
+        {
+            throw new Exception("Line " + line + ": Cannot parse value '" + text + "'", ex);
+        }
+    }
+
+    /** Read one record
+     *  @param in {@link Reader}
+     *  @param fields Fields of the record. Quoted text is returned as {@link String},
+     *                unquoted fields as {@link StringBuilder}
+     *  @return <code>true</code> if a record was read, <code>false</code> at end of input
+     *  @throws Exception on error
+     */
+    private static boolean readRecord(final Reader in, final List<Object> fields) throws Exception
+    {
+        fields.clear();
+        int c = in.read();
+        if (c < 0)
+            return false;
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c >= 0  &&  c != '\n')
+        {
+            if (c == '"')
+            {   // Quoted text, may contain commas, newlines, doubled quotes
+                while (true)
+                {
+                    c = in.read();
+                    if (c < 0)
+                        throw new Exception("Unterminated text '" + field + "'");
+                    if (c == '"')
+                    {
+                        c = in.read();
+                        if (c != '"')
+                            break;
+                    }
+                    field.append((char) c);
+                }
+                quoted = true;
+                continue;
+            }
+            if (c == ',')
+            {
+                fields.add(quoted ? field.toString() : field);
+                field = new StringBuilder();
+                quoted = false;
+            }
+            else if (c != '\r')
+                field.append((char) c);
+            c = in.read();
+        }
+        if (quoted  ||  field.length() > 0  ||  ! fields.isEmpty())
+            fields.add(quoted ? field.toString() : field);
+        return true;
+    }
+}
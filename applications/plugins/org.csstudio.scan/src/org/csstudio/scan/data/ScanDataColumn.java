@@ -0,0 +1,414 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.scan.data;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Samples of one device, stored by column
+ *
+ *  <p>Serials, time stamps and values are kept in primitive arrays.
+ *  The typical scalar numeric sample thus requires no objects.
+ *  Strings and arrays are kept in a side table
+ *  that is only allocated when such a sample is added.
+ *
+ *  <p>Samples are expected to be added in the order of their serial.
+ *  Once a column has been handed to {@link ScanData}, it must no longer be modified.
+ *  {@link #append(ScanDataColumn, int)} then creates a new column that may
+ *  share the arrays of the original column, adding samples beyond
+ *  the end of the original column.
+ *
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ScanDataColumn
+{
+    /** Kinds of values */
+    final private static byte DOUBLE = 0, LONG = 1, OBJECT = 2;
+
+    final private String device;
+
+    private int size = 0;
+
+    private long[] serials;
+
+    /** Time stamps in epoch milliseconds */
+    private long[] times;
+
+    /** Numeric value, for side table entries the first array element or NaN */
+    private double[] values;
+
+    /** Kind of each value */
+    private byte[] kinds;
+
+    /** Side table for strings and arrays, <code>null</code> until needed */
+    private Object[][] objects = null;
+
+    /** Number of array elements used by all the columns that share the arrays,
+     *  <code>null</code> until this column is appended.
+     *  SYNC on this to create it.
+     */
+    private AtomicInteger shared_size = null;
+
+    /** Initialize empty column
+     *  @param device Device name
+     */
+    public ScanDataColumn(final String device)
+    {
+        this(device, 16);
+    }
+
+    /** Initialize empty column
+     *  @param device Device name
+     *  @param capacity Expected number of samples
+     */
+    public ScanDataColumn(final String device, final int capacity)
+    {
+        this.device = device;
+        final int N = Math.max(1, capacity);
+        serials = new long[N];
+        times = new long[N];
+        values = new double[N];
+        kinds = new byte[N];
+    }
+
+    /** Initialize with copy of samples from another column
+     *  @param other Column to copy
+     *  @param start Index of first sample to copy
+     *  @param capacity Minimum capacity, allowing for samples to be added
+     */
+    public ScanDataColumn(final ScanDataColumn other, final int start, final int capacity)
+    {
+        this(other.device, Math.max(other.size - start, capacity));
+        addAll(other, start);
+    }
+
+    /** Initialize with the arrays of another column
+     *  @param other Column that shares its arrays
+     *  @param shared_size Number of array elements used by columns that share the arrays
+     */
+    private ScanDataColumn(final ScanDataColumn other, final AtomicInteger shared_size)
+    {
+        device = other.device;
+        size = other.size;
+        serials = other.serials;
+        times = other.times;
+        values = other.values;
+        kinds = other.kinds;
+        objects = other.objects;
+        this.shared_size = shared_size;
+    }
+
+    /** @return Device name */
+    public String getDevice()
+    {
+        return device;
+    }
+
+    /** @return Number of samples */
+    public int size()
+    {
+        return size;
+    }
+
+    /** @param index Sample index
+     *  @return Serial of the sample
+     */
+    public long getSerial(final int index)
+    {
+        return serials[index];
+    }
+
+    /** @param index Sample index
+     *  @return Time stamp of the sample in epoch milliseconds
+     */
+    public long getTime(final int index)
+    {
+        return times[index];
+    }
+
+    /** @param index Sample index
+     *  @return Number, first element of a numeric array, or NaN for text
+     *  @see ScanSampleFormatter#asDouble(ScanSample)
+     */
+    public double getDouble(final int index)
+    {
+        return values[index];
+    }
+
+    /** @param index Sample index
+     *  @return Values of the sample, see {@link ScanSample#getValues()}
+     */
+    public Object[] getValues(final int index)
+    {
+        switch (kinds[index])
+        {
+        case LONG:
+            return new Number[] { Long.valueOf((long) values[index]) };
+        case OBJECT:
+            return objects[index];
+        default:
+            return new Number[] { Double.valueOf(values[index]) };
+        }
+    }
+
+    /** @param index Sample index
+     *  @return {@link ScanSample}, created on each call
+     */
+    public ScanSample getSample(final int index)
+    {
+        final Object[] sample_values = getValues(index);
+        return ScanSampleFactory.createSample(new Date(times[index]), serials[index], sample_values);
+    }
+
+    /** @param index Sample index
+     *  @return Text for the value of the sample
+     *  @see ScanSampleFormatter#asString(ScanSample)
+     */
+    public String asString(final int index)
+    {
+        switch (kinds[index])
+        {
+        case LONG:
+            return Long.toString((long) values[index]);
+        case OBJECT:
+            final Object[] sample_values = objects[index];
+            if (sample_values.length == 1)
+                return sample_values[0].toString();
+            return Arrays.toString(sample_values);
+        default:
+            return Double.toString(values[index]);
+        }
+    }
+
+    /** @return Serial of last sample, -1 if empty */
+    public long getLastSerial()
+    {
+        return size > 0 ? serials[size-1] : -1;
+    }
+
+    /** Locate sample by serial
+     *  @param serial Sample serial
+     *  @return Index of first sample with a serial at or above the requested serial,
+     *          <code>size()</code> if there is none
+     */
+    public int indexOf(final long serial)
+    {
+        int low = 0, high = size;
+        while (low < high)
+        {
+            final int mid = (low + high) >>> 1;
+            if (serials[mid] < serial)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /** @param needed Required capacity */
+    private void ensureCapacity(final int needed)
+    {
+        if (needed <= serials.length)
+            return;
+        final int capacity = Math.max(needed, serials.length + serials.length / 2);
+        serials = Arrays.copyOf(serials, capacity);
+        times = Arrays.copyOf(times, capacity);
+        values = Arrays.copyOf(values, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        if (objects != null)
+            objects = Arrays.copyOf(objects, capacity);
+    }
+
+    /** Add scalar number
+     *  @param serial Sample serial
+     *  @param time Time stamp in epoch milliseconds
+     *  @param value Number
+     */
+    public void add(final long serial, final long time, final double value)
+    {
+        add(serial, time, value, DOUBLE);
+    }
+
+    /** @param serial Sample serial
+     *  @param time Time stamp in epoch milliseconds
+     *  @param value Number
+     *  @param kind Kind of value
+     */
+    private void add(final long serial, final long time, final double value, final byte kind)
+    {
+        ensureCapacity(size + 1);
+        serials[size] = serial;
+        times[size] = time;
+        values[size] = value;
+        kinds[size] = kind;
+        ++size;
+    }
+
+    /** Add sample
+     *  @param serial Sample serial
+     *  @param time Time stamp in epoch milliseconds
+     *  @param sample_values Values of the sample, {@link Number}s or {@link String}s
+     */
+    public void add(final long serial, final long time, final Object... sample_values)
+    {
+        if (sample_values.length == 1)
+        {
+            final Object value = sample_values[0];
+            if (value instanceof Double)
+            {
+                add(serial, time, ((Double) value).doubleValue(), DOUBLE);
+                return;
+            }
+            if (value instanceof Long  ||  value instanceof Integer  ||
+                value instanceof Short  ||  value instanceof Byte)
+            {
+                final long number = ((Number) value).longValue();
+                // Integer kept as double only when that is exact
+                if ((long) (double) number == number)
+                {
+                    add(serial, time, number, LONG);
+                    return;
+                }
+            }
+        }
+        final Object[] side_values = normalize(sample_values);
+        final double number = (side_values.length > 0  &&  side_values[0] instanceof Number)
+                ? ((Number) side_values[0]).doubleValue()
+                : Double.NaN;
+        add(serial, time, number, OBJECT);
+        if (objects == null)
+            objects = new Object[serials.length][];
+        objects[size-1] = side_values;
+    }
+
+    /** @param sample_values Values of a sample
+     *  @return {@link Number}[] or {@link String}[] as handled by the {@link ScanSampleFactory}
+     */
+    private static Object[] normalize(final Object[] sample_values)
+    {
+        if (sample_values instanceof Number[]  ||  sample_values instanceof String[])
+            return sample_values;
+        boolean numeric = true;
+        for (Object value : sample_values)
+            if (! (value instanceof Number))
+            {
+                numeric = false;
+                break;
+            }
+        if (numeric)
+            return Arrays.copyOf(sample_values, sample_values.length, Number[].class);
+        final String[] texts = new String[sample_values.length];
+        for (int i=0; i<texts.length; ++i)
+            texts[i] = String.valueOf(sample_values[i]);
+        return texts;
+    }
+
+    /** Add sample
+     *  @param sample {@link ScanSample}
+     */
+    public void add(final ScanSample sample)
+    {
+        add(sample.getSerial(), sample.getTimestamp().getTime(), sample.getValues());
+    }
+
+    /** Add samples of another column
+     *  @param other Column with samples to add
+     *  @param start Index of first sample in other column to add
+     */
+    public void addAll(final ScanDataColumn other, final int start)
+    {
+        final int count = other.size - start;
+        if (count <= 0)
+            return;
+        ensureCapacity(size + count);
+        System.arraycopy(other.serials, start, serials, size, count);
+        System.arraycopy(other.times, start, times, size, count);
+        System.arraycopy(other.values, start, values, size, count);
+        System.arraycopy(other.kinds, start, kinds, size, count);
+        if (other.objects != null)
+        {
+            if (objects == null)
+                objects = new Object[serials.length][];
+            System.arraycopy(other.objects, start, objects, size, count);
+        }
+        size += count;
+    }
+
+    /** Create column with the samples of this column and additional samples
+     *
+     *  <p>This column is not modified.
+     *  If no other column has been appended to this column
+     *  and its arrays have room for the additional samples,
+     *  the new column adds them to the same arrays.
+     *  Otherwise the samples are copied into larger arrays.
+     *  Repeatedly appending to a growing data set thus
+     *  only copies the samples when the arrays need to grow.
+     *
+     *  @param other Column with samples to add
+     *  @param start Index of first sample in other column to add
+     *  @return Column with the samples of this column and the other column
+     */
+    public ScanDataColumn append(final ScanDataColumn other, final int start)
+    {
+        final int count = other.size - start;
+        if (count <= 0)
+            return this;
+        final AtomicInteger used;
+        synchronized (this)
+        {
+            if (shared_size == null)
+                shared_size = new AtomicInteger(size);
+            used = shared_size;
+        }
+        final ScanDataColumn result;
+        // Claim the array elements beyond this column
+        if (size + count <= serials.length  &&  used.compareAndSet(size, size + count))
+            result = new ScanDataColumn(this, used);
+        else
+            result = new ScanDataColumn(this, 0, Math.max(size + count, serials.length + serials.length / 2));
+        result.addAll(other, start);
+        return result;
+    }
+
+    /** @return Read-only {@link List} view of the samples,
+     *          creating {@link ScanSample}s as they are accessed
+     */
+    public List<ScanSample> asList()
+    {
+        return new SampleList();
+    }
+
+    /** List view of the column */
+    private class SampleList extends AbstractList<ScanSample> implements RandomAccess
+    {
+        @Override
+        public ScanSample get(final int index)
+        {
+            if (index < 0  ||  index >= size)
+                throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+            return getSample(index);
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return device + " (" + size + " samples)";
+    }
+}
@@ -17,9 +17,7 @@ package org.csstudio.scan.data;
 
 import java.io.PrintStream;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Date;
-import java.util.List;
 
 import org.csstudio.scan.util.TextTable;
 
@@ -32,6 +30,10 @@ import org.csstudio.scan.util.TextTable;
  *  Values for a device are repeated on following lines until
  *  a sample with new serial is received.
  *
+ *  <p>Iterates over the {@link ScanDataColumn}s of the data.
+ *  <code>getTime()</code>, <code>getDouble()</code> and <code>getString()</code>
+ *  access the current line without creating objects for each line.
+ *
  *  @author Kay Kasemir
  */
 @SuppressWarnings("nls")
@@ -46,16 +48,23 @@ public class ScanDataIterator
     final private String[] device_names;
 
     /** Raw data for each device */
-    final private List<ScanSample>[] data;
+    final private ScanDataColumn[] data;
 
     /** Index within data for each device */
     final private int[] index;
 
-    /** Timestamp of current spreadsheet line */
-    private Date timestamp;
+    /** Timestamp of current spreadsheet line, epoch milliseconds */
+    private long time;
+
+    /** Index within data for the value of each device on the current line,
+     *  -1 if device has no value, yet
+     */
+    final private int[] value;
 
-    /** Values for current spreadsheet line */
-    final private ScanSample[] value;
+    /** Samples for <code>value</code>, created when requested,
+     *  so lines that repeat a value share the same sample
+     */
+    final private ScanSample[] samples;
 
     /** Initialize for all devices in the {@link ScanData}
      *  @param scan_data Scan data
@@ -70,35 +79,25 @@ public class ScanDataIterator
      *  @param scan_data Scan data
      *  @param device_names Devices that must be in the scan data
      */
-    @SuppressWarnings("unchecked")
     public ScanDataIterator(final ScanData scan_data, final String... device_names)
     {
 	    this.device_names = device_names;
         final int N = device_names.length;
 
-        data = new List[N];
-        value = new ScanSample[N];
+        data = new ScanDataColumn[N];
+        value = new int[N];
+        samples = new ScanSample[N];
         index = new int[N];
         for (int i=0; i<N; ++i)
         {
-            data[i] = scan_data.getSamples(device_names[i]);
+            data[i] = scan_data.getColumn(device_names[i]);
             if (data[i] == null)
-                data[i] = Collections.emptyList();
+                data[i] = new ScanDataColumn(device_names[i], 1);
             index[i] = 0;
-            value[i] = null;
+            value[i] = -1;
         }
     }
 
-	/** @param i Device index
-	 *  @return data[index[i]]
-	 */
-	private ScanSample getCurrentSample(final int i)
-	{
-	    if (data[i].size() > index[i])
-	        return data[i].get(index[i]);
-	    return null;
-	}
-
 	/** @return Device names, i.e. spreadsheet columns */
 	public String[] getDevices()
 	{
@@ -111,43 +110,44 @@ public class ScanDataIterator
         // Find oldest serial
         final int N = device_names.length;
 		long oldest = Long.MAX_VALUE;
-		timestamp = null;
 		for (int i=0; i<N; ++i)
 		{
-		    final ScanSample sample = getCurrentSample(i);
-			if (sample == null)
+			if (index[i] >= data[i].size())
 				continue;
-			if (sample.getSerial() < oldest)
-				oldest = sample.getSerial();
+			final long serial = data[i].getSerial(index[i]);
+			if (serial < oldest)
+				oldest = serial;
 		}
 		if (oldest == Long.MAX_VALUE)
 			return false;
 
         // 'oldest' now defines the current spreadsheet line.
 		// Determine value for that line.
+		time = Long.MIN_VALUE;
 		for (int i=0; i<N; ++i)
 		{
-            final ScanSample sample = getCurrentSample(i);
-			if (sample == null)
+			if (index[i] >= data[i].size())
 			{	// No more data for device #i
 			    // Leave value[i] as is, "still valid"
 				continue;
 			}
 			// Device #i has data
-			if (sample.getSerial() <= oldest)
+			final int sample = index[i];
+			if (data[i].getSerial(sample) <= oldest)
 			{
 				// Use that as the 'value' for this line
 				value[i] = sample;
+				samples[i] = null;
 				// Set index to the next sample, which will
 				// be used as 'value' once we reach that time slot.
 				++index[i];
 			}
 			// else: sample[i] already points to a sample
 			// _after_ the current line, so leave value[i] as is
-			
+
 			// For time stamp, use the newest stamp on current line
-			if (timestamp == null  ||  timestamp.before(sample.getTimestamp()))
-			    timestamp = sample.getTimestamp();
+			if (data[i].getTime(sample) > time)
+			    time = data[i].getTime(sample);
 		}
 
 		return true;
@@ -156,14 +156,53 @@ public class ScanDataIterator
     /** @return Time stamp of the current spreadsheet line */
     public Date getTimestamp()
     {
-        return timestamp;
+        return new Date(time);
+    }
+
+    /** @return Time stamp of the current spreadsheet line in epoch milliseconds */
+    public long getTime()
+    {
+        return time;
+    }
+
+    /** @param device Device index, i.e. spreadsheet column
+     *  @return <code>true</code> if the device has a value on the current line
+     */
+    public boolean hasValue(final int device)
+    {
+        return value[device] >= 0;
+    }
+
+    /** @param device Device index, i.e. spreadsheet column
+     *  @return Number for the device on the current line, NaN if there is none
+     *  @see ScanSampleFormatter#asDouble(ScanSample)
+     */
+    public double getDouble(final int device)
+    {
+        if (value[device] < 0)
+            return Double.NaN;
+        return data[device].getDouble(value[device]);
+    }
+
+    /** @param device Device index, i.e. spreadsheet column
+     *  @return Text for the device on the current line, <code>null</code> if there is none
+     *  @see ScanSampleFormatter#asString(ScanSample)
+     */
+    public String getString(final int device)
+    {
+        if (value[device] < 0)
+            return null;
+        return data[device].asString(value[device]);
     }
 
     /** @return Samples on the current spreadsheet line */
     public ScanSample[] getSamples()
     {
-    	// Copy because value[] will be overridden with next line
-        return Arrays.copyOf(value, value.length);
+        for (int i=0; i<samples.length; ++i)
+            if (samples[i] == null  &&  value[i] >= 0)
+                samples[i] = data[i].getSample(value[i]);
+    	// Copy because samples[] will be overridden with next line
+        return Arrays.copyOf(samples, samples.length);
     }
 
     /** Write spreadsheet to stream with fixed-sized columns
@@ -182,12 +221,12 @@ public class ScanDataIterator
         {
         	table.addCell(ScanSampleFormatter.format(getTimestamp()));
             // Print current line
-            for (ScanSample sample : getSamples())
+            for (int i=0; i<value.length; ++i)
             {
-                if (sample == null)
+                if (value[i] < 0)
                 	table.addCell("#N/A");
                 else
-                    table.addCell(ScanSampleFormatter.asString(sample));
+                    table.addCell(getString(i));
             }
         }
 
@@ -210,13 +249,13 @@ public class ScanDataIterator
         {
         	out.append(ScanSampleFormatter.format(getTimestamp()));
             // Print current line
-            for (ScanSample sample : getSamples())
+            for (int i=0; i<value.length; ++i)
             {
             	out.append(CSV_SEPARATOR);
-                if (sample == null)
+                if (value[i] < 0)
                 	out.append("#N/A");
                 else
-                	out.append(ScanSampleFormatter.asString(sample));
+                	out.append(getString(i));
             }
             out.println();
         }
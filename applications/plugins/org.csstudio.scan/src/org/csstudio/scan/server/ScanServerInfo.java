@@ -32,18 +32,25 @@ public class ScanServerInfo extends MemoryInfo
     final private String simulation_config;
     final private String[] script_paths;
     final private String macros;
+    final private int running_scans;
+    final private int queued_scans;
 
     /** Initialize
      *  @param version
      *  @param start_time
      *  @param scan_config
      *  @param simulation_config
+     *  @param script_paths
+     *  @param macros
+     *  @param running_scans Number of executing scans
+     *  @param queued_scans Number of scans waiting to be executed
      */
     public ScanServerInfo(final String version, final Date start_time,
     		final String scan_config,
     		final String simulation_config,
     		final String[] script_paths,
-    		final String macros)
+    		final String macros,
+    		final int running_scans, final int queued_scans)
     {
 	    this.version = version;
 	    this.start_time = start_time;
@@ -51,6 +58,8 @@ public class ScanServerInfo extends MemoryInfo
 	    this.simulation_config = simulation_config;
 	    this.script_paths = script_paths;
 	    this.macros = macros;
+	    this.running_scans = running_scans;
+	    this.queued_scans = queued_scans;
     }
 
     /** Initialize
@@ -60,6 +69,8 @@ public class ScanServerInfo extends MemoryInfo
      *  @param simulation_config
      *  @param script_paths
      *  @param macros
+     *  @param running_scans Number of executing scans
+     *  @param queued_scans Number of scans waiting to be executed
      *  @param used_mem Used memory (kB)
      *  @param max_mem Maximum available memory (kB)
      *  @param non_heap
@@ -69,6 +80,7 @@ public class ScanServerInfo extends MemoryInfo
             final String simulation_config,
             final String[] script_paths,
             final String macros,
+            final int running_scans, final int queued_scans,
             final long used_mem, final long max_mem, final long non_heap)
     {
         super(used_mem, max_mem, non_heap);
@@ -78,6 +90,8 @@ public class ScanServerInfo extends MemoryInfo
         this.simulation_config = simulation_config;
         this.script_paths = script_paths;
         this.macros = macros;
+        this.running_scans = running_scans;
+        this.queued_scans = queued_scans;
     }
     
     /** @return Version number */
@@ -117,6 +131,18 @@ public class ScanServerInfo extends MemoryInfo
     {
         return macros;
     }
+
+    /** @return Number of executing scans */
+    public int getRunningScans()
+    {
+        return running_scans;
+    }
+
+    /** @return Number of scans waiting to be executed */
+    public int getQueuedScans()
+    {
+        return queued_scans;
+    }
 	
     /** {@inheritDoc} */
     @Override
@@ -129,6 +155,8 @@ public class ScanServerInfo extends MemoryInfo
         buf.append("Simulation Configuration: ").append(simulation_config).append("\n");
         buf.append("Script paths: ").append(PathUtil.joinPaths(script_paths)).append("\n");
         buf.append("Macros: ").append(macros).append("\n");
+        buf.append("Scans: ").append(running_scans).append(" running, ")
+           .append(queued_scans).append(" queued\n");
         buf.append("Memory: ").append(getMemoryInfo()).append("\n");
         return buf.toString();
     }
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.scan;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.csstudio.scan.data.ScanData;
+import org.csstudio.scan.data.ScanDataCSV;
+import org.csstudio.scan.data.ScanSample;
+import org.csstudio.scan.data.ScanSampleFactory;
+import org.csstudio.scan.data.ScanSampleFormatter;
+import org.junit.Test;
+
+/** JUnit test of the {@link ScanDataCSV} and merging {@link ScanData}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ScanDataCSVUnitTest
+{
+    private ScanData createData(final long first_serial, final long last_serial)
+    {
+        final Map<String, List<ScanSample>> device_logs = new HashMap<>();
+        final List<ScanSample> xs = new ArrayList<>();
+        final List<ScanSample> texts = new ArrayList<>();
+        for (long serial = first_serial; serial <= last_serial; ++serial)
+        {
+            final Date time = new Date(1370020734000L + serial);
+            xs.add(ScanSampleFactory.createSample(time, serial, serial * 0.5));
+            texts.add(ScanSampleFactory.createSample(time, serial, "Step, \"" + serial + "\"\nDone"));
+        }
+        device_logs.put("x", xs);
+        device_logs.put("text", texts);
+        return new ScanData(device_logs);
+    }
+
+    @Test
+    public void testRoundtrip() throws Exception
+    {
+        final Map<String, List<ScanSample>> device_logs = new HashMap<>();
+        final List<ScanSample> samples = new ArrayList<>();
+        samples.add(ScanSampleFactory.createSample(new Date(1000), 7, 1.0, 2.0, Double.NaN));
+        device_logs.put("array", samples);
+        final List<ScanSample> counts = new ArrayList<>();
+        counts.add(ScanSampleFactory.createSample(new Date(1000), 6, Long.valueOf(42)));
+        counts.add(ScanSampleFactory.createSample(new Date(1001), 7, Long.valueOf(-3), Double.valueOf(2.0)));
+        device_logs.put("counts", counts);
+        device_logs.put("empty", new ArrayList<ScanSample>());
+        final ScanData data = createData(0, 3).merge(new ScanData(device_logs));
+
+        final StringWriter out = new StringWriter();
+        ScanDataCSV.write(data, out);
+        final String text = out.toString();
+        System.out.println(text);
+
+        final ScanData copy = ScanDataCSV.read(new StringReader(text));
+        assertThat(copy.getDevices(), equalTo(new String[] { "array", "counts", "empty", "text", "x" }));
+        assertThat(copy.getSamples("empty").size(), equalTo(0));
+        for (String device : data.getDevices())
+        {
+            final List<ScanSample> orig = data.getSamples(device);
+            final List<ScanSample> read = copy.getSamples(device);
+            assertThat(read.size(), equalTo(orig.size()));
+            for (int i=0; i<orig.size(); ++i)
+            {
+                assertThat(read.get(i).getSerial(), equalTo(orig.get(i).getSerial()));
+                assertThat(read.get(i).getTimestamp(), equalTo(orig.get(i).getTimestamp()));
+                assertThat(ScanSampleFormatter.asString(read.get(i)),
+                           equalTo(ScanSampleFormatter.asString(orig.get(i))));
+                // Same type of values, for example Long remains Long
+                final Object[] orig_values = orig.get(i).getValues();
+                final Object[] read_values = read.get(i).getValues();
+                assertThat(read_values.length, equalTo(orig_values.length));
+                for (int v=0; v<orig_values.length; ++v)
+                    assertThat(read_values[v], equalTo(orig_values[v]));
+            }
+        }
+        assertThat(copy.getLastSerial(), equalTo(7L));
+    }
+
+    @Test
+    public void testMerge() throws Exception
+    {
+        ScanData data = createData(0, 5);
+        assertThat(data.getLastSerial(), equalTo(5L));
+
+        // Update repeats the last known serial
+        data = data.merge(createData(5, 9));
+        assertThat(data.getLastSerial(), equalTo(9L));
+        for (String device : data.getDevices())
+        {
+            final List<ScanSample> samples = data.getSamples(device);
+            assertThat(samples.size(), equalTo(10));
+            for (int i=0; i<samples.size(); ++i)
+                assertThat(samples.get(i).getSerial(), equalTo((long) i));
+        }
+
+        // Nothing new
+        data = data.merge(createData(9, 9));
+        assertThat(data.getSamples("x").size(), equalTo(10));
+        assertThat(new ScanData(new HashMap<String, List<ScanSample>>()).getLastSerial(), equalTo(-1L));
+    }
+}
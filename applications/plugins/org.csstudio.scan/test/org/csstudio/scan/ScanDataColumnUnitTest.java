@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.scan;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.csstudio.scan.data.NumberScanSample;
+import org.csstudio.scan.data.ScanData;
+import org.csstudio.scan.data.ScanDataColumn;
+import org.csstudio.scan.data.ScanDataIterator;
+import org.csstudio.scan.data.ScanSample;
+import org.csstudio.scan.data.ScanSampleFactory;
+import org.csstudio.scan.data.ScanSampleFormatter;
+import org.csstudio.scan.data.StringScanSample;
+import org.junit.Test;
+
+/** JUnit test of the {@link ScanDataColumn}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class ScanDataColumnUnitTest
+{
+    @Test
+    public void testValueKinds() throws Exception
+    {
+        final ScanDataColumn column = new ScanDataColumn("x", 1);
+        column.add(ScanSampleFactory.createSample(new Date(1000), 0, 3.14));
+        column.add(ScanSampleFactory.createSample(new Date(2000), 1, 42));
+        column.add(ScanSampleFactory.createSample(new Date(3000), 2, "Text"));
+        column.add(ScanSampleFactory.createSample(new Date(4000), 3, 1.0, 2.0));
+        column.add(4, 5000, 2.5);
+        assertThat(column.size(), equalTo(5));
+
+        final List<ScanSample> samples = column.asList();
+        assertThat(samples.get(0), instanceOf(NumberScanSample.class));
+        assertThat(ScanSampleFormatter.asString(samples.get(0)), equalTo("3.14"));
+        assertThat(ScanSampleFormatter.asString(samples.get(1)), equalTo("42"));
+        assertThat(samples.get(2), instanceOf(StringScanSample.class));
+        assertThat(column.asString(2), equalTo("Text"));
+        assertTrue(Double.isNaN(column.getDouble(2)));
+        assertThat(column.asString(3), equalTo("[1.0, 2.0]"));
+        assertThat(column.getDouble(3), equalTo(1.0));
+        assertThat(samples.get(4).getTimestamp(), equalTo(new Date(5000)));
+        assertThat(samples.get(4).getSerial(), equalTo(4L));
+
+        assertThat(column.indexOf(-1), equalTo(0));
+        assertThat(column.indexOf(3), equalTo(3));
+        assertThat(column.indexOf(5), equalTo(5));
+    }
+
+    @Test
+    public void testIterator() throws Exception
+    {
+        // x logged on even, y on odd serials
+        final ScanDataColumn x = new ScanDataColumn("x");
+        final ScanDataColumn y = new ScanDataColumn("y");
+        for (int serial=0; serial<10; ++serial)
+        {
+            if (serial % 2 == 0)
+                x.add(serial, serial * 1000L, serial / 2.0);
+            else
+                y.add(serial, serial * 1000L, serial * 10.0);
+        }
+        final ScanData data = new ScanData(Arrays.asList(x, y));
+        assertThat(data.getDevices(), equalTo(new String[] { "x", "y" }));
+        assertThat(data.getSamples("y").size(), equalTo(5));
+
+        final ScanDataIterator sheet = new ScanDataIterator(data);
+        assertTrue(sheet.hasNext());
+        assertThat(sheet.getDouble(0), equalTo(0.0));
+        assertThat(sheet.hasValue(1), equalTo(false));
+        assertTrue(Double.isNaN(sheet.getDouble(1)));
+        assertThat(sheet.getSamples()[1], equalTo(null));
+
+        int lines = 1;
+        while (sheet.hasNext())
+            ++lines;
+        assertThat(lines, equalTo(10));
+        assertThat(sheet.getDouble(0), equalTo(4.0));
+        assertThat(sheet.getDouble(1), equalTo(90.0));
+        assertThat(sheet.getTime(), equalTo(9000L));
+    }
+
+    /** @param column Column
+     *  @return Serials of the samples
+     */
+    private static long[] getSerials(final ScanDataColumn column)
+    {
+        final long[] serials = new long[column.size()];
+        for (int i=0; i<serials.length; ++i)
+            serials[i] = column.getSerial(i);
+        return serials;
+    }
+
+    @Test
+    public void testAppend() throws Exception
+    {
+        final ScanDataColumn x = new ScanDataColumn("x", 10);
+        for (int serial=0; serial<3; ++serial)
+            x.add(serial, serial * 1000L, serial);
+        final ScanData data = new ScanData(Arrays.asList(x));
+
+        // Update that repeats the last known sample
+        final ScanDataColumn update = new ScanDataColumn("x");
+        for (int serial=2; serial<6; ++serial)
+            update.add(serial, serial * 1000L, serial * 10.0);
+        final ScanData merged = data.merge(new ScanData(Arrays.asList(update)));
+        assertThat(getSerials(merged.getColumn("x")), equalTo(new long[] { 0, 1, 2, 3, 4, 5 }));
+        assertThat(merged.getColumn("x").getDouble(5), equalTo(50.0));
+        // Original is unchanged
+        assertThat(getSerials(data.getColumn("x")), equalTo(new long[] { 0, 1, 2 }));
+
+        // Merging a different update into the original data must not affect the first merge
+        final ScanDataColumn other = new ScanDataColumn("x");
+        other.add(3, 3000L, "Text");
+        final ScanData branch = data.merge(new ScanData(Arrays.asList(other)));
+        assertThat(getSerials(branch.getColumn("x")), equalTo(new long[] { 0, 1, 2, 3 }));
+        assertThat(branch.getColumn("x").asString(3), equalTo("Text"));
+        assertThat(merged.getColumn("x").getDouble(3), equalTo(30.0));
+        assertThat(merged.getColumn("x").asString(3), equalTo("30.0"));
+
+        // Keep appending beyond the initial capacity
+        ScanData growing = merged;
+        for (int serial=6; serial<100; ++serial)
+        {
+            final ScanDataColumn more = new ScanDataColumn("x", 1);
+            more.add(serial, serial * 1000L, serial * 10.0);
+            final ScanData previous = growing;
+            growing = growing.merge(new ScanData(Arrays.asList(more)));
+            assertThat(previous.getColumn("x").size(), equalTo(serial));
+        }
+        final ScanDataColumn column = growing.getColumn("x");
+        assertThat(column.size(), equalTo(100));
+        for (int i=3; i<100; ++i)
+        {
+            assertThat(column.getSerial(i), equalTo((long) i));
+            assertThat(column.getDouble(i), equalTo(i * 10.0));
+        }
+        assertThat(merged.getColumn("x").size(), equalTo(6));
+        assertThat(branch.getColumn("x").size(), equalTo(4));
+    }
+}
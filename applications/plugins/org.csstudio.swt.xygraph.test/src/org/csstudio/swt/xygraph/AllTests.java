@@ -24,6 +24,7 @@
 package org.csstudio.swt.xygraph;
 
 import org.csstudio.swt.xygraph.dataprovider.CircularBufferTest;
+import org.csstudio.swt.xygraph.figures.TraceDecimatorTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
@@ -39,7 +40,8 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses( {
     CircularBufferTest.class,
-    StaircaseTest.class
+    StaircaseTest.class,
+    TraceDecimatorTest.class
 })
 public class AllTests {
     // EMPTY
@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.swt.xygraph.figures;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+
+import org.csstudio.swt.xygraph.dataprovider.CircularBufferDataProvider;
+import org.csstudio.swt.xygraph.dataprovider.IDataProvider;
+import org.csstudio.swt.xygraph.dataprovider.IDataProviderListener;
+import org.csstudio.swt.xygraph.dataprovider.ISample;
+import org.csstudio.swt.xygraph.dataprovider.Sample;
+import org.csstudio.swt.xygraph.linearscale.LinearScale;
+import org.csstudio.swt.xygraph.linearscale.Range;
+import org.junit.Test;
+
+/** JUnit test of the {@link TraceDecimator}
+ *  @author agent
+ */
+public class TraceDecimatorTest
+{
+    /** Scale that maps values to pixels 0 .. width without fonts or display */
+    private static class TestScale extends LinearScale
+    {
+        final private int width;
+
+        TestScale(final double lower, final double upper, final int width)
+        {
+            this.width = width;
+            setRange(lower, upper);
+        }
+
+        @Override
+        public int getValuePosition(double value, final boolean relative)
+        {
+            final Range range = getRange();
+            if (isLogScaleEnabled())
+                return (int) Math.round((Math.log10(value) - Math.log10(range.getLower())) /
+                        (Math.log10(range.getUpper()) - Math.log10(range.getLower())) * width);
+            return (int) Math.round((value - range.getLower()) /
+                    (range.getUpper() - range.getLower()) * width);
+        }
+    }
+
+    /** Data provider that does not notify listeners, like the Data Browser's PlotSamples */
+    private static class ArrayDataProvider implements IDataProvider
+    {
+        ISample[] samples;
+
+        public int getSize()
+        {
+            return samples.length;
+        }
+
+        public ISample getSample(final int index)
+        {
+            return samples[index];
+        }
+
+        public Range getXDataMinMax()
+        {
+            return null;
+        }
+
+        public Range getYDataMinMax()
+        {
+            return null;
+        }
+
+        public boolean isChronological()
+        {
+            return true;
+        }
+
+        public void addDataProviderListener(final IDataProviderListener listener)
+        {
+            // Never notifies
+        }
+
+        public boolean removeDataProviderListener(final IDataProviderListener listener)
+        {
+            return false;
+        }
+    }
+
+    /** @return Decimated indices */
+    private static int[] decimate(final TraceDecimator decimator, final IDataProvider data,
+            final LinearScale x_axis, final int start, final int end)
+    {
+        final int count = decimator.decimate(data, x_axis, start, end);
+        if (count < 0)
+            return null;
+        final int[] result = new int[count];
+        for (int i=0; i<count; ++i)
+            result[i] = decimator.getIndex(i);
+        return result;
+    }
+
+    /** @return Samples 0, 1, 2, ... with given Y values */
+    private static ISample[] samples(final double... y)
+    {
+        final ISample[] samples = new ISample[y.length];
+        for (int i=0; i<y.length; ++i)
+            samples[i] = new Sample(i, y[i]);
+        return samples;
+    }
+
+    @Test
+    public void testNoDecimation()
+    {
+        final TraceDecimator decimator = new TraceDecimator();
+        final ArrayDataProvider data = new ArrayDataProvider();
+        data.samples = samples(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        // Fewer samples than pixel columns
+        assertEquals(-1, decimator.decimate(data, new TestScale(0, 9, 100), 0, 9));
+        // Not more than 4 samples per column
+        assertEquals(-1, decimator.decimate(data, new TestScale(0, 9, 2), 0, 9));
+        // Nothing to decimate
+        assertEquals(-1, decimator.decimate(data, new TestScale(0, 9, 1), 5, 4));
+    }
+
+    @Test
+    public void testMinMaxFirstLast()
+    {
+        // Pixel column c for x in c-0.5 .. c+0.5: 10 samples per column 1..9
+        final double[] y_pattern = { 5, 4, 6, 0, 5, 5, 9, 5, 5, 5 };
+        final ISample[] samples = new ISample[90];
+        for (int c=1; c<=9; ++c)
+            for (int k=0; k<10; ++k)
+                samples[(c-1)*10 + k] = new Sample(c - 0.4 + k*0.08,
+                        c == 5 ? Double.NaN : y_pattern[k]);
+        final ArrayDataProvider data = new ArrayDataProvider();
+        data.samples = samples;
+
+        final int[] indices = decimate(new TraceDecimator(), data, new TestScale(0, 10, 10), 0, 89);
+        final int[] expected = new int[34];
+        int n = 0;
+        for (int c=1; c<=9; ++c)
+        {
+            final int first = (c-1)*10;
+            expected[n++] = first;
+            if (c != 5)
+            {   // Minimum, maximum in index order
+                expected[n++] = first + 3;
+                expected[n++] = first + 6;
+            }
+            // For NaN run only first and last
+            expected[n++] = first + 9;
+        }
+        assertArrayEquals(expected, indices);
+    }
+
+    @Test
+    public void testLogAxis()
+    {
+        // x = 10^(j/25): Log axis columns 0..4 for j = 0..12, 13..37, 38..62, 63..87, 88..99
+        final ISample[] samples = new ISample[100];
+        for (int j=0; j<samples.length; ++j)
+            samples[j] = new Sample(Math.pow(10, j/25.0), j % 7);
+        final ArrayDataProvider data = new ArrayDataProvider();
+        data.samples = samples;
+
+        final TraceDecimator decimator = new TraceDecimator();
+        final TestScale x_axis = new TestScale(1, 1e4, 4);
+        x_axis.setLogScale(true);
+        x_axis.setRange(1, 1e4);
+        final int[] log = decimate(decimator, data, x_axis, 0, 99);
+        final int[] first_last = { 0, 12, 13, 37, 38, 62, 63, 87, 88, 99 };
+        for (int index : first_last)
+            assertFalse("Missing " + index + " in " + Arrays.toString(log),
+                        Arrays.binarySearch(log, index) < 0);
+        // Each column adds at most first, min, max, last
+        assertEquals(true, log.length <= 4 * 5);
+
+        // Linear axis has other columns
+        x_axis.setLogScale(false);
+        x_axis.setRange(1, 1e4);
+        final int[] linear = decimate(decimator, data, x_axis, 0, 99);
+        assertFalse(Arrays.equals(log, linear));
+        assertArrayEquals(decimate(new TraceDecimator(), data, x_axis, 0, 99), linear);
+    }
+
+    @Test
+    public void testSameSizeChange()
+    {
+        // Provider that can't notify: Same size, same X range, new Y values
+        final ArrayDataProvider data = new ArrayDataProvider();
+        final double[] y = new double[100];
+        y[10] = 1;
+        data.samples = samples(y);
+        final TraceDecimator decimator = new TraceDecimator();
+        final TestScale x_axis = new TestScale(0, 99, 4);
+        final int[] before = decimate(decimator, data, x_axis, 0, 99);
+
+        y[10] = 0;
+        y[20] = 1;
+        data.samples = samples(y);
+        final int[] after = decimate(decimator, data, x_axis, 0, 99);
+        assertFalse(Arrays.equals(before, after));
+        assertArrayEquals(decimate(new TraceDecimator(), data, x_axis, 0, 99), after);
+    }
+
+    @Test
+    public void testFullRingBuffer()
+    {
+        // Data that notifies, but the decimator misses the notification:
+        // Full ring buffer keeps the size
+        final CircularBufferDataProvider data = new CircularBufferDataProvider(true);
+        data.setBufferSize(100);
+        for (int i=0; i<100; ++i)
+            data.addSample(new Sample(i, i % 10));
+        final TraceDecimator decimator = new TraceDecimator();
+        final TestScale x_axis = new TestScale(0, 200, 10);
+        final int[] before = decimate(decimator, data, x_axis, 0, 99);
+
+        for (int i=100; i<150; ++i)
+            data.addSample(new Sample(i, i % 3));
+        assertEquals(100, data.getSize());
+        final int[] after = decimate(decimator, data, x_axis, 0, 99);
+        assertFalse(Arrays.equals(before, after));
+        assertArrayEquals(decimate(new TraceDecimator(), data, x_axis, 0, 99), after);
+
+        // Unchanged data uses cached result
+        assertEquals(after.length, decimator.decimate(data, x_axis, 0, 99));
+        // Invalidated when told about a change
+        decimator.invalidate();
+        assertArrayEquals(after, decimate(decimator, data, x_axis, 0, 99));
+    }
+}
@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.swt.xygraph.dataprovider;
+
+/**
+ * Data provider that counts its changes.
+ * <p>
+ * For data providers that do not notify their {@link IDataProviderListener}s
+ * about each change, for example because the application triggers the
+ * redraw, the version allows the XY Graph to tell if cached information
+ * about the samples is still valid.
+ *
+ * @author agent
+ */
+public interface IVersionedDataProvider extends IDataProvider {
+
+	/**Get the data version.
+	 * <p>
+	 * <b>Synchronization:</b>
+	 * Call while synchronized on the <code>IDataProvider</code>.
+	 *
+	 * @return Number that changes whenever samples are added, removed or replaced.
+	 */
+	public long getDataVersion();
+}
@@ -234,6 +234,9 @@ public class Trace extends Figure implements IDataProviderListener,
 
 	private List<ISample> hotSampleist;
 
+	/** Per-pixel min/max decimation of line traces */
+	final private TraceDecimator decimator = new TraceDecimator();
+
 	public Trace(String name, Axis xAxis, Axis yAxis, IDataProvider dataProvider) {
 		this.setName(name);
 		this.xAxis = xAxis;
@@ -562,7 +565,15 @@ public class Trace extends Figure implements IDataProviderListener,
 				Point minInRegion = null;
 				Point lastInRegion = null;
 				
-				for (int i = startIndex; i <= endIndex; i++) {
+				// For long line traces, only paint the samples that matter
+				// for each pixel column
+				final int decimated = canDecimate()
+						? decimator.decimate(traceDataProvider, xAxis, startIndex, endIndex)
+						: -1;
+				final int count = decimated < 0 ? endIndex - startIndex + 1 : decimated;
+
+				for (int n = 0; n < count; n++) {
+					final int i = decimated < 0 ? startIndex + n : decimator.getIndex(n);
 					ISample dp = traceDataProvider.getSample(i);
 					final boolean dpInXRange = xAxis.getRange().inRange(
 							dp.getXValue());
@@ -909,6 +920,29 @@ public class Trace extends Figure implements IDataProviderListener,
 		graphics.popState();
 	}
 
+	/**
+	 * Check if the samples can be decimated per pixel column without changing
+	 * the painted result. That is the case for chronological data painted as
+	 * lines without point markers or error bars.
+	 * 
+	 * @return <code>true</code> if {@link TraceDecimator} may be used
+	 */
+	private boolean canDecimate() {
+		if (!traceDataProvider.isChronological())
+			return false;
+		if (pointStyle != PointStyle.NONE || errorBarEnabled)
+			return false;
+		switch (traceType) {
+		case SOLID_LINE:
+		case DASH_LINE:
+		case STEP_HORIZONTALLY:
+		case STEP_VERTICALLY:
+			return true;
+		default:
+			return false;
+		}
+	}
+
 	/**
 	 * Compute axes intersection considering the 'TraceType'
 	 * 
@@ -1152,6 +1186,7 @@ public class Trace extends Figure implements IDataProviderListener,
 		// traceDataProvider.addDataProviderListener(xAxis);
 		// traceDataProvider.addDataProviderListener(yAxis);
 		this.traceDataProvider = traceDataProvider;
+		decimator.invalidate();
 	}
 
 	/**
@@ -1332,6 +1367,7 @@ public class Trace extends Figure implements IDataProviderListener,
 	}
 
 	public void dataChanged(IDataProvider dataProvider) {
+		decimator.invalidate();
 		// if the axis has been repainted, it will cause the trace to be
 		// repainted autoly,
 		// the trace doesn't have to be repainted again.
@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.swt.xygraph.figures;
+
+import org.csstudio.swt.xygraph.dataprovider.AbstractDataProvider;
+import org.csstudio.swt.xygraph.dataprovider.IDataProvider;
+import org.csstudio.swt.xygraph.dataprovider.ISample;
+import org.csstudio.swt.xygraph.dataprovider.IVersionedDataProvider;
+import org.csstudio.swt.xygraph.linearscale.LinearScale;
+import org.csstudio.swt.xygraph.linearscale.Range;
+
+/** Min/max decimation of trace samples per pixel column ("M4").
+ *  <p>
+ *  For chronological data, all samples that map to the same pixel
+ *  column on the X axis are reduced to the first, minimum, maximum
+ *  and last sample of that column.
+ *  A polyline through those samples covers the same pixels as
+ *  a polyline through all samples, but the number of points to paint
+ *  is proportional to the plot width instead of the data size.
+ *  <p>
+ *  Runs of NaN samples are reduced to their first and last sample,
+ *  so gaps in the trace and the 'NaN' markers remain unchanged.
+ *  <p>
+ *  The result is cached until the X axis range, its pixel size,
+ *  the visible sample index range or the data size change.
+ *  Changes to the samples themselves are detected
+ *  by the version of an {@link IVersionedDataProvider},
+ *  or through {@link #invalidate()} when an {@link AbstractDataProvider}
+ *  reports a change to its listeners.
+ *  For other data providers, which could replace samples without
+ *  changing the size, the X values of the first and last visible sample
+ *  are compared, but the result is not cached beyond the next call.
+ *  Must be called with the data provider locked.
+ *
+ *  @author agent
+ */
+class TraceDecimator
+{
+    /** Decimate only if there are more samples than this per pixel column */
+    final private static int MIN_SAMPLES_PER_COLUMN = 4;
+
+    /** Sample indices after decimation */
+    private int[] indices = new int[0];
+
+    /** Number of valid entries in indices, -1 if no decimation */
+    private int count = -1;
+
+    /** Is the cached result valid? Cleared from data provider thread */
+    private volatile boolean valid = false;
+
+    // Parameters of the cached result
+    private Range x_range = null;
+    private boolean x_log = false;
+    private int x_start_pos, x_end_pos;
+    private int start_index, end_index, size;
+    private double first_x, last_x;
+    private long version;
+
+    /** Mark cached result as outdated because data changed */
+    public void invalidate()
+    {
+        valid = false;
+    }
+
+    /** Decimate samples
+     *  @param data Data provider, must be chronological
+     *  @param x_axis X axis
+     *  @param start First sample index to consider
+     *  @param end Last sample index to consider
+     *  @return Number of decimated samples,
+     *          or -1 if decimation would not reduce the samples
+     *          so all samples from start to end should be used
+     */
+    public int decimate(final IDataProvider data, final LinearScale x_axis,
+                        final int start, final int end)
+    {
+        if (end < start)
+            return -1;
+        final Range range = x_axis.getRange();
+        final boolean log = x_axis.isLogScaleEnabled();
+        final int start_pos = x_axis.getValuePosition(range.getLower(), false);
+        final int end_pos = x_axis.getValuePosition(range.getUpper(), false);
+        if (data instanceof IVersionedDataProvider)
+        {   // Version covers all changes to the samples.
+            // The last sample may still move in X, for example a
+            // continuation of the last value to 'now', but the last
+            // index is always part of the result.
+            final long data_version = ((IVersionedDataProvider) data).getDataVersion();
+            if (valid  &&  data_version == version  &&
+                isSameRange(range, log, start_pos, end_pos, start, end, data.getSize()))
+                return count;
+            valid = true;
+            version = data_version;
+        }
+        else
+        {
+            final double first = data.getSample(start).getXValue();
+            final double last = data.getSample(end).getXValue();
+            if (valid  &&
+                isSameRange(range, log, start_pos, end_pos, start, end, data.getSize())  &&
+                Double.compare(first, first_x) == 0  &&
+                Double.compare(last, last_x) == 0)
+                return count;
+            // Mark as valid before computing, so that a concurrent
+            // invalidate() will trigger another update.
+            // Without change notifications, the next call has to compute again.
+            valid = data instanceof AbstractDataProvider;
+            first_x = first;
+            last_x = last;
+        }
+        x_range = range;
+        x_log = log;
+        x_start_pos = start_pos;
+        x_end_pos = end_pos;
+        start_index = start;
+        end_index = end;
+        size = data.getSize();
+
+        final int columns = Math.abs(end_pos - start_pos) + 1;
+        if (end - start + 1 <= columns * MIN_SAMPLES_PER_COLUMN)
+            count = -1;
+        else
+            count = compute(data, x_axis, start, end);
+        return count;
+    }
+
+    /** @return <code>true</code> if parameters match those of the cached result */
+    private boolean isSameRange(final Range range, final boolean log,
+                                final int start_pos, final int end_pos,
+                                final int start, final int end, final int data_size)
+    {
+        return range.equals(x_range)  &&  log == x_log  &&
+               start_pos == x_start_pos  &&  end_pos == x_end_pos  &&
+               start == start_index  &&  end == end_index  &&
+               data_size == size;
+    }
+
+    /** @param i Index 0 .. (result of decimate() - 1)
+     *  @return Sample index
+     */
+    public int getIndex(final int i)
+    {
+        return indices[i];
+    }
+
+    /** Perform the decimation
+     *  @return Number of indices
+     */
+    private int compute(final IDataProvider data, final LinearScale x_axis,
+                        final int start, final int end)
+    {
+        count = 0;
+        // Current run of samples in the same pixel column
+        // that are either all NaN or all numbers
+        int column = 0;
+        boolean nan = false;
+        int first = -1, last = -1, min = -1, max = -1;
+        double min_value = 0, max_value = 0;
+        for (int i=start; i<=end; ++i)
+        {
+            final ISample sample = data.getSample(i);
+            final double y = sample.getYValue();
+            final int pos = x_axis.getValuePosition(sample.getXValue(), false);
+            final boolean is_nan = Double.isNaN(y);
+            if (first < 0  ||  pos != column  ||  is_nan != nan)
+            {   // Start new run
+                if (first >= 0)
+                    addRun(first, min, max, last);
+                column = pos;
+                nan = is_nan;
+                first = i;
+                min = max = is_nan ? -1 : i;
+                min_value = max_value = y;
+            }
+            else if (! is_nan)
+            {
+                if (y < min_value)
+                {
+                    min = i;
+                    min_value = y;
+                }
+                if (y > max_value)
+                {
+                    max = i;
+                    max_value = y;
+                }
+            }
+            last = i;
+        }
+        if (first >= 0)
+            addRun(first, min, max, last);
+        return count;
+    }
+
+    /** Add indices for a run of samples in one pixel column, in index order
+     *  @param first Index of first sample
+     *  @param min Index of minimum or -1
+     *  @param max Index of maximum or -1
+     *  @param last Index of last sample
+     */
+    private void addRun(final int first, final int min, final int max, final int last)
+    {
+        if (count + 4 > indices.length)
+        {
+            final int[] grown = new int[Math.max(1024, indices.length * 2)];
+            System.arraycopy(indices, 0, grown, 0, count);
+            indices = grown;
+        }
+        indices[count++] = first;
+        final int a = Math.min(min, max), b = Math.max(min, max);
+        if (a > first  &&  a < last)
+            indices[count++] = a;
+        if (b > first  &&  b < last  &&  b != a)
+            indices[count++] = b;
+        if (last != first)
+            indices[count++] = last;
+    }
+}
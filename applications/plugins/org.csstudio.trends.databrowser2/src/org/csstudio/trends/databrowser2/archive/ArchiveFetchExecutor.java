@@ -0,0 +1,313 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser2.archive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+import org.csstudio.archive.reader.ArchiveReader;
+import org.csstudio.archive.reader.ArchiveRepository;
+import org.csstudio.archive.reader.ValueIterator;
+import org.csstudio.archive.vtype.TimestampHelper;
+import org.csstudio.trends.databrowser2.Activator;
+import org.csstudio.trends.databrowser2.model.ArchiveDataSource;
+import org.csstudio.trends.databrowser2.model.RequestType;
+import org.csstudio.trends.databrowser2.preferences.Preferences;
+import org.epics.util.time.Timestamp;
+import org.epics.vtype.VType;
+
+/** Executor for archive data requests, shared by all {@link ArchiveFetchJob}s.
+ *  <p>
+ *  Performs requests in parallel, using a limited number of threads.
+ *  Identical requests that are submitted while one is already
+ *  pending share the result.
+ *  @author agent
+ */
+public class ArchiveFetchExecutor
+{
+    /** Singleton instance */
+    private static ArchiveFetchExecutor instance = null;
+
+    /** Thread pool for the requests */
+    final private ExecutorService executor;
+
+    /** Pending requests. Synchronize on access */
+    final private Map<Request, Fetch> pending = new HashMap<Request, Fetch>();
+
+    /** Identifies a request for archived data */
+    private static class Request
+    {
+        final String url;
+        final int key;
+        final String channel;
+        final RequestType type;
+        final Timestamp start, end;
+        final int bins;
+
+        Request(final String url, final int key, final String channel, final RequestType type,
+                final Timestamp start, final Timestamp end, final int bins)
+        {
+            this.url = url;
+            this.key = key;
+            this.channel = channel;
+            this.type = type;
+            this.start = start;
+            this.end = end;
+            this.bins = bins;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            final int prime = 31;
+            int result = url.hashCode();
+            result = prime * result + key;
+            result = prime * result + channel.hashCode();
+            result = prime * result + type.hashCode();
+            result = prime * result + start.hashCode();
+            result = prime * result + end.hashCode();
+            result = prime * result + bins;
+            return result;
+        }
+
+        @Override
+        public boolean equals(final Object obj)
+        {
+            if (! (obj instanceof Request))
+                return false;
+            final Request other = (Request) obj;
+            return key == other.key  &&  bins == other.bins  &&  type == other.type  &&
+                   url.equals(other.url)  &&  channel.equals(other.channel)  &&
+                   start.equals(other.start)  &&  end.equals(other.end);
+        }
+
+        @SuppressWarnings("nls")
+        @Override
+        public String toString()
+        {
+            return channel + " from " + url + " (" + key + "), " + type + ", " +
+                   TimestampHelper.format(start) + " ... " + TimestampHelper.format(end);
+        }
+    }
+
+    /** Fetch of data for one request, may be shared by several clients */
+    public class Fetch implements Runnable
+    {
+        final private Request request;
+
+        final private CountDownLatch done = new CountDownLatch(1);
+
+        /** Number of clients that use this fetch. Synchronize on pending */
+        private int references = 1;
+
+        private volatile boolean cancelled = false;
+
+        /** Archive reader that's currently queried.
+         *  Synchronize 'this' on access.
+         */
+        private ArchiveReader reader = null;
+
+        private volatile String source = null;
+        private volatile List<VType> samples = null;
+        private volatile Exception error = null;
+
+        Fetch(final Request request)
+        {
+            this.request = request;
+        }
+
+        /** Perform the request */
+        @Override
+        public void run()
+        {
+            try
+            {
+                if (cancelled)
+                    return;
+                Activator.getLogger().log(Level.FINE, "Fetching {0}", request); //$NON-NLS-1$
+                final ArchiveReader the_reader;
+                synchronized (this)
+                {
+                    the_reader = reader = ArchiveRepository.getInstance().getArchiveReader(request.url);
+                }
+                final ValueIterator value_iter;
+                if (request.type == RequestType.RAW)
+                    value_iter = the_reader.getRawValues(request.key, request.channel, request.start, request.end);
+                else
+                    value_iter = the_reader.getOptimizedValues(request.key, request.channel, request.start, request.end, request.bins);
+                // Get samples into array
+                final List<VType> result = new ArrayList<VType>();
+                try
+                {
+                    while (value_iter.hasNext()  &&  !cancelled)
+                        result.add(value_iter.next());
+                }
+                finally
+                {
+                    value_iter.close();
+                }
+                source = the_reader.getServerName();
+                samples = Collections.unmodifiableList(result);
+            }
+            catch (Exception ex)
+            {
+                error = ex;
+            }
+            finally
+            {
+                synchronized (this)
+                {
+                    if (reader != null)
+                        reader.close();
+                    reader = null;
+                }
+                synchronized (pending)
+                {
+                    if (pending.get(request) == this)
+                        pending.remove(request);
+                }
+                done.countDown();
+            }
+        }
+
+        /** Wait for the fetch to complete
+         *  @param millisecs Maximum time to wait
+         *  @return <code>true</code> if done
+         *  @throws InterruptedException on interruption
+         */
+        public boolean await(final long millisecs) throws InterruptedException
+        {
+            return done.await(millisecs, TimeUnit.MILLISECONDS);
+        }
+
+        /** @return <code>true</code> if done, successful or not */
+        public boolean isDone()
+        {
+            return done.getCount() == 0;
+        }
+
+        /** @return Name of the archive server that provided the samples */
+        public String getSource()
+        {
+            return source;
+        }
+
+        /** @return Samples, read-only
+         *  @throws Exception if the request failed
+         */
+        public List<VType> getSamples() throws Exception
+        {
+            if (error != null)
+                throw error;
+            if (samples == null)
+                return Collections.emptyList();
+            return samples;
+        }
+
+        /** Indicate that a client no longer needs the result.
+         *  When no client needs it any longer, the request is cancelled.
+         *  Each client must call this at most once.
+         */
+        public void release()
+        {
+            synchronized (pending)
+            {
+                if (--references > 0)
+                    return;
+                if (pending.get(request) == this)
+                    pending.remove(request);
+            }
+            cancelled = true;
+            synchronized (this)
+            {
+                if (reader != null)
+                    reader.cancel();
+            }
+        }
+
+        @SuppressWarnings("nls")
+        @Override
+        public String toString()
+        {
+            return "Fetch " + request;
+        }
+    }
+
+    /** @return Singleton instance */
+    public static synchronized ArchiveFetchExecutor getInstance()
+    {
+        if (instance == null)
+            instance = new ArchiveFetchExecutor(Preferences.getArchiveFetchThreads());
+        return instance;
+    }
+
+    /** Initialize
+     *  @param threads Number of threads to use for requests
+     */
+    private ArchiveFetchExecutor(final int threads)
+    {
+        final AtomicInteger thread_instance = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(final Runnable runnable)
+            {
+                final Thread thread = new Thread(runnable,
+                        "ArchiveFetch" + thread_instance.incrementAndGet()); //$NON-NLS-1$
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /** Submit a request for archived data
+     *
+     *  <p>Caller must eventually {@link Fetch#release()} the fetch
+     *  when it's no longer needed before completion.
+     *
+     *  @param archive Archive data source
+     *  @param channel Channel name
+     *  @param type Request type
+     *  @param start Start time
+     *  @param end End time
+     *  @param bins Number of bins for optimized requests
+     *  @return {@link Fetch} for the request, possibly shared with other clients
+     */
+    public Fetch fetch(final ArchiveDataSource archive, final String channel,
+            final RequestType type, final Timestamp start, final Timestamp end,
+            final int bins)
+    {
+        final Request request = new Request(archive.getUrl(), archive.getKey(),
+                channel, type, start, end, type == RequestType.RAW ? 0 : bins);
+        Fetch fetch;
+        synchronized (pending)
+        {
+            fetch = pending.get(request);
+            if (fetch != null)
+            {
+                ++fetch.references;
+                Activator.getLogger().log(Level.FINE, "Sharing {0}", fetch); //$NON-NLS-1$
+                return fetch;
+            }
+            fetch = new Fetch(request);
+            pending.put(request, fetch);
+        }
+        executor.execute(fetch);
+        return fetch;
+    }
+}
@@ -9,6 +9,7 @@ package org.csstudio.trends.databrowser2.model;
 
 import java.util.List;
 
+import org.csstudio.swt.xygraph.linearscale.Range;
 import org.epics.util.time.Timestamp;
 import org.epics.vtype.VType;
 
@@ -25,6 +26,9 @@ import org.epics.vtype.VType;
  *  the live data ring buffer rolls around, the 'border' time adjustments
  *  might then uncover historic samples that were previously
  *  hidden below the 'live' time range.
+ *  <p>
+ *  Samples are kept in {@link PlotSampleChunks},
+ *  so merging new archive data only copies the new samples.
  *
  *  @author Kay Kasemir
  *  @author Takashi Nakamoto changed HistoricSamples to handle waveform index.
@@ -32,7 +36,7 @@ import org.epics.vtype.VType;
 public class HistoricSamples extends PlotSamples
 {
     /** "All" historic samples */
-    private PlotSample samples[] = new PlotSample[0];
+    final private PlotSampleChunks samples = new PlotSampleChunks();
 
     /** If non-null, samples beyond this time are hidden from access */
     private Timestamp border_time = null;
@@ -48,10 +52,9 @@ public class HistoricSamples extends PlotSamples
     /** @param index Waveform index to show */
     public synchronized void setWaveformIndex(int index)
     {
+    	// Samples are created with this index when accessed
     	waveform_index = index;
-    	// change the index of all samples in this instance
-    	for (PlotSample sample: samples)
-    		sample.setWaveformIndex(waveform_index);
+    	++version;
     }
 
     /** Define a new 'border' time beyond which no samples
@@ -72,7 +75,7 @@ public class HistoricSamples extends PlotSamples
         computeVisibleSize();
         synchronized (this)
         {
-            have_new_samples = true;
+            samplesChanged();
         }
     }
 
@@ -80,11 +83,11 @@ public class HistoricSamples extends PlotSamples
     synchronized private void computeVisibleSize()
     {
         if (border_time == null)
-            visible_size = samples.length;
+            visible_size = samples.size();
         else
         {
-            final int last_index = PlotSampleSearch.findSampleLessThan(
-                                        samples, border_time);
+            final int last_index = samples.findSampleLessThan(
+                                        PlotSampleColumns.toNanos(border_time));
             visible_size = (last_index < 0)   ?   0   :   last_index + 1;
         }
     }
@@ -96,7 +99,7 @@ public class HistoricSamples extends PlotSamples
     {
         if (i >= visible_size)
             throw new IndexOutOfBoundsException("Index " + i + " exceeds visible size " + visible_size);
-        return samples[i];
+        return samples.get(i, waveform_index);
     }
 
     /** {@inheritDoc} */
@@ -105,12 +108,19 @@ public class HistoricSamples extends PlotSamples
     {
         return visible_size;
     }
+
+    /** {@inheritDoc} */
+    @Override
+    synchronized public Range getYDataMinMax()
+    {
+        return samples.getYDataMinMax(visible_size, waveform_index);
+    }
     
     /**
      * @return the number of samples, ignoring the border time
      */
     public synchronized int getRawSize() {
-    	return samples.length;
+    	return samples.size();
     }
     
     /**
@@ -120,7 +130,7 @@ public class HistoricSamples extends PlotSamples
      * @return the plot sample
      */
     public synchronized PlotSample getRawSample(int i) {
-    	return samples[i];
+    	return samples.get(i, waveform_index);
     }
 
     /** Merge newly received archive data into historic samples
@@ -132,26 +142,22 @@ public class HistoricSamples extends PlotSamples
         // Anything new at all?
         if (result.size() <= 0)
             return;
-        // Turn IValues into PlotSamples
-        final PlotSample new_samples[] = new PlotSample[result.size()];
-        for (int i=0; i<new_samples.length; ++i) {
-            new_samples[i] = new PlotSample(source, result.get(i));
-            new_samples[i].setWaveformIndex(waveform_index);
-        }
+        // Turn VTypes into sample columns
+        final PlotSampleColumns new_samples = new PlotSampleColumns(result.size(), false);
+        for (VType value : result)
+            new_samples.add(source, value);
         // Merge with existing samples
-        final PlotSample merged[] = PlotSampleMerger.merge(samples, new_samples);
-        if (merged == samples)
+        if (! samples.merge(new_samples))
             return;
-        samples = merged;
         computeVisibleSize();
-        have_new_samples = true;
+        samplesChanged();
     }
 
     /** Delete all samples */
     synchronized public void clear()
     {
         visible_size = 0;
-        samples = new PlotSample[0];
-        have_new_samples = true;
+        samples.clear();
+        samplesChanged();
     }
 }
@@ -7,20 +7,21 @@
  ******************************************************************************/
 package org.csstudio.trends.databrowser2.model;
 
-import org.csstudio.apputil.ringbuffer.RingBuffer;
+import org.csstudio.swt.xygraph.linearscale.Range;
 import org.csstudio.trends.databrowser2.preferences.Preferences;
 
 /** Ring buffer for 'live' samples.
  *  <p>
- *  New samples are always added to the end of a ring buffer.
+ *  New samples are always added to the end of a ring buffer,
+ *  kept in {@link PlotSampleColumns}.
  * 
  *  @author Kay Kasemir
  *  @author Takashi Nakamoto changed LiveSamples to handle waveform index.
  */
 public class LiveSamples extends PlotSamples
 {
-    private RingBuffer<PlotSample> samples =
-        new RingBuffer<PlotSample>(Preferences.getLiveSampleBufferSize());
+    final private PlotSampleColumns samples =
+        new PlotSampleColumns(Preferences.getLiveSampleBufferSize(), true);
     
     /** Waveform index */
     private int waveform_index = 0;
@@ -28,12 +29,9 @@ public class LiveSamples extends PlotSamples
     /** @param index Waveform index to show */
     synchronized public void setWaveformIndex(int index)
     {
+    	// Samples are created with this index when accessed
     	waveform_index = index;
-
-    	// Change the index of all samples in this instance
-    	for (int i=0; i<samples.size(); i++) {
-    		samples.get(i).setWaveformIndex(waveform_index);
-    	}
+    	++version;
     }
     
     /** @return Maximum number of samples in ring buffer */
@@ -53,14 +51,14 @@ public class LiveSamples extends PlotSamples
         if (new_capacity < 10)
             new_capacity = 10;
         samples.setCapacity(new_capacity);
+        ++version;
     }
 
     /** @param sample Sample to add to ring buffer */
     synchronized void add(final PlotSample sample)
     {
-    	sample.setWaveformIndex(waveform_index);
         samples.add(sample);
-        have_new_samples = true;
+        samplesChanged();
     }
 
     @Override
@@ -72,12 +70,20 @@ public class LiveSamples extends PlotSamples
     @Override
     synchronized public PlotSample getSample(final int i)
     {
-        return samples.get(i);
+        return samples.get(i, waveform_index);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    synchronized public Range getYDataMinMax()
+    {
+        return samples.getYDataMinMax(0, samples.size(), waveform_index);
     }
 
     /** Delete all samples */
     synchronized public void clear()
     {
         samples.clear();
+        ++version;
     }
 }
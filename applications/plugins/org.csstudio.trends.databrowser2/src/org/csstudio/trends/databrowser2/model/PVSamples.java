@@ -182,6 +182,13 @@ public class PVSamples extends PlotSamples
         return new Range(min, max);
     }
 
+    /** @return Combined version of historic and live samples */
+    @Override
+    synchronized public long getDataVersion()
+    {
+        return history.getDataVersion() + live.getDataVersion();
+    }
+
     /** Test if samples changed since the last time
      *  <code>testAndClearNewSamplesFlag</code> was called.
      *  @return <code>true</code> if there were new samples
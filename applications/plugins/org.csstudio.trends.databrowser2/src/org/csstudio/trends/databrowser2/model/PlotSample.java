@@ -23,7 +23,9 @@ import org.epics.vtype.ValueFactory;
  */
 public class PlotSample implements ISample
 {
-    /** Value contained in this sample */
+    /** Value contained in this sample.
+     *  May be <code>null</code> for derived classes that create it on demand.
+     */
     final private VType value;
 
     /** Source of the data */
@@ -57,6 +59,17 @@ public class PlotSample implements ISample
         this.info = info;
     }
 
+    /** Initialize for derived class that provides the value on demand
+     *  @param source Info about the source of this sample
+     *  @see #getValue()
+     */
+    protected PlotSample(final String source)
+    {
+        this.value = null;
+        this.source = source;
+        info = null;
+    }
+
     /** Package-level constructor, only used in unit tests */
     @SuppressWarnings("nls")
     PlotSample(final double x, final double y)
@@ -89,6 +102,14 @@ public class PlotSample implements ISample
         return value;
     }
 
+    /** @return <code>true</code> if sample has an info text
+     *          other than its value's text
+     */
+    boolean hasInfo()
+    {
+        return info != null;
+    }
+
     /** @return Control system time stamp */
     public Timestamp getTime()
     {
@@ -96,6 +117,7 @@ public class PlotSample implements ISample
         // because that actually takes quite some time.
         // We just plot what we have, and that includes
         // the case where the time stamp is invalid.
+        final VType value = getValue();
         if (value instanceof Time)
             return ((Time) value).getTimestamp();
         return Timestamp.now();
@@ -117,7 +139,7 @@ public class PlotSample implements ISample
     @Override
     public double getYValue()
     {
-        return VTypeHelper.toDouble(value, waveform_index);
+        return VTypeHelper.toDouble(getValue(), waveform_index);
     }
 
     /** Get sample's info text.
@@ -149,6 +171,7 @@ public class PlotSample implements ISample
     @Override
     public double getYMinusError()
     {
+        final VType value = getValue();
         if (!(value instanceof VStatistics))
             return 0;
         
@@ -169,6 +192,7 @@ public class PlotSample implements ISample
     @Override
     public double getYPlusError()
     {
+        final VType value = getValue();
         if (!(value instanceof VStatistics))
             return 0;
  
@@ -188,6 +212,6 @@ public class PlotSample implements ISample
     @Override
     public String toString()
     {
-        return VTypeHelper.toString(value);
+        return VTypeHelper.toString(getValue());
     }
 }
@@ -0,0 +1,328 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser2.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.csstudio.swt.xygraph.linearscale.Range;
+
+/** Time-ordered list of sample chunks.
+ *  <p>
+ *  Each chunk is a section of {@link PlotSampleColumns}.
+ *  Chunks are sorted by time and do not overlap.
+ *  When merging new data, it is spliced in as a new chunk,
+ *  replacing overlapping chunks or trimming them by adjusting their section,
+ *  without copying the retained samples.
+ *  The cost of a merge is thus mostly proportional to the new data,
+ *  not to the total number of samples.
+ *  <p>
+ *  Not thread-safe, synchronization is left to the {@link PlotSamples} that use it.
+ *
+ *  @see PlotSampleMerger for the merge rules
+ *  @author agent
+ */
+class PlotSampleChunks
+{
+    /** Chunks smaller than this are combined with small neighbors */
+    final private static int SMALL_CHUNK = 1024;
+
+    /** Section of sample columns */
+    private static class Chunk
+    {
+        final PlotSampleColumns columns;
+        final int first;
+        final int count;
+
+        Chunk(final PlotSampleColumns columns, final int first, final int count)
+        {
+            this.columns = columns;
+            this.first = first;
+            this.count = count;
+        }
+
+        long getStart()
+        {
+            return columns.getTime(first);
+        }
+
+        long getEnd()
+        {
+            return columns.getTime(first + count - 1);
+        }
+
+        /** @return Number of samples with time before the goal */
+        int countLessThan(final long goal)
+        {
+            int low = first, high = first + count - 1;
+            while (low <= high)
+            {
+                final int mid = (low + high) >>> 1;
+                if (columns.getTime(mid) < goal)
+                    low = mid + 1;
+                else
+                    high = mid - 1;
+            }
+            return low - first;
+        }
+
+        /** @return Number of samples with time up to and including the goal */
+        int countLessOrEqual(final long goal)
+        {
+            int low = first, high = first + count - 1;
+            while (low <= high)
+            {
+                final int mid = (low + high) >>> 1;
+                if (columns.getTime(mid) <= goal)
+                    low = mid + 1;
+                else
+                    high = mid - 1;
+            }
+            return low - first;
+        }
+
+        /** @return Chunk for a sub-section, with a copy of the samples when the
+         *          sub-section only uses a small part of the columns
+         */
+        Chunk section(final int offset, final int length)
+        {
+            if (length * 4 < columns.size())
+            {   // Don't hold on to a mostly unused columns
+                final PlotSampleColumns copy = new PlotSampleColumns(length, false);
+                copy.add(columns, first + offset, length);
+                return new Chunk(copy, 0, length);
+            }
+            return new Chunk(columns, first + offset, length);
+        }
+    }
+
+    /** Chunks, sorted by time */
+    final private List<Chunk> chunks = new ArrayList<Chunk>();
+
+    /** Index of the first sample in each chunk, plus total size at the end */
+    private int[] offsets = new int[] { 0 };
+
+    /** Chunk used for the last access, speeding up sequential access */
+    private int last_chunk = 0;
+
+    /** @return Number of samples */
+    public int size()
+    {
+        return offsets[chunks.size()];
+    }
+
+    /** @return Number of chunks */
+    public int getChunkCount()
+    {
+        return chunks.size();
+    }
+
+    /** @param index Sample index
+     *  @return Index of chunk that holds the sample
+     */
+    private int findChunk(final int index)
+    {
+        if (index < 0  ||  index >= size())
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size()); //$NON-NLS-1$ //$NON-NLS-2$
+        // Check last chunk and the one after that for sequential access
+        int c = last_chunk;
+        if (c < chunks.size()  &&  offsets[c] <= index)
+        {
+            if (index < offsets[c+1])
+                return c;
+            if (c+1 < chunks.size()  &&  index < offsets[c+2])
+                return last_chunk = c+1;
+        }
+        // Binary search for last chunk with offset <= index
+        int low = 0, high = chunks.size() - 1;
+        while (low < high)
+        {
+            final int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= index)
+                low = mid;
+            else
+                high = mid - 1;
+        }
+        return last_chunk = low;
+    }
+
+    /** @param index Sample index
+     *  @return Time stamp in nanoseconds since epoch
+     */
+    public long getTime(final int index)
+    {
+        final int c = findChunk(index);
+        final Chunk chunk = chunks.get(c);
+        return chunk.columns.getTime(chunk.first + index - offsets[c]);
+    }
+
+    /** Get a sample
+     *  @param index Sample index
+     *  @param waveform_index Waveform index for the sample
+     *  @return {@link PlotSample}
+     */
+    public PlotSample get(final int index, final int waveform_index)
+    {
+        final int c = findChunk(index);
+        final Chunk chunk = chunks.get(c);
+        return chunk.columns.get(chunk.first + index - offsets[c], waveform_index);
+    }
+
+    /** Find the last sample that's smaller than the given time
+     *  @param goal Time in nanoseconds since epoch
+     *  @return Index of sample or -1
+     */
+    public int findSampleLessThan(final long goal)
+    {
+        // Last chunk that starts before the goal
+        int low = 0, high = chunks.size() - 1;
+        while (low <= high)
+        {
+            final int mid = (low + high) >>> 1;
+            if (chunks.get(mid).getStart() < goal)
+                low = mid + 1;
+            else
+                high = mid - 1;
+        }
+        if (high < 0)
+            return -1;
+        return offsets[high] + chunks.get(high).countLessThan(goal) - 1;
+    }
+
+    /** Determine value range
+     *  @param length Number of samples to check, starting at 0
+     *  @param waveform_index Waveform index
+     *  @return Value range or <code>null</code>
+     */
+    public Range getYDataMinMax(final int length, final int waveform_index)
+    {
+        double low = Double.MAX_VALUE;
+        double high = -Double.MAX_VALUE;
+        for (int c=0; c<chunks.size()  &&  offsets[c] < length; ++c)
+        {
+            final Chunk chunk = chunks.get(c);
+            final int count = Math.min(chunk.count, length - offsets[c]);
+            final Range range = chunk.columns.getYDataMinMax(chunk.first, count, waveform_index);
+            if (range == null)
+                continue;
+            low = Math.min(low, range.getLower());
+            high = Math.max(high, range.getUpper());
+        }
+        if (low == Double.MAX_VALUE  ||  high == -Double.MAX_VALUE)
+            return null;
+        return new Range(low, high);
+    }
+
+    /** Merge new samples.
+     *  <p>
+     *  Where the time ranges overlap, the new samples replace the existing ones.
+     *  @param add New samples, will be used as is, i.e. not copied
+     *  @return <code>true</code> if there was anything to merge
+     */
+    public boolean merge(final PlotSampleColumns add)
+    {
+        if (add.size() <= 0)
+            return false;
+        final long add_start = add.getTime(0);
+        final long add_end = add.getTime(add.size()-1);
+
+        // First chunk that ends at or after the start of new samples
+        int a = 0, high = chunks.size() - 1;
+        while (a <= high)
+        {
+            final int mid = (a + high) >>> 1;
+            if (chunks.get(mid).getEnd() < add_start)
+                a = mid + 1;
+            else
+                high = mid - 1;
+        }
+        // Last chunk that starts at or before the end of new samples
+        int low = a, b = chunks.size() - 1;
+        while (low <= b)
+        {
+            final int mid = (low + b) >>> 1;
+            if (chunks.get(mid).getStart() <= add_end)
+                low = mid + 1;
+            else
+                b = mid - 1;
+        }
+
+        // Chunks a..b overlap the new samples.
+        // Keep the part of 'a' before and the part of 'b' after the new samples.
+        final List<Chunk> replacement = new ArrayList<Chunk>(3);
+        if (a <= b)
+        {
+            final Chunk first = chunks.get(a);
+            final int before = first.countLessThan(add_start);
+            if (before > 0)
+                replacement.add(first.section(0, before));
+        }
+        replacement.add(new Chunk(add, 0, add.size()));
+        if (a <= b)
+        {
+            final Chunk last = chunks.get(b);
+            final int keep = last.countLessOrEqual(add_end);
+            if (keep < last.count)
+                replacement.add(last.section(keep, last.count - keep));
+        }
+        // Replace chunks a..b, or insert at a
+        for (int i=b; i>=a; --i)
+            chunks.remove(i);
+        chunks.addAll(a, replacement);
+
+        coalesce(a, a + replacement.size() - 1);
+        updateOffsets();
+        return true;
+    }
+
+    /** Combine small chunks
+     *  @param first First chunk that may be small
+     *  @param last Last chunk that may be small
+     */
+    private void coalesce(final int first, final int last)
+    {
+        // Include neighbors
+        int c = Math.max(0, first - 1);
+        int end = Math.min(chunks.size() - 1, last + 1);
+        while (c < end)
+        {
+            final Chunk chunk = chunks.get(c);
+            final Chunk next = chunks.get(c+1);
+            if (chunk.count < SMALL_CHUNK  &&  next.count < SMALL_CHUNK)
+            {
+                final PlotSampleColumns combined = new PlotSampleColumns(chunk.count + next.count, false);
+                combined.add(chunk.columns, chunk.first, chunk.count);
+                combined.add(next.columns, next.first, next.count);
+                chunks.set(c, new Chunk(combined, 0, combined.size()));
+                chunks.remove(c+1);
+                --end;
+            }
+            else
+                ++c;
+        }
+    }
+
+    /** Update offsets after chunks changed */
+    private void updateOffsets()
+    {
+        final int N = chunks.size();
+        if (offsets.length != N+1)
+            offsets = new int[N+1];
+        offsets[0] = 0;
+        for (int c=0; c<N; ++c)
+            offsets[c+1] = offsets[c] + chunks.get(c).count;
+        last_chunk = 0;
+    }
+
+    /** Delete all samples */
+    public void clear()
+    {
+        chunks.clear();
+        updateOffsets();
+    }
+}
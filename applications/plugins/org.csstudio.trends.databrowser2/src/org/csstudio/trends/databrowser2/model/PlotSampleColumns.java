@@ -0,0 +1,835 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser2.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.ArchiveVStatistics;
+import org.csstudio.swt.xygraph.linearscale.Range;
+import org.epics.util.time.Timestamp;
+import org.epics.vtype.Alarm;
+import org.epics.vtype.AlarmSeverity;
+import org.epics.vtype.Display;
+import org.epics.vtype.Time;
+import org.epics.vtype.VNumber;
+import org.epics.vtype.VStatistics;
+import org.epics.vtype.VType;
+
+/** Column-oriented storage of plot samples.
+ *  <p>
+ *  Instead of keeping a {@link PlotSample} with its {@link VType},
+ *  {@link Timestamp}, {@link Alarm} and {@link Display} objects for each sample,
+ *  scalar numbers and statistics are kept in primitive arrays:
+ *  Time, value, min/max, severity.
+ *  Source, alarm status and display info are typically the same
+ *  for many samples, so they are kept once in a small table of 'meta data'.
+ *  Entries that are no longer used by any sample, for example after
+ *  the ring buffer dropped the samples, are removed from the table.
+ *  <p>
+ *  {@link PlotSample}s are created on demand,
+ *  and their {@link VType} is only created when requested,
+ *  for example by the sample table or a tool tip.
+ *  Samples that cannot be stored in columns, for example arrays, strings,
+ *  or samples with an 'info' text, are kept as {@link PlotSample}s.
+ *  <p>
+ *  Can act as a growing array or a ring buffer of fixed capacity.
+ *  Not thread-safe, synchronization is left to the {@link PlotSamples} that use it.
+ *
+ *  @author agent
+ */
+class PlotSampleColumns
+{
+    /** Number kinds */
+    final private static byte DOUBLE = 0, FLOAT = 1, LONG = 2, INTEGER = 3, SHORT = 4, BYTE = 5, STATISTICS = 6;
+
+    /** Maximum number of meta data entries */
+    final private static int MAX_META = Short.MAX_VALUE;
+
+    final private static AlarmSeverity[] SEVERITIES = AlarmSeverity.values();
+
+    /** Meta data shared by many samples */
+    private static class Meta
+    {
+        final String source;
+        final String status;
+        final Display display;
+        final byte kind;
+
+        Meta(final String source, final String status, final Display display, final byte kind)
+        {
+            this.source = source;
+            this.status = status;
+            this.display = display;
+            this.kind = kind;
+        }
+
+        boolean matches(final String source, final String status, final Display display, final byte kind)
+        {
+            return this.kind == kind  &&
+                   equal(this.source, source)  &&
+                   equal(this.status, status)  &&
+                   isSameDisplay(this.display, display);
+        }
+
+        @Override
+        public boolean equals(final Object obj)
+        {
+            if (! (obj instanceof Meta))
+                return false;
+            final Meta other = (Meta) obj;
+            return matches(other.source, other.status, other.display, other.kind);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int result = kind;
+            result = 31 * result + hash(source);
+            result = 31 * result + hash(status);
+            result = 31 * result + hash(display.getUnits());
+            result = 31 * result + hash(display.getLowerDisplayLimit());
+            result = 31 * result + hash(display.getUpperDisplayLimit());
+            result = 31 * result + hash(display.getLowerAlarmLimit());
+            result = 31 * result + hash(display.getUpperAlarmLimit());
+            return result;
+        }
+
+        private static int hash(final Object obj)
+        {
+            return obj == null ? 0 : obj.hashCode();
+        }
+    }
+
+    /** Plot sample backed by the column data */
+    private static class ColumnSample extends PlotSample
+    {
+        final private Meta meta;
+        final private long time;
+        final private AlarmSeverity severity;
+        final private double value, min, max, stddev;
+        final private int count;
+        private VType vtype = null;
+
+        ColumnSample(final Meta meta, final long time, final AlarmSeverity severity,
+                     final double value, final double min, final double max,
+                     final double stddev, final int count)
+        {
+            super(meta.source);
+            this.meta = meta;
+            this.time = time;
+            this.severity = severity;
+            this.value = value;
+            this.min = min;
+            this.max = max;
+            this.stddev = stddev;
+            this.count = count;
+        }
+
+        @Override
+        public synchronized VType getValue()
+        {
+            if (vtype == null)
+            {
+                if (meta.kind == STATISTICS)
+                    vtype = new ArchiveVStatistics(getTime(), severity, meta.status, meta.display,
+                                                   value, min, max, stddev, count);
+                else
+                    vtype = new ArchiveVNumber(getTime(), severity, meta.status, meta.display,
+                                               toNumber(meta.kind, value));
+            }
+            return vtype;
+        }
+
+        @Override
+        public Timestamp getTime()
+        {
+            return toTimestamp(time);
+        }
+
+        @Override
+        public double getXValue()
+        {
+            return toMillis(time);
+        }
+
+        @Override
+        public double getYValue()
+        {
+            // Scalars have no elements beyond index 0
+            if (getWaveformIndex() != 0)
+                return Double.NaN;
+            return value;
+        }
+
+        @Override
+        public double getYMinusError()
+        {
+            if (meta.kind != STATISTICS  ||  getWaveformIndex() != 0)
+                return 0;
+            return value - min;
+        }
+
+        @Override
+        public double getYPlusError()
+        {
+            if (meta.kind != STATISTICS  ||  getWaveformIndex() != 0)
+                return 0;
+            return max - value;
+        }
+    }
+
+    /** Act as ring buffer? */
+    final private boolean ring;
+
+    /** Index of first sample in arrays (for ring buffer) */
+    private int start = 0;
+
+    /** Number of samples */
+    private int size = 0;
+
+    /** Time stamps in nanoseconds since epoch */
+    private long[] time;
+
+    /** Value or statistics' average */
+    private double[] value;
+
+    /** Statistics' min, max, standard deviation and sample count.
+     *  <code>null</code> until a statistics sample is added
+     */
+    private double[] min = null, max = null, stddev = null;
+    private int[] count = null;
+
+    /** {@link AlarmSeverity} ordinal */
+    private byte[] severity;
+
+    /** Index into <code>metas</code> */
+    private short[] meta;
+
+    /** Samples that are not kept in the columns.
+     *  <code>null</code> until such a sample is added,
+     *  then non-<code>null</code> for each such sample.
+     */
+    private PlotSample[] objects = null;
+
+    /** Meta data table. Unused entries are <code>null</code> */
+    final private List<Meta> metas = new ArrayList<Meta>();
+
+    /** Index into <code>metas</code> by meta data */
+    final private Map<Meta, Integer> meta_index = new HashMap<Meta, Integer>();
+
+    /** Number of samples that use each entry of <code>metas</code> */
+    private int[] meta_refs = new int[16];
+
+    /** Indices of unused entries in <code>metas</code> */
+    final private List<Integer> free_metas = new ArrayList<Integer>();
+
+    /** Index of most recently used meta data */
+    private int last_meta = -1;
+
+    /** Initialize
+     *  @param capacity Initial capacity, or fixed capacity for a ring buffer
+     *  @param ring Act as ring buffer, dropping oldest samples when full?
+     */
+    public PlotSampleColumns(final int capacity, final boolean ring)
+    {
+        this.ring = ring;
+        allocate(Math.max(1, capacity));
+    }
+
+    /** Allocate empty arrays */
+    private void allocate(final int capacity)
+    {
+        time = new long[capacity];
+        value = new double[capacity];
+        severity = new byte[capacity];
+        meta = new short[capacity];
+        min = max = stddev = null;
+        count = null;
+        objects = null;
+    }
+
+    /** @return Number of samples */
+    public int size()
+    {
+        return size;
+    }
+
+    /** @return Capacity */
+    public int getCapacity()
+    {
+        return time.length;
+    }
+
+    /** @param index Logical index 0 .. size-1
+     *  @return Index into arrays
+     */
+    private int physical(final int index)
+    {
+        final int i = start + index;
+        return i < time.length ? i : i - time.length;
+    }
+
+    /** Set new capacity, preserving the newest samples
+     *  @param capacity New capacity
+     */
+    public void setCapacity(final int capacity)
+    {
+        final int keep = Math.min(size, capacity);
+        final PlotSampleColumns old = copy(size - keep, keep, capacity);
+        takeArrays(old);
+        countMetaReferences();
+    }
+
+    /** Delete all samples */
+    public void clear()
+    {
+        start = size = 0;
+        min = max = stddev = null;
+        count = null;
+        objects = null;
+        metas.clear();
+        meta_index.clear();
+        free_metas.clear();
+        meta_refs = new int[16];
+        last_meta = -1;
+    }
+
+    /** @param index Sample index
+     *  @return Time stamp in nanoseconds since epoch
+     */
+    public long getTime(final int index)
+    {
+        return time[physical(index)];
+    }
+
+    /** Get a sample
+     *  @param index Sample index
+     *  @param waveform_index Waveform index for the sample
+     *  @return {@link PlotSample}
+     */
+    public PlotSample get(final int index, final int waveform_index)
+    {
+        if (index < 0  ||  index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size); //$NON-NLS-1$ //$NON-NLS-2$
+        final int p = physical(index);
+        final PlotSample sample;
+        if (objects != null  &&  objects[p] != null)
+            sample = objects[p];
+        else if (count != null)
+            sample = new ColumnSample(metas.get(meta[p]), time[p], SEVERITIES[severity[p]],
+                                      value[p], min[p], max[p], stddev[p], count[p]);
+        else
+            sample = new ColumnSample(metas.get(meta[p]), time[p], SEVERITIES[severity[p]],
+                                      value[p], value[p], value[p], 0.0, 0);
+        sample.setWaveformIndex(waveform_index);
+        return sample;
+    }
+
+    /** Add sample
+     *  @param sample Sample to add
+     */
+    public void add(final PlotSample sample)
+    {
+        final int p = prepareAdd();
+        if (sample.hasInfo()  ||  ! encode(p, sample.getSource(), sample.getValue()))
+            setObject(p, sample);
+    }
+
+    /** Add sample
+     *  @param source Source of the value
+     *  @param value Value to add
+     */
+    public void add(final String source, final VType value)
+    {
+        final int p = prepareAdd();
+        if (! encode(p, source, value))
+            setObject(p, new PlotSample(source, value));
+    }
+
+    /** Add samples from other columns
+     *  @param other Other columns
+     *  @param first Index of first sample to add
+     *  @param length Number of samples to add
+     */
+    public void add(final PlotSampleColumns other, final int first, final int length)
+    {
+        // Map other's meta data to ours
+        final short[] meta_map = new short[other.metas.size()];
+        for (int i=0; i<meta_map.length; ++i)
+            meta_map[i] = -1;
+        for (int i=first; i<first+length; ++i)
+        {
+            final int o = other.physical(i);
+            final int p = prepareAdd();
+            if (other.objects != null  &&  other.objects[o] != null)
+            {
+                setObject(p, other.objects[o]);
+                continue;
+            }
+            final short m = other.meta[o];
+            // For a ring, dropping samples may have removed the mapped entry
+            if (meta_map[m] < 0  ||
+                (ring  &&  ! other.metas.get(m).equals(metas.get(meta_map[m]))))
+            {
+                final Meta info = other.metas.get(m);
+                meta_map[m] = (short) getMeta(info.source, info.status, info.display, info.kind);
+            }
+            if (meta_map[m] < 0)
+            {   // Out of meta data entries
+                setObject(p, other.get(i, 0));
+                continue;
+            }
+            time[p] = other.time[o];
+            value[p] = other.value[o];
+            severity[p] = other.severity[o];
+            useMeta(p, meta_map[m]);
+            if (other.count != null)
+                setStatistics(p, other.min[o], other.max[o], other.stddev[o], other.count[o]);
+            else if (count != null)
+                setStatistics(p, value[p], value[p], 0.0, 0);
+        }
+    }
+
+    /** Determine array index for a new sample, growing or rolling the arrays
+     *  @return Index into arrays
+     */
+    private int prepareAdd()
+    {
+        if (size >= time.length)
+        {
+            if (ring)
+            {   // Drop oldest sample
+                if (objects != null  &&  objects[start] != null)
+                    objects[start] = null;
+                else
+                    releaseMeta(meta[start]);
+                start = physical(1);
+                --size;
+            }
+            else
+                takeArrays(copy(0, size, Math.max(16, size * 2)));
+        }
+        final int p = physical(size);
+        ++size;
+        if (objects != null)
+            objects[p] = null;
+        return p;
+    }
+
+    /** @return Copy of a section of the samples in new arrays */
+    private PlotSampleColumns copy(final int first, final int length, final int capacity)
+    {
+        final PlotSampleColumns copy = new PlotSampleColumns(capacity, ring);
+        final int p = physical(first);
+        final int part = Math.min(length, time.length - p);
+        copy.copyFrom(this, p, 0, part);
+        if (part < length)
+            copy.copyFrom(this, 0, part, length - part);
+        copy.size = length;
+        return copy;
+    }
+
+    /** Copy array sections from other columns with the same meta data */
+    private void copyFrom(final PlotSampleColumns other, final int src, final int dest, final int length)
+    {
+        System.arraycopy(other.time, src, time, dest, length);
+        System.arraycopy(other.value, src, value, dest, length);
+        System.arraycopy(other.severity, src, severity, dest, length);
+        System.arraycopy(other.meta, src, meta, dest, length);
+        if (other.count != null)
+        {
+            allocateStatistics();
+            System.arraycopy(other.min, src, min, dest, length);
+            System.arraycopy(other.max, src, max, dest, length);
+            System.arraycopy(other.stddev, src, stddev, dest, length);
+            System.arraycopy(other.count, src, count, dest, length);
+        }
+        if (other.objects != null)
+        {
+            if (objects == null)
+                objects = new PlotSample[time.length];
+            System.arraycopy(other.objects, src, objects, dest, length);
+        }
+    }
+
+    /** Use the arrays of other columns */
+    private void takeArrays(final PlotSampleColumns other)
+    {
+        start = other.start;
+        size = other.size;
+        time = other.time;
+        value = other.value;
+        min = other.min;
+        max = other.max;
+        stddev = other.stddev;
+        count = other.count;
+        severity = other.severity;
+        meta = other.meta;
+        objects = other.objects;
+    }
+
+    /** Keep sample as object */
+    private void setObject(final int p, final PlotSample sample)
+    {
+        if (objects == null)
+            objects = new PlotSample[time.length];
+        objects[p] = sample;
+        time[p] = toNanos(sample.getTime());
+        value[p] = Double.NaN;
+    }
+
+    private void allocateStatistics()
+    {
+        if (count != null)
+            return;
+        min = new double[time.length];
+        max = new double[time.length];
+        stddev = new double[time.length];
+        count = new int[time.length];
+        // Existing samples are plain numbers
+        for (int i=0; i<size; ++i)
+        {
+            final int p = physical(i);
+            min[p] = max[p] = value[p];
+        }
+    }
+
+    private void setStatistics(final int p, final double min, final double max,
+                               final double stddev, final int count)
+    {
+        allocateStatistics();
+        this.min[p] = min;
+        this.max[p] = max;
+        this.stddev[p] = stddev;
+        this.count[p] = count;
+    }
+
+    /** Try to place value in columns
+     *  @return <code>true</code> if value was placed in columns
+     */
+    private boolean encode(final int p, final String source, final VType value)
+    {
+        if (! (value instanceof Time  &&  value instanceof Alarm  &&  value instanceof Display))
+            return false;
+        final double number;
+        final byte kind;
+        if (value instanceof VNumber)
+        {
+            final Number num = ((VNumber) value).getValue();
+            if (num == null)
+                return false;
+            kind = getKind(num);
+            if (kind < 0)
+                return false;
+            number = num.doubleValue();
+            // Large long values would lose precision as double
+            if (kind == LONG  &&  (long) number != num.longValue())
+                return false;
+        }
+        else if (value instanceof VStatistics)
+        {
+            final VStatistics stats = (VStatistics) value;
+            if (stats.getAverage() == null  ||  stats.getMin() == null  ||  stats.getMax() == null)
+                return false;
+            kind = STATISTICS;
+            number = stats.getAverage();
+        }
+        else
+            return false;
+
+        final Alarm alarm = (Alarm) value;
+        final Timestamp timestamp = ((Time) value).getTimestamp();
+        if (alarm.getAlarmSeverity() == null  ||  timestamp == null)
+            return false;
+        final int index = getMeta(source, alarm.getAlarmName(), (Display) value, kind);
+        if (index < 0)
+            return false;
+
+        time[p] = toNanos(timestamp);
+        this.value[p] = number;
+        severity[p] = (byte) alarm.getAlarmSeverity().ordinal();
+        useMeta(p, index);
+        if (kind == STATISTICS)
+        {
+            final VStatistics stats = (VStatistics) value;
+            final Double dev = stats.getStdDev();
+            final Integer n = stats.getNSamples();
+            setStatistics(p, stats.getMin(), stats.getMax(),
+                          dev == null ? 0.0 : dev, n == null ? 0 : n);
+        }
+        else if (count != null)
+            setStatistics(p, number, number, 0.0, 0);
+        return true;
+    }
+
+    /** @return Number kind or -1 */
+    private static byte getKind(final Number number)
+    {
+        if (number instanceof Double)
+            return DOUBLE;
+        if (number instanceof Float)
+            return FLOAT;
+        if (number instanceof Long)
+            return LONG;
+        if (number instanceof Integer)
+            return INTEGER;
+        if (number instanceof Short)
+            return SHORT;
+        if (number instanceof Byte)
+            return BYTE;
+        return -1;
+    }
+
+    /** @return Number of given kind */
+    private static Number toNumber(final byte kind, final double value)
+    {
+        switch (kind)
+        {
+        case FLOAT:   return Float.valueOf((float) value);
+        case LONG:    return Long.valueOf((long) value);
+        case INTEGER: return Integer.valueOf((int) value);
+        case SHORT:   return Short.valueOf((short) value);
+        case BYTE:    return Byte.valueOf((byte) value);
+        default:      return Double.valueOf(value);
+        }
+    }
+
+    /** Locate or add meta data
+     *  @return Index of meta data or -1 when table is full
+     */
+    private int getMeta(final String source, final String status, final Display display, final byte kind)
+    {
+        // Typically, consecutive samples share the meta data
+        if (last_meta >= 0  &&  metas.get(last_meta).matches(source, status, display, kind))
+            return last_meta;
+        final Meta info = new Meta(source, status, display, kind);
+        final Integer known = meta_index.get(info);
+        if (known != null)
+            return last_meta = known;
+        final int index;
+        if (! free_metas.isEmpty())
+        {
+            index = free_metas.remove(free_metas.size() - 1);
+            metas.set(index, info);
+        }
+        else
+        {
+            if (metas.size() >= MAX_META)
+                return -1;
+            index = metas.size();
+            metas.add(info);
+            if (index >= meta_refs.length)
+            {
+                final int[] grown = new int[Math.min(MAX_META, meta_refs.length * 2)];
+                System.arraycopy(meta_refs, 0, grown, 0, meta_refs.length);
+                meta_refs = grown;
+            }
+        }
+        meta_index.put(info, index);
+        meta_refs[index] = 0;
+        return last_meta = index;
+    }
+
+    /** @return Number of meta data entries in use */
+    int getMetaCount()
+    {
+        return meta_index.size();
+    }
+
+    /** Set meta data of a sample
+     *  @param p Index into arrays
+     *  @param index Index of meta data
+     */
+    private void useMeta(final int p, final int index)
+    {
+        meta[p] = (short) index;
+        ++meta_refs[index];
+    }
+
+    /** Release meta data of a sample that's removed,
+     *  removing the meta data from the table when no longer used
+     *  @param index Index of meta data
+     */
+    private void releaseMeta(final int index)
+    {
+        if (--meta_refs[index] <= 0)
+            removeMeta(index);
+    }
+
+    /** Remove meta data from the table
+     *  @param index Index of meta data
+     */
+    private void removeMeta(final int index)
+    {
+        meta_index.remove(metas.get(index));
+        metas.set(index, null);
+        free_metas.add(index);
+        if (last_meta == index)
+            last_meta = -1;
+    }
+
+    /** Count meta data references of all samples,
+     *  removing meta data from the table that's no longer used
+     */
+    private void countMetaReferences()
+    {
+        for (int i=0; i<meta_refs.length; ++i)
+            meta_refs[i] = 0;
+        for (int i=0; i<size; ++i)
+        {
+            final int p = physical(i);
+            if (objects == null  ||  objects[p] == null)
+                ++meta_refs[meta[p]];
+        }
+        for (int i=0; i<metas.size(); ++i)
+            if (meta_refs[i] <= 0  &&  metas.get(i) != null)
+                removeMeta(i);
+    }
+
+    /** Find the last sample that's smaller than the given time
+     *  @param goal Time in nanoseconds since epoch
+     *  @return Index of sample or -1
+     */
+    public int findSampleLessThan(final long goal)
+    {
+        int low = 0, high = size - 1;
+        while (low <= high)
+        {
+            final int mid = (low + high) >>> 1;
+            if (getTime(mid) < goal)
+                low = mid + 1;
+            else
+                high = mid - 1;
+        }
+        return high;
+    }
+
+    /** Find the first sample that's greater than the given time
+     *  @param goal Time in nanoseconds since epoch
+     *  @return Index of sample or -1
+     */
+    public int findSampleGreaterThan(final long goal)
+    {
+        int low = 0, high = size - 1;
+        while (low <= high)
+        {
+            final int mid = (low + high) >>> 1;
+            if (getTime(mid) <= goal)
+                low = mid + 1;
+            else
+                high = mid - 1;
+        }
+        return low < size ? low : -1;
+    }
+
+    /** Determine value range
+     *  @param first Index of first sample to check
+     *  @param length Number of samples to check
+     *  @param waveform_index Waveform index
+     *  @return Value range or <code>null</code>
+     */
+    public Range getYDataMinMax(final int first, final int length, final int waveform_index)
+    {
+        double low = Double.MAX_VALUE;
+        double high = -Double.MAX_VALUE;
+        for (int i=first; i<first+length; ++i)
+        {
+            final int p = physical(i);
+            final double val, lower, upper;
+            if (objects != null  &&  objects[p] != null)
+            {
+                final PlotSample sample = objects[p];
+                sample.setWaveformIndex(waveform_index);
+                val = sample.getYValue();
+                lower = val - sample.getYMinusError();
+                upper = val + sample.getYPlusError();
+            }
+            else
+            {
+                if (waveform_index != 0)
+                    continue;
+                val = value[p];
+                if (count != null  &&  metas.get(meta[p]).kind == STATISTICS)
+                {
+                    lower = min[p];
+                    upper = max[p];
+                }
+                else
+                    lower = upper = val;
+            }
+            if (Double.isNaN(val) || Double.isInfinite(val))
+                continue;
+            if (lower < low)
+                low = lower;
+            if (upper > high)
+                high = upper;
+        }
+        if (low == Double.MAX_VALUE  ||  high == -Double.MAX_VALUE)
+            return null;
+        return new Range(low, high);
+    }
+
+    /** @return Nanoseconds since epoch */
+    static long toNanos(final Timestamp time)
+    {
+        return time.getSec() * 1000000000L + time.getNanoSec();
+    }
+
+    /** @return Timestamp for nanoseconds since epoch */
+    static Timestamp toTimestamp(final long nanos)
+    {
+        long secs = nanos / 1000000000L;
+        long ns = nanos % 1000000000L;
+        if (ns < 0)
+        {
+            --secs;
+            ns += 1000000000L;
+        }
+        return Timestamp.of(secs, (int) ns);
+    }
+
+    /** @return Milliseconds since epoch, same as {@link PlotSample#getXValue()} */
+    private static double toMillis(final long nanos)
+    {
+        long secs = nanos / 1000000000L;
+        long ns = nanos % 1000000000L;
+        if (ns < 0)
+        {
+            --secs;
+            ns += 1000000000L;
+        }
+        return secs * 1000.0 + ns / 1e6;
+    }
+
+    /** @return <code>true</code> if both are <code>null</code> or equal */
+    private static boolean equal(final Object a, final Object b)
+    {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /** @return <code>true</code> if displays have the same content */
+    static boolean isSameDisplay(final Display a, final Display b)
+    {
+        if (a == b)
+            return true;
+        return equal(a.getUnits(), b.getUnits())  &&
+               equal(a.getFormat(), b.getFormat())  &&
+               equal(a.getLowerDisplayLimit(), b.getLowerDisplayLimit())  &&
+               equal(a.getUpperDisplayLimit(), b.getUpperDisplayLimit())  &&
+               equal(a.getLowerCtrlLimit(), b.getLowerCtrlLimit())  &&
+               equal(a.getUpperCtrlLimit(), b.getUpperCtrlLimit())  &&
+               equal(a.getLowerAlarmLimit(), b.getLowerAlarmLimit())  &&
+               equal(a.getUpperAlarmLimit(), b.getUpperAlarmLimit())  &&
+               equal(a.getLowerWarningLimit(), b.getLowerWarningLimit())  &&
+               equal(a.getUpperWarningLimit(), b.getUpperWarningLimit());
+    }
+}
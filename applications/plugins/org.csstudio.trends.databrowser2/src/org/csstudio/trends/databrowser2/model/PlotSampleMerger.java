@@ -13,6 +13,9 @@ import org.epics.util.time.Timestamp;
  *  <p>
  *  New data is to some extend 'merged' with existing data:
  *  Where the time ranges overlap, the data replaces the old data.
+ *  <p>
+ *  {@link HistoricSamples} use {@link PlotSampleChunks},
+ *  which apply the same rules without copying all the existing data.
  *
  *  @author Kay Kasemir
  */
@@ -9,6 +9,7 @@ package org.csstudio.trends.databrowser2.model;
 
 import org.csstudio.swt.xygraph.dataprovider.IDataProvider;
 import org.csstudio.swt.xygraph.dataprovider.IDataProviderListener;
+import org.csstudio.swt.xygraph.dataprovider.IVersionedDataProvider;
 import org.csstudio.swt.xygraph.linearscale.Range;
 import org.csstudio.trends.databrowser2.ui.Controller;
 
@@ -19,6 +20,8 @@ import org.csstudio.trends.databrowser2.ui.Controller;
  *  events: The Data Browser does not trigger a plot refresh
  *  for each new sample. Instead, the {@link Controller}
  *  handles the scrolling and refresh.
+ *  The data version allows the XYGraph to nevertheless
+ *  tell when samples changed.
  *  <p>
  *  <b>Important Note on Synchronization:</b>
  *  Synchronize on the PlotSamples whenever accessing them because
@@ -29,13 +32,18 @@ import org.csstudio.trends.databrowser2.ui.Controller;
  *  access the samples.
  *  @author Kay Kasemir
  */
-abstract public class PlotSamples implements IDataProvider
+abstract public class PlotSamples implements IVersionedDataProvider
 {
     /** To be set when samples change
      *  @see #testAndClearNewSamplesFlag()
      */
     protected boolean have_new_samples = false;
 
+    /** Incremented whenever samples change
+     *  @see #getDataVersion()
+     */
+    protected long version = 0;
+
     /** {@inheritDoc} */
     @Override
     public void addDataProviderListener(IDataProviderListener listener)
@@ -51,6 +59,23 @@ abstract public class PlotSamples implements IDataProvider
         return false;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    synchronized public long getDataVersion()
+    {
+        return version;
+    }
+
+    /** Mark samples as changed, both for the
+     *  'new samples' flag and the data version.
+     *  Call while synchronized.
+     */
+    protected void samplesChanged()
+    {
+        have_new_samples = true;
+        ++version;
+    }
+
     /** @return <code>true</code> because Data Browser samples are always ordered by time */
     @Override
     public boolean isChronological()
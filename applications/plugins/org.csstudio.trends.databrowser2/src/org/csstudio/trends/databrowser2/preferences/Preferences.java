@@ -49,6 +49,7 @@ public class Preferences
 			UPDATE_PERIOD = "update_period", LINE_WIDTH = "line_width",
 			TRACE_TYPE = "trace_type",
 			ARCHIVE_FETCH_DELAY = "archive_fetch_delay",
+			ARCHIVE_FETCH_THREADS = "archive_fetch_threads",
 			PLOT_BINS = "plot_bins", URLS = "urls", ARCHIVES = "archives",
 			USE_DEFAULT_ARCHIVES = "use_default_archives",
 			PROMPT_FOR_ERRORS = "prompt_for_errors",
@@ -138,6 +139,12 @@ public class Preferences
         return prefs.getLong(Activator.PLUGIN_ID, ARCHIVE_FETCH_DELAY, 1000, null);
     }
 
+    public static int getArchiveFetchThreads()
+    {
+        final IPreferencesService prefs = Platform.getPreferencesService();
+        return prefs.getInt(Activator.PLUGIN_ID, ARCHIVE_FETCH_THREADS, 4, null);
+    }
+
     public static int getPlotBins()
     {
         final IPreferencesService prefs = Platform.getPreferencesService();
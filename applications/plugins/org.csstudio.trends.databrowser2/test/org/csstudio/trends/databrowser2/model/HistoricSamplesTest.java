@@ -12,6 +12,7 @@ import static org.junit.Assert.assertEquals;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.csstudio.archive.vtype.VTypeHelper;
 import org.csstudio.swt.xygraph.linearscale.Range;
 import org.epics.util.time.Timestamp;
 import org.epics.vtype.VType;
@@ -41,8 +42,11 @@ public class HistoricSamplesTest
         //System.out.println(history);
 
         assertEquals(N, history.getSize());
-        assertEquals(samples.get(0), history.getSample(0).getValue());
-        assertEquals(samples.get(N-1), history.getSample(N-1).getValue());
+        // Samples are re-created from columns, so compare time and value
+        assertEquals(VTypeHelper.getTimestamp(samples.get(0)), history.getSample(0).getTime());
+        assertEquals(VTypeHelper.toDouble(samples.get(0)), VTypeHelper.toDouble(history.getSample(0).getValue()), 0.0);
+        assertEquals(VTypeHelper.getTimestamp(samples.get(N-1)), history.getSample(N-1).getTime());
+        assertEquals(VTypeHelper.toDouble(samples.get(N-1)), VTypeHelper.toDouble(history.getSample(N-1).getValue()), 0.0);
 
         Range range = history.getYDataMinMax();
         //System.out.println(range);
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser2.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.epics.util.time.Timestamp;
+import org.epics.vtype.ValueFactory;
+import org.junit.Test;
+
+/** JUnit test of {@link PlotSampleChunks}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class PlotSampleChunksUnitTest
+{
+    /** @return Samples with given times and value = marker */
+    private PlotSample[] makeSamples(final int start, final int end, final double marker)
+    {
+        final PlotSample[] samples = new PlotSample[end - start];
+        for (int i=start; i<end; ++i)
+            samples[i-start] = new PlotSample("Test",
+                ValueFactory.newVDouble(marker, ValueFactory.newTime(Timestamp.of(i, 0))));
+        return samples;
+    }
+
+    private PlotSampleColumns toColumns(final PlotSample[] samples)
+    {
+        final PlotSampleColumns columns = new PlotSampleColumns(samples.length, false);
+        for (PlotSample sample : samples)
+            columns.add(sample);
+        return columns;
+    }
+
+    /** Compare chunks with the array-based merge for random segments */
+    @Test
+    public void testMerge()
+    {
+        final Random random = new Random(42);
+        final PlotSampleChunks chunks = new PlotSampleChunks();
+        PlotSample[] expected = null;
+        for (int run=0; run<500; ++run)
+        {
+            final int start = random.nextInt(100000);
+            final int end = start + 1 + random.nextInt(run % 10 == 0 ? 20000 : 500);
+            final PlotSample[] add = makeSamples(start, end, run);
+            expected = PlotSampleMerger.merge(expected, add);
+            chunks.merge(toColumns(add));
+
+            assertEquals(expected.length, chunks.size());
+            for (int i=0; i<expected.length; ++i)
+            {
+                final PlotSample sample = chunks.get(i, 0);
+                assertEquals(expected[i].getTime(), sample.getTime());
+                assertEquals(expected[i].getYValue(), sample.getYValue(), 0.0);
+            }
+        }
+        System.out.println(chunks.size() + " samples in " + chunks.getChunkCount() + " chunks");
+
+        // Search
+        for (int i=0; i<100; ++i)
+        {
+            final long goal = PlotSampleColumns.toNanos(Timestamp.of(random.nextInt(110000), 500000000));
+            final int index = chunks.findSampleLessThan(goal);
+            assertEquals(PlotSampleSearch.findSampleLessThan(expected, PlotSampleColumns.toTimestamp(goal)), index);
+        }
+
+        chunks.clear();
+        assertEquals(0, chunks.size());
+    }
+
+    /** Time for small merges should not depend on the size of existing data */
+    @Test
+    public void testMergeTime()
+    {
+        final int N = 1000000;
+        final PlotSampleChunks chunks = new PlotSampleChunks();
+        chunks.merge(toColumns(makeSamples(0, N, 0)));
+
+        final int runs = 1000;
+        final PlotSampleColumns[] adds = new PlotSampleColumns[runs];
+        for (int i=0; i<runs; ++i)
+            adds[i] = toColumns(makeSamples(i * 500, i * 500 + 100, i+1));
+        long start = System.nanoTime();
+        for (int i=0; i<runs; ++i)
+            chunks.merge(adds[i]);
+        final double chunk_ms = (System.nanoTime() - start) / 1e6 / runs;
+
+        PlotSample[] array = makeSamples(0, N, 0);
+        final PlotSample[][] array_adds = new PlotSample[runs][];
+        for (int i=0; i<runs; ++i)
+            array_adds[i] = makeSamples(i * 500, i * 500 + 100, i+1);
+        start = System.nanoTime();
+        for (int i=0; i<runs; ++i)
+            array = PlotSampleMerger.merge(array, array_adds[i]);
+        final double array_ms = (System.nanoTime() - start) / 1e6 / runs;
+
+        System.out.format("Merging 100 samples into %d: Array %.3f ms, chunks %.3f ms\n",
+                          N, array_ms, chunk_ms);
+        assertEquals(array.length, chunks.size());
+        assertTrue(chunk_ms < array_ms);
+    }
+}
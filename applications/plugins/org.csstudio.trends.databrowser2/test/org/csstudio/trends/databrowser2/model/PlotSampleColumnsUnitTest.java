@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.trends.databrowser2.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.csstudio.archive.vtype.ArchiveVNumber;
+import org.csstudio.archive.vtype.ArchiveVStatistics;
+import org.csstudio.archive.vtype.VTypeHelper;
+import org.csstudio.swt.xygraph.linearscale.Range;
+import org.epics.util.text.NumberFormats;
+import org.epics.util.time.TimeDuration;
+import org.epics.util.time.Timestamp;
+import org.epics.vtype.AlarmSeverity;
+import org.epics.vtype.Display;
+import org.epics.vtype.VNumber;
+import org.epics.vtype.VStatistics;
+import org.epics.vtype.VType;
+import org.epics.vtype.ValueFactory;
+import org.junit.Test;
+
+/** JUnit test of {@link PlotSampleColumns}
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class PlotSampleColumnsUnitTest
+{
+    final private static Display display =
+        ValueFactory.newDisplay(0.0, 1.0, 2.0, "V", NumberFormats.format(2), 8.0, 9.0, 10.0, 0.0, 10.0);
+
+    @Test
+    public void testNumbers()
+    {
+        final PlotSampleColumns columns = new PlotSampleColumns(2, false);
+        final Timestamp time = Timestamp.of(1234567890, 123456789);
+        columns.add("Test", new ArchiveVNumber(time, AlarmSeverity.MINOR, "LOW", display, Integer.valueOf(42)));
+        columns.add("Test", new ArchiveVNumber(time.plus(TimeDuration.ofSeconds(1)),
+                                               AlarmSeverity.NONE, "", display, Double.valueOf(3.14)));
+        // Grows beyond initial capacity
+        columns.add("Test", new ArchiveVStatistics(Timestamp.of(1234567892, 0), AlarmSeverity.NONE, "",
+                                                   display, 5.0, 1.0, 9.0, 0.5, 10));
+        assertEquals(3, columns.size());
+
+        PlotSample sample = columns.get(0, 0);
+        assertEquals("Test", sample.getSource());
+        assertEquals(time, sample.getTime());
+        assertEquals(42.0, sample.getYValue(), 0.0);
+        assertEquals(time.getSec()*1000.0 + time.getNanoSec()/1e6, sample.getXValue(), 0.0);
+        VType value = sample.getValue();
+        System.out.println(sample);
+        assertTrue(value instanceof VNumber);
+        assertEquals(Integer.valueOf(42), ((VNumber) value).getValue());
+        assertEquals(AlarmSeverity.MINOR, VTypeHelper.getSeverity(value));
+        assertEquals("LOW", VTypeHelper.getMessage(value));
+        assertEquals("V", ((Display) value).getUnits());
+
+        sample = columns.get(2, 0);
+        System.out.println(sample);
+        assertEquals(5.0, sample.getYValue(), 0.0);
+        assertEquals(4.0, sample.getYMinusError(), 0.0);
+        assertEquals(4.0, sample.getYPlusError(), 0.0);
+        value = sample.getValue();
+        assertTrue(value instanceof VStatistics);
+        assertEquals(Integer.valueOf(10), ((VStatistics) value).getNSamples());
+
+        // Earlier number has no error bars
+        assertEquals(0.0, columns.get(1, 0).getYMinusError(), 0.0);
+
+        assertEquals(new Range(1.0, 42.0), columns.getYDataMinMax(0, columns.size(), 0));
+        assertEquals(1, columns.findSampleLessThan(PlotSampleColumns.toNanos(Timestamp.of(1234567892, 0))));
+        assertEquals(2, columns.findSampleGreaterThan(PlotSampleColumns.toNanos(Timestamp.of(1234567891, 500000000))));
+        assertEquals(-1, columns.findSampleGreaterThan(PlotSampleColumns.toNanos(Timestamp.of(1234567892, 0))));
+    }
+
+    @Test
+    public void testObjects()
+    {
+        final PlotSampleColumns columns = new PlotSampleColumns(10, false);
+        columns.add("Test", TestHelper.makeValue(1));
+        final PlotSample error = new PlotSample("Test", "Disconnected");
+        columns.add(error);
+        final VType string = ValueFactory.newVString("Text", ValueFactory.alarmNone(), ValueFactory.newTime(Timestamp.of(3, 0)));
+        columns.add("Test", string);
+        assertEquals(3, columns.size());
+        assertSame(error, columns.get(1, 0));
+        assertSame(string, columns.get(2, 0).getValue());
+        assertEquals(1.0, columns.get(0, 0).getYValue(), 0.0);
+        assertEquals(new Range(1.0, 1.0), columns.getYDataMinMax(0, columns.size(), 0));
+    }
+
+    @Test
+    public void testRing() throws Exception
+    {
+        final PlotSampleColumns columns = new PlotSampleColumns(5, true);
+        for (int i=0; i<12; ++i)
+            columns.add("Test", TestHelper.makeValue(i));
+        assertEquals(5, columns.size());
+        for (int i=0; i<5; ++i)
+            assertEquals(7.0 + i, columns.get(i, 0).getYValue(), 0.0);
+
+        columns.setCapacity(3);
+        assertEquals(3, columns.size());
+        assertEquals(9.0, columns.get(0, 0).getYValue(), 0.0);
+        columns.setCapacity(10);
+        columns.add("Test", TestHelper.makeValue(12));
+        assertEquals(4, columns.size());
+        assertEquals(12.0, columns.get(3, 0).getYValue(), 0.0);
+    }
+
+    /** Meta data of samples dropped by the ring is removed */
+    @Test
+    public void testRingMeta() throws Exception
+    {
+        final PlotSampleColumns columns = new PlotSampleColumns(5, true);
+        final Timestamp time = Timestamp.of(1234567890, 0);
+        // Each sample has a different status
+        for (int i=0; i<100000; ++i)
+            columns.add("Test", new ArchiveVNumber(time.plus(TimeDuration.ofSeconds(i)),
+                                                   AlarmSeverity.MINOR, "Status " + i, display, Double.valueOf(i)));
+        assertEquals(5, columns.size());
+        assertTrue(columns.getMetaCount() <= 6);
+        for (int i=0; i<5; ++i)
+        {
+            final VType value = columns.get(i, 0).getValue();
+            assertEquals("Status " + (99995 + i), VTypeHelper.getMessage(value));
+            assertEquals(99995.0 + i, VTypeHelper.toDouble(value), 0.0);
+        }
+
+        // Shared status uses one entry
+        for (int i=0; i<5; ++i)
+            columns.add("Test", TestHelper.makeValue(i));
+        assertEquals(1, columns.getMetaCount());
+
+        // Reduced capacity removes meta data of dropped samples
+        columns.add("Test", new ArchiveVNumber(time, AlarmSeverity.MAJOR, "Other", display, Double.valueOf(1)));
+        assertEquals(2, columns.getMetaCount());
+        columns.setCapacity(1);
+        assertEquals(1, columns.getMetaCount());
+        assertEquals("Other", VTypeHelper.getMessage(columns.get(0, 0).getValue()));
+    }
+
+    /** Compare memory used by PlotSample[] and PlotSampleColumns */
+    @Test
+    public void testMemory()
+    {
+        final int N = 200000;
+        final Runtime runtime = Runtime.getRuntime();
+
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        final PlotSample[] samples = new PlotSample[N];
+        for (int i=0; i<N; ++i)
+            samples[i] = new PlotSample("Test",
+                new ArchiveVNumber(Timestamp.of(i, 0), AlarmSeverity.NONE, "", display, Double.valueOf(i)));
+        System.gc();
+        final long object_bytes = runtime.totalMemory() - runtime.freeMemory() - before;
+
+        before = runtime.totalMemory() - runtime.freeMemory();
+        final PlotSampleColumns columns = new PlotSampleColumns(N, false);
+        for (int i=0; i<N; ++i)
+            columns.add("Test", new ArchiveVNumber(Timestamp.of(i, 0), AlarmSeverity.NONE, "", display, Double.valueOf(i)));
+        System.gc();
+        final long column_bytes = runtime.totalMemory() - runtime.freeMemory() - before;
+
+        System.out.format("PlotSample[] : %5.1f bytes/sample\n", object_bytes / (double) N);
+        System.out.format("Columns      : %5.1f bytes/sample\n", column_bytes / (double) N);
+        assertEquals(N, samples.length);
+        assertEquals(N, columns.size());
+    }
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+package org.csstudio.simplepv.pvmanager;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.csstudio.simplepv.AbstractPVFactory;
+import org.csstudio.simplepv.IPV;
+import org.csstudio.simplepv.IPVListener;
+import org.junit.Test;
+
+/** Harness for the CPU cost of idle and busy PV readers
+ *
+ *  <p>Each PVManager reader is scanned at its update period,
+ *  whether or not its channel has new data.
+ *  This demo starts many readers and reports the CPU time
+ *  of all threads while the readers are idle or busy,
+ *  once with one reader per PV and once with shared PVs.
+ *
+ *  <p>Not a regular unit test: Prints results, no assertions.
+ *  @author agent
+ */
+@SuppressWarnings("nls")
+public class PVManagerCPUDemo extends TestHelper
+{
+    /** Number of PVs, like the widgets of a large display */
+    final private static int PVS = 2000;
+
+    /** Number of distinct channels that the PVs use */
+    final private static int CHANNELS = 200;
+
+    /** Update period in ms, BOY default GUI refresh cycle */
+    final private static int PERIOD_MS = 100;
+
+    /** Seconds to let the readers connect */
+    final private static int SETTLE_SECS = 5;
+
+    /** Seconds to measure */
+    final private static int MEASURE_SECS = 10;
+
+    final private ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    final private AtomicLong updates = new AtomicLong();
+
+    final private IPVListener listener = new IPVListener.Stub()
+    {
+        @Override
+        public void valueChanged(final IPV pv)
+        {
+            updates.incrementAndGet();
+        }
+    };
+
+    /** @return CPU time of all live threads in nanoseconds */
+    private long getCPUTime()
+    {
+        long total = 0;
+        for (long id : threads.getAllThreadIds())
+        {
+            final long time = threads.getThreadCpuTime(id);
+            if (time > 0)
+                total += time;
+        }
+        return total;
+    }
+
+    /** @param title Title of the measurement
+     *  @param channel Channel name format, "%d" is replaced by channel number 1, 2, ...
+     *  @param shared Use shared PVs?
+     *  @throws Exception on error
+     */
+    private void measure(final String title, final String channel, final boolean shared) throws Exception
+    {
+        final Executor thread = AbstractPVFactory.getDefaultPVNotificationThread();
+        final List<IPV> pvs = new ArrayList<>(PVS);
+        for (int i=0; i<PVS; ++i)
+        {
+            final String name = String.format(channel, 1 + i % CHANNELS);
+            final IPV pv = shared
+                ? factory.createSharedPV(name, true, PERIOD_MS, false, thread, null)
+                : factory.createPV(name, true, PERIOD_MS, false, thread, null);
+            pv.addListener(listener);
+            pv.start();
+            pvs.add(pv);
+        }
+        TimeUnit.SECONDS.sleep(SETTLE_SECS);
+
+        updates.set(0);
+        final long start_cpu = getCPUTime();
+        final long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(MEASURE_SECS);
+        final double cpu_ms = (getCPUTime() - start_cpu) / 1e6;
+        final double secs = (System.nanoTime() - start) / 1e9;
+
+        System.out.format("%-30s: %5.1f ms CPU per second, %6.3f ms per PV and second, %8d updates, %s\n",
+                title, cpu_ms / secs, cpu_ms / secs / PVS, updates.get(),
+                shared ? factory.getSharingStatistics() : PVS + " readers");
+
+        for (IPV pv : pvs)
+            pv.stop();
+        TimeUnit.SECONDS.sleep(1);
+    }
+
+    @Test
+    public void measureCPU() throws Exception
+    {
+        System.out.println(PVS + " PVs on " + CHANNELS + " channels, " + PERIOD_MS + " ms update period");
+        measure("Idle", "loc://idle%d(0)", false);
+        measure("Idle, shared", "loc://idle%d(0)", true);
+        measure("Busy", "sim://noise(0,%d,0.01)", false);
+        measure("Busy, shared", "sim://noise(0,%d,0.01)", true);
+    }
+}
@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+
+package org.csstudio.simplepv.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import org.csstudio.simplepv.AbstractPVFactory;
+import org.csstudio.simplepv.ExceptionHandler;
+import org.csstudio.simplepv.IPV;
+import org.csstudio.simplepv.IPVListener;
+import org.epics.vtype.VType;
+import org.epics.vtype.ValueFactory;
+import org.junit.Test;
+
+/**
+ * JUnit test for the shared PVs of {@link AbstractPVFactory}.
+ * Uses a dummy factory, so it runs as plain JUnit test.
+ * @author agent
+ */
+public class SharedPVUnitTest {
+
+	/** Notify in the calling thread */
+	private static final Executor DIRECT = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			command.run();
+		}
+	};
+
+	/** PV that is connected while started */
+	private static class DummyPV implements IPV {
+		final String name;
+		final List<IPVListener> listeners = new CopyOnWriteArrayList<>();
+		boolean started = false, paused = false;
+		VType value = null;
+
+		DummyPV(String name) {
+			this.name = name;
+		}
+
+		void update() {
+			for (IPVListener listener : listeners)
+				listener.valueChanged(this);
+		}
+
+		void fail(Exception exception) {
+			for (IPVListener listener : listeners)
+				listener.exceptionOccurred(this, exception);
+		}
+
+		@Override
+		public void addListener(IPVListener listener) { listeners.add(listener); }
+		@Override
+		public List<VType> getAllBufferedValues() { return null; }
+		@Override
+		public String getName() { return name; }
+		@Override
+		public VType getValue() { return value; }
+		@Override
+		public boolean isBufferingValues() { return false; }
+		@Override
+		public boolean isConnected() { return started; }
+		@Override
+		public boolean isPaused() { return paused; }
+		@Override
+		public boolean isStarted() { return started; }
+		@Override
+		public boolean isWriteAllowed() { return false; }
+		@Override
+		public void removeListener(IPVListener listener) { listeners.remove(listener); }
+		@Override
+		public void setPaused(boolean paused) { this.paused = paused; }
+		@Override
+		public void setValue(Object value) throws Exception {}
+		@Override
+		public boolean setValue(Object value, int timeout) throws Exception { return false; }
+		@Override
+		public void start() throws Exception {
+			started = true;
+			for (IPVListener listener : listeners)
+				listener.connectionChanged(this);
+		}
+		@Override
+		public void stop() { started = false; }
+	}
+
+	private static class DummyFactory extends AbstractPVFactory {
+		final List<DummyPV> created = new ArrayList<>();
+
+		@Override
+		public IPV createPV(String name, boolean readOnly, long minUpdatePeriodInMs,
+				boolean bufferAllValues, Executor notificationThread,
+				ExceptionHandler exceptionHandler) throws Exception {
+			final DummyPV pv = new DummyPV(name);
+			created.add(pv);
+			return pv;
+		}
+	}
+
+	private static class CountingListener extends IPVListener.Stub {
+		int connections = 0, values = 0, exceptions = 0;
+		IPV last = null;
+
+		@Override
+		public void connectionChanged(IPV pv) {
+			++connections;
+		}
+
+		@Override
+		public void valueChanged(IPV pv) {
+			++values;
+			last = pv;
+		}
+
+		@Override
+		public void exceptionOccurred(IPV pv, Exception exception) {
+			++exceptions;
+		}
+	}
+
+	private final DummyFactory factory = new DummyFactory();
+
+	private IPV createShared(String name, ExceptionHandler handler) {
+		return factory.createSharedPV(name, true, 100, false, DIRECT, handler);
+	}
+
+	@Test
+	public void testSharing() throws Exception {
+		final IPV a = createShared("x", null), b = createShared("x", null), c = createShared("y", null);
+		final CountingListener la = new CountingListener(), lb = new CountingListener();
+		a.addListener(la);
+		b.addListener(lb);
+		assertFalse(a.isStarted());
+		assertEquals(0, factory.getSharedPVCount());
+
+		a.start();
+		b.start();
+		c.start();
+		assertEquals(2, factory.created.size());
+		assertEquals(2, factory.getSharedPVCount());
+		assertEquals(3, factory.getSharedPVReferenceCount());
+
+		// Later shared PV is informed about the existing connection
+		assertEquals(1, la.connections);
+		assertEquals(1, lb.connections);
+
+		// Updates fan out, reported for each shared PV
+		final DummyPV x = factory.created.get(0);
+		x.update();
+		assertEquals(1, la.values);
+		assertSame(a, la.last);
+		assertSame(b, lb.last);
+
+		// Paused PV skips updates, underlying PV only paused when all are
+		a.setPaused(true);
+		assertFalse(x.isPaused());
+		x.update();
+		assertEquals(1, la.values);
+		assertEquals(3, lb.values);
+		b.setPaused(true);
+		assertTrue(x.isPaused());
+		b.setPaused(false);
+		assertFalse(x.isPaused());
+
+		// Underlying PV stopped with the last shared PV
+		a.stop();
+		assertTrue(x.isStarted());
+		b.stop();
+		assertFalse(x.isStarted());
+		assertNull(b.getValue());
+		assertEquals(1, factory.getSharedPVCount());
+		c.stop();
+		assertEquals(0, factory.getSharedPVCount());
+		assertEquals(0, factory.getSharedPVReferenceCount());
+
+		// Restart creates a new underlying PV
+		a.start();
+		assertEquals(3, factory.created.size());
+		a.stop();
+	}
+
+	@Test
+	public void testPausedValue() throws Exception {
+		final IPV a = createShared("x", null), b = createShared("x", null);
+		a.start();
+		b.start();
+		final DummyPV x = factory.created.get(0);
+		final VType first = ValueFactory.newVDouble(1.0), second = ValueFactory.newVDouble(2.0);
+		x.value = first;
+		assertSame(first, a.getValue());
+
+		// Paused PV keeps the value from the time it was paused,
+		// while the other shared PV keeps the underlying PV running
+		a.setPaused(true);
+		x.value = second;
+		x.update();
+		assertFalse(x.isPaused());
+		assertSame(first, a.getValue());
+		assertSame(second, b.getValue());
+
+		// Resumed PV reports the current value
+		a.setPaused(false);
+		assertSame(second, a.getValue());
+		a.stop();
+		b.stop();
+	}
+
+	@Test
+	public void testExceptionHandler() throws Exception {
+		final List<Exception> handled = new ArrayList<>();
+		final IPV a = createShared("x", new ExceptionHandler() {
+			@Override
+			public void handleException(Exception exception) {
+				handled.add(exception);
+			}
+		});
+		final IPV b = createShared("x", null);
+		final CountingListener la = new CountingListener(), lb = new CountingListener();
+		a.addListener(la);
+		b.addListener(lb);
+		a.start();
+		b.start();
+		factory.created.get(0).fail(new Exception("Test"));
+		assertEquals(1, handled.size());
+		assertEquals(0, la.exceptions);
+		assertEquals(1, lb.exceptions);
+		a.stop();
+		b.stop();
+	}
+}
@@ -24,6 +24,11 @@ public abstract class AbstractPVFactory {
 	 */
 	static ExecutorService SIMPLE_PV_THREAD = null;
 	
+	/**
+	 * The underlying PVs of the shared PVs created by this factory.
+	 */
+	private final SharedPVPool sharedPVs = new SharedPVPool(this);
+	
 	/**Create a PV.
 	 * @param name name of the PV. Must not be null.
 	 * @param readOnly true if the client doesn't need to write to the PV.
@@ -62,6 +67,57 @@ public abstract class AbstractPVFactory {
 				false, SIMPLE_PV_THREAD, null);
 	}
 	
+	/**Create a shared PV. Shared PVs with the same name, read only flag, update period,
+	 * buffering and notification thread use one underlying PV created by
+	 * {@link #createPV(String, boolean, long, boolean, Executor, ExceptionHandler)}.
+	 * The underlying PV is started when the first of them is started and stopped
+	 * when the last of them is stopped. Each shared PV has its own listeners,
+	 * paused state and exception handler. Write results are reported to the listeners
+	 * of all shared PVs that use the same underlying PV.
+	 * @param name name of the PV. Must not be null.
+	 * @param readOnly true if the client doesn't need to write to the PV.
+	 * @param minUpdatePeriodInMs the minimum update period in milliseconds, 
+	 * which means the PV change event notification will not be faster than this period.
+	 * @param bufferAllValues if all value on the PV should be buffered during two updates.
+	 * @param notificationThread the thread on which the read and write listener will be notified. Must not be null.
+	 * @param exceptionHandler the handler to handle all exceptions happened in pv connection layer. 
+	 * If this is null, pv read listener or pv write listener will be notified on read or write exceptions respectively.
+	 * 
+	 * @return the PV.
+	 */
+	public IPV createSharedPV(final String name,
+			final boolean readOnly, final long minUpdatePeriodInMs,
+			final boolean bufferAllValues,
+			final Executor notificationThread,
+			final ExceptionHandler exceptionHandler){
+		return new SharedPV(sharedPVs, name, readOnly, minUpdatePeriodInMs,
+				bufferAllValues, notificationThread, exceptionHandler);
+	}
+	
+	/**
+	 * @return number of underlying PVs used by the started shared PVs of this factory.
+	 */
+	public int getSharedPVCount(){
+		return sharedPVs.getPVCount();
+	}
+	
+	/**
+	 * @return number of started shared PVs of this factory.
+	 */
+	public int getSharedPVReferenceCount(){
+		return sharedPVs.getReferenceCount();
+	}
+	
+	/**
+	 * @return Human-readable statistics of the shared PVs of this factory.
+	 */
+	public String getSharingStatistics(){
+		return sharedPVs.getReferenceCount() + " shared PVs use " + //$NON-NLS-1$
+				sharedPVs.getPVCount() + " PVs, " + //$NON-NLS-1$
+				sharedPVs.getReuseCount() + " of " + sharedPVs.getAcquisitionCount() + //$NON-NLS-1$
+				" starts reused a running PV"; //$NON-NLS-1$
+	}
+	
 	public static synchronized ExecutorService getDefaultPVNotificationThread() {
 		if (SIMPLE_PV_THREAD == null)
 			SIMPLE_PV_THREAD = Executors.newSingleThreadExecutor();
@@ -17,6 +17,7 @@ import org.eclipse.core.runtime.preferences.IPreferencesService;
 public class PreferenceHelper {
 	
 	final public static String DEFAULT_PVFACTORY="default_pvfactory"; //$NON-NLS-1$
+	final public static String SHARE_PVS="share_pvs"; //$NON-NLS-1$
 	
 	
 	 /** @param preferenceName Preference identifier
@@ -31,5 +32,13 @@ public class PreferenceHelper {
     public static String getDefaultPVFactoryID(){
     	return getString(DEFAULT_PVFACTORY);
     }
+    
+    /** @return <code>true</code> if clients should use
+     *  {@link AbstractPVFactory#createSharedPV(String, boolean, long, boolean, java.util.concurrent.Executor, ExceptionHandler)}
+     */
+    public static boolean isPVSharingEnabled(){
+        final IPreferencesService service = Platform.getPreferencesService();
+        return service.getBoolean(SimplePVPlugin.PLUGIN_ID, SHARE_PVS, true, null);
+    }
 
 }
@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+
+package org.csstudio.simplepv;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+
+import org.epics.vtype.VType;
+
+/**
+ * An {@link IPV} that shares its underlying PV with all other started
+ * shared PVs of the same factory that have the same name and parameters.
+ * It has its own listeners, paused state and exception handler.
+ * While paused, it reports the value that the underlying PV had when it was paused,
+ * even if other shared PVs keep the underlying PV running.
+ * <p>
+ * <b>Note:</b> Write results are reported to the listeners of all shared PVs
+ * that use the same underlying PV.
+ * </p>
+ * @author agent
+ */
+class SharedPV implements IPV {
+
+	private final SharedPVPool pool;
+	private final String name;
+	private final boolean readOnly;
+	private final long minUpdatePeriod;
+	private final boolean bufferAllValues;
+	private final Executor notificationThread;
+	private final ExceptionHandler exceptionHandler;
+	private final List<IPVListener> listeners = new CopyOnWriteArrayList<IPVListener>();
+	private volatile SharedPVPool.Entry entry;
+	private volatile boolean paused = false;
+	/** Values of the underlying PV when this PV was paused. */
+	private volatile VType pausedValue = null;
+	private volatile List<VType> pausedBufferedValues = null;
+
+	SharedPV(final SharedPVPool pool, final String name, final boolean readOnly,
+			final long minUpdatePeriodInMs, final boolean bufferAllValues,
+			final Executor notificationThread, final ExceptionHandler exceptionHandler) {
+		this.pool = pool;
+		this.name = name;
+		this.readOnly = readOnly;
+		this.minUpdatePeriod = minUpdatePeriodInMs;
+		this.bufferAllValues = bufferAllValues;
+		this.notificationThread = notificationThread;
+		this.exceptionHandler = exceptionHandler;
+	}
+
+	boolean isReadOnly() {
+		return readOnly;
+	}
+
+	long getMinUpdatePeriod() {
+		return minUpdatePeriod;
+	}
+
+	Executor getNotificationThread() {
+		return notificationThread;
+	}
+
+	ExceptionHandler getExceptionHandler() {
+		return exceptionHandler;
+	}
+
+	/** @param entry the underlying PV, set by the pool before events are dispatched to this PV. */
+	void setEntry(final SharedPVPool.Entry entry) {
+		this.entry = entry;
+	}
+
+	/** @return the underlying PV, or <code>null</code> if not started. */
+	private IPV getPV() {
+		final SharedPVPool.Entry current = entry;
+		return current == null ? null : current.pv;
+	}
+
+	public void addListener(final IPVListener listener) {
+		listeners.add(listener);
+		final IPV pv = getPV();
+		if (pv != null && pv.isConnected() && !paused) {
+			// give an update on current value in notification thread.
+			notificationThread.execute(new Runnable() {
+				public void run() {
+					listener.connectionChanged(SharedPV.this);
+					listener.valueChanged(SharedPV.this);
+				}
+			});
+		}
+		if (pv != null && pv.isWriteAllowed()) {
+			notificationThread.execute(new Runnable() {
+				public void run() {
+					listener.writePermissionChanged(SharedPV.this);
+				}
+			});
+		}
+	}
+
+	public List<VType> getAllBufferedValues() {
+		if (paused)
+			return pausedBufferedValues;
+		final IPV pv = getPV();
+		return pv == null ? null : pv.getAllBufferedValues();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public VType getValue() {
+		if (paused)
+			return pausedValue;
+		final IPV pv = getPV();
+		return pv == null ? null : pv.getValue();
+	}
+
+	public boolean isBufferingValues() {
+		return bufferAllValues;
+	}
+
+	public boolean isConnected() {
+		final IPV pv = getPV();
+		return pv != null && pv.isConnected();
+	}
+
+	public boolean isPaused() {
+		return entry != null && paused;
+	}
+
+	public boolean isStarted() {
+		return entry != null;
+	}
+
+	public boolean isWriteAllowed() {
+		final IPV pv = getPV();
+		return pv != null && pv.isWriteAllowed();
+	}
+
+	public void removeListener(final IPVListener listener) {
+		listeners.remove(listener);
+	}
+
+	public void setPaused(final boolean paused) {
+		if (this.paused == paused)
+			return;
+		final IPV pv = getPV();
+		if (paused && pv != null) {
+			pausedValue = pv.getValue();
+			pausedBufferedValues = pv.getAllBufferedValues();
+		} else {
+			pausedValue = null;
+			pausedBufferedValues = null;
+		}
+		this.paused = paused;
+		final SharedPVPool.Entry current = entry;
+		if (current != null) {
+			pool.updatePaused(current);
+			if (!paused)
+				fireCurrentState();
+		}
+	}
+
+	public void setValue(final Object value) throws Exception {
+		final IPV pv = getPV();
+		if (pv == null)
+			throw new Exception("The PV " + name + " is not started yet or has been closed."); //$NON-NLS-1$ //$NON-NLS-2$
+		pv.setValue(value);
+	}
+
+	public boolean setValue(final Object value, final int timeout) throws Exception {
+		IPV pv = getPV();
+		if (pv == null)
+			pv = pool.createUnsharedPV(this);
+		return pv.setValue(value, timeout);
+	}
+
+	public synchronized void start() throws Exception {
+		if (entry != null)
+			throw new IllegalStateException("PV " + name + " has already been started."); //$NON-NLS-1$ //$NON-NLS-2$
+		pool.acquire(this);
+	}
+
+	public synchronized void stop() {
+		if (entry == null) {
+			Logger.getLogger(SimplePVPlugin.PLUGIN_ID).warning(
+					"PV " + name + " has already been stopped or was not started yet."); //$NON-NLS-1$ //$NON-NLS-2$
+			return;
+		}
+		final SharedPVPool.Entry current = entry;
+		entry = null;
+		pool.release(current, this);
+	}
+
+	/** Notify the listeners of the current state in the notification thread,
+	 *  since they missed the events of the already connected underlying PV.
+	 */
+	void fireCurrentState() {
+		notificationThread.execute(new Runnable() {
+			public void run() {
+				fireConnectionChanged();
+				fireValueChanged();
+				if (isWriteAllowed())
+					fireWritePermissionChanged();
+			}
+		});
+	}
+
+	void fireConnectionChanged() {
+		for (IPVListener listener : listeners)
+			listener.connectionChanged(this);
+	}
+
+	void fireExceptionOccurred(final Exception exception) {
+		if (exceptionHandler != null) {
+			exceptionHandler.handleException(exception);
+			return;
+		}
+		for (IPVListener listener : listeners)
+			listener.exceptionOccurred(this, exception);
+	}
+
+	void fireValueChanged() {
+		if (paused)
+			return;
+		for (IPVListener listener : listeners)
+			listener.valueChanged(this);
+	}
+
+	void fireWriteFinished(final boolean isWriteSucceeded) {
+		for (IPVListener listener : listeners)
+			listener.writeFinished(this, isWriteSucceeded);
+	}
+
+	void fireWritePermissionChanged() {
+		for (IPVListener listener : listeners)
+			listener.writePermissionChanged(this);
+	}
+
+	@Override
+	public String toString() {
+		return "Shared PV " + name; //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Oak Ridge National Laboratory.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ ******************************************************************************/
+
+package org.csstudio.simplepv;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pool of PVs that are shared by the {@link SharedPV}s of an {@link AbstractPVFactory}.
+ * All started {@link SharedPV}s with the same name, update period, buffering,
+ * read-only flag and notification thread use one underlying PV, which is
+ * started by the first and stopped by the last of them.
+ * @author agent
+ */
+class SharedPVPool {
+
+	/**
+	 * An underlying PV with the shared PVs that use it.
+	 */
+	class Entry implements IPVListener {
+		final List<Object> key;
+		final IPV pv;
+		final List<SharedPV> references = new CopyOnWriteArrayList<SharedPV>();
+
+		Entry(final List<Object> key, final IPV pv) {
+			this.key = key;
+			this.pv = pv;
+		}
+
+		/**Pause the underlying PV only if all shared PVs are paused.*/
+		void updatePaused() {
+			boolean paused = !references.isEmpty();
+			for (SharedPV shared : references)
+				paused &= shared.isPaused();
+			if (paused != pv.isPaused())
+				pv.setPaused(paused);
+		}
+
+		public void connectionChanged(IPV pv) {
+			for (SharedPV shared : references)
+				shared.fireConnectionChanged();
+		}
+
+		public void exceptionOccurred(IPV pv, Exception exception) {
+			for (SharedPV shared : references)
+				shared.fireExceptionOccurred(exception);
+		}
+
+		public void valueChanged(IPV pv) {
+			for (SharedPV shared : references)
+				shared.fireValueChanged();
+		}
+
+		public void writeFinished(IPV pv, boolean isWriteSucceeded) {
+			for (SharedPV shared : references)
+				shared.fireWriteFinished(isWriteSucceeded);
+		}
+
+		public void writePermissionChanged(IPV pv) {
+			for (SharedPV shared : references)
+				shared.fireWritePermissionChanged();
+		}
+	}
+
+	private final AbstractPVFactory factory;
+
+	private final Map<List<Object>, Entry> entries = new HashMap<List<Object>, Entry>();
+
+	private int references = 0;
+
+	private long acquisitions = 0, reuses = 0;
+
+	SharedPVPool(final AbstractPVFactory factory) {
+		this.factory = factory;
+	}
+
+	/**Get the underlying PV for a shared PV, creating and starting it if needed.
+	 * Every call must be balanced by a call to {@link #release(Entry, SharedPV)}.
+	 * @param shared the shared PV that is started.
+	 * @return the entry of the underlying PV, which is also set on the shared PV.
+	 * @throws Exception on error creating or starting the PV.
+	 */
+	synchronized Entry acquire(final SharedPV shared) throws Exception {
+		final List<Object> key = Arrays.<Object>asList(shared.getName(), shared.isReadOnly(),
+				shared.getMinUpdatePeriod(), shared.isBufferingValues(), shared.getNotificationThread());
+		++acquisitions;
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			// Exceptions are dispatched to the handler of each shared PV
+			final IPV pv = factory.createPV(shared.getName(), shared.isReadOnly(),
+					shared.getMinUpdatePeriod(), shared.isBufferingValues(),
+					shared.getNotificationThread(), null);
+			entry = new Entry(key, pv);
+			pv.addListener(entry);
+			shared.setEntry(entry);
+			entry.references.add(shared);
+			try {
+				pv.start();
+			} catch (Exception e) {
+				shared.setEntry(null);
+				throw e;
+			}
+			entries.put(key, entry);
+		} else {
+			++reuses;
+			shared.setEntry(entry);
+			entry.references.add(shared);
+			entry.updatePaused();
+			if (entry.pv.isConnected())
+				shared.fireCurrentState();
+		}
+		++references;
+		return entry;
+	}
+
+	/**Create a PV that is not shared, for a shared PV that is not started.
+	 * @param shared the shared PV.
+	 * @return a new PV with the same parameters.
+	 * @throws Exception on error creating the PV.
+	 */
+	IPV createUnsharedPV(final SharedPV shared) throws Exception {
+		return factory.createPV(shared.getName(), shared.isReadOnly(),
+				shared.getMinUpdatePeriod(), shared.isBufferingValues(),
+				shared.getNotificationThread(), shared.getExceptionHandler());
+	}
+
+	/**Release the underlying PV of a shared PV. It is stopped when it is no longer used.
+	 * @param entry the entry obtained from {@link #acquire(SharedPV)}.
+	 * @param shared the shared PV that is stopped.
+	 */
+	synchronized void release(final Entry entry, final SharedPV shared) {
+		if (!entry.references.remove(shared))
+			return;
+		--references;
+		if (entry.references.isEmpty()) {
+			entries.remove(entry.key);
+			entry.pv.removeListener(entry);
+			entry.pv.stop();
+		} else
+			entry.updatePaused();
+	}
+
+	/**Update the paused state of an underlying PV after a shared PV was paused or resumed.
+	 * @param entry the entry of the underlying PV.
+	 */
+	synchronized void updatePaused(final Entry entry) {
+		entry.updatePaused();
+	}
+
+	/** @return number of underlying PVs. */
+	synchronized int getPVCount() {
+		return entries.size();
+	}
+
+	/** @return number of started shared PVs. */
+	synchronized int getReferenceCount() {
+		return references;
+	}
+
+	/** @return number of times a shared PV was started. */
+	synchronized long getAcquisitionCount() {
+		return acquisitions;
+	}
+
+	/** @return number of times a shared PV was started using an existing underlying PV. */
+	synchronized long getReuseCount() {
+		return reuses;
+	}
+}